@@ -0,0 +1,114 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.jms.Destination;
+import javax.jms.JMSContext;
+import javax.jms.JMSProducer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Messages per second through a ConsumerGroup with one consumer on each of
+ * 1, 100 or 1,000 queues, run on platform or virtual threads. Each operation
+ * sends a message to the next queue in turn, and the invocation ends when
+ * every message sent has been handled.
+ *
+ * Virtual threads need Java 21 or later, on older Java the VIRTUAL runs
+ * fall back to platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsumerThreadsBenchmark {
+    private static final int MESSAGES = 1000;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadMode mode;
+
+    @Param({"1", "100", "1000"})
+    public int consumers;
+
+    private ConsumerGroup group;
+    private JMSContext context;
+    private JMSProducer producer;
+    private Destination[] queues;
+
+    private final AtomicLong handled = new AtomicLong();
+    private volatile long target;
+    private volatile Thread waiter;
+
+    @Setup
+    public void setup() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        group = new ConsumerGroup(standIn::createContext, mode);
+        for (int i = 0; i < consumers; i++) {
+            group.queue("DEV.QUEUE." + i, m -> {
+                if (handled.incrementAndGet() == target) {
+                    LockSupport.unpark(waiter);
+                }
+            });
+        }
+        group.start();
+
+        context = standIn.createContext();
+        producer = context.createProducer();
+        queues = new Destination[consumers];
+        for (int i = 0; i < consumers; i++) {
+            queues[i] = context.createQueue("queue:///DEV.QUEUE." + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        group.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long sendAndConsume() {
+        waiter = Thread.currentThread();
+        target = handled.get() + MESSAGES;
+        for (int i = 0; i < MESSAGES; i++) {
+            producer.send(queues[i % consumers], "message");
+        }
+        while (handled.get() < target) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return handled.get();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Correlation id generation and the JMSCorrelationID selector built from
+ * it. The uuid benchmarks are the original scheme, a formatted random
+ * UUID and a hex string built by concatenation, as a baseline for the
+ * CorrelationIdGenerator that the samples now use.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorrelationIdBenchmark {
+
+    private final CorrelationIdGenerator ids = CorrelationIdGenerator.getInstance();
+    private final byte[] buffer = new byte[CorrelationIdGenerator.LENGTH];
+    private byte[] correlationID;
+    private long sequence;
+    private String replyID;
+
+    @Setup
+    public void setup() {
+        correlationID = newCorrelationID();
+        sequence = ids.nextSequence();
+        replyID = ids.toJMSCorrelationID(sequence);
+    }
+
+    @Benchmark
+    public byte[] uuidGenerate() {
+        return newCorrelationID();
+    }
+
+    @Benchmark
+    public String uuidHexString() {
+        return oldHexString(correlationID);
+    }
+
+    @Benchmark
+    public String uuidGenerateAndSelector() {
+        return "JMSCorrelationID='ID:" + oldHexString(newCorrelationID()) + "'";
+    }
+
+    @Benchmark
+    public byte[] generate() {
+        return ids.next();
+    }
+
+    // Into a reused buffer, so nothing is allocated
+    @Benchmark
+    public byte[] generateIntoBuffer() {
+        ids.toBytes(ids.nextSequence(), buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public String hexString() {
+        return ids.toHex(sequence);
+    }
+
+    // The same bytes as uuidHexString, through JmsRequest
+    @Benchmark
+    public String getHexString() {
+        return JmsRequest.getHexString(correlationID);
+    }
+
+    @Benchmark
+    public String generateAndSelector() {
+        return ids.selector(ids.nextSequence());
+    }
+
+    // Matching a reply's correlation id to its request
+    @Benchmark
+    public long sequenceOfReply() {
+        return ids.sequenceOf(replyID);
+    }
+
+    private static byte[] newCorrelationID() {
+        return String.format("%24.24s", UUID.randomUUID().toString()).getBytes();
+    }
+
+    // How JmsRequest.getHexString used to build the string
+    private static String oldHexString(byte[] b) {
+        String result = "";
+        for (int i = 0; i < b.length; i++) {
+            result += Integer.toString((b[i] & 0xff) + 0x100, 16).substring(1);
+        }
+        return result;
+    }
+}
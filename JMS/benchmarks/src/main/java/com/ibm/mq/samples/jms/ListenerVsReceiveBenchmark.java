@@ -0,0 +1,159 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.jms.Destination;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.Message;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Messages per second from one queue, consumed either by receive loops in
+ * a ConsumerGroup or by an AsyncConsumer's listener and workers, with the
+ * same number of threads handling messages in each. Each operation sends
+ * a batch of messages as fast as it can and ends when every message has
+ * been handled.
+ *
+ * JMH reports the throughput. The latency from send to handler, as p50
+ * and p99, and the process CPU time per message, over the whole trial, are
+ * printed at the end of it, as JMH has no way of reporting them itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListenerVsReceiveBenchmark {
+    private static final int MESSAGES = 1000;
+    private static final String QUEUE = "DEV.QUEUE.1";
+    private static final String SENT_AT = "sentAt";
+
+    public enum Consumption { RECEIVE, LISTENER }
+
+    @Param({"RECEIVE", "LISTENER"})
+    public Consumption consumption;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private ConsumerGroup group;
+    private AsyncConsumer listener;
+    private JMSContext context;
+    private JMSProducer producer;
+    private Destination queue;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong handled = new AtomicLong();
+    private volatile long target;
+    private volatile Thread waiter;
+    private long startCpu;
+
+    @Setup
+    public void setup() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        if (Consumption.RECEIVE == consumption) {
+            group = new ConsumerGroup(standIn::createContext, ThreadMode.PLATFORM)
+                            .consumersPerDestination(threads)
+                            .queue(QUEUE, this::handle)
+                            .start();
+        } else {
+            listener = new AsyncConsumer(standIn::createContext,
+                                         c -> c.createConsumer(c.createQueue("queue:///" + QUEUE)))
+                            .workers(threads)
+                            .start(this::handle);
+        }
+
+        context = standIn.createContext();
+        producer = context.createProducer();
+        queue = context.createQueue("queue:///" + QUEUE);
+        startCpu = processCpuNanos();
+    }
+
+    @TearDown
+    public void tearDown() {
+        long cpu = processCpuNanos() - startCpu;
+        if (null != group) {
+            group.close();
+        } else {
+            listener.stop();
+        }
+        context.close();
+
+        System.out.println();
+        System.out.println(consumption + " with " + threads + " threads, latency "
+                            + latency.summary(TimeUnit.MICROSECONDS));
+        if (0 <= startCpu && 0 < handled.get()) {
+            System.out.printf("%s with %d threads, %.2f cpu microseconds per message%n",
+                              consumption, threads, cpu / 1e3 / handled.get());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long sendAndConsume() {
+        waiter = Thread.currentThread();
+        target = handled.get() + MESSAGES;
+        for (int i = 0; i < MESSAGES; i++) {
+            producer.setProperty(SENT_AT, System.nanoTime()).send(queue, "message");
+        }
+        while (handled.get() < target) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return handled.get();
+    }
+
+    private void handle(Message message) {
+        try {
+            latency.record(System.nanoTime() - message.getLongProperty(SENT_AT));
+        } catch (JMSException e) {
+            throw new IllegalStateException(e);
+        }
+        if (handled.incrementAndGet() == target) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    // -1 when the JVM does not report process CPU time
+    private static long processCpuNanos() {
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+}
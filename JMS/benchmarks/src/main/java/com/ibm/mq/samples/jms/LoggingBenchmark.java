@@ -0,0 +1,126 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+import javax.jms.Destination;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.TextMessage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Messages per second through a send and receive in the in-memory
+ * stand-in, logging each message received as the samples do, with
+ *
+ *   off     - the log level above INFO
+ *   sync    - every message formatted and written on the receiving thread
+ *   async   - every message handed to an AsyncLogHandler
+ *   sampled - 1 in 100 messages written on the receiving thread
+ *
+ * The log is written to a stream that discards it, so that this measures
+ * the cost of building and formatting the log, not of the console.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final int SAMPLE_RATE = 100;
+
+    @Param({"off", "sync", "async", "sampled"})
+    public String logging;
+
+    private final SampleLogger log = SampleLogger.getLogger(LoggingBenchmark.class);
+    private Handler handler;
+    private JMSContext context;
+    private Destination queue;
+    private JMSProducer producer;
+    private JMSConsumer consumer;
+    private String payload;
+
+    @Setup
+    public void setup() {
+        handler = new StreamHandler(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }, new SimpleFormatter());
+        if ("async".equals(logging)) {
+            handler = new AsyncLogHandler(handler, 8192);
+        }
+        Logger logger = log.getLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+        logger.setLevel("off".equals(logging) ? Level.WARNING : Level.INFO);
+        LoggingHelper.setSampleRate("sampled".equals(logging) ? SAMPLE_RATE : 1);
+
+        context = new InMemoryJmsStandIn().createContext();
+        queue = context.createQueue("queue:///DEV.QUEUE.1");
+        producer = context.createProducer();
+        consumer = context.createConsumer(queue);
+        char[] c = new char[100];
+        Arrays.fill(c, 'x');
+        payload = new String(c);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        log.getLogger().removeHandler(handler);
+        handler.close();
+        LoggingHelper.setSampleRate(1);
+    }
+
+    @Benchmark
+    public TextMessage sendReceiveAndLog() throws JMSException {
+        producer.send(queue, payload);
+        TextMessage message = (TextMessage) consumer.receiveNoWait();
+        if (log.sample(Level.INFO)) {
+            log.log(Level.INFO, "Received message: {0}", message.getText());
+        }
+        return message;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Creating a message of each body type, with a sample property set,
+ * from a context of the in-memory stand-in.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCreationBenchmark {
+
+    @Param({"TEXT", "BYTES", "OBJECT", "MESSAGE"})
+    public String bodyType;
+
+    @Param({"100", "10240"})
+    public int payloadSize;
+
+    private JMSContext context;
+    private String text;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        context = new InMemoryJmsStandIn().createContext();
+        char[] c = new char[payloadSize];
+        Arrays.fill(c, 'x');
+        text = new String(c);
+        bytes = text.getBytes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Message create() throws JMSException {
+        Message message;
+        switch (bodyType) {
+            case "TEXT":
+                message = context.createTextMessage(text);
+                break;
+            case "BYTES":
+                BytesMessage bytesMessage = context.createBytesMessage();
+                bytesMessage.writeBytes(bytes);
+                message = bytesMessage;
+                break;
+            case "OBJECT":
+                message = context.createObjectMessage(text);
+                break;
+            default:
+                message = context.createMessage();
+        }
+        message.setStringProperty("SampleProperty", "value");
+        return message;
+    }
+}
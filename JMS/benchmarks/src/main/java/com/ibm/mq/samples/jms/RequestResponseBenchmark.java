@@ -0,0 +1,112 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Encoding and decoding of the request / response JSON. The orgJson
+ * benchmarks build the messages with org.json, as RequestResponseHelper
+ * did before the streaming codec, to give a baseline. Run with -prof gc
+ * to compare the allocations per message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestResponseBenchmark {
+
+    @Param({"DEFAULT", "REWARDS"})
+    public String mode;
+
+    private String request;
+    private RequestResponseCodec codec;
+    private StringBuilder buffer;
+
+    @Setup
+    public void setup() {
+        request = RequestResponseHelper.buildStringForRequest(mode, 42);
+        codec = new RequestResponseCodec();
+        buffer = new StringBuilder(128);
+    }
+
+    @Benchmark
+    public String buildRequest() {
+        return RequestResponseHelper.buildStringForRequest(mode, 42);
+    }
+
+    @Benchmark
+    public String buildResponse() {
+        return RequestResponseHelper.buildStringForResponse(request);
+    }
+
+    // Writing into a reused buffer, as a caller that sends bytes would
+    @Benchmark
+    public int writeResponseToBuffer() {
+        buffer.setLength(0);
+        codec.writeResponse(request, buffer);
+        return buffer.length();
+    }
+
+    @Benchmark
+    public String buildRequestOrgJson() {
+        JSONObject obj = new JSONObject();
+        if ("REWARDS".equals(mode)) {
+            obj.put("requestmode", "REWARDS");
+            obj.put("customerID", UUID.randomUUID().toString());
+            obj.put("award", Long.valueOf(42));
+        } else {
+            obj.put("requestmode", "DEFAULT");
+            obj.put("message", "The number is:");
+            obj.put("value", Long.valueOf(42));
+        }
+        return obj.toString();
+    }
+
+    @Benchmark
+    public String buildResponseOrgJson() {
+        JSONObject objRequest = new JSONObject(request);
+        JSONObject obj = new JSONObject();
+        if ("REWARDS".equals(objRequest.getString("requestmode"))) {
+            obj.put("message", "Awards successfully deposited in customer account");
+            obj.put("customerID", objRequest.getString("customerID"));
+            obj.put("credit", objRequest.getLong("award"));
+        } else {
+            long n = objRequest.getLong("value");
+            obj.put("message", "The number is:");
+            obj.put("value", Long.valueOf(n * n));
+        }
+        return obj.toString();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.*;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Reading settings through SampleEnvSetter, from an env.json with two
+ * endpoints written to a temporary file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SampleEnvSetterBenchmark {
+    private static final String ENDPOINT = "{\"HOST\":\"%s\",\"PORT\":\"%d\",\"CHANNEL\":\"DEV.APP.SVRCONN\","
+                                            + "\"QMGR\":\"QM%d\",\"APP_USER\":\"app\",\"APP_PASSWORD\":\"passw0rd\","
+                                            + "\"QUEUE_NAME\":\"DEV.QUEUE.1\",\"BINDINGS\":\"false\"}";
+
+    private File envFile;
+    private SampleEnvSetter env;
+
+    @Setup
+    public void setup() throws IOException {
+        // Otherwise the construction benchmark is dominated by logging
+        Logger.getLogger("com.ibm.mq.samples.jms").setLevel(Level.WARNING);
+
+        envFile = File.createTempFile("env", ".json");
+        String json = "{\"MQ_ENDPOINTS\":[" + String.format(ENDPOINT, "127.0.0.1", 1414, 1) + ","
+                          + String.format(ENDPOINT, "127.0.0.2", 1415, 2) + "]}";
+        Files.write(envFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        System.setProperty(SampleEnvSetter.ENV_FILE, envFile.getAbsolutePath());
+        env = new SampleEnvSetter();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty(SampleEnvSetter.ENV_FILE);
+        envFile.delete();
+    }
+
+    @Benchmark
+    public SampleEnvSetter construct() {
+        return new SampleEnvSetter();
+    }
+
+    @Benchmark
+    public String getEnvValue() {
+        return env.getEnvValue("QMGR", 1);
+    }
+
+    @Benchmark
+    public Boolean getEnvBooleanValue() {
+        return env.getEnvBooleanValue("BINDINGS", 0);
+    }
+
+    @Benchmark
+    public String getConnectionString() {
+        return env.getConnectionString();
+    }
+
+    @Benchmark
+    public String getCheckForCCDT() {
+        return env.getCheckForCCDT();
+    }
+}
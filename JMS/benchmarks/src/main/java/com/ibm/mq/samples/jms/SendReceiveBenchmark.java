@@ -0,0 +1,95 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Destination;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSProducer;
+import javax.jms.Message;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * A send followed by a receive through the in-memory stand-in, with and
+ * without a transaction. This measures the client side cost of the JMS
+ * calls the samples make, not the queue manager.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendReceiveBenchmark {
+
+    @Param({"false", "true"})
+    public boolean transacted;
+
+    @Param({"100", "10240"})
+    public int payloadSize;
+
+    private JMSContext context;
+    private Destination queue;
+    private JMSProducer producer;
+    private JMSConsumer consumer;
+    private String payload;
+
+    @Setup
+    public void setup() {
+        context = new InMemoryJmsStandIn().createContext(transacted ? JMSContext.SESSION_TRANSACTED
+                                                                    : JMSContext.AUTO_ACKNOWLEDGE);
+        queue = context.createQueue("queue:///DEV.QUEUE.1");
+        producer = context.createProducer();
+        consumer = context.createConsumer(queue);
+        char[] c = new char[payloadSize];
+        Arrays.fill(c, 'x');
+        payload = new String(c);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Message sendAndReceive() {
+        producer.send(queue, context.createTextMessage(payload));
+        if (transacted) {
+            context.commit();
+        }
+        Message message = consumer.receiveNoWait();
+        if (transacted) {
+            context.commit();
+        }
+        return message;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.logging.Logger;
+
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * N contexts that each have a connection of their own, against N contexts
+ * that share connections through a ContextMultiplexer, 10 to a connection.
+ *
+ * connectContexts is the time to create and close N contexts, from
+ * nothing. sendLoad is the number of LoadGenerator runs per second, where
+ * each run has a thread, and so a context, for each of the N and sends 100
+ * messages on each. Every run creates its contexts afresh, but the
+ * multiplexer keeps its connections from run to run, as an application
+ * would.
+ *
+ * By default the contexts come from the in-memory stand-in, which takes
+ * 1 ms to make a connection and 50 microseconds for a send, so the connect
+ * cost is an input rather than a measurement. It also does not model the
+ * contention of conversations that share a socket. With
+ * -p target=QUEUE_MANAGER the contexts are made through ConnectionHelper,
+ * from the first endpoint in env.json, and the messages go to its
+ * QUEUE_NAME, which is emptied after each sendLoad run. The queue needs a
+ * MAXDEPTH of at least 100 messages per context, and the channel enough
+ * instances for one connection per context.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedConversationBenchmark {
+    private static final String QUEUE = "DEV.QUEUE.1";
+    private static final int CONTEXTS_PER_CONNECTION = 10;
+    private static final int MESSAGES_PER_CONTEXT = 100;
+    private static final long CONNECT_MICROS = 1000;
+    private static final long SEND_MICROS = 50;
+
+    public enum Sharing { INDEPENDENT, SHARED }
+    public enum Target { STAND_IN, QUEUE_MANAGER }
+
+    @Param({"STAND_IN"})
+    public Target target;
+
+    @Param({"INDEPENDENT", "SHARED"})
+    public Sharing sharing;
+
+    @Param({"10", "100"})
+    public int contexts;
+
+    private final AtomicLong connections = new AtomicLong();
+    private InMemoryJmsStandIn standIn;
+    private ConnectionHelper helper;
+    private IntFunction<JMSContext> connector;
+    private String queue;
+    private ContextMultiplexer multiplexer;
+
+    @Setup
+    public void setup() {
+        // The load generator logs every run
+        Logger.getLogger("com.ibm.mq.samples.jms").setLevel(java.util.logging.Level.WARNING);
+        IntFunction<JMSContext> connect;
+        if (Target.QUEUE_MANAGER == target) {
+            // The helper's own context is kept to empty the queue with
+            helper = new ConnectionHelper("Shared conversation benchmark", 0);
+            connect = helper::createContext;
+            queue = new SampleEnvSetter().getEnvValue("QUEUE_NAME", 0);
+        } else {
+            standIn = new InMemoryJmsStandIn()
+                            .setSimulatedConnectTime(CONNECT_MICROS, TimeUnit.MICROSECONDS)
+                            .setSimulatedLatency(SEND_MICROS, TimeUnit.MICROSECONDS);
+            connect = standIn::createContext;
+            queue = QUEUE;
+        }
+        connector = sessionMode -> {
+            connections.incrementAndGet();
+            return connect.apply(sessionMode);
+        };
+        multiplexer = newMultiplexer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        multiplexer.close();
+        if (null != helper) {
+            helper.closeContext();
+        }
+        System.out.println();
+        System.out.println(sharing + " " + contexts + " contexts on " + target + ", " + connections.get()
+                            + " connections made in total");
+    }
+
+    // Not timed, so that the queue does not fill from run to run
+    @TearDown(Level.Invocation)
+    public void emptyQueue() {
+        if (null == helper) {
+            standIn.clear();
+            return;
+        }
+        JMSContext context = helper.getContext();
+        try (JMSConsumer consumer = context.createConsumer(context.createQueue("queue:///" + queue))) {
+            while (null != consumer.receiveNoWait()) {
+                // discard
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int connectContexts() {
+        ContextMultiplexer m = (Sharing.SHARED == sharing) ? newMultiplexer() : null;
+        List<JMSContext> created = new ArrayList<>(contexts);
+        for (int i = 0; i < contexts; i++) {
+            created.add((null == m) ? connector.apply(JMSContext.AUTO_ACKNOWLEDGE) : m.createContext());
+        }
+        for (JMSContext c : created) {
+            c.close();
+        }
+        if (null != m) {
+            m.close();
+        }
+        return created.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long sendLoad() {
+        IntFunction<JMSContext> factory = (Sharing.SHARED == sharing) ? multiplexer::createContext : connector;
+        LoadGenerator generator = new LoadGenerator(factory, queue)
+                            .threads(contexts)
+                            .messageCount((long) contexts * MESSAGES_PER_CONTEXT)
+                            .payloadSize(100);
+        if (null != helper) {
+            generator.destinationCustomiser(helper::setTargetClient);
+        }
+        return generator.run().getMessagesSent();
+    }
+
+    private ContextMultiplexer newMultiplexer() {
+        return new ContextMultiplexer(() -> connector.apply(JMSContext.AUTO_ACKNOWLEDGE))
+                        .contextsPerConnection(CONTEXTS_PER_CONNECTION);
+    }
+}
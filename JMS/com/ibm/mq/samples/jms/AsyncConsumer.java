@@ -0,0 +1,339 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.JMSConsumer;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSRuntimeException;
+// import jakarta.jms.Message;
+
+/*
+ * Consumes messages with a MessageListener rather than a receive() loop.
+ * The JMS client delivers each message to the listener, which hands it to
+ * a pool of worker threads through a bounded queue, so slow processing
+ * does not hold up delivery.
+ *
+ * When the queue fills up, delivery is paused with JMSContext.stop(),
+ * and resumed with start() once the workers have emptied half of it.
+ * A JMSContext must not be stopped or started from its own listener, so
+ * this is done on a separate flow control thread.
+ *
+ * stop() is graceful. Delivery is stopped first, the workers then finish
+ * every message already in the queue, and the consumer and context are
+ * closed once they have.
+ *
+ * Messages are acknowledged when the listener returns, which is before a
+ * worker has processed them, so messages still in the queue are lost if
+ * the application ends abruptly.
+ *
+ * The samples use this in place of their receive loop when run with
+ * -DCONSUMER_MODE=async, with -DASYNC_WORKERS and -DASYNC_QUEUE_SIZE
+ * setting the number of workers and the size of the hand off queue.
+ */
+public class AsyncConsumer {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final String CONSUMER_MODE = "CONSUMER_MODE";
+    public static final String ASYNC_WORKERS = "ASYNC_WORKERS";
+    public static final String ASYNC_QUEUE_SIZE = "ASYNC_QUEUE_SIZE";
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+    // How often an idle worker checks whether it has been asked to stop
+    private static final long POLL_INTERVAL = 100;
+
+    private final IntFunction<JMSContext> contextFactory;
+    private final Function<JMSContext, JMSConsumer> opener;
+
+    private int workers = 1;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private ThreadMode threadMode = ThreadMode.PLATFORM;
+
+    private BlockingQueue<Message> queue;
+    private JMSContext context;
+    private JMSConsumer consumer;
+    private ExecutorService workerPool;
+    private ExecutorService flowControl;
+    private Consumer<Message> handler;
+
+    private final AtomicBoolean paused = new AtomicBoolean(false);
+    private volatile boolean running = false;
+    private volatile boolean stopping = false;
+    // Only used by the flow control thread
+    private boolean deliveryStopped = false;
+    private volatile long lastDelivery = 0;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong pauses = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    // The context factory is typically the createContext(int sessionMode)
+    // method of a connection factory, the opener creates the consumer
+    public AsyncConsumer(IntFunction<JMSContext> contextFactory, Function<JMSContext, JMSConsumer> opener) {
+        this.contextFactory = contextFactory;
+        this.opener = opener;
+    }
+
+    // True when -DCONSUMER_MODE=async, the samples use a receive loop by default
+    public static boolean isSelected() {
+        return "async".equalsIgnoreCase(System.getProperty(CONSUMER_MODE, "").trim());
+    }
+
+    // Takes the workers, queue size and thread mode from system properties
+    public AsyncConsumer configureFromSystemProperties() {
+        return workers(Integer.getInteger(ASYNC_WORKERS, workers))
+                    .queueCapacity(Integer.getInteger(ASYNC_QUEUE_SIZE, queueCapacity))
+                    .threadMode(ThreadMode.fromSystemProperty());
+    }
+
+    public AsyncConsumer workers(int n) {
+        workers = Math.max(1, n);
+        return this;
+    }
+
+    // Delivery is paused when this many messages are waiting for a worker
+    public AsyncConsumer queueCapacity(int capacity) {
+        queueCapacity = Math.max(1, capacity);
+        return this;
+    }
+
+    // Platform or virtual threads for the workers, platform by default
+    public AsyncConsumer threadMode(ThreadMode mode) {
+        threadMode = mode;
+        return this;
+    }
+
+    // The handler is called on the worker threads, so must be thread safe
+    public synchronized AsyncConsumer start(Consumer<Message> handler) {
+        if (running) {
+            return this;
+        }
+        this.handler = handler;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        lastDelivery = System.nanoTime();
+        stopping = false;
+        deliveryStopped = false;
+        paused.set(false);
+        running = true;
+
+        ThreadFactory factory = threadMode.factory("AsyncConsumer-");
+        workerPool = Executors.newFixedThreadPool(workers, factory);
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+        flowControl = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "AsyncConsumer-flow-control");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            context = contextFactory.apply(JMSContext.AUTO_ACKNOWLEDGE);
+            consumer = opener.apply(context);
+            consumer.setMessageListener(this::onMessage);
+        } catch (JMSRuntimeException e) {
+            stop();
+            throw e;
+        }
+        logger.info("Listener started with " + workers + " workers and room for " + queueCapacity + " messages");
+        return this;
+    }
+
+    // Stops delivery, waits for the workers to finish the messages already
+    // queued, then closes the consumer and context
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        // No more pauses or resumes, then stop delivery for good
+        stopping = true;
+        flowControl.shutdown();
+        try {
+            flowControl.awaitTermination(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (null != context) {
+                context.stop();
+            }
+        } catch (JMSRuntimeException e) {
+            JmsExceptionHelper.recordFailure(logger, e);
+        }
+        running = false;
+        workerPool.shutdown();
+        try {
+            workerPool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (null != consumer) {
+                consumer.close();
+            }
+            if (null != context) {
+                context.close();
+            }
+        } catch (JMSRuntimeException e) {
+            JmsExceptionHelper.recordFailure(logger, e);
+        }
+        logger.info("Listener stopped");
+    }
+
+    // Waits until no message has been delivered for the timeout, and every
+    // delivered message has been processed
+    public void awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNanos = unit.toNanos(timeout);
+        while (running) {
+            long idle = System.nanoTime() - lastDelivery;
+            if (idle >= timeoutNanos && received.get() == processed.get() + failures.get()) {
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(TimeUnit.MILLISECONDS.toNanos(1), timeoutNanos - idle));
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Runs on the JMS client's delivery thread
+    private void onMessage(Message message) {
+        received.incrementAndGet();
+        lastDelivery = System.nanoTime();
+        try {
+            if (!queue.offer(message)) {
+                // Pause delivery, then wait for a worker to make room
+                // for the message that has already been delivered
+                requestPause();
+                queue.put(message);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work() {
+        while (running || !queue.isEmpty()) {
+            Message message;
+            try {
+                message = queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (paused.get() && queue.size() <= queueCapacity / 2) {
+                requestResume();
+            }
+            if (null == message) {
+                continue;
+            }
+            try {
+                handler.accept(message);
+                processed.incrementAndGet();
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                logger.warning("Message handler failed " + e);
+            }
+        }
+    }
+
+    private void requestPause() {
+        if (paused.compareAndSet(false, true)) {
+            pauses.incrementAndGet();
+            logger.fine("Hand off queue is full, pausing delivery");
+            updateDelivery();
+        }
+    }
+
+    private void requestResume() {
+        if (paused.compareAndSet(true, false)) {
+            logger.fine("Resuming delivery");
+            updateDelivery();
+        }
+    }
+
+    // A pause and a resume asked for at nearly the same time can reach the
+    // flow control thread in either order, so each update applies whatever
+    // is wanted when it runs, rather than what was wanted when it was asked for
+    private void updateDelivery() {
+        try {
+            flowControl.execute(() -> {
+                boolean pause = paused.get();
+                if (stopping || pause == deliveryStopped) {
+                    return;
+                }
+                try {
+                    if (pause) {
+                        context.stop();
+                    } else {
+                        context.start();
+                    }
+                    deliveryStopped = pause;
+                } catch (JMSRuntimeException e) {
+                    JmsExceptionHelper.recordFailure(logger, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Stopping, delivery has already been stopped
+        }
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    // The number of times delivery was paused because the queue was full
+    public long getPauses() {
+        return pauses.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public void logSummary() {
+        logger.info("Listener received " + received.get() + " messages, processed " + processed.get()
+                        + ", " + failures.get() + " failures, delivery paused " + pauses.get() + " times");
+    }
+}
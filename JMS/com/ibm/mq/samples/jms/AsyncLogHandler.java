@@ -0,0 +1,138 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.*;
+
+/*
+ * A log handler that hands records to a background thread through a
+ * bounded ring buffer, so the thread that logs does not wait for console
+ * or file I/O. The background thread formats and writes each record with
+ * the handler it wraps.
+ *
+ * When the buffer is full new records are dropped, rather than making the
+ * logging thread wait, and counted. The count is written with the next
+ * record that fits.
+ *
+ * The LogManager closes the handler when the application ends, which
+ * writes whatever is left in the buffer.
+ *
+ * Records are given the name of their logger as their source class,
+ * as working out the calling method from the stack on every record would
+ * cost more than the I/O that is saved. The samples' loggers are named
+ * after their classes, so the source is still shown.
+ */
+public class AsyncLogHandler extends Handler {
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+
+    private final Handler target;
+    private final BlockingQueue<LogRecord> buffer;
+    private final Thread writer;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong unreported = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile boolean closed = false;
+
+    public AsyncLogHandler(Handler target, int capacity) {
+        this.target = target;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        setLevel(target.getLevel());
+
+        writer = new Thread(this::drain, "AsyncLogHandler");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        record.setSourceClassName(record.getLoggerName());
+        record.setSourceMethodName(null);
+        if (buffer.offer(record)) {
+            accepted.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+            unreported.incrementAndGet();
+        }
+    }
+
+    // Waits for the records logged so far to be written
+    @Override
+    public void flush() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_TIMEOUT_MILLIS);
+        long logged = accepted.get();
+        while (written.get() < logged && writer.isAlive() && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+        target.flush();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join(FLUSH_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.close();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    private void drain() {
+        while (!closed) {
+            try {
+                write(buffer.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        LogRecord record;
+        while (null != (record = buffer.poll())) {
+            write(record);
+        }
+        target.flush();
+    }
+
+    private void write(LogRecord record) {
+        long lost = unreported.getAndSet(0);
+        if (0 < lost) {
+            target.publish(new LogRecord(Level.WARNING, lost + " log records dropped, the log buffer was full"));
+        }
+        target.publish(record);
+        written.incrementAndGet();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Exponential backoff with jitter, for the pause between attempts to
+ * reconnect. The delay doubles with each attempt, from the initial delay
+ * up to the maximum, and each delay is picked at random from the upper
+ * half of that range. Without the jitter, every client that lost its
+ * connection at the same moment would retry at the same moments too.
+ *
+ * Not thread safe, each reconnecting thread has its own.
+ */
+public class Backoff {
+    private final long initialMillis;
+    private final long maxMillis;
+    private int attempts = 0;
+
+    public Backoff(long initialMillis, long maxMillis) {
+        this.initialMillis = Math.max(1, initialMillis);
+        this.maxMillis = Math.max(this.initialMillis, maxMillis);
+    }
+
+    // The pause before the next attempt, in milliseconds
+    public long nextDelay() {
+        long ceiling = initialMillis << Math.min(attempts, 30);
+        if (ceiling <= 0 || ceiling > maxMillis) {
+            ceiling = maxMillis;
+        }
+        attempts++;
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    // Attempts since the last reset
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void reset() {
+        attempts = 0;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+// Use these imports for building with JMS
+import javax.jms.JMSContext;
+import javax.jms.Message;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.Message;
+
+/*
+ * Decides what happens to a request that a responder could not process.
+ * The request is either rolled back, to be delivered again, or taken off
+ * the queue as a poison message, typically by moving it to a back out queue.
+ *
+ * Handlers are shared by all of a responder's workers, so must be thread
+ * safe. Each worker calls them with its own transacted context, so a
+ * message moved with that context leaves the request queue in the same
+ * unit of work as it arrives on the back out queue.
+ */
+public interface BackoutHandler {
+
+    // True if the request should be taken off the queue rather than retried.
+    // permanent is true when a retry can never succeed, eg. because the
+    // reply to queue no longer exists.
+    boolean isPoison(Message request, boolean permanent);
+
+    // Takes the request off the queue, as part of the context's transaction.
+    // Returns false if that could not be done, and the request should be
+    // rolled back instead.
+    boolean backout(JMSContext context, Message request);
+
+    // Called when a worker is about to close its context
+    default void release(JMSContext context) {
+    }
+}
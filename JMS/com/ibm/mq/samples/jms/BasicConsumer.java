@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2023
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -37,8 +37,9 @@ import com.ibm.mq.samples.jms.LoggingHelper;
 import com.ibm.mq.samples.jms.ConsumerHelper;
 
 
-public class BasicConsumer {
+public class BasicConsumer implements ParallelDrainer.Endpoint {
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+    private static final SampleMetrics metrics = SampleMetrics.get();
 
     public static final String CONSUMER_SUB = "topic";
     public static final String CONSUMER_GET = "queue";
@@ -47,6 +48,7 @@ public class BasicConsumer {
     private Destination destination = null;
     private JMSConsumer consumer = null;
     private ConnectionHelper ch = null;
+    private ResilientConnection connection = null;
 
     public BasicConsumer(String type, int index) {
         String id = null;
@@ -63,10 +65,11 @@ public class BasicConsumer {
         LoggingHelper.init(logger);
         logger.info("Sub application is starting");
 
-        ch = new ConnectionHelper(id, index);
+        ch = ConnectionHelper.pooled(id, index);
         logger.info("created connection factory");
 
         context = ch.getContext();
+        metrics.watch(context);
         logger.info("context created");
 
         switch(type){
@@ -79,34 +82,70 @@ public class BasicConsumer {
         }
 
         logger.info("destination created");
+
+        connection = ch.resilient();
     }
 
     public void receive(int requestTimeout) {
+      receive(requestTimeout, null);
+    }
+
+    // With a recorder, messages are recorded rather than displayed, and
+    // there is no pause between them
+    public void receive(int requestTimeout, PerfRecorder recorder) {
       boolean continueProcessing = true;
 
-      consumer = context.createConsumer(destination);
-      logger.info("consumer created");
+      // After a reconnect the consumer is made again on the new context,
+      // the destination is only a name so is kept
+      ResilientConnection.Resource<JMSConsumer> resource = connection.resource(c -> {
+          if (c != context) {
+              context = c;
+              consumer = null;
+              metrics.watch(context);
+          }
+          return getConsumer();
+      });
 
       while (continueProcessing) {
           try {
-              Message receivedMessage = consumer.receive(requestTimeout);
+              long start = metrics.start();
+              Message receivedMessage = connection.execute(c -> resource.get().receive(requestTimeout));
+              metrics.received(start, null != receivedMessage);
               if (receivedMessage == null) {
                   logger.info("No message received from this endpoint");
                    continueProcessing = false;
+              } else if (null != recorder) {
+                recorder.received(receivedMessage);
               } else {
+                long processingStart = metrics.start();
                 new ConsumerHelper(receivedMessage);
+                metrics.processed(processingStart);
                 logger.info("Waiting 1 second before looking for next message");
                 waitAWhile(1000);
               }
           } catch (JMSRuntimeException jmsex) {
-              jmsex.printStackTrace();
-              waitAWhile(1000);
+              // The connection has given up, or the failure is not worth retrying
+              metrics.failed();
+              ConnectionHelper.recordFailure(jmsex);
+              continueProcessing = false;
           }
        }
     }
 
+    @Override
+    public JMSConsumer getConsumer() {
+        if (null == consumer) {
+            consumer = context.createConsumer(destination);
+            logger.info("consumer created");
+        }
+        return consumer;
+    }
+
+    @Override
     public void close() {
-        consumer.close();
+        if (null != consumer && null != ch.getContext()) {
+            consumer.close();
+        }
         ch.closeContext();
         consumer = null;
         ch = null;
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2020, 2023
+* (c) Copyright IBM Corporation 2020, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package com.ibm.mq.samples.jms;
 
+import java.util.concurrent.TimeUnit;
 import java.util.logging.*;
 
 // Use these imports for building with JMS
@@ -32,15 +33,30 @@ public class BasicConsumerWrapper {
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
     private static final int TIMEOUT = 5000; // 5 Seconnds
 
+    // Drain all the endpoints at the same time, rather than one after another
+    public static final String PARALLEL_GET = "PARALLEL_GET";
+    // In parallel mode, output the messages in endpoint order
+    public static final String PARALLEL_GET_ORDERED = "PARALLEL_GET_ORDERED";
+
     public static void performGet() {
+        performGet(null);
+    }
+
+    // With a recorder, messages are recorded rather than displayed
+    public static void performGet(PerfRecorder recorder) {
         SampleEnvSetter env = new SampleEnvSetter();
         int limit = env.getCount();
         logger.info("There are " + limit + " endpoints");
 
+        if (Boolean.getBoolean(PARALLEL_GET)) {
+            performParallelGet(limit, recorder);
+            return;
+        }
+
         for (int index = 0; index < limit; index++) {
             try {
                 BasicConsumer bc = new BasicConsumer(BasicConsumer.CONSUMER_GET, index);
-                bc.receive(TIMEOUT);
+                bc.receive(TIMEOUT, recorder);
                 bc.close();
             } catch (JMSRuntimeException ex) {
                 if (! StatusChecker.getCanContinue(ex)) {
@@ -49,4 +65,20 @@ public class BasicConsumerWrapper {
             }
         }
     }
+
+    private static void performParallelGet(int limit, PerfRecorder recorder) {
+        ParallelDrainer drainer = new ParallelDrainer()
+                                        .idleTimeout(TIMEOUT, TimeUnit.MILLISECONDS)
+                                        .ordered(Boolean.getBoolean(PARALLEL_GET_ORDERED))
+                                        .threadMode(ThreadMode.fromSystemProperty());
+        for (int index = 0; index < limit; index++) {
+            final int i = index;
+            drainer.endpoint("endpoint " + index, () -> new BasicConsumer(BasicConsumer.CONSUMER_GET, i));
+        }
+        if (null != recorder) {
+            drainer.run(recorder::received).logSummary();
+        } else {
+            drainer.run(m -> new ConsumerHelper(m)).logSummary();
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -19,5 +19,6 @@ package com.ibm.mq.samples.jms;
 public class BasicGet {
     public static void main(String[] args) {
         BasicConsumerWrapper.performGet();
+        ContextPool.shutdown();
     }
 }
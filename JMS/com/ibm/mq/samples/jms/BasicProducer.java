@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2023
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -39,17 +39,37 @@ import com.ibm.mq.samples.jms.ConsumerHelper;
 
 public class BasicProducer {
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+    private static final SampleMetrics metrics = SampleMetrics.get();
 
     public static final String PRODUCER_PUT = "queue";
     public static final String PRODUCER_PUB = "topic";
 
+    // Shared by the producers in the process, so that they spread across
+    // the endpoints. Without -DBALANCE_STRATEGY it has a single endpoint,
+    // the connection name list made from every endpoint.
+    private static EndpointBalancer balancer = null;
+
+    private final String id;
+    private final String type;
+    private EndpointBalancer.Endpoint endpoint = null;
     private JMSContext context = null;
     private Destination destination = null;
     private JMSProducer producer = null;
     private ConnectionHelper ch = null;
+    private ResilientConnection connection = null;
+    private ResilientConnection.Resource<JMSProducer> resource = null;
+    private PerfRecorder recorder = null;
 
     public BasicProducer(String type) {
+        this(type, null);
+    }
+
+    // With a recorder the producer runs in performance mode, sending without
+    // pausing and stamping each message with the recorder's properties
+    public BasicProducer(String type, PerfRecorder recorder) {
         String id = null;
+        this.recorder = recorder;
+        this.type = type;
 
         switch(type){
             case PRODUCER_PUT :
@@ -59,14 +79,32 @@ public class BasicProducer {
                 id = "Basic pub";
                 break;
         }
+        this.id = id;
 
         LoggingHelper.init(logger);
         logger.info("Sub application is starting");
 
-        ch = new ConnectionHelper(id, ConnectionHelper.USE_CONNECTION_STRING);
+        open(getBalancer().choose(this));
+    }
+
+    private static synchronized EndpointBalancer getBalancer() {
+        if (null == balancer) {
+            balancer = EndpointBalancer.isSelected()
+                            ? EndpointBalancer.fromEnv(new SampleEnvSetter(), null)
+                            : new EndpointBalancer(EndpointBalancer.Strategy.ROUND_ROBIN)
+                                    .add(ConnectionHelper.USE_CONNECTION_STRING, "connection list", null);
+        }
+        return balancer;
+    }
+
+    // Connects to the endpoint, and creates the destination and producer
+    private void open(EndpointBalancer.Endpoint chosen) {
+        endpoint = chosen;
+        ch = ConnectionHelper.pooled(id, endpoint.getIndex());
         logger.info("created connection factory");
 
         context = ch.getContext();
+        metrics.watch(context);
         logger.info("context created");
 
         switch(type){
@@ -78,35 +116,104 @@ public class BasicProducer {
                 break;
         }
 
-        // Set so no JMS headers are sent.
-        ch.setTargetClient(destination);
+        // Set so no JMS headers are sent. In performance mode the headers
+        // carry the sequence numbers and timestamps, so are kept.
+        if (null == recorder) {
+            ch.setTargetClient(destination);
+        }
 
         logger.info("destination created");
 
         producer = context.createProducer();
+
+        // After a reconnect the producer is made again on the new context.
+        // A send that failed is sent again, so may arrive twice if the
+        // failure came after the queue manager had taken the message.
+        // The breaker is the endpoint's, so the balancer sees the failures.
+        connection = ch.resilient().circuitBreaker(endpoint.getCircuitBreaker());
+        resource = connection.resource(c -> {
+            if (c != context) {
+                context = c;
+                producer = context.createProducer();
+                metrics.watch(context);
+            }
+            return producer;
+        });
+    }
+
+    // After a failure, moves to another endpoint if the balancer no
+    // longer chooses this one. False if the producer has not moved.
+    private boolean moved() {
+        EndpointBalancer.Endpoint chosen = getBalancer().choose(this);
+        if (chosen == endpoint) {
+            return false;
+        }
+        ch.closeContext();
+        ch = null;
+        try {
+            open(chosen);
+            return true;
+        } catch (JMSRuntimeException jmsex) {
+            chosen.getCircuitBreaker().recordFailure();
+            ConnectionHelper.recordFailure(jmsex);
+            return false;
+        }
     }
 
     public void send(String message, int n_messages) {
+        if (null != recorder) {
+            sendWithoutPause(message, n_messages);
+            return;
+        }
         for (int i = 0; i < n_messages; i++) {
             logger.info("Publishing messages.\n");
 
+            long start = metrics.start();
+            long endpointStart = endpoint.begin();
             try {
-                producer.send(destination, message);
+                connection.execute(c -> resource.get().send(destination, message));
+                endpoint.succeeded(endpointStart);
+                metrics.sent(start);
                 logger.info("message was sent");
                 Thread.sleep(2000);
             } catch (JMSRuntimeException jmsex) {
-                jmsex.printStackTrace();
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
+                // The connection has given up, or the failure is not worth retrying
+                endpoint.failed(endpointStart);
+                metrics.failed();
+                ConnectionHelper.recordFailure(jmsex);
+                if (!moved()) {
+                    break;
                 }
             } catch (InterruptedException e) {
             }
         }
     }
 
+    private void sendWithoutPause(String message, int n_messages) {
+        for (int i = 0; i < n_messages && null != ch; i++) {
+            long start = metrics.start();
+            long endpointStart = endpoint.begin();
+            try {
+                int sequence = i;
+                connection.execute(c -> recorder.stamp(resource.get(), sequence, n_messages).send(destination, message));
+                endpoint.succeeded(endpointStart);
+                metrics.sent(start);
+                recorder.sent();
+            } catch (JMSRuntimeException jmsex) {
+                endpoint.failed(endpointStart);
+                metrics.failed();
+                recorder.failed();
+                JmsExceptionHelper.recordFailure(logger, jmsex);
+                moved();
+            }
+        }
+    }
+
     public void close() {
-        ch.closeContext();
-        ch = null;
+        getBalancer().release(this);
+        if (null != ch) {
+            ch.closeContext();
+            ch = null;
+        }
     }
 }
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -23,5 +23,6 @@ public class BasicPub {
         BasicProducer bp = new BasicProducer(BasicProducer.PRODUCER_PUB);
         bp.send("This is a published message from JMS Basic Pub", 10);
         bp.close();
+        ContextPool.shutdown();
     }
 }
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -24,5 +24,6 @@ public class BasicPut {
         BasicProducer bp = new BasicProducer(BasicProducer.PRODUCER_PUT);
         bp.send("This is a send from JMS Basic Put", 10);
         bp.close();
+        ContextPool.shutdown();
     }
 }
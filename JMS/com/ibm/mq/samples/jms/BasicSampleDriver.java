@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2020
+* (c) Copyright IBM Corporation 2020, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package com.ibm.mq.samples.jms;
 
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.logging.*;
 
 import com.ibm.mq.samples.jms.BasicProducer;
@@ -27,22 +30,39 @@ public class BasicSampleDriver {
   private static final String MODE_GET = "get";
   private static final String MODE_PUBLISH = "pub";
   private static final String MODE_SUBSCRIBE = "sub";
+  // Moves the messages from one queue to another, eg. move SOURCE TARGET
+  private static final String MODE_MOVE = "move";
 
   private static final String MODE_DEFAULT = MODE_PUT;
 
   private static final int DEFAULT_PUT_COUNT = 10;
   private static final int TIMEOUT = 10000; // 10 Seconnds
 
+  // Performance mode sends and receives without pausing, and writes a report
+  // of the throughput, latency, gaps and duplicates at the end of the run
+  public static final String PERF_MODE = "PERF_MODE";
+  // The report file, written as CSV if the name ends in .csv, otherwise JSON
+  public static final String PERF_REPORT = "PERF_REPORT";
+  // The size of the messages sent in performance mode, in characters
+  public static final String PERF_MESSAGE_SIZE = "PERF_MESSAGE_SIZE";
+
+  private static final String MESSAGE = "This is a message from the sample driver";
+
   private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
 
   private String mode = MODE_DEFAULT;
   private int numberOfMessages = DEFAULT_PUT_COUNT;
+  private String sourceQueue = null;
+  private String targetQueue = null;
+  private PerfRecorder recorder = null;
 
   public static void main(String[] args) {
     new BasicSampleDriver()
       .determineMode(args)
       .parseArguments(args)
       .runSample();
+    SampleMetrics.get().logSummary();
+    ContextPool.shutdown();
   }
 
   private BasicSampleDriver determineMode(String[] args) {
@@ -55,6 +75,7 @@ public class BasicSampleDriver {
         case MODE_GET:
         case MODE_PUBLISH:
         case MODE_SUBSCRIBE:
+        case MODE_MOVE:
           mode = requestedMode;
           break;
         }
@@ -81,12 +102,26 @@ public class BasicSampleDriver {
                 logger.info("Defaulting number of puts");
             }
         }
+        break;
 
+      case MODE_MOVE:
+        if (args.length > 2) {
+          sourceQueue = args[1];
+          targetQueue = args[2];
+        } else {
+          logger.warning("The source and target queues are needed eg. move DEV.QUEUE.1 DEV.QUEUE.2");
+        }
+        break;
     }
     return this;
   }
 
   public BasicSampleDriver runSample() {
+    if (Boolean.getBoolean(PERF_MODE)) {
+      logger.info("Running in performance mode");
+      recorder = new PerfRecorder(mode);
+    }
+
     switch(mode) {
       case MODE_PUT:
         doPutOrPublish(BasicProducer.PRODUCER_PUT);
@@ -100,27 +135,73 @@ public class BasicSampleDriver {
       case MODE_SUBSCRIBE:
         doSubscribe();
         break;
+      case MODE_MOVE:
+        doMove();
+        break;
+    }
+
+    if (null != recorder) {
+      reportPerformance();
     }
     return this;
   }
 
   public void doPutOrPublish(String putorpub) {
     logger.info("Will be sending " + numberOfMessages + " messages");
-    BasicProducer bp = new BasicProducer(putorpub);
-    bp.send("This is a message from the sample driver", numberOfMessages);
+    BasicProducer bp = new BasicProducer(putorpub, recorder);
+    bp.send(message(), numberOfMessages);
     bp.close();
   }
 
   public void doGet() {
     logger.info("Will be getting messages");
-    BasicConsumerWrapper.performGet();
+    BasicConsumerWrapper.performGet(recorder);
   }
 
   public void doSubscribe() {
     logger.info("Will be subscribing to messages");
     BasicConsumer bc = new BasicConsumer(BasicConsumer.CONSUMER_SUB, ConnectionHelper.USE_CONNECTION_STRING);
-    bc.receive(TIMEOUT);
+    bc.receive(TIMEOUT, recorder);
     bc.close();
   }
 
+  // Each mover thread makes its own transacted context from the helper's
+  // connection factory, settings such as -DMOVE_BATCH_SIZE are read by the mover
+  public void doMove() {
+    if (null == sourceQueue) {
+      return;
+    }
+    ConnectionHelper ch = new ConnectionHelper("Basic Mover", ConnectionHelper.USE_CONNECTION_STRING);
+    new QueueMover(ch::createContext, sourceQueue, targetQueue)
+      .configureFromSystemProperties()
+      .run()
+      .logSummary();
+    ch.closeContext();
+  }
+
+  // In performance mode the message can be made any size, to see its effect
+  private String message() {
+    int size = (null == recorder) ? 0 : Integer.getInteger(PERF_MESSAGE_SIZE, 0);
+    if (0 >= size) {
+      return MESSAGE;
+    }
+    recorder.messageSize(size);
+    StringBuilder sb = new StringBuilder(size);
+    for (int i = 0; i < size; i++) {
+      sb.append('x');
+    }
+    return sb.toString();
+  }
+
+  private void reportPerformance() {
+    recorder.logSummary();
+    String report = System.getProperty(PERF_REPORT,
+                        "perf-" + mode + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+    try {
+      recorder.writeReport(report);
+    } catch (IOException e) {
+      logger.warning("Unable to write performance report " + report + " : " + e.getMessage());
+    }
+  }
+
 }
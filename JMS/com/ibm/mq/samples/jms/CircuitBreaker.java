@@ -0,0 +1,144 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.*;
+
+/*
+ * Stops an application trying an endpoint that keeps failing. After
+ * failureThreshold failures in a row the breaker opens, and requests are
+ * refused for openTime without going near the endpoint. After that one
+ * trial request is let through, half open. If it succeeds the breaker
+ * closes, if it fails the breaker opens again.
+ *
+ * A breaker can be shared by every connection to the same endpoint, so
+ * that they all back off together.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    // Volatile so that a success on a healthy endpoint, the usual case,
+    // can be recorded without taking the lock
+    private volatile State state = State.CLOSED;
+    private volatile int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean trialInProgress = false;
+    private long trialStartedAt = 0;
+    private final AtomicLong timesOpened = new AtomicLong();
+
+    public CircuitBreaker(String name, int failureThreshold, long openTime, TimeUnit unit) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = unit.toNanos(openTime);
+    }
+
+    // Whether a request may go ahead. When half open only one caller,
+    // the trial, is let through until its outcome is recorded, or for
+    // openTime if no outcome is recorded.
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                logger.info("Circuit breaker for " + name + " is half open, trying the endpoint again");
+                startTrial();
+                return true;
+            default:
+                if (trialInProgress && System.nanoTime() - trialStartedAt < openNanos) {
+                    return false;
+                }
+                startTrial();
+                return true;
+        }
+    }
+
+    private void startTrial() {
+        trialInProgress = true;
+        trialStartedAt = System.nanoTime();
+    }
+
+    public void recordSuccess() {
+        if (State.CLOSED == state && 0 == consecutiveFailures) {
+            return;
+        }
+        synchronized (this) {
+            if (State.CLOSED != state) {
+                logger.info("Circuit breaker for " + name + " is closed");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            trialInProgress = false;
+        }
+    }
+
+    // A failure once an open breaker's time is up, by a caller that did
+    // not ask allowRequest first, opens it again like a failed trial
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInProgress = false;
+        if (State.HALF_OPEN == state
+                || (State.OPEN == state && System.nanoTime() - openedAt >= openNanos)
+                || (State.CLOSED == state && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            timesOpened.incrementAndGet();
+            logger.warning("Circuit breaker for " + name + " is open after " + consecutiveFailures
+                            + " failures, not trying for " + TimeUnit.NANOSECONDS.toMillis(openNanos) + " ms");
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // How long until the breaker lets another trial through, 0 if it would now
+    public synchronized long getRemainingOpenMillis() {
+        long since;
+        if (State.OPEN == state) {
+            since = openedAt;
+        } else if (State.HALF_OPEN == state && trialInProgress) {
+            since = trialStartedAt;
+        } else {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(openNanos - (System.nanoTime() - since)));
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public long getTimesOpened() {
+        return timesOpened.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
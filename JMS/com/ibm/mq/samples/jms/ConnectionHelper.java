@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2023
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -16,9 +16,13 @@
 
 package com.ibm.mq.samples.jms;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.logging.*;
 
 // Use these imports for building with JMS
+import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSContext;
 import javax.jms.JMSException;
@@ -30,6 +34,7 @@ import com.ibm.msg.client.wmq.WMQConstants;
 import com.ibm.mq.jms.MQDestination;
 
 // Use these imports for building with Jakarta Messaging
+// import jakarta.jms.ConnectionFactory;
 // import jakarta.jms.Destination;
 // import jakarta.jms.JMSContext;
 // import jakarta.jms.JMSException;
@@ -44,12 +49,17 @@ import com.ibm.mq.samples.jms.SampleEnvSetter;
 
 public class ConnectionHelper {
 
-    private static final Level LOGLEVEL = Level.ALL;
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
     public static final int USE_CONNECTION_STRING = -1;
 
+    // The MQ client reconnects by itself, as well as the application,
+    // eg. -DCLIENT_RECONNECT=true -DCLIENT_RECONNECT_TIMEOUT=1800
+    public static final String CLIENT_RECONNECT = "CLIENT_RECONNECT";
+    public static final String CLIENT_RECONNECT_TIMEOUT = "CLIENT_RECONNECT_TIMEOUT";
+    private static final int DEFAULT_CLIENT_RECONNECT_TIMEOUT = 1800;
+
     // Create variables for the connection to MQ
-    private static String ConnectionString = null; //= "localhost(1414),localhost(1416)"
+    private String ConnectionString = null; //= "localhost(1414),localhost(1416)"
     private String HOST = null; // Host name or IP address
     private int PORT = 0; // Listener port for your queue manager
     private String CHANNEL = null; // Channel name
@@ -60,32 +70,124 @@ public class ConnectionHelper {
     private String QUEUE_NAME = null; // Queue that the application uses to put and get messages to and from
     private String TOPIC_NAME = null; // Topic that the application publishes to
     private String CIPHER_SUITE = null;
-    private static String CCDTURL;
-    private static Boolean BINDINGS = false;
+    // Per helper, as helpers for different endpoints are created at the same time eg. by a ParallelDrainer
+    private String CCDTURL;
+    private Boolean BINDINGS = false;
+
+    // The environment settings are only read once per process
+    private static SampleEnvSetter env = null;
+    private static JwtHelper jwt = null;
 
     JMSContext context;
 
+    private final String name;
+    private final String key;
+    private final ConnectionFactory connectionFactory;
+
+    // Set when the context has been borrowed from the shared pool
+    private String poolKey = null;
+
     public ConnectionHelper (String id, int index) {
+        this(id, index, false);
+    }
+
+    private ConnectionHelper (String id, int index, boolean pooled) {
 
         //initialiseLogging();
         mqConnectionVariables(id, index);
         logger.info("Get application is starting");
 
-        JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
-        setJMSProperties(connectionFactory, id, index);
-        logger.info("created connection factory");
+        // Connection factories are cached, as they are identical for
+        // every connection to the same endpoint with the same credentials.
+        // A JWT token changes as it is refreshed, so is not part of the key,
+        // instead the cached factory is given each new token.
+        JwtHelper jh = getJwt();
+        boolean useJwt = jh.isJwtEnabled() && !jh.obtainToken().isEmpty();
+        String credentials = useJwt ? "jwt" : credentialsKey(APP_USER, APP_PASSWORD);
+        name = id + " " + index;
+        key = id + "|" + index + "|" + credentials;
+        ContextPool pool = ContextPool.getInstance();
+        connectionFactory = pool.factoryFor(key, () -> {
+            JmsConnectionFactory cf = createJMSConnectionFactory();
+            setJMSProperties(cf, id, index);
+            if (useJwt) {
+                setToken(cf, jh.obtainToken());
+                jh.addTokenListener(token -> setToken(cf, token));
+            }
+            logger.info("created connection factory");
+            return cf;
+        });
 
-        context = connectionFactory.createContext();
+        if (pooled) {
+            poolKey = key;
+        }
+        context = connect();
         logger.info("context created");
 
     }
 
+    // A new context, from the pool if this helper uses it
+    private JMSContext connect () {
+        if (null != poolKey) {
+            return ContextPool.getInstance().borrow(poolKey, connectionFactory::createContext);
+        }
+        return connectionFactory.createContext();
+    }
+
+    // Obtains a context from the shared pool, avoiding the cost of a
+    // channel connect when an idle context is available. The context
+    // is returned to the pool by closeContext.
+    public static ConnectionHelper pooled (String id, int index) {
+        return new ConnectionHelper(id, index, true);
+    }
+
     public JMSContext getContext () {
         return context;
     }
 
+    // A further context, with its own connection, made in the same way as
+    // this helper's own eg. for each thread of a QueueMover
+    public JMSContext createContext (int sessionMode) {
+        return connectionFactory.createContext(sessionMode);
+    }
+
+    // Work passed to the returned connection runs on this helper's context.
+    // If the connection breaks, the context is discarded and a new one is
+    // made, after a backoff, in the same way as the first.
+    public ResilientConnection resilient () {
+        return new ResilientConnection(name, () -> {
+                        if (null == context) {
+                            context = connect();
+                            logger.info("context created");
+                        }
+                        return context;
+                    })
+                    .discarder(c -> discardContext())
+                    .configureFromSystemProperties();
+    }
+
     public void closeContext () {
-        context.close();
+        if (null == context) {
+            return;
+        }
+        if (null != poolKey) {
+            ContextPool.getInstance().release(poolKey, context);
+        } else {
+            context.close();
+        }
+        context = null;
+    }
+
+    // Closes, rather than returns, a pooled context eg. after a connection failure
+    public void discardContext () {
+        if (null == context) {
+            return;
+        }
+        if (null != poolKey) {
+            ContextPool.getInstance().invalidate(poolKey, context);
+        } else {
+            context.close();
+        }
         context = null;
     }
 
@@ -108,8 +210,52 @@ public class ConnectionHelper {
       }
     }
 
+    // The user and a digest of the user and password, so that only callers
+    // with the same credentials share a factory or pooled context. A hash
+    // code is not enough, as different passwords easily share one.
+    static String credentialsKey(String user, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(user).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(password).getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder().append(user).append('|');
+            for (byte b : digest.digest()) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform provides SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static synchronized SampleEnvSetter getEnv() {
+        if (null == env) {
+            env = new SampleEnvSetter();
+        }
+        return env;
+    }
+
+    private static synchronized JwtHelper getJwt() {
+        if (null == jwt) {
+            jwt = new JwtHelper(getEnv());
+        }
+        return jwt;
+    }
+
+    // Connections made after this use the new token
+    private static void setToken(JmsConnectionFactory cf, String token) {
+        try {
+            cf.setBooleanProperty(WMQConstants.USER_AUTHENTICATION_MQCSP, true);
+            cf.setStringProperty(WMQConstants.PASSWORD, token);
+        } catch (JMSException jmsex) {
+            recordFailure(jmsex);
+        }
+    }
+
     private void mqConnectionVariables(String default_app_name, int index) {
-        SampleEnvSetter env = new SampleEnvSetter();
+        SampleEnvSetter env = getEnv();
 
         CCDTURL = env.getCheckForCCDT();
 
@@ -175,10 +321,15 @@ public class ConnectionHelper {
             } else {
                 logger.info("Will be making use of CCDT File " + CCDTURL);
                 cf.setStringProperty(WMQConstants.WMQ_CCDTURL, CCDTURL);
+            }
 
-                // Set the WMQ_CLIENT_RECONNECT_OPTIONS property to allow 
-                // the MQ JMS classes to attempt a reconnect 
-                // cf.setIntProperty(WMQConstants.WMQ_CLIENT_RECONNECT_OPTIONS, WMQConstants.WMQ_CLIENT_RECONNECT);
+            // Allow the MQ JMS classes to attempt a reconnect, to this or
+            // another queue manager in the connection list or CCDT, before
+            // the application sees the connection as broken
+            if (Boolean.getBoolean(CLIENT_RECONNECT) && !BINDINGS) {
+                cf.setIntProperty(WMQConstants.WMQ_CLIENT_RECONNECT_OPTIONS, WMQConstants.WMQ_CLIENT_RECONNECT);
+                cf.setIntProperty(WMQConstants.WMQ_CLIENT_RECONNECT_TIMEOUT,
+                                  Integer.getInteger(CLIENT_RECONNECT_TIMEOUT, DEFAULT_CLIENT_RECONNECT_TIMEOUT));
             }
 
             if (BINDINGS) {
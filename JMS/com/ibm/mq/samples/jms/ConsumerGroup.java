@@ -0,0 +1,257 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.JMSConsumer;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSRuntimeException;
+// import jakarta.jms.Message;
+
+/*
+ * Runs a number of blocking receive loops, one or more per destination,
+ * on a shared executor. Each loop has its own JMSContext and consumer, as
+ * neither is thread safe, and hands every message it receives to the
+ * handler for its destination, on its own thread.
+ *
+ * A loop whose connection breaks makes a new context and consumer, after
+ * a backoff, and carries on, see ResilientConnection.
+ *
+ * The threads are platform or virtual threads depending on the ThreadMode.
+ * With virtual threads a loop that is waiting for a message does not hold
+ * an operating system thread, so hundreds or thousands of consumers can
+ * run in one process.
+ *
+ * Shutdown is structured. shutdown() asks every loop to stop, each loop
+ * finishes the message it is handling, then closes its consumer and context
+ * before it ends. awaitTermination() waits for all of the loops to end, and
+ * close() does both.
+ *
+ * The context factory is typically the createContext(int sessionMode)
+ * method of a connection factory, or of an InMemoryJmsStandIn when
+ * running without a queue manager.
+ */
+public class ConsumerGroup implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    // How often a waiting consumer checks whether it has been asked to stop
+    private static final long POLL_INTERVAL = 1000;
+    private static final long CLOSE_TIMEOUT = 30;
+
+    private final IntFunction<JMSContext> contextFactory;
+    private final ThreadMode threadMode;
+    private final List<Registration> registrations = new ArrayList<>();
+
+    private int consumersPerDestination = 1;
+    private long pollInterval = POLL_INTERVAL;
+
+    private ExecutorService executor = null;
+    private volatile boolean running = false;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final SampleMetrics metrics = SampleMetrics.get();
+
+    public ConsumerGroup(IntFunction<JMSContext> contextFactory, ThreadMode threadMode) {
+        this.contextFactory = contextFactory;
+        this.threadMode = threadMode;
+    }
+
+    // The number of receive loops started for each destination
+    public ConsumerGroup consumersPerDestination(int n) {
+        consumersPerDestination = Math.max(1, n);
+        return this;
+    }
+
+    // How long a receive waits before checking for shutdown
+    public ConsumerGroup pollInterval(long interval, TimeUnit unit) {
+        pollInterval = Math.max(1, unit.toMillis(interval));
+        return this;
+    }
+
+    public ConsumerGroup queue(String queueName, Consumer<Message> handler) {
+        return destination("queue " + queueName,
+                           context -> context.createConsumer(context.createQueue("queue:///" + queueName)),
+                           handler);
+    }
+
+    // Several loops on one topic share a subscription, so that each message is handled once
+    public ConsumerGroup sharedSubscription(String topicName, String subscriptionName, Consumer<Message> handler) {
+        return destination("topic " + topicName,
+                           context -> context.createSharedConsumer(context.createTopic("topic://" + topicName),
+                                                                   subscriptionName),
+                           handler);
+    }
+
+    // The opener creates the consumer for each loop, on the loop's thread
+    public ConsumerGroup destination(String name, Function<JMSContext, JMSConsumer> opener, Consumer<Message> handler) {
+        registrations.add(new Registration(name, opener, handler));
+        return this;
+    }
+
+    public ConsumerGroup start() {
+        if (running) {
+            return this;
+        }
+        running = true;
+        executor = Executors.newCachedThreadPool(threadMode.factory("Consumer-"));
+
+        int loops = 0;
+        for (Registration r : registrations) {
+            for (int i = 0; i < consumersPerDestination; i++) {
+                executor.execute(() -> consume(r));
+                loops++;
+            }
+        }
+        // No more loops are accepted, the executor ends when they do
+        executor.shutdown();
+        logger.info("Started " + loops + " consumers on " + registrations.size()
+                        + " destinations using " + threadMode.name().toLowerCase() + " threads");
+        return this;
+    }
+
+    // Asks every consumer to stop, without waiting for them to do so
+    public void shutdown() {
+        running = false;
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return null == executor || executor.awaitTermination(timeout, unit);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            if (!awaitTermination(pollInterval + TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT), TimeUnit.MILLISECONDS)) {
+                logger.warning("Consumers did not stop in time, interrupting them");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume(Registration r) {
+        ResilientConnection connection = new ResilientConnection(r.name, () -> {
+                                                    JMSContext context = contextFactory.apply(JMSContext.AUTO_ACKNOWLEDGE);
+                                                    metrics.watch(context);
+                                                    return context;
+                                                })
+                                                .configureFromSystemProperties()
+                                                .waitWhenOpen(true)
+                                                .stopWhen(() -> !running);
+        ResilientConnection.Resource<JMSConsumer> consumer = connection.resource(r.opener);
+        boolean started = false;
+        try {
+            connection.execute(c -> consumer.get());
+            started = true;
+            active.incrementAndGet();
+            logger.fine("Consumer started on " + r.name);
+
+            while (running) {
+                Message message;
+                try {
+                    // A broken connection is made again, along with the
+                    // consumer, before the receive is retried
+                    long start = metrics.start();
+                    message = connection.execute(c -> consumer.get().receive(pollInterval));
+                    metrics.received(start, null != message);
+                } catch (JMSRuntimeException ex) {
+                    if (running) {
+                        // Not worth retrying, so the consumer stops
+                        failures.increment();
+                        metrics.failed();
+                        logger.warning("Consumer on " + r.name + " stopped");
+                        JmsExceptionHelper.recordFailure(logger, ex);
+                    }
+                    break;
+                }
+                if (null == message) {
+                    continue;
+                }
+                received.increment();
+                try {
+                    r.handler.accept(message);
+                } catch (RuntimeException ex) {
+                    // A failing handler does not stop the consumer
+                    failures.increment();
+                    logger.warning("Message handler failed on " + r.name + " " + ex);
+                }
+            }
+        } catch (JMSRuntimeException ex) {
+            failures.increment();
+            logger.warning("Unable to start consumer on " + r.name);
+            JmsExceptionHelper.recordFailure(logger, ex);
+        } finally {
+            if (started) {
+                active.decrementAndGet();
+            }
+            // Closing the context closes its consumer
+            connection.close();
+        }
+    }
+
+    // The number of consumers that have opened and not yet ended
+    public int getActiveConsumers() {
+        return active.get();
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    private static final class Registration {
+        final String name;
+        final Function<JMSContext, JMSConsumer> opener;
+        final Consumer<Message> handler;
+
+        Registration(String name, Function<JMSContext, JMSConsumer> opener, Consumer<Message> handler) {
+            this.name = name;
+            this.opener = opener;
+            this.handler = handler;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -33,13 +33,16 @@ import com.ibm.mq.samples.jms.LoggingHelper;
 
 public class ConsumerHelper {
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+    private static final SampleLogger messageLog = SampleLogger.getLogger(ConsumerHelper.class);
 
 
     public ConsumerHelper(Message receivedMessage){
         if (receivedMessage instanceof TextMessage) {
             TextMessage textMessage = (TextMessage) receivedMessage;
             try {
-                logger.info("Received message: " + textMessage.getText());
+                if (messageLog.sample(Level.INFO)) {
+                    messageLog.log(Level.INFO, "Received message: {0}", textMessage.getText());
+                }
             } catch (JMSException jmsex) {
                 recordFailure(jmsex);
             }
@@ -0,0 +1,376 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.ExceptionListener;
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.ExceptionListener;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSRuntimeException;
+
+/*
+ * Hands out lightweight JMSContexts that share a small number of
+ * connections, as ConversationSharingTest shows by hand. Each connection
+ * is a parent context from the connector, and the contexts handed out are
+ * children created with parent.createContext(sessionMode). A child has
+ * its own session, so can be used on its own thread, but shares the
+ * parent's connection, so creating one does not need a new channel
+ * instance or TLS handshake. With the MQ client the children's
+ * conversations share the parent's socket, up to the SHARECNV limit of
+ * the channel.
+ *
+ * At most contextsPerConnection children share a connection. A new
+ * connection is made when every connection is full, up to maxConnections,
+ * after which callers wait for a child to be closed. The sharing ratio
+ * should not be more than SHARECNV, as conversations beyond that need a
+ * socket of their own anyway.
+ *
+ * Closing a child frees its place. Connections stay open once made, so
+ * that later children are cheap, until the multiplexer is closed, unless
+ * the connection reports a failure, in which case it is given no more
+ * children and is closed with its last one.
+ *
+ * The settings can be overridden with system properties eg.
+ *  -DMULTIPLEX_CONTEXTS_PER_CONNECTION=10 -DMULTIPLEX_MAX_CONNECTIONS=4
+ */
+public class ContextMultiplexer {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final String CONTEXTS_PER_CONNECTION = "MULTIPLEX_CONTEXTS_PER_CONNECTION";
+    public static final String MAX_CONNECTIONS = "MULTIPLEX_MAX_CONNECTIONS";
+
+    // The default SHARECNV of an MQ server connection channel
+    private static final int DEFAULT_CONTEXTS_PER_CONNECTION = 10;
+    private static final long DEFAULT_WAIT_TIMEOUT_SECONDS = 30;
+
+    private final Supplier<JMSContext> connector;
+
+    private int contextsPerConnection = DEFAULT_CONTEXTS_PER_CONNECTION;
+    private int maxConnections = 0;
+    private long waitTimeoutNanos = TimeUnit.SECONDS.toNanos(DEFAULT_WAIT_TIMEOUT_SECONDS);
+
+    // Guarded by this
+    private final List<Connection> connections = new ArrayList<>();
+    private int activeContexts = 0;
+    private int peakContexts = 0;
+    private boolean closed = false;
+
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong contextsCreated = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final LatencyHistogram connectTime = new LatencyHistogram();
+    private final LatencyHistogram childCreateTime = new LatencyHistogram();
+
+    // The connector is typically the createContext() method of a connection
+    // factory, each context it creates is one connection
+    public ContextMultiplexer(Supplier<JMSContext> connector) {
+        this.connector = connector;
+    }
+
+    // True when a sharing ratio of more than 1 has been set with
+    // -DMULTIPLEX_CONTEXTS_PER_CONNECTION, the samples connect for every
+    // context by default
+    public static boolean isSelected() {
+        return 1 < Integer.getInteger(CONTEXTS_PER_CONNECTION, 1);
+    }
+
+    // Takes the sharing ratio and connection limit from system properties
+    public ContextMultiplexer configureFromSystemProperties() {
+        return contextsPerConnection(Integer.getInteger(CONTEXTS_PER_CONNECTION, contextsPerConnection))
+                    .maxConnections(Integer.getInteger(MAX_CONNECTIONS, maxConnections));
+    }
+
+    // The sharing ratio, 1 gives every context a connection of its own
+    public synchronized ContextMultiplexer contextsPerConnection(int n) {
+        contextsPerConnection = Math.max(1, n);
+        return this;
+    }
+
+    // 0 places no limit on the number of connections
+    public synchronized ContextMultiplexer maxConnections(int n) {
+        maxConnections = Math.max(0, n);
+        return this;
+    }
+
+    // How long to wait for a place when every connection is full
+    public synchronized ContextMultiplexer waitTimeout(long timeout, TimeUnit unit) {
+        waitTimeoutNanos = unit.toNanos(timeout);
+        return this;
+    }
+
+    public JMSContext createContext() {
+        return createContext(JMSContext.AUTO_ACKNOWLEDGE);
+    }
+
+    // A child context on the least used connection that has room for it.
+    // Close the child when it is finished with, to free its place.
+    public JMSContext createContext(int sessionMode) {
+        Connection connection = reserve();
+        JMSContext child;
+        try {
+            JMSContext parent = connection.connect();
+            long start = System.nanoTime();
+            child = parent.createContext(sessionMode);
+            childCreateTime.record(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            unreserve(connection);
+            throw e;
+        }
+        contextsCreated.incrementAndGet();
+        return wrap(child, connection);
+    }
+
+    // Finds a place for a child, making a connection for it if need be
+    private synchronized Connection reserve() {
+        long deadline = System.nanoTime() + waitTimeoutNanos;
+        boolean waited = false;
+        while (true) {
+            if (closed) {
+                throw new JMSRuntimeException("Context multiplexer has been closed");
+            }
+
+            Connection best = null;
+            for (Connection c : connections) {
+                if (!c.broken && c.children < contextsPerConnection
+                        && (null == best || c.children < best.children)) {
+                    best = c;
+                }
+            }
+            if (null == best && (0 == maxConnections || countUsable() < maxConnections)) {
+                best = new Connection();
+                connections.add(best);
+            }
+
+            if (null != best) {
+                best.children++;
+                activeContexts++;
+                peakContexts = Math.max(peakContexts, activeContexts);
+                return best;
+            }
+
+            if (!waited) {
+                waited = true;
+                waits.incrementAndGet();
+            }
+            long remaining = deadline - System.nanoTime();
+            if (0 >= remaining) {
+                throw new JMSRuntimeException("Timed out waiting for a shared connection");
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JMSRuntimeException("Interrupted waiting for a shared connection");
+            }
+        }
+    }
+
+    // Frees the place of a child that has been closed, or never created
+    private void unreserve(Connection connection) {
+        JMSContext toClose = null;
+        synchronized (this) {
+            connection.children--;
+            activeContexts--;
+            if (connection.broken && 0 == connection.children) {
+                connections.remove(connection);
+                toClose = connection.parent;
+            }
+            notifyAll();
+        }
+        closeQuietly(toClose);
+    }
+
+    // Broken connections are still counted while their children are open
+    private int countUsable() {
+        int count = 0;
+        for (Connection c : connections) {
+            if (!c.broken) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void close() {
+        List<Connection> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(connections);
+            connections.clear();
+            notifyAll();
+        }
+        // Closing a connection closes its children too
+        for (Connection c : toClose) {
+            closeQuietly(c.parent);
+        }
+    }
+
+    public synchronized int getConnectionCount() {
+        return connections.size();
+    }
+
+    public synchronized int getActiveContexts() {
+        return activeContexts;
+    }
+
+    public synchronized int getPeakContexts() {
+        return peakContexts;
+    }
+
+    // The proportion of the places on the open connections that are in use
+    public synchronized double getUtilisation() {
+        int places = connections.size() * contextsPerConnection;
+        return (0 == places) ? 0 : (double) activeContexts / places;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated.get();
+    }
+
+    public long getContextsCreated() {
+        return contextsCreated.get();
+    }
+
+    // The number of times a caller had to wait for a place
+    public long getWaits() {
+        return waits.get();
+    }
+
+    public LatencyHistogram getConnectTime() {
+        return connectTime;
+    }
+
+    public LatencyHistogram getChildCreateTime() {
+        return childCreateTime;
+    }
+
+    public void logStatistics() {
+        logger.info(String.format("Context multiplexer %d contexts on %d connections, %d per connection, "
+                        + "peak %d contexts, utilisation %.0f%%, waits %d",
+                        contextsCreated.get(), connectionsCreated.get(), contextsPerConnection,
+                        getPeakContexts(), getUtilisation() * 100, waits.get()));
+        logger.info("Connect time " + connectTime.summary(TimeUnit.MILLISECONDS));
+        logger.info("Shared context create time " + childCreateTime.summary(TimeUnit.MILLISECONDS));
+    }
+
+    // The child is wrapped so that closing it frees its place
+    private JMSContext wrap(JMSContext child, Connection connection) {
+        AtomicBoolean open = new AtomicBoolean(true);
+        return (JMSContext) Proxy.newProxyInstance(JMSContext.class.getClassLoader(),
+                                                   new Class<?>[] { JMSContext.class },
+                                                   (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    if (open.compareAndSet(true, false)) {
+                        try {
+                            child.close();
+                        } finally {
+                            unreserve(connection);
+                        }
+                    }
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SharedContext(" + child + ")";
+                default:
+                    return invoke(child, method, args);
+            }
+        });
+    }
+
+    private static Object invoke(JMSContext target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void closeQuietly(JMSContext context) {
+        if (null != context) {
+            try {
+                context.close();
+            } catch (JMSRuntimeException e) {
+                logger.fine("Error closing shared connection " + e.getMessage());
+            }
+        }
+    }
+
+    // One parent context, connected by the first child to need it
+    private class Connection {
+        volatile JMSContext parent = null;
+        // Guarded by the multiplexer
+        int children = 0;
+        boolean broken = false;
+
+        synchronized JMSContext connect() {
+            if (null == parent) {
+                if (broken) {
+                    throw new JMSRuntimeException("Shared connection failed to connect");
+                }
+                long start = System.nanoTime();
+                try {
+                    parent = connector.get();
+                } catch (RuntimeException e) {
+                    markBroken();
+                    throw e;
+                }
+                connectTime.record(System.nanoTime() - start);
+                connectionsCreated.incrementAndGet();
+                try {
+                    // Any asynchronous connection failure stops the
+                    // connection being given more children, keeping any
+                    // listener the connector set
+                    ExceptionListener existing = parent.getExceptionListener();
+                    parent.setExceptionListener(e -> {
+                        markBroken();
+                        if (null != existing) {
+                            existing.onException(e);
+                        }
+                    });
+                } catch (JMSRuntimeException e) {
+                    logger.fine("Unable to set exception listener on shared connection");
+                }
+            }
+            return parent;
+        }
+
+        private void markBroken() {
+            synchronized (ContextMultiplexer.this) {
+                broken = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.ConnectionFactory;
+// import jakarta.jms.ExceptionListener;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSRuntimeException;
+
+/*
+ * A shared, thread safe cache of connection factories and pool of
+ * JMSContexts. Both are keyed by a string made up of the application
+ * id, endpoint index and credentials, so contexts are only ever reused
+ * for the same endpoint and user.
+ *
+ * Contexts are closed when they have been idle for longer than the idle
+ * timeout, and the number of contexts per key is bounded by the maximum
+ * pool size. Hit, miss and connect time counters show how often a borrow
+ * was able to skip the channel connect.
+ *
+ * A context is not checked with the queue manager when it is borrowed, as
+ * that would cost as much as the round trip the pool is there to save.
+ * Instead a connection failure reported to the context's exception
+ * listener stops it being handed out again. A context that fails while it
+ * is in use should be given back with invalidate, rather than release.
+ *
+ * The pool settings can be overridden with system properties eg.
+ *  -DCONTEXT_POOL_MAX_SIZE=20 -DCONTEXT_POOL_MAX_IDLE=120
+ */
+public class ContextPool {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final String MAX_SIZE = "CONTEXT_POOL_MAX_SIZE";
+    public static final String MAX_IDLE = "CONTEXT_POOL_MAX_IDLE";
+    public static final String BORROW_TIMEOUT = "CONTEXT_POOL_BORROW_TIMEOUT";
+
+    private static final int DEFAULT_MAX_SIZE = 10;
+    private static final long DEFAULT_MAX_IDLE_SECONDS = 60;
+    private static final long DEFAULT_BORROW_TIMEOUT_SECONDS = 30;
+
+    private static ContextPool instance = null;
+
+    private final int maxSize;
+    private final long maxIdleNanos;
+    private final long borrowTimeoutNanos;
+
+    private final Map<String, ConnectionFactory> factories = new ConcurrentHashMap<>();
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong factoryHits = new AtomicLong();
+    private final AtomicLong factoryMisses = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final LatencyHistogram connectTime = new LatencyHistogram();
+    private volatile boolean closed = false;
+
+    public static synchronized ContextPool getInstance() {
+        if (null == instance) {
+            instance = new ContextPool(Integer.getInteger(MAX_SIZE, DEFAULT_MAX_SIZE),
+                                       Long.getLong(MAX_IDLE, DEFAULT_MAX_IDLE_SECONDS),
+                                       TimeUnit.SECONDS,
+                                       Long.getLong(BORROW_TIMEOUT, DEFAULT_BORROW_TIMEOUT_SECONDS),
+                                       TimeUnit.SECONDS);
+        }
+        return instance;
+    }
+
+    // Closes the shared pool, if one has been created
+    public static synchronized void shutdown() {
+        if (null != instance) {
+            instance.logStatistics();
+            instance.close();
+            instance = null;
+        }
+    }
+
+    public ContextPool(int maxSize, long maxIdle, long borrowTimeout, TimeUnit unit) {
+        this(maxSize, maxIdle, unit, borrowTimeout, unit);
+    }
+
+    private ContextPool(int maxSize, long maxIdle, TimeUnit idleUnit, long borrowTimeout, TimeUnit borrowUnit) {
+        this.maxSize = Math.max(1, maxSize);
+        this.maxIdleNanos = idleUnit.toNanos(maxIdle);
+        this.borrowTimeoutNanos = borrowUnit.toNanos(borrowTimeout);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ContextPool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(TimeUnit.SECONDS.toNanos(1), maxIdleNanos / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    // Returns the cached factory for the key, creating it the first time
+    public ConnectionFactory factoryFor(String key, Supplier<? extends ConnectionFactory> creator) {
+        ConnectionFactory cf = factories.get(key);
+        if (null != cf) {
+            factoryHits.incrementAndGet();
+            return cf;
+        }
+        return factories.computeIfAbsent(key, k -> {
+            factoryMisses.incrementAndGet();
+            return creator.get();
+        });
+    }
+
+    // Borrows an idle context for the key, or creates a new one from the
+    // supplier when there is no valid idle context available.
+    public JMSContext borrow(String key, Supplier<JMSContext> creator) {
+        if (closed) {
+            throw new JMSRuntimeException("Context pool has been closed");
+        }
+        Partition p = partitions.computeIfAbsent(key, k -> new Partition());
+
+        try {
+            if (!p.permits.tryAcquire(borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new JMSRuntimeException("Timed out waiting for a pooled context for " + key);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMSRuntimeException("Interrupted waiting for a pooled context for " + key);
+        }
+
+        try {
+            PooledEntry entry;
+            while (null != (entry = p.idle.pollFirst())) {
+                if (validate(entry)) {
+                    hits.incrementAndGet();
+                    p.inUse.put(entry.context, entry);
+                    return entry.context;
+                }
+                validationFailures.incrementAndGet();
+                closeQuietly(entry.context);
+            }
+
+            misses.incrementAndGet();
+            long start = System.nanoTime();
+            JMSContext context = creator.get();
+            connectTime.record(System.nanoTime() - start);
+
+            entry = new PooledEntry(context);
+            p.inUse.put(context, entry);
+            return context;
+        } catch (RuntimeException e) {
+            p.permits.release();
+            throw e;
+        }
+    }
+
+    // Returns a context to the pool so that it can be reused
+    public void release(String key, JMSContext context) {
+        Partition p = partitions.get(key);
+        PooledEntry entry = (null == p) ? null : p.inUse.remove(context);
+        if (null == entry) {
+            closeQuietly(context);
+            return;
+        }
+        if (closed || entry.broken) {
+            closeQuietly(context);
+        } else {
+            entry.lastUsed = System.nanoTime();
+            // Most recently used first, so that the least used age out
+            p.idle.offerFirst(entry);
+        }
+        p.permits.release();
+    }
+
+    // Closes a context that should not be reused, eg. after a failure
+    public void invalidate(String key, JMSContext context) {
+        Partition p = partitions.get(key);
+        PooledEntry entry = (null == p) ? null : p.inUse.remove(context);
+        closeQuietly(context);
+        if (null != entry) {
+            p.permits.release();
+        }
+    }
+
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        for (Partition p : partitions.values()) {
+            PooledEntry entry;
+            while (null != (entry = p.idle.pollFirst())) {
+                closeQuietly(entry.context);
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getFactoryHits() {
+        return factoryHits.get();
+    }
+
+    public long getFactoryMisses() {
+        return factoryMisses.get();
+    }
+
+    public long getValidationFailures() {
+        return validationFailures.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public LatencyHistogram getConnectTime() {
+        return connectTime;
+    }
+
+    public int getIdleCount(String key) {
+        Partition p = partitions.get(key);
+        return (null == p) ? 0 : p.idle.size();
+    }
+
+    public void logStatistics() {
+        logger.info("Context pool hits " + hits.get() + ", misses " + misses.get()
+                        + ", factory hits " + factoryHits.get() + ", factory misses " + factoryMisses.get()
+                        + ", validation failures " + validationFailures.get()
+                        + ", evictions " + evictions.get());
+        logger.info("Context connect time " + connectTime.summary(TimeUnit.MILLISECONDS));
+    }
+
+    private boolean validate(PooledEntry entry) {
+        if (entry.broken) {
+            return false;
+        }
+        if (0 < maxIdleNanos && System.nanoTime() - entry.lastUsed > maxIdleNanos) {
+            return false;
+        }
+        try {
+            // Only fails if the application has closed the context, it
+            // doesn't show whether the connection is still alive
+            entry.context.getAutoStart();
+            return true;
+        } catch (JMSRuntimeException e) {
+            return false;
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (Partition p : partitions.values()) {
+            Iterator<PooledEntry> it = p.idle.iterator();
+            while (it.hasNext()) {
+                PooledEntry entry = it.next();
+                if (entry.broken || now - entry.lastUsed > maxIdleNanos) {
+                    if (p.idle.remove(entry)) {
+                        evictions.incrementAndGet();
+                        closeQuietly(entry.context);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(JMSContext context) {
+        try {
+            context.close();
+        } catch (JMSRuntimeException e) {
+            logger.fine("Error closing pooled context " + e.getMessage());
+        }
+    }
+
+    private class Partition {
+        final ConcurrentLinkedDeque<PooledEntry> idle = new ConcurrentLinkedDeque<>();
+        final Map<JMSContext, PooledEntry> inUse = new ConcurrentHashMap<>();
+        final Semaphore permits = new Semaphore(maxSize);
+    }
+
+    private static class PooledEntry {
+        final JMSContext context;
+        volatile long lastUsed = System.nanoTime();
+        volatile boolean broken = false;
+
+        PooledEntry(JMSContext context) {
+            this.context = context;
+            try {
+                // Any asynchronous connection failure marks the context
+                // so that it is not handed out again, keeping any
+                // listener the context already has
+                ExceptionListener existing = context.getExceptionListener();
+                context.setExceptionListener(e -> {
+                    broken = true;
+                    if (null != existing) {
+                        existing.onException(e);
+                    }
+                });
+            } catch (JMSRuntimeException e) {
+                logger.fine("Unable to set exception listener on pooled context");
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Generates 24 byte correlation ids, the size of an MQ CorrelId, without
+ * a SecureRandom draw or string formatting for each one.
+ *
+ * An id is a 16 byte random prefix, drawn once for each generator, then
+ * an 8 byte sequence number. The prefix keeps ids from different
+ * processes apart and the sequence keeps ids from the same generator
+ * apart, so the sequence number on its own identifies a request, and can
+ * be read back from the correlation id of its reply.
+ *
+ * The hex form of the prefix, and the start of the JMSCorrelationID
+ * selector, are built once, so only the 16 hex digits of the sequence
+ * are written for each id, into a per thread buffer.
+ */
+public class CorrelationIdGenerator {
+    public static final int LENGTH = 24;
+
+    private static final int PREFIX_LENGTH = 16;
+    private static final String ID_PREFIX = "ID:";
+    private static final String SELECTOR_START = "JMSCorrelationID='" + ID_PREFIX;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final CorrelationIdGenerator instance = new CorrelationIdGenerator();
+
+    private final byte[] prefix = new byte[PREFIX_LENGTH];
+    private final String prefixHex;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadLocal<StringBuilder> buffers;
+
+    public CorrelationIdGenerator() {
+        new SecureRandom().nextBytes(prefix);
+        prefixHex = toHex(prefix);
+
+        int selectorLength = SELECTOR_START.length() + LENGTH * 2 + 1;
+        buffers = ThreadLocal.withInitial(() -> new StringBuilder(selectorLength));
+    }
+
+    // The generator shared by the samples in this process
+    public static CorrelationIdGenerator getInstance() {
+        return instance;
+    }
+
+    public long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    public byte[] next() {
+        return toBytes(nextSequence());
+    }
+
+    public byte[] toBytes(long sequence) {
+        byte[] id = new byte[LENGTH];
+        toBytes(sequence, id);
+        return id;
+    }
+
+    // Writes the id into the first 24 bytes of the buffer
+    public void toBytes(long sequence, byte[] into) {
+        System.arraycopy(prefix, 0, into, 0, PREFIX_LENGTH);
+        for (int i = LENGTH - 1; i >= PREFIX_LENGTH; i--) {
+            into[i] = (byte) sequence;
+            sequence >>>= 8;
+        }
+    }
+
+    // The id as lower case hex, without the ID: prefix
+    public String toHex(long sequence) {
+        StringBuilder sb = buffer().append(prefixHex);
+        return appendHex(sb, sequence).toString();
+    }
+
+    // The id as a string JMSCorrelationID, ie. ID: followed by the hex
+    public String toJMSCorrelationID(long sequence) {
+        StringBuilder sb = buffer().append(ID_PREFIX).append(prefixHex);
+        return appendHex(sb, sequence).toString();
+    }
+
+    // The selector for a reply with this id
+    public String selector(long sequence) {
+        StringBuilder sb = buffer().append(SELECTOR_START).append(prefixHex);
+        return appendHex(sb, sequence).append('\'').toString();
+    }
+
+    // The sequence number of an id created by this generator, given as
+    // hex with or without ID:, or -1 if the id is not one of ours
+    public long sequenceOf(String correlationID) {
+        if (null == correlationID) {
+            return -1;
+        }
+        int start = correlationID.startsWith(ID_PREFIX) ? ID_PREFIX.length() : 0;
+        if (correlationID.length() - start != LENGTH * 2
+                || !correlationID.regionMatches(true, start, prefixHex, 0, prefixHex.length())) {
+            return -1;
+        }
+
+        long value = 0;
+        for (int i = start + prefixHex.length(); i < correlationID.length(); i++) {
+            int digit = Character.digit(correlationID.charAt(i), 16);
+            if (0 > digit) {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    // Lower case hex of any bytes
+    public static String toHex(byte[] b) {
+        StringBuilder sb = new StringBuilder(b.length * 2);
+        for (byte x : b) {
+            sb.append(HEX_DIGITS[(x >> 4) & 0xf]).append(HEX_DIGITS[x & 0xf]);
+        }
+        return sb.toString();
+    }
+
+    private StringBuilder buffer() {
+        StringBuilder sb = buffers.get();
+        sb.setLength(0);
+        return sb;
+    }
+
+    private static StringBuilder appendHex(StringBuilder sb, long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            sb.append(HEX_DIGITS[(int) (value >>> shift) & 0xf]);
+        }
+        return sb;
+    }
+}
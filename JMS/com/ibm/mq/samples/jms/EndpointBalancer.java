@@ -0,0 +1,395 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.JMSContext;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.JMSContext;
+
+/*
+ * Spreads work across the queue managers in MQ_ENDPOINTS. A connection
+ * name list is walked in order, so every application connects to the
+ * first queue manager that is up, while the balancer chooses one with
+ *
+ *  - ROUND_ROBIN, each endpoint in turn
+ *  - LEAST_OUTSTANDING, the endpoint with the fewest sends or requests
+ *    in flight
+ *  - LATENCY_WEIGHTED, at random, weighted towards the endpoints that
+ *    have been quickest, allowing for the work already in flight on them
+ *
+ * Each endpoint has a CircuitBreaker for its health. An endpoint whose
+ * breaker is open is passed over until it lets a trial through. The work
+ * on an endpoint is bracketed by begin() and succeeded() or failed(),
+ * which keep the counts and latency the strategies use, and the breaker.
+ *
+ * A producer that chooses with an affinity key, typically itself, keeps
+ * the same endpoint while it is healthy, so its messages stay in order.
+ *
+ * The strategy is chosen with -DBALANCE_STRATEGY=least_outstanding and the
+ * endpoints can be limited to those for one queue manager, or queue
+ * manager group in a CCDT, with -DBALANCE_GROUP=*QMGroupA. The breakers use
+ * the BREAKER_FAILURES and BREAKER_OPEN_TIME settings of ResilientConnection.
+ */
+public class EndpointBalancer {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final String BALANCE_STRATEGY = "BALANCE_STRATEGY";
+    public static final String BALANCE_GROUP = "BALANCE_GROUP";
+
+    private static final int DEFAULT_BREAKER_FAILURES = 5;
+    private static final long DEFAULT_BREAKER_OPEN_TIME = 30000;
+    // Each latency sample moves the average an eighth of the way towards it
+    private static final int LATENCY_SMOOTHING = 8;
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        LEAST_OUTSTANDING,
+        LATENCY_WEIGHTED;
+
+        // The strategy asked for by the BALANCE_STRATEGY system property, round robin by default
+        public static Strategy fromSystemProperty() {
+            String value = System.getProperty(BALANCE_STRATEGY);
+            if (null == value || value.trim().isEmpty()) {
+                return ROUND_ROBIN;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Unknown " + BALANCE_STRATEGY + " " + value + ", using round robin");
+                return ROUND_ROBIN;
+            }
+        }
+    }
+
+    private final Strategy strategy;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final Map<Object, Endpoint> affinity = new ConcurrentHashMap<>();
+    // Starts at random, so that separate processes do not all start on the first endpoint
+    private final AtomicInteger next = new AtomicInteger(ThreadLocalRandom.current().nextInt(1 << 16));
+
+    private int breakerFailures = Integer.getInteger(ResilientConnection.BREAKER_FAILURES, DEFAULT_BREAKER_FAILURES);
+    private long breakerOpenTime = Long.getLong(ResilientConnection.BREAKER_OPEN_TIME, DEFAULT_BREAKER_OPEN_TIME);
+
+    public EndpointBalancer(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    // Whether balancing has been asked for, with -DBALANCE_STRATEGY
+    public static boolean isSelected() {
+        String value = System.getProperty(BALANCE_STRATEGY);
+        return null != value && !value.trim().isEmpty();
+    }
+
+    // An endpoint for each MQ_ENDPOINTS entry, or each entry whose QMGR is
+    // BALANCE_GROUP. The factories are given the index of the entry, and
+    // return how to create contexts on it. They can be null if the caller
+    // connects to the endpoints by index itself.
+    public static EndpointBalancer fromEnv(SampleEnvSetter env, IntFunction<IntFunction<JMSContext>> factories) {
+        EndpointBalancer balancer = new EndpointBalancer(Strategy.fromSystemProperty());
+        String group = System.getProperty(BALANCE_GROUP);
+        EnvConfig config = env.getConfig();
+
+        if (!config.hasEndpoints()) {
+            // The endpoints are in a CCDT
+            balancer.add(0, "CCDT", (null == factories) ? null : factories.apply(0));
+            return balancer;
+        }
+        List<EnvConfig.Endpoint> entries = config.getEndpoints();
+        for (int i = 0; i < entries.size(); i++) {
+            EnvConfig.Endpoint e = entries.get(i);
+            if (null != group && !group.equals(e.getString("QMGR"))) {
+                continue;
+            }
+            balancer.add(i, e.getString("QMGR") + " " + e.getConnectionName(),
+                         (null == factories) ? null : factories.apply(i));
+        }
+        if (balancer.endpoints.isEmpty()) {
+            throw new IllegalArgumentException("No endpoints for " + BALANCE_GROUP + " " + group);
+        }
+        logger.info("Balancing across " + balancer.endpoints.size() + " endpoints, "
+                        + balancer.strategy.name().toLowerCase());
+        return balancer;
+    }
+
+    // Failures in a row before an endpoint is passed over, and for how long
+    public EndpointBalancer circuitBreaker(int failures, long openMillis) {
+        breakerFailures = failures;
+        breakerOpenTime = openMillis;
+        return this;
+    }
+
+    public EndpointBalancer add(String name, IntFunction<JMSContext> contextFactory) {
+        return add(endpoints.size(), name, contextFactory);
+    }
+
+    public EndpointBalancer add(int index, String name, IntFunction<JMSContext> contextFactory) {
+        endpoints.add(new Endpoint(index, name, contextFactory,
+                                   new CircuitBreaker(name, breakerFailures, breakerOpenTime, TimeUnit.MILLISECONDS)));
+        return this;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    // The endpoint for the next piece of work. If every endpoint's breaker
+    // is open, the one that will let a trial through soonest is chosen, so
+    // that the caller's attempt fails and is reported as it would without
+    // the balancer.
+    public Endpoint choose() {
+        return choose(Collections.emptySet());
+    }
+
+    // As choose(), but not one of the endpoints already tried, unless
+    // every endpoint has been
+    public Endpoint choose(Collection<Endpoint> tried) {
+        List<Endpoint> untried = new ArrayList<>(endpoints.size());
+        for (Endpoint e : endpoints) {
+            if (!tried.contains(e)) {
+                untried.add(e);
+            }
+        }
+        if (untried.isEmpty()) {
+            untried.addAll(endpoints);
+        }
+
+        List<Endpoint> candidates = new ArrayList<>(untried.size());
+        for (Endpoint e : untried) {
+            if (e.isAvailable()) {
+                candidates.add(e);
+            }
+        }
+        if (!candidates.isEmpty()) {
+            return pick(candidates);
+        }
+
+        Endpoint soonest = untried.get(0);
+        for (Endpoint e : untried) {
+            if (e.breaker.getRemainingOpenMillis() < soonest.breaker.getRemainingOpenMillis()) {
+                soonest = e;
+            }
+        }
+        return soonest;
+    }
+
+    // The endpoint last chosen for the key while it stays healthy,
+    // otherwise a newly chosen one
+    public Endpoint choose(Object key) {
+        return choose(key, Collections.emptySet());
+    }
+
+    // As choose(key), but a newly chosen endpoint is not one already tried
+    public Endpoint choose(Object key, Collection<Endpoint> tried) {
+        Endpoint current = affinity.get(key);
+        if (null != current && CircuitBreaker.State.CLOSED == current.breaker.getState() && !tried.contains(current)) {
+            return current;
+        }
+        Endpoint chosen = choose(tried);
+        if (null != current && chosen != current) {
+            logger.info("Moving from endpoint " + current.name + " to " + chosen.name);
+        }
+        affinity.put(key, chosen);
+        return chosen;
+    }
+
+    // The endpoint last chosen for the key, or null
+    public Endpoint current(Object key) {
+        return affinity.get(key);
+    }
+
+    // Forgets the key's endpoint eg. when the producer is closed
+    public void release(Object key) {
+        affinity.remove(key);
+    }
+
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder("Endpoints, " + strategy.name().toLowerCase() + ":");
+        for (Endpoint e : endpoints) {
+            sb.append(String.format("%n  %s %s sent %d failed %d in flight %d latency %.2f ms",
+                                    e.name, e.breaker.getState().name().toLowerCase(), e.getSent(),
+                                    e.getFailures(), e.getOutstanding(), e.getLatencyNanos() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    public void logSummary() {
+        logger.info(getSummary());
+    }
+
+    private Endpoint pick(List<Endpoint> candidates) {
+        int size = candidates.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        switch (strategy) {
+            case LEAST_OUTSTANDING: {
+                // Ties go to the endpoints in turn
+                Endpoint best = null;
+                for (int i = 0; i < size; i++) {
+                    Endpoint e = candidates.get((start + i) % size);
+                    if (null == best || e.getOutstanding() < best.getOutstanding()) {
+                        best = e;
+                    }
+                }
+                return best;
+            }
+            case LATENCY_WEIGHTED: {
+                // Endpoints without a latency yet are treated as the quickest, so they get tried
+                long quickest = Long.MAX_VALUE;
+                for (Endpoint e : candidates) {
+                    long latency = e.getLatencyNanos();
+                    if (0 < latency && latency < quickest) {
+                        quickest = latency;
+                    }
+                }
+                if (Long.MAX_VALUE == quickest) {
+                    quickest = 1;
+                }
+                // Weighted by 1 / the time a new piece of work can expect to take
+                double[] weights = new double[size];
+                double total = 0;
+                for (int i = 0; i < size; i++) {
+                    Endpoint e = candidates.get(i);
+                    long latency = (0 < e.getLatencyNanos()) ? e.getLatencyNanos() : quickest;
+                    weights[i] = 1.0 / ((double) latency * (e.getOutstanding() + 1));
+                    total += weights[i];
+                }
+                double r = ThreadLocalRandom.current().nextDouble(total);
+                for (int i = 0; i < size; i++) {
+                    r -= weights[i];
+                    if (r < 0) {
+                        return candidates.get(i);
+                    }
+                }
+                return candidates.get(size - 1);
+            }
+            default:
+                return candidates.get(start);
+        }
+    }
+
+    /*
+     * One queue manager endpoint, with the counts and latency the
+     * strategies use and a circuit breaker for its health.
+     */
+    public static final class Endpoint {
+        private final int index;
+        private final String name;
+        private final IntFunction<JMSContext> contextFactory;
+        private final CircuitBreaker breaker;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong latencyNanos = new AtomicLong();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        Endpoint(int index, String name, IntFunction<JMSContext> contextFactory, CircuitBreaker breaker) {
+            this.index = index;
+            this.name = name;
+            this.contextFactory = contextFactory;
+            this.breaker = breaker;
+        }
+
+        public JMSContext createContext(int sessionMode) {
+            if (null == contextFactory) {
+                throw new IllegalStateException("No context factory for endpoint " + name);
+            }
+            return contextFactory.apply(sessionMode);
+        }
+
+        // Marks the start of a send or request, returning its start time
+        public long begin() {
+            outstanding.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        public void succeeded(long start) {
+            outstanding.decrementAndGet();
+            sent.incrementAndGet();
+            long sample = System.nanoTime() - start;
+            long current;
+            long updated;
+            do {
+                current = latencyNanos.get();
+                updated = (0 == current) ? Math.max(1, sample) : current + (sample - current) / LATENCY_SMOOTHING;
+            } while (!latencyNanos.compareAndSet(current, updated));
+            breaker.recordSuccess();
+        }
+
+        public void failed(long start) {
+            outstanding.decrementAndGet();
+            failures.incrementAndGet();
+            breaker.recordFailure();
+        }
+
+        public boolean isAvailable() {
+            return 0 == breaker.getRemainingOpenMillis();
+        }
+
+        // The position of the endpoint in MQ_ENDPOINTS
+        public int getIndex() {
+            return index;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public CircuitBreaker getCircuitBreaker() {
+            return breaker;
+        }
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        // The smoothed time taken by the work on this endpoint, 0 before any has finished
+        public long getLatencyNanos() {
+            return latencyNanos.get();
+        }
+
+        public long getSent() {
+            return sent.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
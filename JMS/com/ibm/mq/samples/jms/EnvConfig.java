@@ -0,0 +1,345 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.*;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/*
+ * An immutable snapshot of the settings in an env.json file. The file is
+ * read and parsed once per process, into one Endpoint per entry in
+ * MQ_ENDPOINTS, and the snapshot is shared by every SampleEnvSetter that
+ * uses the same file.
+ *
+ * Setting -DEnvFileWatch=true watches the file for changes. When the file
+ * is rewritten a new snapshot is parsed and swapped in atomically, so
+ * readers see either the old or the new settings, never a mix of both.
+ * A file that fails to parse leaves the previous snapshot in place.
+ *
+ * System property overrides are not part of the snapshot, SampleEnvSetter
+ * checks them at the time of each lookup.
+ *
+ * The optional LOGGING object holds the settings that LoggingHelper
+ * applies, with a LEVELS object of per class log levels.
+ */
+public final class EnvConfig {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final String ENV_FILE_WATCH = "EnvFileWatch";
+
+    private static final String ENDPOINTS_KEY = "MQ_ENDPOINTS";
+    private static final String JWT_KEY = "JWT_ISSUER";
+    private static final String LOGGING_KEY = "LOGGING";
+    private static final String LEVELS_KEY = "LEVELS";
+
+    // One snapshot holder per file, keyed by absolute path
+    private static final Map<String, AtomicReference<EnvConfig>> snapshots = new ConcurrentHashMap<>();
+    private static final Map<String, Thread> watchers = new ConcurrentHashMap<>();
+
+    private final File source;
+    private final List<Endpoint> endpoints;
+    private final Map<String, Object> jwt;
+    private final Map<String, Object> logging;
+    private final Map<String, Object> levels;
+    private final String connectionString;
+
+    private EnvConfig(File source, List<Endpoint> endpoints, Map<String, Object> jwt,
+                      Map<String, Object> logging, Map<String, Object> levels) {
+        this.source = source;
+        this.endpoints = endpoints;
+        this.jwt = jwt;
+        this.logging = logging;
+        this.levels = levels;
+
+        if (null == endpoints) {
+            connectionString = null;
+        } else {
+            StringBuilder sb = new StringBuilder();
+            for (Endpoint e : endpoints) {
+                if (0 < sb.length()) {
+                    sb.append(',');
+                }
+                sb.append(e.getConnectionName());
+            }
+            connectionString = sb.toString();
+        }
+    }
+
+    // The current snapshot for the file, parsed the first time it is asked for
+    public static EnvConfig current(File file) {
+        return holderFor(file).get();
+    }
+
+    static AtomicReference<EnvConfig> holderFor(File file) {
+        String key = file.getAbsolutePath();
+        AtomicReference<EnvConfig> holder = snapshots.computeIfAbsent(key, k -> new AtomicReference<>(load(file)));
+        if (Boolean.getBoolean(ENV_FILE_WATCH)) {
+            watch(file);
+        }
+        return holder;
+    }
+
+    // Reads and parses a file, a missing or invalid file gives a snapshot with no endpoints
+    public static EnvConfig load(File file) {
+        EnvConfig config = parse(file);
+        return (null == config) ? new EnvConfig(file, null, Collections.emptyMap(),
+                                                Collections.emptyMap(), Collections.emptyMap())
+                                : config;
+    }
+
+    // Re-reads the file and swaps in the new snapshot, if the file parses
+    public static boolean reload(File file) {
+        EnvConfig config = parse(file);
+        if (null == config) {
+            logger.warning("Keeping previous environment settings");
+            return false;
+        }
+        snapshots.computeIfAbsent(file.getAbsolutePath(), k -> new AtomicReference<>()).set(config);
+        logger.info("Environment settings reloaded from " + file);
+        return true;
+    }
+
+    // Starts a daemon thread that reloads the file whenever it changes
+    public static void watch(File file) {
+        Path path = file.getAbsoluteFile().toPath();
+        Path dir = path.getParent();
+        if (null == dir) {
+            return;
+        }
+        watchers.computeIfAbsent(path.toString(), k -> {
+            Thread t = new Thread(() -> watchLoop(file, dir, path.getFileName()), "EnvConfig-watcher");
+            t.setDaemon(true);
+            t.start();
+            return t;
+        });
+    }
+
+    private static void watchLoop(File file, Path dir, Path name) {
+        try (WatchService ws = FileSystems.getDefault().newWatchService()) {
+            dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            logger.info("Watching " + file + " for changes");
+            while (true) {
+                WatchKey key = ws.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (name.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    // Let the writer finish before reading the file
+                    Thread.sleep(100);
+                    reload(file);
+                }
+            }
+        } catch (IOException | ClosedWatchServiceException e) {
+            logger.warning("Unable to watch " + file + " for changes");
+            logger.warning(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static EnvConfig parse(File file) {
+        if (null == file || !file.exists()) {
+            return null;
+        }
+        try {
+            String content = new String(Files.readAllBytes(file.toPath()));
+            JSONObject mqEnvSettings = new JSONObject(content);
+            logger.info("File read");
+
+            List<Endpoint> endpoints = null;
+            if (mqEnvSettings.has(ENDPOINTS_KEY)) {
+                JSONArray array = mqEnvSettings.getJSONArray(ENDPOINTS_KEY);
+                endpoints = new ArrayList<>(array.length());
+                for (int i = 0; i < array.length(); i++) {
+                    endpoints.add(new Endpoint(toMap(array.getJSONObject(i))));
+                }
+                endpoints = Collections.unmodifiableList(endpoints);
+            }
+
+            if (null == endpoints || endpoints.isEmpty()) {
+                logger.warning("No Endpoints found in .json file");
+            } else {
+                logger.info("There is at least one MQ endpoint in the .json file");
+            }
+
+            Map<String, Object> jwt = Collections.emptyMap();
+            if (mqEnvSettings.has(JWT_KEY)) {
+                jwt = toMap(mqEnvSettings.getJSONObject(JWT_KEY));
+                logger.info("JWT endpoints found, will be using JWT to Authenticate");
+            }
+
+            Map<String, Object> logging = Collections.emptyMap();
+            Map<String, Object> levels = Collections.emptyMap();
+            if (mqEnvSettings.has(LOGGING_KEY)) {
+                JSONObject settings = mqEnvSettings.getJSONObject(LOGGING_KEY);
+                if (settings.has(LEVELS_KEY)) {
+                    levels = toMap(settings.getJSONObject(LEVELS_KEY));
+                }
+                logging = toMap(settings);
+            }
+            return new EnvConfig(file, endpoints, jwt, logging, levels);
+        } catch (IOException e) {
+            logger.warning("Error processing env.json file");
+            logger.warning(e.getMessage());
+        } catch (JSONException e) {
+            logger.warning("Error parsing env.json file");
+            logger.warning(e.getMessage());
+        }
+        return null;
+    }
+
+    private static Map<String, Object> toMap(JSONObject obj) {
+        Map<String, Object> map = new HashMap<>();
+        for (String key : obj.keySet()) {
+            map.put(key, obj.get(key));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    public File getSource() {
+        return source;
+    }
+
+    // Null when there is no env.json, or it has no MQ_ENDPOINTS
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    // Null if the index is out of range
+    public Endpoint getEndpoint(int index) {
+        return (null == endpoints || index < 0 || index >= endpoints.size()) ? null : endpoints.get(index);
+    }
+
+    public boolean hasEndpoints() {
+        return null != endpoints && !endpoints.isEmpty();
+    }
+
+    // HOST(PORT) for every endpoint, comma separated
+    public String getConnectionString() {
+        return connectionString;
+    }
+
+    public boolean hasJwt() {
+        return !jwt.isEmpty();
+    }
+
+    public String getJwtValue(String key) {
+        Object value = jwt.get(key);
+        return (value instanceof String) ? (String) value : null;
+    }
+
+    // A LOGGING setting as a string, or null if it is not set
+    public String getLoggingValue(String key) {
+        Object value = logging.get(key);
+        return (null == value || JSONObject.NULL.equals(value)) ? null : value.toString();
+    }
+
+    // Log levels by class name, from LOGGING.LEVELS
+    public Map<String, String> getLogLevels() {
+        Map<String, String> result = new HashMap<>();
+        levels.forEach((k, v) -> result.put(k, String.valueOf(v)));
+        return result;
+    }
+
+    /*
+     * The settings for one queue manager endpoint. Values keep the type
+     * they have in the JSON, the typed getters convert them as org.json's
+     * getString, getBoolean and getLong would, returning null if the key
+     * is missing or the value can not be converted.
+     */
+    public static final class Endpoint {
+        private final Map<String, Object> values;
+
+        Endpoint(Map<String, Object> values) {
+            this.values = values;
+        }
+
+        public boolean has(String key) {
+            return values.containsKey(key);
+        }
+
+        public String getString(String key) {
+            Object value = values.get(key);
+            return (null == value || JSONObject.NULL.equals(value)) ? null : value.toString();
+        }
+
+        public Boolean getBoolean(String key) {
+            Object value = values.get(key);
+            if (value instanceof Boolean) {
+                return (Boolean) value;
+            }
+            if (value instanceof String) {
+                if ("true".equalsIgnoreCase((String) value)) {
+                    return Boolean.TRUE;
+                }
+                if ("false".equalsIgnoreCase((String) value)) {
+                    return Boolean.FALSE;
+                }
+            }
+            return null;
+        }
+
+        public Long getLong(String key) {
+            Object value = values.get(key);
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            }
+            if (value instanceof String) {
+                try {
+                    return new BigDecimal(((String) value).trim()).longValue();
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        // HOST(PORT), as used in a connection name list
+        public String getConnectionName() {
+            return getString("HOST") + "(" + getString("PORT") + ")";
+        }
+
+        public Map<String, Object> asMap() {
+            return values;
+        }
+    }
+}
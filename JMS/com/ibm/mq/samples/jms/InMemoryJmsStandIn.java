@@ -0,0 +1,1203 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.BytesMessage;
+import javax.jms.ConnectionFactory;
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
+import javax.jms.ExceptionListener;
+import javax.jms.IllegalStateRuntimeException;
+import javax.jms.InvalidSelectorRuntimeException;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.ObjectMessage;
+import javax.jms.Queue;
+import javax.jms.TemporaryQueue;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.BytesMessage;
+// import jakarta.jms.ConnectionFactory;
+// import jakarta.jms.DeliveryMode;
+// import jakarta.jms.Destination;
+// import jakarta.jms.ExceptionListener;
+// import jakarta.jms.IllegalStateRuntimeException;
+// import jakarta.jms.InvalidSelectorRuntimeException;
+// import jakarta.jms.JMSConsumer;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSException;
+// import jakarta.jms.JMSProducer;
+// import jakarta.jms.JMSRuntimeException;
+// import jakarta.jms.Message;
+// import jakarta.jms.MessageListener;
+// import jakarta.jms.ObjectMessage;
+// import jakarta.jms.Queue;
+// import jakarta.jms.TemporaryQueue;
+// import jakarta.jms.TextMessage;
+// import jakarta.jms.Topic;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.constants.MQConstants;
+
+/*
+ * A local, in-memory stand-in for a queue manager. It hands out JMSContext
+ * instances that implement enough of the simplified JMS API for the samples
+ * to be exercised and benchmarked without a running queue manager:
+ *  - queues, temporary queues and non durable topic subscriptions,
+ *    including shared subscriptions
+ *  - text, bytes, object and plain messages with headers and properties
+ *  - transacted contexts, where sends are held until commit and received
+ *    messages are returned to the queue on rollback
+ *  - simple selectors of the form  NAME = 'value' [AND NAME = 'value']
+ *  - message listeners, honouring JMSContext.stop() and start()
+ *  - contexts created from a context, which share its connection, so
+ *    are not delayed by the simulated connect time
+ *  - queue manager outages, see setAvailable, with the failures given the
+ *    MQ reason codes a real connection would report, and reported to the
+ *    exception listeners of the broken contexts
+ *
+ * The JMS objects are dynamic proxies, so the same class works unchanged
+ * against the JMS and Jakarta Messaging interfaces.
+ */
+public class InMemoryJmsStandIn {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    private static final String QUEUE_PREFIX = "queue:///";
+    private static final String TOPIC_PREFIX = "topic://";
+    private static final String DELIVERY_COUNT = "JMSXDeliveryCount";
+    private static final long PARK_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Map<String, LocalQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, List<LocalQueue>> subscriptions = new ConcurrentHashMap<>();
+    // Shared subscriptions, keyed by topic and subscription name
+    private final Map<String, LocalQueue> sharedSubscriptions = new HashMap<>();
+    private final AtomicLong idGenerator = new AtomicLong();
+
+    // Optional fixed delay applied to every send and receive, to roughly
+    // model the round trip to a remote queue manager
+    private volatile long simulatedLatencyNanos = 0;
+    // Optional delay applied to every new connection, but not to contexts
+    // created from an existing one, which share its connection
+    private volatile long simulatedConnectNanos = 0;
+    private final AtomicLong connections = new AtomicLong();
+    private volatile boolean available = true;
+    private final AtomicLong outages = new AtomicLong();
+    private final Set<ContextHandler> openContexts = ConcurrentHashMap.newKeySet();
+
+    public JMSContext createContext() {
+        return createContext(JMSContext.AUTO_ACKNOWLEDGE);
+    }
+
+    // Each context created here is a new connection
+    public JMSContext createContext(int sessionMode) {
+        if (!available) {
+            throw failure(MQConstants.MQRC_Q_MGR_NOT_AVAILABLE, "Queue manager is not available");
+        }
+        connections.incrementAndGet();
+        pause(simulatedConnectNanos);
+        return newContext(sessionMode);
+    }
+
+    private JMSContext newContext(int sessionMode) {
+        ContextHandler handler = new ContextHandler(sessionMode);
+        openContexts.add(handler);
+        return proxy(JMSContext.class, handler);
+    }
+
+    // A connection factory whose contexts all connect to this stand-in
+    public ConnectionFactory createConnectionFactory() {
+        return proxy(ConnectionFactory.class, (proxy, method, args) -> {
+            if (isObjectMethod(method)) {
+                return ("toString".equals(method.getName())) ? "InMemoryConnectionFactory"
+                                                             : objectMethod(proxy, null, method, args);
+            }
+            // The session mode, when given, is always the last argument
+            if (null != args && args[args.length - 1] instanceof Integer) {
+                return createContext((Integer) args[args.length - 1]);
+            }
+            return createContext();
+        });
+    }
+
+    public InMemoryJmsStandIn setSimulatedLatency(long duration, TimeUnit unit) {
+        simulatedLatencyNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    public InMemoryJmsStandIn setSimulatedConnectTime(long duration, TimeUnit unit) {
+        simulatedConnectNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    // While unavailable, new connections fail with MQRC_Q_MGR_NOT_AVAILABLE.
+    // Connections made before the outage are broken, and fail with
+    // MQRC_CONNECTION_BROKEN from then on, even once the stand-in is
+    // available again, as a real connection would. Each open context's
+    // exception listener is told its connection is broken.
+    public InMemoryJmsStandIn setAvailable(boolean available) {
+        if (!available) {
+            outages.incrementAndGet();
+        }
+        this.available = available;
+        if (!available) {
+            for (ContextHandler c : openContexts) {
+                c.connectionBroken();
+            }
+        }
+        return this;
+    }
+
+    // Number of connections made, not counting contexts created from them
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    // Number of committed messages waiting on a queue
+    public int getDepth(String queueName) {
+        LocalQueue q = queues.get(normalise(queueName, QUEUE_PREFIX));
+        return (null == q) ? 0 : q.size();
+    }
+
+    public void clear() {
+        queues.clear();
+        subscriptions.clear();
+        synchronized (sharedSubscriptions) {
+            sharedSubscriptions.clear();
+        }
+    }
+
+    /*
+     * Shared subscriptions, each message published to the topic is
+     * delivered to one of the consumers that share the subscription
+     */
+    private LocalQueue joinSharedSubscription(String topic, String name) {
+        synchronized (sharedSubscriptions) {
+            LocalQueue source = sharedSubscriptions.computeIfAbsent(topic + "/" + name, k -> {
+                LocalQueue q = new LocalQueue(topic);
+                q.shareKey = k;
+                subscriptions.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(q);
+                return q;
+            });
+            source.sharers++;
+            return source;
+        }
+    }
+
+    // The subscription ends when the last consumer sharing it is closed
+    private void leaveSubscription(LocalQueue source) {
+        if (null != source.shareKey) {
+            synchronized (sharedSubscriptions) {
+                if (0 < --source.sharers) {
+                    return;
+                }
+                sharedSubscriptions.remove(source.shareKey);
+            }
+        }
+        List<LocalQueue> subs = subscriptions.get(source.name);
+        if (null != subs) {
+            subs.remove(source);
+        }
+    }
+
+    /*
+     * Destinations
+     */
+    private LocalQueue queueFor(String name) {
+        return queues.computeIfAbsent(name, LocalQueue::new);
+    }
+
+    private static String normalise(String name, String prefix) {
+        String n = name;
+        if (n.startsWith(prefix)) {
+            n = n.substring(prefix.length());
+        }
+        int query = n.indexOf('?');
+        if (0 <= query) {
+            n = n.substring(0, query);
+        }
+        return n.trim();
+    }
+
+    private Destination newQueueDestination(String name, boolean temporary) {
+        DestinationHandler h = new DestinationHandler(name, false);
+        return temporary ? proxy(TemporaryQueue.class, h) : proxy(Queue.class, h);
+    }
+
+    private static DestinationHandler destinationHandler(Destination d) {
+        if (null == d || !Proxy.isProxyClass(d.getClass())) {
+            throw new IllegalStateRuntimeException("Destination " + d + " was not created by the stand-in");
+        }
+        return (DestinationHandler) Proxy.getInvocationHandler(d);
+    }
+
+    private void deliver(Destination destination, Message message) {
+        DestinationHandler dh = destinationHandler(destination);
+        if (dh.topic) {
+            List<LocalQueue> subs = subscriptions.get(dh.name);
+            if (null != subs) {
+                for (LocalQueue q : subs) {
+                    q.add(message);
+                }
+            }
+        } else {
+            queueFor(dh.name).add(message);
+        }
+    }
+
+    private void simulateLatency() {
+        pause(simulatedLatencyNanos);
+    }
+
+    private static void pause(long delay) {
+        if (0 < delay) {
+            long deadline = System.nanoTime() + delay;
+            // Longer delays park, as a network round trip would, so that
+            // other threads can run. Short delays spin for accuracy.
+            if (delay >= PARK_THRESHOLD_NANOS) {
+                long remaining;
+                while (0 < (remaining = deadline - System.nanoTime())) {
+                    LockSupport.parkNanos(remaining);
+                }
+            }
+            while (System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InMemoryJmsStandIn.class.getClassLoader(),
+                                          new Class<?>[] { type }, handler);
+    }
+
+    // Handles the java.lang.Object methods for all of the proxies
+    private static Object objectMethod(Object proxy, InvocationHandler self, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return self.toString();
+        }
+        return null;
+    }
+
+    private static String toHex(byte[] b) {
+        StringBuilder sb = new StringBuilder(b.length * 2);
+        for (byte x : b) {
+            sb.append(Character.forDigit((x >> 4) & 0xf, 16)).append(Character.forDigit(x & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private static JMSRuntimeException failure(int reason, String text) {
+        return new JMSRuntimeException(text + " (" + reason + ")", String.valueOf(reason),
+                                       new MQException(MQConstants.MQCC_FAILED, reason, null));
+    }
+
+    private static boolean isObjectMethod(Method method) {
+        return Object.class == method.getDeclaringClass();
+    }
+
+    private static Object defaultFor(Class<?> type) {
+        if (!type.isPrimitive() || void.class == type) {
+            return null;
+        }
+        if (boolean.class == type) {
+            return false;
+        }
+        if (long.class == type) {
+            return 0L;
+        }
+        if (int.class == type) {
+            return 0;
+        }
+        if (short.class == type) {
+            return (short) 0;
+        }
+        if (byte.class == type) {
+            return (byte) 0;
+        }
+        if (double.class == type) {
+            return 0.0d;
+        }
+        if (float.class == type) {
+            return 0.0f;
+        }
+        return null;
+    }
+
+    /*
+     * A queue, or a single subscription to a topic. Consumers with a selector
+     * scan the queue for the first match, so a shared lock and condition is
+     * used rather than a BlockingQueue.
+     */
+    private static class LocalQueue {
+        private final String name;
+        private final ArrayDeque<Message> messages = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition available = lock.newCondition();
+        // Set for shared subscriptions, guarded by the sharedSubscriptions map
+        String shareKey = null;
+        int sharers = 0;
+
+        LocalQueue(String name) {
+            this.name = name;
+        }
+
+        void add(Message m) {
+            lock.lock();
+            try {
+                messages.addLast(m);
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void returnToFront(List<Message> returned) {
+            lock.lock();
+            try {
+                for (int i = returned.size() - 1; i >= 0; i--) {
+                    messages.addFirst(returned.get(i));
+                }
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return messages.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // timeoutNanos < 0 waits forever, 0 does not wait
+        Message take(Predicate<Message> selector, long timeoutNanos, ConsumerHandler owner) throws InterruptedException {
+            long remaining = timeoutNanos;
+            lock.lock();
+            try {
+                while (true) {
+                    if (owner.closed) {
+                        return null;
+                    }
+                    Message m = removeFirstMatch(selector);
+                    if (null != m) {
+                        return m;
+                    }
+                    if (0 == timeoutNanos) {
+                        return null;
+                    }
+                    if (0 > timeoutNanos) {
+                        available.await();
+                    } else {
+                        if (remaining <= 0) {
+                            return null;
+                        }
+                        remaining = available.awaitNanos(remaining);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void wakeAll() {
+            lock.lock();
+            try {
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Message removeFirstMatch(Predicate<Message> selector) {
+            if (null == selector) {
+                return messages.pollFirst();
+            }
+            Iterator<Message> it = messages.iterator();
+            while (it.hasNext()) {
+                Message m = it.next();
+                if (selector.test(m)) {
+                    it.remove();
+                    return m;
+                }
+            }
+            return null;
+        }
+    }
+
+    /*
+     * Queue and topic destinations
+     */
+    private static class DestinationHandler implements InvocationHandler {
+        final String name;
+        final boolean topic;
+
+        DestinationHandler(String name, boolean topic) {
+            this.name = name;
+            this.topic = topic;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (isObjectMethod(method)) {
+                switch (method.getName()) {
+                    case "equals":
+                        return null != args[0]
+                                && Proxy.isProxyClass(args[0].getClass())
+                                && Proxy.getInvocationHandler(args[0]) instanceof DestinationHandler
+                                && toString().equals(Proxy.getInvocationHandler(args[0]).toString());
+                    case "hashCode":
+                        return toString().hashCode();
+                    default:
+                        return toString();
+                }
+            }
+            switch (method.getName()) {
+                case "getQueueName":
+                case "getTopicName":
+                    return name;
+                case "delete":
+                    return null;
+            }
+            throw new UnsupportedOperationException(method.getName() + " is not supported by the stand-in");
+        }
+
+        @Override
+        public String toString() {
+            return (topic ? TOPIC_PREFIX : QUEUE_PREFIX) + name;
+        }
+    }
+
+    /*
+     * Messages of all types. Headers and properties are held in maps, and the
+     * body is held as an object or a byte stream depending on the type.
+     */
+    private class MessageHandler implements InvocationHandler {
+        private final Map<String, Object> headers = new HashMap<>();
+        private final Map<String, Object> properties = new LinkedHashMap<>();
+        private Object body = null;
+        private ByteArrayOutputStream bytesOut = null;
+        private int readPosition = 0;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isObjectMethod(method)) {
+                return objectMethod(proxy, this, method, args);
+            }
+            String name = method.getName();
+
+            switch (name) {
+                case "getText":
+                case "getObject":
+                    return body;
+                case "setText":
+                case "setObject":
+                    body = args[0];
+                    return null;
+                case "getBody":
+                    return (null != bytesOut) ? bytesOut.toByteArray() : body;
+                case "isBodyAssignableTo":
+                    return null == body || ((Class<?>) args[0]).isInstance(body);
+                case "clearBody":
+                    body = null;
+                    bytesOut = null;
+                    readPosition = 0;
+                    return null;
+                case "writeBytes":
+                    return writeBytes(args);
+                case "readBytes":
+                    return readBytes(args);
+                case "getBodyLength":
+                    return (long) ((null == bytesOut) ? 0 : bytesOut.size());
+                case "reset":
+                    readPosition = 0;
+                    return null;
+                case "acknowledge":
+                    return null;
+                case "clearProperties":
+                    properties.clear();
+                    return null;
+                case "propertyExists":
+                    return properties.containsKey(args[0]);
+                case "getPropertyNames":
+                    return Collections.enumeration(new ArrayList<>(properties.keySet()));
+                case "getJMSCorrelationIDAsBytes":
+                    return headers.get("CorrelationIDAsBytes");
+                case "setJMSCorrelationIDAsBytes":
+                    headers.put("CorrelationIDAsBytes", args[0]);
+                    headers.put("CorrelationID", "ID:" + toHex((byte[]) args[0]));
+                    return null;
+            }
+
+            if (name.endsWith("Property")) {
+                if (name.startsWith("set")) {
+                    properties.put((String) args[0], args[1]);
+                    return null;
+                }
+                return convert(properties.get((String) args[0]), method.getReturnType());
+            }
+            if (name.startsWith("setJMS")) {
+                headers.put(name.substring(6), args[0]);
+                return null;
+            }
+            if (name.startsWith("getJMS")) {
+                Object value = headers.get(name.substring(6));
+                return (null == value) ? defaultFor(method.getReturnType()) : value;
+            }
+            throw new UnsupportedOperationException(name + " is not supported by the stand-in");
+        }
+
+        private Object writeBytes(Object[] args) {
+            if (null == bytesOut) {
+                bytesOut = new ByteArrayOutputStream();
+            }
+            byte[] b = (byte[]) args[0];
+            if (1 == args.length) {
+                bytesOut.write(b, 0, b.length);
+            } else {
+                bytesOut.write(b, (Integer) args[1], (Integer) args[2]);
+            }
+            return null;
+        }
+
+        private Object readBytes(Object[] args) {
+            byte[] target = (byte[]) args[0];
+            byte[] source = (null == bytesOut) ? new byte[0] : bytesOut.toByteArray();
+            int wanted = (1 == args.length) ? target.length : (Integer) args[1];
+            int available = source.length - readPosition;
+            if (available <= 0) {
+                return -1;
+            }
+            int n = Math.min(wanted, available);
+            System.arraycopy(source, readPosition, target, 0, n);
+            readPosition += n;
+            return n;
+        }
+
+        private Object convert(Object value, Class<?> type) {
+            if (Object.class == type) {
+                return value;
+            }
+            if (String.class == type) {
+                return (null == value) ? null : String.valueOf(value);
+            }
+            if (boolean.class == type) {
+                return (value instanceof Boolean) ? value : Boolean.valueOf(String.valueOf(value));
+            }
+            if (null == value) {
+                // As the JMS specification, a missing numeric property
+                // behaves like Integer.valueOf(null)
+                throw new NumberFormatException("Property not found");
+            }
+            Number n = (value instanceof Number) ? (Number) value : Double.valueOf(String.valueOf(value));
+            if (int.class == type) {
+                return n.intValue();
+            }
+            if (long.class == type) {
+                return n.longValue();
+            }
+            if (short.class == type) {
+                return n.shortValue();
+            }
+            if (byte.class == type) {
+                return n.byteValue();
+            }
+            if (float.class == type) {
+                return n.floatValue();
+            }
+            return n.doubleValue();
+        }
+
+        Object header(String name) {
+            return headers.get(name);
+        }
+
+        Object property(String name) {
+            return properties.get(name);
+        }
+
+        void incrementDeliveryCount() {
+            Object count = properties.get(DELIVERY_COUNT);
+            int n = (count instanceof Integer) ? (Integer) count : 0;
+            properties.put(DELIVERY_COUNT, n + 1);
+            headers.put("Redelivered", 1 < n + 1);
+        }
+
+        @Override
+        public String toString() {
+            return "InMemoryMessage " + headers.get("MessageID");
+        }
+    }
+
+    private Message newMessage(Class<? extends Message> type) {
+        return proxy(type, new MessageHandler());
+    }
+
+    private static MessageHandler messageHandler(Message m) {
+        return (MessageHandler) Proxy.getInvocationHandler(m);
+    }
+
+    /*
+     * Selector support, limited to equality on headers and properties
+     */
+    private static Predicate<Message> parseSelector(String selector) {
+        if (null == selector || selector.trim().isEmpty()) {
+            return null;
+        }
+        Predicate<Message> result = null;
+        for (String clause : selector.split("(?i)\\s+AND\\s+")) {
+            int eq = clause.indexOf('=');
+            if (eq < 0) {
+                throw new InvalidSelectorRuntimeException("Unsupported selector " + selector);
+            }
+            String field = clause.substring(0, eq).trim();
+            String literal = clause.substring(eq + 1).trim();
+            if (literal.length() < 2 || !literal.startsWith("'") || !literal.endsWith("'")) {
+                throw new InvalidSelectorRuntimeException("Unsupported selector " + selector);
+            }
+            String expected = literal.substring(1, literal.length() - 1);
+            Predicate<Message> p = m -> {
+                MessageHandler h = messageHandler(m);
+                Object actual = field.startsWith("JMS") && !field.startsWith("JMSX")
+                                    ? h.header(field.substring(3))
+                                    : h.property(field);
+                return null != actual && expected.equals(String.valueOf(actual));
+            };
+            result = (null == result) ? p : result.and(p);
+        }
+        return result;
+    }
+
+    /*
+     * Contexts
+     */
+    private class ContextHandler implements InvocationHandler {
+        private final int sessionMode;
+        private final List<Message> pendingSends = new ArrayList<>();
+        private final List<Destination> pendingDestinations = new ArrayList<>();
+        private final Map<LocalQueue, List<Message>> pendingReceives = new LinkedHashMap<>();
+        private final List<ConsumerHandler> consumers = new CopyOnWriteArrayList<>();
+        private final Object stateLock = new Object();
+        private volatile boolean started = true;
+        private volatile boolean closed = false;
+        private volatile ExceptionListener exceptionListener = null;
+        private final long outage = outages.get();
+
+        ContextHandler(int sessionMode) {
+            this.sessionMode = sessionMode;
+        }
+
+        boolean isTransacted() {
+            return JMSContext.SESSION_TRANSACTED == sessionMode;
+        }
+
+        // Broken by an outage since the connection was made
+        boolean isBroken() {
+            return outage != outages.get();
+        }
+
+        void checkConnection() {
+            if (isBroken()) {
+                throw failure(MQConstants.MQRC_CONNECTION_BROKEN, "Connection to the queue manager is broken");
+            }
+        }
+
+        void connectionBroken() {
+            ExceptionListener listener = exceptionListener;
+            if (null != listener) {
+                JMSException e = new JMSException("Connection to the queue manager is broken",
+                                                  String.valueOf(MQConstants.MQRC_CONNECTION_BROKEN));
+                e.setLinkedException(new MQException(MQConstants.MQCC_FAILED, MQConstants.MQRC_CONNECTION_BROKEN, null));
+                listener.onException(e);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (isObjectMethod(method)) {
+                return objectMethod(proxy, this, method, args);
+            }
+            String name = method.getName();
+            if (closed && !"close".equals(name)) {
+                throw new IllegalStateRuntimeException("Context is closed");
+            }
+            if (!"close".equals(name)) {
+                checkConnection();
+            }
+
+            switch (name) {
+                case "createContext":
+                    return newContext((Integer) args[0]);
+                case "createProducer":
+                    return proxy(JMSProducer.class, new ProducerHandler(this));
+                case "createQueue":
+                    return newQueueDestination(normalise((String) args[0], QUEUE_PREFIX), false);
+                case "createTemporaryQueue":
+                    return newQueueDestination("AMQ.TEMP." + idGenerator.incrementAndGet(), true);
+                case "createTopic":
+                    return proxy(Topic.class, new DestinationHandler(normalise((String) args[0], TOPIC_PREFIX), true));
+                case "createConsumer":
+                    return createConsumer(args, false);
+                case "createSharedConsumer":
+                    return createConsumer(args, true);
+                case "createMessage":
+                    return newMessage(Message.class);
+                case "createTextMessage":
+                    return createTextMessage(args);
+                case "createBytesMessage":
+                    return newMessage(BytesMessage.class);
+                case "createObjectMessage":
+                    return createObjectMessage(args);
+                case "getTransacted":
+                    return isTransacted();
+                case "getSessionMode":
+                    return sessionMode;
+                case "commit":
+                    commit();
+                    return null;
+                case "rollback":
+                case "recover":
+                    rollback();
+                    return null;
+                case "start":
+                    setStarted(true);
+                    return null;
+                case "stop":
+                    setStarted(false);
+                    return null;
+                case "close":
+                    close();
+                    return null;
+                case "getAutoStart":
+                    return true;
+                case "setExceptionListener":
+                    exceptionListener = (ExceptionListener) args[0];
+                    return null;
+                case "getExceptionListener":
+                    return exceptionListener;
+                case "setAutoStart":
+                case "setClientID":
+                case "acknowledge":
+                    return null;
+                case "getClientID":
+                    return null;
+            }
+            throw new UnsupportedOperationException(name + " is not supported by the stand-in");
+        }
+
+        private Object createTextMessage(Object[] args) {
+            TextMessage m = (TextMessage) newMessage(TextMessage.class);
+            if (null != args && 1 == args.length) {
+                messageHandler(m).body = args[0];
+            }
+            return m;
+        }
+
+        private Object createObjectMessage(Object[] args) {
+            ObjectMessage m = (ObjectMessage) newMessage(ObjectMessage.class);
+            if (null != args && 1 == args.length) {
+                messageHandler(m).body = args[0];
+            }
+            return m;
+        }
+
+        // Shared consumers are passed the subscription name before the selector
+        private Object createConsumer(Object[] args, boolean shared) {
+            Destination d = (Destination) args[0];
+            DestinationHandler dh = destinationHandler(d);
+            int selectorArg = shared ? 2 : 1;
+            String selector = (selectorArg < args.length && args[selectorArg] instanceof String)
+                                    ? (String) args[selectorArg] : null;
+
+            LocalQueue source;
+            boolean subscription = false;
+            if (dh.topic && shared) {
+                source = joinSharedSubscription(dh.name, (String) args[1]);
+                subscription = true;
+            } else if (dh.topic) {
+                source = new LocalQueue(dh.name);
+                subscriptions.computeIfAbsent(dh.name, k -> new CopyOnWriteArrayList<>()).add(source);
+                subscription = true;
+            } else {
+                source = queueFor(dh.name);
+            }
+            ConsumerHandler ch = new ConsumerHandler(this, source, parseSelector(selector), selector, subscription);
+            consumers.add(ch);
+            return proxy(JMSConsumer.class, ch);
+        }
+
+        void send(Destination destination, Message message) {
+            simulateLatency();
+            // Fail on send, as a queue manager would, even if the send is held until commit
+            destinationHandler(destination);
+            if (isTransacted()) {
+                synchronized (pendingSends) {
+                    pendingSends.add(message);
+                    pendingDestinations.add(destination);
+                }
+            } else {
+                deliver(destination, message);
+            }
+        }
+
+        void received(LocalQueue source, Message message) {
+            messageHandler(message).incrementDeliveryCount();
+            if (isTransacted()) {
+                synchronized (pendingReceives) {
+                    pendingReceives.computeIfAbsent(source, k -> new ArrayList<>()).add(message);
+                }
+            }
+        }
+
+        void commit() {
+            if (!isTransacted()) {
+                throw new IllegalStateRuntimeException("Context is not transacted");
+            }
+            simulateLatency();
+            synchronized (pendingSends) {
+                for (int i = 0; i < pendingSends.size(); i++) {
+                    deliver(pendingDestinations.get(i), pendingSends.get(i));
+                }
+                pendingSends.clear();
+                pendingDestinations.clear();
+            }
+            synchronized (pendingReceives) {
+                pendingReceives.clear();
+            }
+        }
+
+        void rollback() {
+            synchronized (pendingSends) {
+                pendingSends.clear();
+                pendingDestinations.clear();
+            }
+            synchronized (pendingReceives) {
+                for (Map.Entry<LocalQueue, List<Message>> e : pendingReceives.entrySet()) {
+                    e.getKey().returnToFront(e.getValue());
+                }
+                pendingReceives.clear();
+            }
+        }
+
+        void setStarted(boolean value) {
+            synchronized (stateLock) {
+                started = value;
+                stateLock.notifyAll();
+            }
+        }
+
+        void awaitStarted() throws InterruptedException {
+            synchronized (stateLock) {
+                while (!started && !closed) {
+                    stateLock.wait();
+                }
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            if (isTransacted()) {
+                rollback();
+            }
+            closed = true;
+            openContexts.remove(this);
+            for (ConsumerHandler ch : consumers) {
+                ch.close();
+            }
+            setStarted(false);
+        }
+
+        @Override
+        public String toString() {
+            return "InMemoryJMSContext sessionMode=" + sessionMode;
+        }
+    }
+
+    /*
+     * Producers
+     */
+    private class ProducerHandler implements InvocationHandler {
+        private final ContextHandler context;
+        private final Map<String, Object> settings = new HashMap<>();
+        private final Map<String, Object> properties = new LinkedHashMap<>();
+
+        ProducerHandler(ContextHandler context) {
+            this.context = context;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isObjectMethod(method)) {
+                return objectMethod(proxy, this, method, args);
+            }
+            String name = method.getName();
+            switch (name) {
+                case "send":
+                    send((Destination) args[0], args[1]);
+                    return proxy;
+                case "setProperty":
+                    properties.put((String) args[0], args[1]);
+                    return proxy;
+                case "clearProperties":
+                    properties.clear();
+                    return proxy;
+                case "propertyExists":
+                    return properties.containsKey(args[0]);
+                case "getPropertyNames":
+                    return properties.keySet();
+            }
+            if (name.endsWith("Property")) {
+                Object value = properties.get((String) args[0]);
+                return (String.class == method.getReturnType() && null != value) ? String.valueOf(value) : value;
+            }
+            if (name.startsWith("set")) {
+                settings.put(name.substring(3), args[0]);
+                return proxy;
+            }
+            if (name.startsWith("get")) {
+                Object value = settings.get(name.substring(3));
+                return (null == value) ? defaultFor(method.getReturnType()) : value;
+            }
+            throw new UnsupportedOperationException(name + " is not supported by the stand-in");
+        }
+
+        private void send(Destination destination, Object payload) throws Exception {
+            context.checkConnection();
+            Message message;
+            if (payload instanceof Message) {
+                message = (Message) payload;
+            } else if (payload instanceof String) {
+                message = newMessage(TextMessage.class);
+                messageHandler(message).body = payload;
+            } else if (payload instanceof byte[]) {
+                message = newMessage(BytesMessage.class);
+                ((BytesMessage) message).writeBytes((byte[]) payload);
+            } else {
+                message = newMessage(ObjectMessage.class);
+                messageHandler(message).body = (Serializable) payload;
+            }
+
+            long now = System.currentTimeMillis();
+            Object ttl = settings.get("TimeToLive");
+            Object deliveryMode = settings.get("DeliveryMode");
+            Object priority = settings.get("Priority");
+
+            message.setJMSDestination(destination);
+            message.setJMSMessageID("ID:" + Long.toHexString(idGenerator.incrementAndGet()));
+            message.setJMSTimestamp(now);
+            message.setJMSDeliveryMode((null == deliveryMode) ? DeliveryMode.PERSISTENT : (Integer) deliveryMode);
+            message.setJMSPriority((null == priority) ? Message.DEFAULT_PRIORITY : (Integer) priority);
+            message.setJMSExpiration((null == ttl || 0L == (Long) ttl) ? 0L : now + (Long) ttl);
+
+            for (String key : new String[] { "JMSCorrelationID", "JMSType", "JMSReplyTo" }) {
+                Object value = settings.get(key);
+                if (null != value) {
+                    messageHandler(message).headers.put(key.substring(3), value);
+                }
+            }
+            Object correlationBytes = settings.get("JMSCorrelationIDAsBytes");
+            if (null != correlationBytes) {
+                message.setJMSCorrelationIDAsBytes((byte[]) correlationBytes);
+            }
+            for (Map.Entry<String, Object> e : properties.entrySet()) {
+                message.setObjectProperty(e.getKey(), e.getValue());
+            }
+            context.send(destination, message);
+        }
+
+        @Override
+        public String toString() {
+            return "InMemoryJMSProducer";
+        }
+    }
+
+    /*
+     * Consumers, either polling with receive or driven by a listener thread
+     */
+    private class ConsumerHandler implements InvocationHandler {
+        private final ContextHandler context;
+        private final LocalQueue source;
+        private final Predicate<Message> selector;
+        private final String selectorText;
+        private final boolean subscription;
+        private volatile MessageListener listener = null;
+        private Thread listenerThread = null;
+        volatile boolean closed = false;
+
+        ConsumerHandler(ContextHandler context, LocalQueue source, Predicate<Message> selector,
+                        String selectorText, boolean subscription) {
+            this.context = context;
+            this.source = source;
+            this.selector = selector;
+            this.selectorText = selectorText;
+            this.subscription = subscription;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isObjectMethod(method)) {
+                return objectMethod(proxy, this, method, args);
+            }
+            switch (method.getName()) {
+                case "receive":
+                    // As with JMS, receive(0) waits forever
+                    return receive((null == args || 0 == args.length || 0L == (Long) args[0])
+                                   ? -1 : TimeUnit.MILLISECONDS.toNanos((Long) args[0]));
+                case "receiveNoWait":
+                    return receive(0);
+                case "receiveBody":
+                case "receiveBodyNoWait":
+                    long timeout = "receiveBodyNoWait".equals(method.getName()) ? 0
+                                   : (1 == args.length) ? -1 : TimeUnit.MILLISECONDS.toNanos((Long) args[1]);
+                    Message m = receive(timeout);
+                    return (null == m) ? null : m.getBody((Class<?>) args[0]);
+                case "getMessageSelector":
+                    return selectorText;
+                case "getMessageListener":
+                    return listener;
+                case "setMessageListener":
+                    setMessageListener((MessageListener) args[0]);
+                    return null;
+                case "close":
+                    close();
+                    return null;
+            }
+            throw new UnsupportedOperationException(method.getName() + " is not supported by the stand-in");
+        }
+
+        private Message receive(long timeoutNanos) {
+            if (closed) {
+                throw new IllegalStateRuntimeException("Consumer is closed");
+            }
+            context.checkConnection();
+            try {
+                Message m = source.take(selector, timeoutNanos, this);
+                if (context.isBroken()) {
+                    if (null != m) {
+                        source.returnToFront(Collections.singletonList(m));
+                    }
+                    context.checkConnection();
+                }
+                if (null != m) {
+                    simulateLatency();
+                    context.received(source, m);
+                }
+                return m;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        private synchronized void setMessageListener(MessageListener l) {
+            listener = l;
+            if (null != l && null == listenerThread) {
+                listenerThread = new Thread(this::dispatchLoop, "stand-in-listener-" + source.name);
+                listenerThread.setDaemon(true);
+                listenerThread.start();
+            }
+        }
+
+        private void dispatchLoop() {
+            try {
+                while (!closed) {
+                    context.awaitStarted();
+                    if (closed) {
+                        break;
+                    }
+                    Message m = source.take(selector, TimeUnit.MILLISECONDS.toNanos(100), this);
+                    if (null == m) {
+                        continue;
+                    }
+                    simulateLatency();
+                    context.received(source, m);
+                    MessageListener l = listener;
+                    try {
+                        if (null != l) {
+                            l.onMessage(m);
+                        }
+                    } catch (RuntimeException e) {
+                        logger.warning("Message listener threw " + e);
+                        if (!context.isTransacted()) {
+                            source.returnToFront(Collections.singletonList(m));
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (subscription) {
+                leaveSubscription(source);
+            }
+            source.wakeAll();
+        }
+
+        @Override
+        public String toString() {
+            return "InMemoryJMSConsumer " + source.name;
+        }
+    }
+}
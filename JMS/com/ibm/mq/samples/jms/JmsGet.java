@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2024
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -16,10 +16,10 @@
 
 package com.ibm.mq.samples.jms;
 
+import java.util.concurrent.TimeUnit;
 import java.util.logging.*;
 
 // Use these imports for building with JMS
-import javax.jms.Destination;
 import javax.jms.JMSConsumer;
 import javax.jms.JMSContext;
 import javax.jms.JMSException;
@@ -32,7 +32,6 @@ import com.ibm.msg.client.jms.JmsFactoryFactory;
 import com.ibm.msg.client.wmq.WMQConstants;
 
 // Use these imports for building with Jakarta Messaging
-// import jakarta.jms.Destination;
 // import jakarta.jms.JMSConsumer;
 // import jakarta.jms.JMSContext;
 // import jakarta.jms.JMSException;
@@ -44,18 +43,15 @@ import com.ibm.msg.client.wmq.WMQConstants;
 // import com.ibm.msg.client.jakarta.jms.JmsFactoryFactory;
 // import com.ibm.msg.client.jakarta.wmq.WMQConstants;
 
-
-import com.ibm.mq.constants.MQConstants;
-import com.ibm.mq.MQException;
-
 import com.ibm.mq.samples.jms.SampleEnvSetter;
 import com.ibm.mq.samples.jms.JwtHelper;
 
 public class JmsGet {
 
     private static final String DEFAULT_APP_NAME = "Dev Experience JmsGet";
-    private static final Level LOGLEVEL = Level.ALL;
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+    private static final SampleMetrics metrics = SampleMetrics.get();
+    private static final SampleLogger messageLog = SampleLogger.getLogger(JmsGet.class);
 
     // Create variables for the connection to MQ
     private static String HOST; // Host name or IP address
@@ -74,10 +70,18 @@ public class JmsGet {
 
     private static long TIMEOUTTIME = 5000;  // 5 Seconds
 
+    // Drain all the endpoints at the same time, rather than one after another
+    private static final String PARALLEL_GET = "PARALLEL_GET";
+    // In parallel mode, output the messages in endpoint order
+    private static final String PARALLEL_GET_ORDERED = "PARALLEL_GET_ORDERED";
+    // With -DCONSUMER_MODE=async each endpoint is drained by a message
+    // listener and a pool of workers, rather than a receive loop
+    private static final boolean ASYNC = AsyncConsumer.isSelected();
+
     public static void main(String[] args) {
         logger.info("Get application is starting");
 
-        initialiseLogging();
+        LoggingHelper.init(logger);
 
         SampleEnvSetter env = new SampleEnvSetter();
         int limit = env.getCount();
@@ -90,29 +94,37 @@ public class JmsGet {
             logger.info("One or more JWT Credentials missing! Will not be using JWT for authentication");
         }
 
+        if (Boolean.getBoolean(PARALLEL_GET)) {
+            retrieveFromAllEndpoints(env, limit);
+            return;
+        }
+
         for (int index = 0; index < limit; index++) {
             mqConnectionVariables(env, index);
 
             logger.info("Retrieving message from endpoint " + HOST + "(" + PORT + ")");
 
             try {
-                retrieveFromEndpoint();
+                if (ASYNC) {
+                    retrieveFromEndpointAsync();
+                } else {
+                    retrieveFromEndpoint();
+                }
             } catch (JMSRuntimeException ex) {
                 if (! canContinue(ex)) {
                     break;
                 }
             }
         }
+        metrics.logSummary();
     }
 
     private static boolean canContinue(JMSRuntimeException ex) {
-        if (null != ex.getCause() && ex.getCause() instanceof MQException) {
-            MQException innerException = (MQException) ex.getCause();
-
-            if (MQConstants.MQRC_HOST_NOT_AVAILABLE == innerException.getReason()) {
-                logger.info("Host not available, skipping message gets from this host");
-                return true;
-            }
+        // The connection has already retried this endpoint, and given up
+        if (StatusChecker.isRetryable(ex)) {
+            logger.info("Endpoint not available, reason " + StatusChecker.getReason(ex)
+                            + ", skipping message gets from this host");
+            return true;
         }
 
         logger.warning("Unexpected exception will be terminating process");
@@ -120,27 +132,34 @@ public class JmsGet {
         return false;
     }
 
+    // A broken connection is made again, with the consumer, after a
+    // backoff. Once the circuit breaker opens, or the failure is not worth
+    // retrying, it is thrown for canContinue to decide what to do next.
     private static void retrieveFromEndpoint() {
-        JMSContext context;
-        Destination destination;
-        JMSConsumer consumer;
         boolean continueProcessing = true;
 
         JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
         setJMSProperties(connectionFactory);
         logger.info("created connection factory");
 
-        context = connectionFactory.createContext();
+        ResilientConnection connection = new ResilientConnection(QUEUE_NAME, () -> {
+                                                    JMSContext c = connectionFactory.createContext();
+                                                    metrics.watch(c);
+                                                    logger.info("context created");
+                                                    return c;
+                                                })
+                                                .configureFromSystemProperties();
+        ResilientConnection.Resource<JMSConsumer> consumer = connection.resource(c -> {
+            JMSConsumer r = c.createConsumer(c.createQueue("queue:///" + QUEUE_NAME));
+            logger.info("consumer created");
+            return r;
+        });
 
-        logger.info("context created");
-        destination = context.createQueue("queue:///" + QUEUE_NAME);
-        logger.info("destination created");
-        consumer = context.createConsumer(destination);
-        logger.info("consumer created");
-
-        while (continueProcessing) {
-            try {
-                Message receivedMessage = consumer.receive(TIMEOUTTIME);
+        try {
+            while (continueProcessing) {
+                long start = metrics.start();
+                Message receivedMessage = connection.execute(c -> consumer.get().receive(TIMEOUTTIME));
+                metrics.received(start, null != receivedMessage);
 
                 if (receivedMessage == null) {
                     logger.info("No message received from this endpoint");
@@ -150,18 +169,68 @@ public class JmsGet {
                   logger.info("Waiting 1 second before looking for next message");
                   waitAWhile(1000);
                 }
-            } catch (JMSRuntimeException jmsex) {
-                jmsex.printStackTrace();
-                waitAWhile(1000);
             }
+        } catch (JMSRuntimeException jmsex) {
+            metrics.failed();
+            throw jmsex;
+        } finally {
+            connection.close();
+        }
+    }
+
+    // The endpoint is finished once no message has arrived for the
+    // timeout, and the workers have handled every message delivered
+    private static void retrieveFromEndpointAsync() {
+        JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
+        setJMSProperties(connectionFactory);
+        logger.info("created connection factory");
+
+        String queueName = QUEUE_NAME;
+        AsyncConsumer consumer = new AsyncConsumer(connectionFactory::createContext,
+                                        context -> context.createConsumer(context.createQueue("queue:///" + queueName)))
+                                        .configureFromSystemProperties()
+                                        .start(JmsGet::getAndDisplayMessageBody);
+        try {
+            consumer.awaitIdle(TIMEOUTTIME, TimeUnit.MILLISECONDS);
+            logger.info("No message received from this endpoint");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            consumer.stop();
+            consumer.logSummary();
+        }
+    }
+
+    // Each endpoint is drained on its own thread, so the connection
+    // factory for every endpoint is set up before any of them start
+    private static void retrieveFromAllEndpoints(SampleEnvSetter env, int limit) {
+        ParallelDrainer drainer = new ParallelDrainer()
+                                        .idleTimeout(TIMEOUTTIME, TimeUnit.MILLISECONDS)
+                                        .ordered(Boolean.getBoolean(PARALLEL_GET_ORDERED))
+                                        .threadMode(ThreadMode.fromSystemProperty());
+
+        for (int index = 0; index < limit; index++) {
+            mqConnectionVariables(env, index);
+
+            JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
+            setJMSProperties(connectionFactory);
+            String queueName = QUEUE_NAME;
+
+            String name = (null == CCDTURL) ? HOST + "(" + PORT + ")" : QMGR;
+            drainer.endpoint(name, () -> ParallelDrainer.queueEndpoint(connectionFactory.createContext(), queueName));
         }
+
+        drainer.run(JmsGet::getAndDisplayMessageBody).logSummary();
     }
 
     private static void getAndDisplayMessageBody(Message receivedMessage) {
+        long start = metrics.start();
         if (receivedMessage instanceof TextMessage) {
             TextMessage textMessage = (TextMessage) receivedMessage;
             try {
-                logger.info("Received message: " + textMessage.getText());
+                if (messageLog.sample(Level.INFO)) {
+                    messageLog.log(Level.INFO, "Received message: {0}", textMessage.getText());
+                }
             } catch (JMSException jmsex) {
                 recordFailure(jmsex);
             }
@@ -170,6 +239,7 @@ public class JmsGet {
         } else {
             logger.info("Received object not of JMS Message type!\n");
         }
+        metrics.processed(start);
     }
 
     private static void mqConnectionVariables(SampleEnvSetter env, int index) {
@@ -256,21 +326,6 @@ public class JmsGet {
       return;
     }
 
-    private static void initialiseLogging() {
-        Logger defaultLogger = Logger.getLogger("");
-        Handler[] handlers = defaultLogger.getHandlers();
-        if (handlers != null && handlers.length > 0) {
-            defaultLogger.removeHandler(handlers[0]);
-        }
-
-        Handler consoleHandler = new ConsoleHandler();
-        consoleHandler.setLevel(LOGLEVEL);
-        logger.addHandler(consoleHandler);
-
-        logger.setLevel(LOGLEVEL);
-        logger.finest("Logging initialised");
-    }
-
     private static void waitAWhile(int duration) {
         try {
             Thread.sleep(duration);
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2024
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -54,8 +54,8 @@ import com.ibm.mq.samples.jms.JwtHelper;
 public class JmsPub {
   private static final String DEFAULT_APP_NAME = "Dev Experience JmsPub";
 
-  private static final Level LOGLEVEL = Level.ALL;
   private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+  private static final SampleMetrics metrics = SampleMetrics.get();
 
   // Create variables for the connection to MQ
   private static String ConnectionString; //= "localhost(1414),localhost(1416)"
@@ -73,7 +73,7 @@ public class JmsPub {
   private static String accessToken = null;
 
   public static void main(String[] args) {
-    initialiseLogging();
+    LoggingHelper.init(logger);
     SampleEnvSetter env = new SampleEnvSetter();
     jh = new JwtHelper(env);
     if (jh.isJwtEnabled()) {
@@ -84,45 +84,49 @@ public class JmsPub {
     mqConnectionVariables(env);
     logger.info("Pub application is starting");
 
-    JMSContext context = null;
-    Destination destination = null;
-    JMSProducer publisher = null;
-
     JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
     logger.info("Application is starting.\n");
 
     setJMSProperties(connectionFactory);
 
-    context = connectionFactory.createContext();
+    // The context and publisher are made again if the connection breaks,
+    // after a backoff, while the queue manager is unavailable
+    ResilientConnection connection = new ResilientConnection("JmsPub", () -> {
+                                            JMSContext c = connectionFactory.createContext();
+                                            metrics.watch(c);
+                                            return c;
+                                          })
+                                          .configureFromSystemProperties();
+    ResilientConnection.Resource<JMSProducer> publisher = connection.resource(JMSContext::createProducer);
 
     // Set targetClient to be non JMS, so no JMS headers are transmitted.
     // Either this line can be used or ...
     //destination = context.createTopic("topic://" + TOPIC_NAME + "?targetClient=1");
-    destination = context.createTopic("topic://" + TOPIC_NAME);
+    Destination destination = connection.execute(c -> c.createTopic("topic://" + TOPIC_NAME));
 
     // ... this one.
     setTargetClient(destination);
 
-    publisher = context.createProducer();
-
     for (int i = 0; i < 20; i++) {
       logger.info("Publishing messages.\n");
 
       try {
-        publisher.send(destination, "this is a message");
+        long start = metrics.start();
+        connection.execute(c -> publisher.get().send(destination, "this is a message"));
+        metrics.sent(start);
         logger.info("message was sent");
         Thread.sleep(2000);
       } catch (JMSRuntimeException jmsex) {
-
-        jmsex.printStackTrace();
-        try {
-          Thread.sleep(1000);
-        } catch (InterruptedException e) {
-        }
+        // The connection has given up, or the failure is not worth retrying
+        metrics.failed();
+        recordFailure(jmsex);
+        break;
       } catch (InterruptedException e) {
       }
 
     }
+    connection.close();
+    metrics.logSummary();
   }
 
   private static void mqConnectionVariables(SampleEnvSetter env) {
@@ -218,21 +222,6 @@ public class JmsPub {
     return;
   }
 
-  private static void initialiseLogging() {
-    Logger defaultLogger = Logger.getLogger("");
-    Handler[] handlers = defaultLogger.getHandlers();
-    if (handlers != null && handlers.length > 0) {
-      defaultLogger.removeHandler(handlers[0]);
-    }
-
-    Handler consoleHandler = new ConsoleHandler();
-    consoleHandler.setLevel(LOGLEVEL);
-    logger.addHandler(consoleHandler);
-
-    logger.setLevel(LOGLEVEL);
-    logger.finest("Logging initialised");
-  }
-
   private static void setUserCredentials(JmsConnectionFactory cf) {
     try {
         if (accessToken != null) {
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2024
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package com.ibm.mq.samples.jms;
 
+import java.util.function.Supplier;
 import java.util.logging.*;
 
 // Use these imports for building with JMS
@@ -54,8 +55,8 @@ import com.ibm.mq.samples.jms.JwtHelper;
 public class JmsPut {
 
     private static final String DEFAULT_APP_NAME = "Dev Experience JmsPut";
-    private static final Level LOGLEVEL = Level.ALL;
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+    private static final SampleMetrics metrics = SampleMetrics.get();
 
     // Create variables for the connection to MQ
     private static String ConnectionString; //= "localhost(1414),localhost(1416)"
@@ -71,9 +72,25 @@ public class JmsPut {
     private static Boolean BINDINGS = false;
     private static JwtHelper jh = null;
     private static String accessToken = null;
-    
+
+    // Load generator mode, selected by running with the argument "load".
+    // Settings are read from system properties eg. -DLOAD_THREADS=4
+    private static final String MODE_LOAD = "load";
+    private static final String LOAD_STAND_IN = "LOAD_STAND_IN";
+    private static final String LOAD_MESSAGE_COUNT = "LOAD_MESSAGE_COUNT";
+    private static final String LOAD_PAYLOAD_SIZE = "LOAD_PAYLOAD_SIZE";
+    private static final String LOAD_THREADS = "LOAD_THREADS";
+    private static final String LOAD_BATCH_SIZE = "LOAD_BATCH_SIZE";
+    private static final String LOAD_RATE = "LOAD_RATE";
+
     public static void main(String[] args) {
-        initialiseLogging();
+        LoggingHelper.init(logger);
+
+        if (null != args && 0 < args.length && MODE_LOAD.equalsIgnoreCase(args[0])) {
+            runLoadGenerator();
+            return;
+        }
+
         SampleEnvSetter env = new SampleEnvSetter();
         jh = new JwtHelper(env);
         if (jh.isJwtEnabled()) {
@@ -91,7 +108,15 @@ public class JmsPut {
         JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
         setJMSProperties(connectionFactory);
         logger.info("created connectionfactory");
-        context = connectionFactory.createContext();
+        if (EndpointBalancer.isSelected()) {
+            EndpointBalancer.Endpoint endpoint = createBalancer(env).choose();
+            logger.info("Sending to endpoint " + endpoint.getName());
+            mqConnectionVariables(env, endpoint.getIndex());
+            context = endpoint.createContext(JMSContext.AUTO_ACKNOWLEDGE);
+        } else {
+            context = connectionFactory.createContext();
+        }
+        metrics.watch(context);
         logger.info("context created");
 
         // Set targetClient to be non JMS, so no JMS headers are transmitted.
@@ -109,13 +134,98 @@ public class JmsPut {
 
         for (int i = 1; i <= 10; i++) {
             TextMessage message = context.createTextMessage("This is message number " + i + ".");
+            long start = metrics.start();
             producer.send(destination, message);
+            metrics.sent(start);
         }
         logger.info("Sent all messages!");
+        metrics.logSummary();
+    }
+
+    private static void runLoadGenerator() {
+        LoadGenerator generator;
+        ContextMultiplexer multiplexer = null;
+        EndpointBalancer balancer = null;
+
+        if (Boolean.getBoolean(LOAD_STAND_IN)) {
+            logger.info("Load generator will be sending to an in-memory stand-in");
+            InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+            if (ContextMultiplexer.isSelected()) {
+                multiplexer = multiplexer(standIn::createContext);
+                generator = new LoadGenerator(multiplexer::createContext, "DEV.QUEUE.1");
+            } else {
+                generator = new LoadGenerator(standIn::createContext, "DEV.QUEUE.1");
+            }
+        } else {
+            SampleEnvSetter env = new SampleEnvSetter();
+            jh = new JwtHelper(env);
+            if (jh.isJwtEnabled()) {
+                accessToken = jh.obtainToken();
+            }
+            mqConnectionVariables(env);
+
+            // The factory is created once, each producer thread then
+            // creates its own context, and so its own connection, unless
+            // the threads are sharing connections
+            JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
+            setJMSProperties(connectionFactory);
+            if (EndpointBalancer.isSelected()) {
+                // The threads are spread across the endpoints, rather
+                // than all connecting to the first in the list
+                balancer = createBalancer(env);
+                generator = new LoadGenerator(connectionFactory::createContext, QUEUE_NAME).balancer(balancer);
+            } else if (ContextMultiplexer.isSelected()) {
+                multiplexer = multiplexer(connectionFactory::createContext);
+                generator = new LoadGenerator(multiplexer::createContext, QUEUE_NAME);
+            } else {
+                generator = new LoadGenerator(connectionFactory::createContext, QUEUE_NAME);
+            }
+            generator.destinationCustomiser(JmsPut::setTargetClient);
+        }
+
+        generator.messageCount(Long.getLong(LOAD_MESSAGE_COUNT, 10000L))
+                 .payloadSize(Integer.getInteger(LOAD_PAYLOAD_SIZE, 100))
+                 .threads(Integer.getInteger(LOAD_THREADS, 1))
+                 .batchSize(Integer.getInteger(LOAD_BATCH_SIZE, 0))
+                 .rate(Long.getLong(LOAD_RATE, 0L))
+                 .run()
+                 .logSummary();
+
+        if (null != multiplexer) {
+            multiplexer.logStatistics();
+            multiplexer.close();
+        }
+        if (null != balancer) {
+            balancer.logSummary();
+        }
+    }
+
+    // A connection factory for each endpoint, rather than one with a
+    // connection name list, so that the balancer can choose between them
+    private static EndpointBalancer createBalancer(SampleEnvSetter env) {
+        return EndpointBalancer.fromEnv(env, index -> {
+            mqConnectionVariables(env, index);
+            if (null == CCDTURL) {
+                ConnectionString = env.getConfig().getEndpoint(index).getConnectionName();
+            }
+            JmsConnectionFactory cf = createJMSConnectionFactory();
+            setJMSProperties(cf);
+            return cf::createContext;
+        });
+    }
+
+    // The producer threads each get a context that shares a connection
+    // with others, as set by -DMULTIPLEX_CONTEXTS_PER_CONNECTION
+    private static ContextMultiplexer multiplexer(Supplier<JMSContext> connector) {
+        logger.info("Load generator threads will be sharing connections");
+        return new ContextMultiplexer(connector).configureFromSystemProperties();
     }
 
     private static void mqConnectionVariables(SampleEnvSetter env) {
-        int index = 0;
+        mqConnectionVariables(env, 0);
+    }
+
+    private static void mqConnectionVariables(SampleEnvSetter env, int index) {
 
         CCDTURL = env.getCheckForCCDT();
 
@@ -206,21 +316,6 @@ public class JmsPut {
         return;
     }
 
-    private static void initialiseLogging() {
-        Logger defaultLogger = Logger.getLogger("");
-        Handler[] handlers = defaultLogger.getHandlers();
-        if (handlers != null && handlers.length > 0) {
-            defaultLogger.removeHandler(handlers[0]);
-        }
-
-        Handler consoleHandler = new ConsoleHandler();
-        consoleHandler.setLevel(LOGLEVEL);
-        logger.addHandler(consoleHandler);
-
-        logger.setLevel(LOGLEVEL);
-        logger.finest("Logging initialised");
-    }
-
     private static void setUserCredentials(JmsConnectionFactory cf) {
         try {
             if (accessToken != null) {
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2024
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -17,15 +17,19 @@
 package com.ibm.mq.samples.jms;
 
 import java.util.logging.*;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 // Use these imports for building with JMS
 import javax.jms.Destination;
-import javax.jms.JMSConsumer;
-import javax.jms.JMSContext;
 import javax.jms.JMSException;
-import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
 import javax.jms.TextMessage;
 import javax.jms.Message;
 import javax.jms.TemporaryQueue;
@@ -40,10 +44,8 @@ import com.ibm.msg.client.jms.DetailedInvalidDestinationRuntimeException;
 
 // Use these imports for building with Jakarta Messaging
 // import jakarta.jms.Destination;
-// import jakarta.jms.JMSConsumer;
-// import jakarta.jms.JMSContext;
 // import jakarta.jms.JMSException;
-// import jakarta.jms.JMSProducer;
+// import jakarta.jms.JMSRuntimeException;
 // import jakarta.jms.TextMessage;
 // import jakarta.jms.Message;
 // import jakarta.jms.TemporaryQueue;
@@ -62,8 +64,9 @@ import com.ibm.mq.samples.jms.JwtHelper;
 public class JmsRequest {
 
     private static final String DEFAULT_APP_NAME = "Dev Experience JmsRequest";
-    private static final Level LOGLEVEL = Level.ALL;
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+    private static final SampleMetrics metrics = SampleMetrics.get();
+    private static final SampleLogger messageLog = SampleLogger.getLogger(JmsRequest.class);
 
     // Create variables for the connection to MQ
     private static String ConnectionString; //= "localhost(1414),localhost(1416)"
@@ -87,11 +90,10 @@ public class JmsRequest {
     private static Random random = new Random();
 
     private static Long SECOND = 1000L;
-    private static Long HOUR = 60 * 60 * SECOND; 
     
 
     public static void main(String[] args) {
-        initialiseLogging();
+        LoggingHelper.init(logger);
         SampleEnvSetter env = new SampleEnvSetter();
         jh = new JwtHelper(env);
         if (jh.isJwtEnabled()) {
@@ -102,119 +104,155 @@ public class JmsRequest {
         mqConnectionVariables(env);
         logger.info("Request application is starting");
 
-        JMSContext context = null;
-        Destination destination = null;
-        JMSProducer producer = null;
-        
+        // The number of requests to send, all of which will be
+        // in flight at the same time
+        int requestCount = 1;
+        if (null != args && 0 < args.length) {
+            try {
+                requestCount = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                logger.info("Defaulting number of requests");
+            }
+        }
+
+        if (EndpointBalancer.isSelected()) {
+            runBalanced(env, requestCount);
+            return;
+        }
+
         JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
         
         setJMSProperties(connectionFactory);
         logger.info("created connection factory");
 
-        context = connectionFactory.createContext(JMSContext.SESSION_TRANSACTED);
-        logger.info("context created");
-        destination = context.createQueue("queue:///" + QUEUE_NAME);
-        
-        try {
-            ((MQDestination) destination).setTargetClient(WMQConstants.WMQ_CLIENT_NONJMS_MQ);
-        } catch (JMSException e) {
-            logger.info("MQDest cast didn't work");
-        }
-        logger.info("destination created");
-        producer = context.createProducer();
+        // Requests expire, and are timed out, after REQUEST_MESSAGE_EXPIRY
+        try (RequestReplyClient client = new RequestReplyClient(connectionFactory::createContext,
+                                                                QUEUE_NAME, REPLY_QUEUE_NAME,
+                                                                REQUEST_MESSAGE_EXPIRY,
+                                                                JmsRequest::setTargetClient)) {
+            List<CompletableFuture<Message>> replies = new ArrayList<>(requestCount);
 
-        // If messages will expire set appropriate time to live for messages
-        // Otherwise ensure that they disappear off the queue in 2 hours
-        if (0 < REQUEST_MESSAGE_EXPIRY) {
-            producer.setTimeToLive(REQUEST_MESSAGE_EXPIRY);
-        } else {
-            producer.setTimeToLive(2 * HOUR);
+            logger.finest("Sending " + requestCount + " request messages");
+            for (int i = 0; i < requestCount; i++) {
+                replies.add(client.request(RequestResponseHelper.buildStringForRequest(REQUEST_MODE, random.nextInt(101))));
+            }
+            displayReplies(replies);
+            metrics.logSummary();
+        } catch (DetailedInvalidDestinationRuntimeException e) {
+            logger.warning("Looks like something is wrong with the queue name"); 
+            logger.warning(e.getMessage());
+        } catch (Exception e) {
+            logger.warning("Got an exception");
+            logger.warning("Exception class Name " + e.getClass().getSimpleName());
+            logger.warning(e.getMessage());
         }
+    }
 
-        logger.info("producer created");
-
-        TextMessage message = context.createTextMessage(RequestResponseHelper.buildStringForRequest(REQUEST_MODE, random.nextInt(101)));
+    // Each request goes to an endpoint chosen by the balancer, through a
+    // client for that endpoint, so its reply comes back on the same queue
+    // manager. With least_outstanding, requests go to the queue managers
+    // with the fewest replies still to come.
+    private static void runBalanced(SampleEnvSetter env, int requestCount) {
+        EndpointBalancer balancer = createBalancer(env);
+        Map<EndpointBalancer.Endpoint, RequestReplyClient> clients = new HashMap<>();
         try {
-            String correlationID = String.format("%24.24s", UUID.randomUUID().toString());
-            byte[] b = null;
-            String selector = "";
-            try {
-                b = correlationID.getBytes();
-                selector = "JMSCorrelationID='ID:" + getHexString(b) + "'";
-            } catch (Exception e) {
-                logger.info(e.getMessage());
+            List<CompletableFuture<Message>> replies = new ArrayList<>(requestCount);
+
+            logger.finest("Sending " + requestCount + " request messages");
+            for (int i = 0; i < requestCount; i++) {
+                EndpointBalancer.Endpoint endpoint = balancer.choose();
+                long start = endpoint.begin();
+                CompletableFuture<Message> reply;
+                try {
+                    RequestReplyClient client = clients.computeIfAbsent(endpoint,
+                                                    e -> new RequestReplyClient(e::createContext,
+                                                                                QUEUE_NAME, REPLY_QUEUE_NAME,
+                                                                                REQUEST_MESSAGE_EXPIRY,
+                                                                                JmsRequest::setTargetClient));
+                    reply = client.request(RequestResponseHelper.buildStringForRequest(REQUEST_MODE, random.nextInt(101)));
+                } catch (JMSRuntimeException e) {
+                    reply = new CompletableFuture<>();
+                    reply.completeExceptionally(e);
+                }
+                reply.whenComplete((message, e) -> {
+                    if (null == e) {
+                        endpoint.succeeded(start);
+                    } else {
+                        endpoint.failed(start);
+                    }
+                });
+                replies.add(reply);
             }
-            message.setJMSCorrelationIDAsBytes(b);
-            logger.info(getHexString(b));
-
-            message.setJMSExpiration(REQUEST_MESSAGE_EXPIRY);
-
-            Destination requestQueue = null;
-
-            if (null == REPLY_QUEUE_NAME || REPLY_QUEUE_NAME.isEmpty()) {
-                logger.finest("Setting the reply to queue to a temporary queue");
-                //TemporaryQueue requestQueue = context.createTemporaryQueue(); 
-                requestQueue = context.createTemporaryQueue();   
-            } else {
-                logger.finest("Setting the reply to queue to " + REPLY_QUEUE_NAME);
-                requestQueue = context.createQueue("queue:///" + REPLY_QUEUE_NAME);               
+            logger.info("listening for responses");
+
+            displayReplies(replies);
+            balancer.logSummary();
+            metrics.logSummary();
+        } finally {
+            for (RequestReplyClient client : clients.values()) {
+                client.close();
             }
+        }
+    }
 
-            message.setJMSReplyTo(requestQueue);
-
-            logger.finest("Sending a request message");
-            producer.send(destination, message);
-            // commiting to put request to request queue
-            context.commit();
-            logger.info("listening for response");
-
-            logger.info("Selecting reply based on selector " + selector);
-            JMSConsumer consumer = context.createConsumer(requestQueue, selector);
-            logger.info("reply getter created");
-
-            Message receivedMessage = null;
-            if (0 < REQUEST_MESSAGE_EXPIRY){
-                receivedMessage = consumer.receive(REQUEST_MESSAGE_EXPIRY);
-            } else {
-                receivedMessage = consumer.receive();
+    // A connection factory for each endpoint, rather than one with a
+    // connection name list, so that the balancer can choose between them
+    private static EndpointBalancer createBalancer(SampleEnvSetter env) {
+        return EndpointBalancer.fromEnv(env, index -> {
+            mqConnectionVariables(env, index);
+            if (null == CCDTURL) {
+                ConnectionString = env.getConfig().getEndpoint(index).getConnectionName();
             }
-            // commiting to consuming response
-            context.commit();
+            JmsConnectionFactory cf = createJMSConnectionFactory();
+            setJMSProperties(cf);
+            return cf::createContext;
+        });
+    }
 
-            if (null != receivedMessage) {
-                getAndDisplayMessageBody(receivedMessage);
-            } else {
-                logger.warning("Request has been timed out");
+    private static void displayReplies(List<CompletableFuture<Message>> replies) {
+        for (CompletableFuture<Message> reply : replies) {
+            try {
+                long start = metrics.start();
+                Message message = reply.get();
+                metrics.received(start, true);
+                getAndDisplayMessageBody(message);
+            } catch (ExecutionException e) {
+                metrics.failed();
+                if (e.getCause() instanceof TimeoutException) {
+                    logger.warning("Request has been timed out");
+                } else if (e.getCause() instanceof Exception) {
+                    recordFailure((Exception) e.getCause());
+                } else {
+                    logger.warning("Request failed " + e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
+        }
+    }
 
-
+    private static void setTargetClient(Destination destination) {
+        try {
+            ((MQDestination) destination).setTargetClient(WMQConstants.WMQ_CLIENT_NONJMS_MQ);
         } catch (JMSException e) {
-            logger.warning("Got a JMS exception");
-            logger.warning(e.getMessage());
-        } catch (DetailedInvalidDestinationRuntimeException e) {
-            logger.warning("Looks like something is wrong with the queue name"); 
-            logger.warning(e.getMessage());
-        } catch (Exception e) {
-            logger.warning("Got an exception");
-            logger.warning("Exception class Name " + e.getClass().getSimpleName());
-            logger.warning(e.getMessage());
+            logger.info("MQDest cast didn't work");
         }
     }
 
-    public static String getHexString(byte[] b) throws Exception {
-        String result = "";
-        for (int i = 0; i < b.length; i++) {
-            result += Integer.toString((b[i] & 0xff) + 0x100, 16).substring(1);
-        }
-        return result;
+    public static String getHexString(byte[] b) {
+        return CorrelationIdGenerator.toHex(b);
     }
 
     private static void getAndDisplayMessageBody(Message receivedMessage) {
+        long start = metrics.start();
         logger.warning("got a response");
         if (receivedMessage instanceof TextMessage) {
             TextMessage textMessage = (TextMessage) receivedMessage;
             try {
-                logger.info("Received message: " + textMessage.getText());
+                if (messageLog.sample(Level.INFO)) {
+                    messageLog.log(Level.INFO, "Received message: {0}", textMessage.getText());
+                }
             } catch (JMSException jmsex) {
                 recordFailure(jmsex);
             }
@@ -223,11 +261,14 @@ public class JmsRequest {
         } else {
             logger.info("Received object not of JMS Message type!\n");
         }
+        metrics.processed(start);
     }
 
     private static void mqConnectionVariables(SampleEnvSetter env) {
-        
-        int index = 0;
+        mqConnectionVariables(env, 0);
+    }
+
+    private static void mqConnectionVariables(SampleEnvSetter env, int index) {
 
         CCDTURL = env.getCheckForCCDT();
 
@@ -328,21 +369,6 @@ public class JmsRequest {
         return;
     }
 
-    private static void initialiseLogging() {
-        Logger defaultLogger = Logger.getLogger("");
-        Handler[] handlers = defaultLogger.getHandlers();
-        if (handlers != null && handlers.length > 0) {
-            defaultLogger.removeHandler(handlers[0]);
-        }
-
-        Handler consoleHandler = new ConsoleHandler();
-        consoleHandler.setLevel(LOGLEVEL);
-        logger.addHandler(consoleHandler);
-
-        logger.setLevel(LOGLEVEL);
-        logger.finest("Logging initialised");
-    }
-
     private static void setUserCredentials(JmsConnectionFactory cf) {
         try {
             if (accessToken != null) {
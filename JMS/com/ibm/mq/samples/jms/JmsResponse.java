@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2024
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -16,57 +16,47 @@
 
 package com.ibm.mq.samples.jms;
 
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Hashtable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.*;
 
 // Use these imports for building with JMS
 import javax.jms.Destination;
-import javax.jms.JMSConsumer;
 import javax.jms.JMSContext;
 import javax.jms.JMSException;
 import javax.jms.JMSProducer;
-import javax.jms.Message;
-import javax.jms.TextMessage;
-import javax.jms.JMSRuntimeException;
-import javax.jms.DeliveryMode;
 
 import com.ibm.msg.client.jms.JmsConnectionFactory;
 import com.ibm.msg.client.jms.JmsFactoryFactory;
 import com.ibm.msg.client.wmq.WMQConstants;
-import com.ibm.msg.client.jms.DetailedInvalidDestinationException;
 import com.ibm.msg.client.jms.DetailedInvalidDestinationRuntimeException;
 
-import com.ibm.mq.jms.MQDestination;
-
 // Use these imports for building with Jakarta Messaging
 // import jakarta.jms.Destination;
-// import jakarta.jms.JMSConsumer;
 // import jakarta.jms.JMSContext;
 // import jakarta.jms.JMSException;
 // import jakarta.jms.JMSProducer;
-// import jakarta.jms.Message;
-// import jakarta.jms.TextMessage;
-// import jakarta.jms.JMSRuntimeException;
-// import jakarta.jms.DeliveryMode;
 
 // import com.ibm.msg.client.jakarta.jms.JmsConnectionFactory;
 // import com.ibm.msg.client.jakarta.jms.JmsFactoryFactory;
 // import com.ibm.msg.client.jakarta.wmq.WMQConstants;
-// import com.ibm.msg.client.jakarta.jms.DetailedInvalidDestinationException;
 // import com.ibm.msg.client.jakarta.jms.DetailedInvalidDestinationRuntimeException;
 
-// import com.ibm.mq.jakarta.jms.MQDestination;
 
-import com.ibm.mq.constants.MQConstants;
 import com.ibm.mq.MQException;
-
+import com.ibm.mq.MQQueueManager;
+import com.ibm.mq.constants.MQConstants;
 
 import com.ibm.mq.samples.jms.SampleEnvSetter;
 import com.ibm.mq.samples.jms.JwtHelper;
 
 public class JmsResponse {
     private static final String DEFAULT_APP_NAME = "Dev Experience JmsResponse";
-    private static final Level LOGLEVEL = Level.ALL;
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+    private static final SampleMetrics metrics = SampleMetrics.get();
 
     // Create variables for the connection to MQ
     private static String ConnectionString; //= "localhost(1414),localhost(1416)"
@@ -82,12 +72,26 @@ public class JmsResponse {
     private static Boolean BINDINGS = false;
     private static Long RESPONDER_INACTIVITY_TIMEOUT = 0L;
     private static JwtHelper jh = null;
-    private static String accessToken = null;
-    private static Long SECOND = 1000L;
-    private static Long HOUR = 60 * 60 * SECOND; 
+    private static volatile String accessToken = null;
+
+    // Worker settings are read from system properties eg. -DRESPONDER_THREADS=4
+    private static final String RESPONDER_THREADS = "RESPONDER_THREADS";
+    private static final String RESPONDER_BATCH_SIZE = "RESPONDER_BATCH_SIZE";
+    private static final String RESPONDER_BATCH_INTERVAL = "RESPONDER_BATCH_INTERVAL";
+
+    // Benchmark mode, selected by running with the argument "bench"
+    private static final String MODE_BENCH = "bench";
+    private static final String BENCH_REQUESTS = "BENCH_REQUESTS";
+    private static final String BENCH_LATENCY = "BENCH_LATENCY";
 
     public static void main(String[] args) {
-        initialiseLogging();
+        LoggingHelper.init(logger);
+
+        if (null != args && 0 < args.length && MODE_BENCH.equalsIgnoreCase(args[0])) {
+            runBenchmark();
+            return;
+        }
+
         SampleEnvSetter env = new SampleEnvSetter();
         jh = new JwtHelper(env);
         if (jh.isJwtEnabled()) {
@@ -111,206 +115,160 @@ public class JmsResponse {
     }
 
     private static void runResponseApplication() {
-        JMSContext context;
-        Destination destination;
-        JMSConsumer consumer;
-
         JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
         setJMSProperties(connectionFactory);
         logger.info("created connection factory");
 
-        context = connectionFactory.createContext(JMSContext.SESSION_TRANSACTED);
-
-
-        logger.info("context created");
-        destination = context.createQueue("queue:///" + QUEUE_NAME);
-        logger.info("destination created");
-        consumer = context.createConsumer(destination);
-        logger.info("consumer created");
-
-        while (true) {
-            try {
-                Message receivedMessage = null;
-                // getting the message from the requestor
-                if (0 < RESPONDER_INACTIVITY_TIMEOUT) {
-                    logger.info("Responder waiting for " + RESPONDER_INACTIVITY_TIMEOUT + " milliseconds for next request");
-                    receivedMessage = consumer.receive(RESPONDER_INACTIVITY_TIMEOUT); 
-                    if (null == receivedMessage) {
-                        logger.info("Timed out with no requests received");
-                        logger.info("Terminating responder");
-                        break;
-                    }
-                } else {
-                    receivedMessage = consumer.receive();
-                }
-                logger.info("Checking message type");
+        // Contexts created after a token is refreshed, eg. when a worker
+        // reconnects, use the new token rather than one that has expired
+        if (jh.isJwtEnabled()) {
+            jh.addTokenListener(token -> {
+                accessToken = token;
+                setUserCredentials(connectionFactory);
+            });
+        }
 
-                getAndDisplayMessageBody(receivedMessage);
-                replyToMessage(context, receivedMessage);
-            } catch (JMSRuntimeException jmsex) {
+        // Each worker creates its own transacted context from the factory
+        ResponderEngine engine = new ResponderEngine(connectionFactory::createContext, QUEUE_NAME)
+                                        .inactivityTimeout(RESPONDER_INACTIVITY_TIMEOUT, TimeUnit.MILLISECONDS)
+                                        .backoutHandler(createBackoutHandler());
+        configureEngine(engine);
+        runUntilShutdown(engine);
+    }
 
-                jmsex.printStackTrace();
+    // The back out threshold and back out queue are read from the request
+    // queue, falling back to BACKOUT_QUEUE and the default threshold. JMS has
+    // no way to inquire on a queue, so this uses the MQ classes for Java.
+    private static BackoutHandler createBackoutHandler() {
+        MQQueueManager queueManager = null;
+        try {
+            queueManager = connectQueueManager();
+            return QueueBackoutHandler.inquire(queueManager, QUEUE_NAME, BACKOUT_QUEUE,
+                                               QueueBackoutHandler.DEFAULT_THRESHOLD);
+        } catch (MQException | MalformedURLException e) {
+            logger.warning("Unable to read backout settings from the queue manager, using defaults");
+            recordFailure(e);
+            return new QueueBackoutHandler(BACKOUT_QUEUE, QueueBackoutHandler.DEFAULT_THRESHOLD);
+        } finally {
+            if (null != queueManager) {
                 try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
+                    queueManager.disconnect();
+                } catch (MQException e) {
+                    recordFailure(e);
                 }
             }
         }
     }
 
-    private static void replyToMessage(JMSContext context, Message receivedMessage) {
-        logger.info("Preparing reply to message");
-        boolean ok=true;
-        try {
-            String requestObject = null;
-            if (receivedMessage instanceof TextMessage) {
-                TextMessage textMessage = (TextMessage) receivedMessage;
-                requestObject = textMessage.getText();
-            }
-
-            if (receivedMessage instanceof Message) {
-
-                Destination destination = receivedMessage.getJMSReplyTo();
-                String correlationID = receivedMessage.getJMSCorrelationID();   
-                
-                TextMessage message = context.createTextMessage(RequestResponseHelper.buildStringForResponse(requestObject));
-                message.setJMSCorrelationID(correlationID);
-
-                // Make sure message put on a reply queue is non-persistent so non XMS/JMS apps
-                // can get the message off the temp reply queue
-                // Reply will expire in an hour if not retrieved by the requester
-
-                context.createProducer()
-                    .setDeliveryMode(DeliveryMode.NON_PERSISTENT)
-                    .setTimeToLive(HOUR)
-                    .send(destination, message);                       
-                context.commit();
-                
-            }
-            logger.info("Reply has been sent");
-        } catch (JMSException jmsex) {    
-            logger.info("JMS Exception caught");
-
-            Throwable cause = jmsex.getCause();
-
-            if (null != cause && cause instanceof MQException) {
-                MQException innerException = (MQException) cause;
-                int reason = innerException.getReason();
-
-                switch(innerException.getReason()) {
-                    case MQConstants.MQRC_UNKNOWN_OBJECT_NAME:
-                        logger.info("Reply to Queue no longer exists, skipping request");
-                        break;
-                    case MQConstants.MQRC_CONNECTION_BROKEN:
-                        logger.info("MQ Connection has broken");
-                        break;                    
-                }
-            }
-            
-            logger.warning("Unexpected Expection replying to message");            
-            ok = false;
-           // jmsex.printStackTrace();
-
-        } catch (JMSRuntimeException jmsex) {
-            logger.info("JMSRuntimeException caught");
-            // Get this exception when the message does not have a reply to queue.
-            if (null != jmsex.getCause()) {
-                MQException e = findMQException(jmsex);
-                if (null != e && e instanceof MQException) {
-                    if (MQConstants.MQRC_UNKNOWN_OBJECT_NAME == e.getReason()) {
-                        logger.info("Reply to Queue no longer exists, skipping request");
-                        ok = false;                      
-                    }
-                }
-            }
-
-            // Get this exception when the reply to queue is no longer valid.
-            // eg. When app that posted the message is no longer running.
-            if (null != jmsex.getCause() && jmsex.getCause() instanceof DetailedInvalidDestinationException) {
-                logger.info("Reply to destination is invalid");
-                ok = false;          
-            }   
+    // Connects with the same settings as the connection factory, using the
+    // first entry in the connection list
+    private static MQQueueManager connectQueueManager() throws MQException, MalformedURLException {
+        Hashtable<String, Object> properties = new Hashtable<String, Object>();
+        properties.put(MQConstants.APPNAME_PROPERTY, APP_NAME);
+        properties.put(MQConstants.USE_MQCSP_AUTHENTICATION_PROPERTY, true);
+        if (accessToken != null) {
+            properties.put(MQConstants.PASSWORD_PROPERTY, accessToken);
+        } else if (null != APP_USER && !APP_USER.trim().isEmpty()) {
+            properties.put(MQConstants.USER_ID_PROPERTY, APP_USER);
+            properties.put(MQConstants.PASSWORD_PROPERTY, APP_PASSWORD);
+        }
+        if (CIPHER_SUITE != null && !CIPHER_SUITE.isEmpty()) {
+            properties.put(MQConstants.SSL_CIPHER_SUITE_PROPERTY, CIPHER_SUITE);
+        }
 
-            logger.warning("Unexpected runtime error");
-            ok = false;
-            //jmsex.printStackTrace();
-        } catch (Exception e) {
-            logger.warning("Got an unexpected exception");
-            logger.warning("Exception class Name " + e.getClass().getSimpleName());
-            logger.warning(e.getMessage());
-            ok = false;
+        if (BINDINGS) {
+            properties.put(MQConstants.TRANSPORT_PROPERTY, MQConstants.TRANSPORT_MQSERIES_BINDINGS);
+            return new MQQueueManager(QMGR, properties);
+        }
+        properties.put(MQConstants.TRANSPORT_PROPERTY, MQConstants.TRANSPORT_MQSERIES_CLIENT);
+        if (null != CCDTURL) {
+            return new MQQueueManager(QMGR, properties, new URL(CCDTURL));
         }
 
-        if (!ok) {
-            rollbackOrPause(context,receivedMessage);
+        String connection = ConnectionString.split(",")[0].trim();
+        int bracket = connection.indexOf('(');
+        properties.put(MQConstants.HOST_NAME_PROPERTY, (0 < bracket) ? connection.substring(0, bracket) : connection);
+        if (0 < bracket) {
+            properties.put(MQConstants.PORT_PROPERTY,
+                           Integer.parseInt(connection.substring(bracket + 1, connection.indexOf(')', bracket))));
         }
-        
+        if (null != CHANNEL) {
+            properties.put(MQConstants.CHANNEL_PROPERTY, CHANNEL);
+        }
+        return new MQQueueManager(QMGR, properties);
     }
 
-    private static void rollbackOrPause(JMSContext context, Message message) {
-        int backoutCounter = -1;
-        int backoutThreshold = 5;
+    // Benchmark mode, replies to requests preloaded onto an in-memory
+    // stand-in with an increasing number of workers
+    private static void runBenchmark() {
+        int requests = Integer.getInteger(BENCH_REQUESTS, 10000);
+        long latency = Long.getLong(BENCH_LATENCY, 500L);
+        int maxWorkers = Integer.getInteger(RESPONDER_THREADS, 8);
+
+        // Logging every request would otherwise dominate the timings
+        logger.setLevel(Level.INFO);
+
+        logger.info("Benchmarking " + requests + " requests with " + latency
+                        + " microseconds simulated latency per operation");
+
+        for (int workers = 1; workers <= maxWorkers; workers *= 2) {
+            InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+            preloadRequests(standIn, requests);
+            standIn.setSimulatedLatency(latency, TimeUnit.MICROSECONDS);
+
+            ResponderEngine engine = new ResponderEngine(standIn::createContext, "DEV.QUEUE.1");
+            configureEngine(engine);
+            engine.workers(workers).start();
+            while (0 < standIn.getDepth("DEV.QUEUE.1")) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            engine.shutdown();
+            engine.awaitTermination();
 
-        try {
-            backoutCounter = Integer.parseInt(message.getStringProperty("JMSXDeliveryCount"));
-            logger.info("Current counter " + String.valueOf(backoutCounter));
-        } catch (Exception e) {
-            logger.info("Error on getting the counter");
-            return;
+            logger.info(String.format("%d workers: %.1f replies/sec", workers, engine.getRepliesPerSecond()));
+            engine.logSummary();
         }
-
-        if(backoutCounter < backoutThreshold) {
-            logger.warning("rolling back the message");
-            context.rollback();
-        } else {
-            logger.warning("Retry rate has been exceeded");
-            logger.warning("Attempting to backout the message");
-            redirectToAnotherQueue(context, message);
-        }      
     }
 
-    private static void redirectToAnotherQueue(JMSContext context, Message message) {
-        if (null == BACKOUT_QUEUE || BACKOUT_QUEUE.isEmpty()) {
-            logger.warning("backout queue has not been supplied");
-            logger.warning("message may cause poison message situation");
-            context.commit();
-            return;
+    private static void preloadRequests(InMemoryJmsStandIn standIn, int requests) {
+        JMSContext context = standIn.createContext();
+        Destination requestQueue = context.createQueue("queue:///DEV.QUEUE.1");
+        Destination replyQueue = context.createQueue("queue:///DEV.QUEUE.2");
+        JMSProducer producer = context.createProducer().setJMSReplyTo(replyQueue);
+        for (int i = 0; i < requests; i++) {
+            producer.send(requestQueue, RequestResponseHelper.buildStringForRequest("", i % 101));
         }
-        logger.info("Redirecting to "+ BACKOUT_QUEUE);
-        Destination dest = context.createQueue("queue:///" + BACKOUT_QUEUE);
-        JMSProducer producer = context.createProducer();
-        producer.send(dest, message);
-        logger.info("Message sent to backout queue" + BACKOUT_QUEUE + " correctly");
-        context.commit();
+        context.close();
     }
 
-    private static void getAndDisplayMessageBody(Message receivedMessage) {
-        if (receivedMessage instanceof TextMessage) {
-            TextMessage textMessage = (TextMessage) receivedMessage;
-            try {
-                logger.info("Request message was " + textMessage.getText());
-            } catch (JMSException jmsex) {
-                recordFailure(jmsex);
-            }
-        } else if (receivedMessage instanceof Message) {
-            logger.info("Message received was not of type TextMessage.\n");
-        } else {
-            logger.info("Received object not of JMS Message type!\n");
-        }
+    private static void configureEngine(ResponderEngine engine) {
+        engine.workers(Integer.getInteger(RESPONDER_THREADS, 1))
+              .batchSize(Integer.getInteger(RESPONDER_BATCH_SIZE, 1))
+              .batchInterval(Long.getLong(RESPONDER_BATCH_INTERVAL, 0L), TimeUnit.MILLISECONDS)
+              .threadMode(ThreadMode.fromSystemProperty());
     }
 
-    // recurse on the inner exceptions looking for a MQException.
-    private static MQException findMQException(Exception e) {
-        Exception inner = (Exception) e.getCause();
-        if (null != inner) {
-            if (inner instanceof MQException) {
-                logger.info("Found MQException");
-                return (MQException) inner;
-            } else {
-                return findMQException(inner);
-            }
+    // Stops the workers cleanly on ctrl+c, so that replies that have been
+    // sent are committed before the application ends
+    private static void runUntilShutdown(ResponderEngine engine) {
+        Thread hook = new Thread(() -> {
+            logger.info("Draining responder workers");
+            engine.shutdown();
+            engine.awaitTermination();
+            engine.logSummary();
+            metrics.logSummary();
+        });
+        Runtime.getRuntime().addShutdownHook(hook);
+
+        engine.start().awaitTermination();
+        logger.info("Terminating responder");
+        engine.logSummary();
+        metrics.logSummary();
+        try {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException e) {
+            // Already shutting down
         }
-        return null;
     }
 
     private static void mqConnectionVariables(SampleEnvSetter env) {
@@ -409,21 +367,6 @@ public class JmsResponse {
         return;
     }
 
-    private static void initialiseLogging() {
-        Logger defaultLogger = Logger.getLogger("");
-        Handler[] handlers = defaultLogger.getHandlers();
-        if (handlers != null && handlers.length > 0) {
-            defaultLogger.removeHandler(handlers[0]);
-        }
-
-        Handler consoleHandler = new ConsoleHandler();
-        consoleHandler.setLevel(LOGLEVEL);
-        logger.addHandler(consoleHandler);
-
-        logger.setLevel(LOGLEVEL);
-        logger.finest("Logging initialised");
-    }
-
     private static void setUserCredentials(JmsConnectionFactory cf) {
         try {
             if (accessToken != null) {
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2024
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -16,10 +16,11 @@
 
 package com.ibm.mq.samples.jms;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.*;
 
 // Use these imports for building with JMS
-import javax.jms.Destination;
 import javax.jms.JMSConsumer;
 import javax.jms.JMSContext;
 import javax.jms.Message;
@@ -32,7 +33,6 @@ import com.ibm.msg.client.jms.JmsFactoryFactory;
 import com.ibm.msg.client.wmq.WMQConstants;
 
 // Use these imports for building with Jakarta Messaging
-// import jakarta.jms.Destination;
 // import jakarta.jms.JMSConsumer;
 // import jakarta.jms.JMSContext;
 // import jakarta.jms.Message;
@@ -50,8 +50,9 @@ import com.ibm.mq.samples.jms.JwtHelper;
 
 public class JmsSub {
     private static final String DEFAULT_APP_NAME = "Dev Experience JmsSub";
-    private static final Level LOGLEVEL = Level.ALL;
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+    private static final SampleMetrics metrics = SampleMetrics.get();
+    private static final SampleLogger messageLog = SampleLogger.getLogger(JmsSub.class);
 
     // Create variables for the connection to MQ
     private static String ConnectionString; //= "localhost(1414),localhost(1416)"
@@ -66,10 +67,13 @@ public class JmsSub {
     private static String CCDTURL;
     private static Boolean BINDINGS = false;
     private static JwtHelper jh = null;
-    private static String accessToken = null;
+    private static volatile String accessToken = null;
+
+    // The number of consumers sharing the subscription eg. -DCONSUMERS=100
+    private static final String CONSUMERS = "CONSUMERS";
 
     public static void main(String[] args) {
-        initialiseLogging();
+        LoggingHelper.init(logger);
         SampleEnvSetter env = new SampleEnvSetter();
         jh = new JwtHelper(env);
         if (jh.isJwtEnabled()) {
@@ -80,41 +84,114 @@ public class JmsSub {
         mqConnectionVariables(env);
         logger.info("Sub application is starting");
 
-        JMSContext context = null;
-        Destination destination = null;
-        JMSConsumer subscriber = null;
-
         JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
         setJMSProperties(connectionFactory);
         logger.info("created connection factory");
 
-        context = connectionFactory.createContext();
-        logger.info("context created");
-        destination = context.createTopic("topic://" + TOPIC_NAME);
-        logger.info("destination created");
-        subscriber = context.createConsumer(destination);
-        logger.info("consumer created");
+        // Contexts created after a token is refreshed use the new
+        // token rather than one that has expired
+        if (jh.isJwtEnabled()) {
+            jh.addTokenListener(token -> {
+                accessToken = token;
+                setUserCredentials(connectionFactory);
+            });
+        }
 
-        while (true) {
-            try {
-                Message receivedMessage = subscriber.receive();
-                getAndDisplayMessageBody(receivedMessage);
-            } catch (JMSRuntimeException jmsex) {
+        if (AsyncConsumer.isSelected()) {
+            runAsyncConsumer(connectionFactory);
+            return;
+        }
 
-                jmsex.printStackTrace();
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                }
+        int consumers = Integer.getInteger(CONSUMERS, 1);
+        if (1 < consumers || null != System.getProperty(ThreadMode.THREAD_MODE)) {
+            runConsumerGroup(connectionFactory, consumers);
+            return;
+        }
+
+        // The context and subscriber are made again if the connection
+        // breaks, after a backoff, while the queue manager is unavailable
+        ResilientConnection connection = new ResilientConnection("JmsSub", () -> {
+                                                    JMSContext c = connectionFactory.createContext();
+                                                    metrics.watch(c);
+                                                    logger.info("context created");
+                                                    return c;
+                                                })
+                                                .configureFromSystemProperties()
+                                                .waitWhenOpen(true);
+        ResilientConnection.Resource<JMSConsumer> subscriber = connection.resource(c -> {
+            JMSConsumer s = c.createConsumer(c.createTopic("topic://" + TOPIC_NAME));
+            logger.info("consumer created");
+            return s;
+        });
+
+        try {
+            while (true) {
+                long start = metrics.start();
+                Message receivedMessage = connection.execute(c -> subscriber.get().receive());
+                metrics.received(start, null != receivedMessage);
+                getAndDisplayMessageBody(receivedMessage);
             }
+        } catch (JMSRuntimeException jmsex) {
+            // Only failures that are not worth retrying get here
+            metrics.failed();
+            recordFailure(jmsex);
+        } finally {
+            connection.close();
+        }
+    }
+
+    // Runs the consumers on a shared executor, on virtual threads if
+    // asked for, until the application is stopped with ctrl+c
+    private static void runConsumerGroup(JmsConnectionFactory connectionFactory, int consumers) {
+        ConsumerGroup group = new ConsumerGroup(connectionFactory::createContext, ThreadMode.fromSystemProperty())
+                                    .consumersPerDestination(consumers)
+                                    .sharedSubscription(TOPIC_NAME, SUBSCRIPTION_NAME, JmsSub::getAndDisplayMessageBody);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            logger.info("Stopping subscribers");
+            group.close();
+            logger.info(group.getReceived() + " messages received");
+        }));
+
+        group.start();
+        try {
+            group.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Messages are delivered to a listener and handled by a pool of
+    // workers, until the application is stopped with ctrl+c
+    private static void runAsyncConsumer(JmsConnectionFactory connectionFactory) {
+        AsyncConsumer consumer = new AsyncConsumer(connectionFactory::createContext,
+                                        context -> context.createConsumer(context.createTopic("topic://" + TOPIC_NAME)))
+                                        .configureFromSystemProperties();
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            logger.info("Stopping subscriber");
+            consumer.stop();
+            consumer.logSummary();
+            stopped.countDown();
+        }));
+
+        consumer.start(JmsSub::getAndDisplayMessageBody);
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     private static void getAndDisplayMessageBody(Message receivedMessage) {
+        long start = metrics.start();
         if (receivedMessage instanceof TextMessage) {
             TextMessage textMessage = (TextMessage) receivedMessage;
             try {
-                logger.info("Received message: " + textMessage.getText());
+                if (messageLog.sample(Level.INFO)) {
+                    messageLog.log(Level.INFO, "Received message: {0}", textMessage.getText());
+                }
             } catch (JMSException jmsex) {
                 recordFailure(jmsex);
             }
@@ -123,6 +200,7 @@ public class JmsSub {
         } else {
             logger.info("Received object not of JMS Message type!\n");
         }
+        metrics.processed(start);
     }
 
     private static void mqConnectionVariables(SampleEnvSetter env) {
@@ -209,21 +287,6 @@ public class JmsSub {
         return;
     }
 
-    private static void initialiseLogging() {
-        Logger defaultLogger = Logger.getLogger("");
-        Handler[] handlers = defaultLogger.getHandlers();
-        if (handlers != null && handlers.length > 0) {
-            defaultLogger.removeHandler(handlers[0]);
-        }
-
-        Handler consoleHandler = new ConsoleHandler();
-        consoleHandler.setLevel(LOGLEVEL);
-        logger.addHandler(consoleHandler);
-
-        logger.setLevel(LOGLEVEL);
-        logger.finest("Logging initialised");
-    }
-
     private static void setUserCredentials(JmsConnectionFactory cf) {
         try {
             if (accessToken != null) {
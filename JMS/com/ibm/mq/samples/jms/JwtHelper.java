@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2024
+* (c) Copyright IBM Corporation 2024, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -15,13 +15,8 @@
 */
 package com.ibm.mq.samples.jms;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpRequest.BodyPublishers;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
-import java.net.http.HttpResponse;
-import org.json.JSONObject;
 import com.ibm.mq.samples.jms.SampleEnvSetter;
 
 public class JwtHelper {
@@ -45,35 +40,31 @@ public class JwtHelper {
         }
     }
     
+    // Returns the cached token, only calling the token endpoint when there
+    // is no valid token. The token is refreshed in the background before it
+    // expires. Returns an empty string if no token could be obtained.
     public String obtainToken() {
-        String access_token = "";
-  
-        //build the string with parameters provided as environment variables, to include in the POST request to the token issuer
-        String postBuild = String.format("client_id=%s&username=%s&password=%s&grant_type=password",tokenClientId, tokenUsername, tokenPassword);
+        try {
+            String access_token = getCache().getToken();
+            return (null == access_token) ? "" : access_token;
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid token endpoint " + tokenEndpoint);
+            return "";
+        }
+    }
 
-        HttpClient client = HttpClient.newHttpClient();
-  
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(
-    //            "<keycloak URL>/realms/master/protocol/openid-connect/token"
-                tokenEndpoint
-                ))
-            .POST(
-                BodyPublishers.ofString(postBuild))
-            .setHeader("Content-Type", "application/x-www-form-urlencoded")
-            .build();
-            logger.info("obtaining token from:" + tokenEndpoint);
+    // The listener is called with each new token as it is obtained, eg. to
+    // set the new token as the password on a connection factory
+    public void addTokenListener(Consumer<String> listener) {
         try {
-          HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-  
-          JSONObject myJsonObject = new JSONObject(response.body());
-          access_token = myJsonObject.getString("access_token");
-          logger.info("Using token:" + access_token);
-        } catch (Exception e) {
-          logger.info("Using token:" + access_token);
-          e.printStackTrace();
+            getCache().addListener(listener);
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid token endpoint " + tokenEndpoint);
         }
-        return access_token;
+    }
+
+    private JwtTokenCache getCache() {
+        return JwtTokenCache.forEndpoint(tokenEndpoint, tokenClientId, tokenUsername, tokenPassword);
     }
 
     public boolean isJwtEnabled() {
@@ -85,6 +76,11 @@ public class JwtHelper {
             return false;
         }
 
+        if (!JwtTokenCache.isValidEndpoint(tokenEndpoint)) {
+            logger.warning("Invalid token endpoint " + tokenEndpoint + ", not using JWT authentication");
+            return false;
+        }
+
         return true;
     }
 }
@@ -0,0 +1,323 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.*;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/*
+ * Caches the access token from a JWT token endpoint, obtained with a
+ * password grant. There is one cache per endpoint and user, shared by
+ * every caller in the process, and one HttpClient shared by every cache.
+ *
+ * The token is refreshed in the background once most of its lifetime,
+ * taken from expires_in, has passed, so callers normally never wait for
+ * the token endpoint. Callers that do need a fetch, because there is no
+ * token yet or it has expired, share a single request to the endpoint
+ * rather than each sending their own.
+ *
+ * Listeners are told about every new token, so that connection factories
+ * can be given the new credentials for the connections they make next.
+ * Connections that are already open are not affected, as the queue
+ * manager only checks the token when a connection is made.
+ *
+ * A failed fetch is retried in the background with an exponential backoff,
+ * and the warning for it is logged at most once per WARNING_INTERVAL, so
+ * a token endpoint that is down for a long time is neither called every
+ * few seconds nor fills the log.
+ */
+public class JwtTokenCache {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    // Used when the token endpoint does not return expires_in
+    private static final long DEFAULT_LIFETIME_SECONDS = 300;
+    // The token is refreshed once this much of its lifetime has passed,
+    // less up to REFRESH_JITTER more, so that processes started together
+    // do not all refresh at the same moment
+    private static final double REFRESH_RATIO = 0.8;
+    private static final double REFRESH_JITTER = 0.1;
+    // A token this close to expiry is not handed out
+    private static final long EXPIRY_MARGIN = TimeUnit.SECONDS.toNanos(5);
+    private static final long RETRY_INITIAL_DELAY = TimeUnit.SECONDS.toMillis(5);
+    private static final long RETRY_MAX_DELAY = TimeUnit.MINUTES.toMillis(5);
+    private static final long WARNING_INTERVAL = TimeUnit.MINUTES.toNanos(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Map<String, JwtTokenCache> caches = new ConcurrentHashMap<>();
+
+    private final URI endpoint;
+    private final String form;
+    private final AtomicReference<CompletableFuture<Token>> inFlight = new AtomicReference<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile Token current = null;
+    private volatile boolean closed = false;
+    // Guarded by this
+    private final Backoff retryBackoff;
+    private ScheduledFuture<?> refresh = null;
+    private long lastWarning = 0;
+
+    // The cache for the endpoint and user, created the first time it is asked for
+    public static JwtTokenCache forEndpoint(String endpoint, String clientId, String username, String password) {
+        String key = endpoint + "|" + clientId + "|" + username;
+        return caches.computeIfAbsent(key, k -> new JwtTokenCache(URI.create(endpoint.trim()), clientId, username, password));
+    }
+
+    // Whether the endpoint is an absolute http or https URI with a host,
+    // rather than eg. the <KEYCLOAK_URL> placeholder in env.json
+    public static boolean isValidEndpoint(String endpoint) {
+        if (null == endpoint) {
+            return false;
+        }
+        try {
+            URI uri = new URI(endpoint.trim());
+            return ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))
+                        && null != uri.getHost();
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+
+    JwtTokenCache(URI endpoint, String clientId, String username, String password) {
+        this(endpoint, clientId, username, password, new Backoff(RETRY_INITIAL_DELAY, RETRY_MAX_DELAY));
+    }
+
+    JwtTokenCache(URI endpoint, String clientId, String username, String password, Backoff retryBackoff) {
+        this.endpoint = endpoint;
+        this.retryBackoff = retryBackoff;
+        this.form = "client_id=" + encode(clientId)
+                        + "&username=" + encode(username)
+                        + "&password=" + encode(password)
+                        + "&grant_type=password";
+    }
+
+    // Returns a valid token, waiting for a fetch only if there is none.
+    // Returns null if no token could be obtained.
+    public String getToken() {
+        Token token = current;
+        if (null != token && token.isValid()) {
+            return token.value;
+        }
+        try {
+            return fetch().join().value;
+        } catch (CompletionException e) {
+            // The failure itself has already been logged by the fetch
+            logger.fine("No token from " + endpoint + " " + e.getCause());
+            return null;
+        }
+    }
+
+    // Called with each new token, on the thread that obtained it
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+
+    // The number of requests sent to the token endpoint
+    public long getFetchCount() {
+        return fetches.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    // Stops the background refresh
+    public synchronized void close() {
+        closed = true;
+        if (null != refresh) {
+            refresh.cancel(false);
+        }
+        caches.values().remove(this);
+    }
+
+    // Starts a fetch, or joins the one already in flight
+    CompletableFuture<Token> fetch() {
+        while (true) {
+            CompletableFuture<Token> existing = inFlight.get();
+            if (null != existing) {
+                return existing;
+            }
+            CompletableFuture<Token> mine = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, mine)) {
+                send(mine);
+                return mine;
+            }
+        }
+    }
+
+    private void send(CompletableFuture<Token> result) {
+        fetches.incrementAndGet();
+        logger.info("Obtaining token from " + endpoint);
+
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                                    .timeout(REQUEST_TIMEOUT)
+                                    .setHeader("Content-Type", "application/x-www-form-urlencoded")
+                                    .POST(BodyPublishers.ofString(form))
+                                    .build();
+
+        Client.INSTANCE.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+              .thenApply(JwtTokenCache::parse)
+              .whenComplete((token, e) -> {
+                  Throwable cause = (e instanceof CompletionException && null != e.getCause())
+                                        ? e.getCause() : e;
+                  if (null == e) {
+                      current = token;
+                      obtained(token);
+                  } else {
+                      failures.incrementAndGet();
+                      retryAfter(cause);
+                  }
+                  // Later callers start a new fetch rather than join this one
+                  inFlight.compareAndSet(result, null);
+                  if (null == e) {
+                      notifyListeners(token.value);
+                      result.complete(token);
+                  } else {
+                      result.completeExceptionally(cause);
+                  }
+              });
+    }
+
+    private static Token parse(HttpResponse<String> response) {
+        if (200 != response.statusCode()) {
+            throw new IllegalStateException("Token endpoint returned status " + response.statusCode());
+        }
+        try {
+            JSONObject json = new JSONObject(response.body());
+            String value = json.getString("access_token");
+            long lifetime = json.has("expires_in") ? json.getLong("expires_in") : DEFAULT_LIFETIME_SECONDS;
+            return new Token(value, TimeUnit.SECONDS.toNanos(Math.max(1, lifetime)));
+        } catch (JSONException e) {
+            throw new IllegalStateException("Token endpoint response is not valid " + e.getMessage());
+        }
+    }
+
+    private synchronized void obtained(Token token) {
+        if (0 < retryBackoff.getAttempts()) {
+            logger.info("Obtained token after " + retryBackoff.getAttempts() + " failed attempts");
+            retryBackoff.reset();
+        }
+        scheduleRefresh(token.refreshDelay);
+        logger.info("Obtained token, expires in " + TimeUnit.NANOSECONDS.toSeconds(token.lifetime) + " seconds");
+    }
+
+    private synchronized void retryAfter(Throwable cause) {
+        long delay = retryBackoff.nextDelay();
+        String text = "Unable to obtain token from " + endpoint + ", retrying in " + delay + "ms " + cause;
+        long now = System.nanoTime();
+        if (1 == retryBackoff.getAttempts() || now - lastWarning >= WARNING_INTERVAL) {
+            lastWarning = now;
+            logger.warning(text + ", failed attempts " + retryBackoff.getAttempts());
+        } else {
+            logger.fine(text);
+        }
+        scheduleRefresh(TimeUnit.MILLISECONDS.toNanos(delay));
+    }
+
+    // Replaces any refresh already scheduled, so there is only ever one
+    private synchronized void scheduleRefresh(long delayNanos) {
+        if (null != refresh) {
+            refresh.cancel(false);
+        }
+        if (!closed) {
+            refresh = Client.REFRESHER.schedule(this::refresh, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void refresh() {
+        if (!closed) {
+            fetch();
+        }
+    }
+
+    private void notifyListeners(String token) {
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(token);
+            } catch (RuntimeException e) {
+                logger.warning("Token listener failed " + e);
+            }
+        }
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(null == s ? "" : s, StandardCharsets.UTF_8);
+    }
+
+    // Created when the first token is fetched
+    private static final class Client {
+        static final HttpClient INSTANCE = HttpClient.newBuilder()
+                                                     .connectTimeout(REQUEST_TIMEOUT)
+                                                     .build();
+
+        static final ScheduledExecutorService REFRESHER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "JwtTokenCache-refresher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    static final class Token {
+        final String value;
+        final long lifetime;
+        final long expiresAt;
+        final long refreshDelay;
+
+        Token(String value, long lifetime) {
+            this.value = value;
+            this.lifetime = lifetime;
+            this.expiresAt = System.nanoTime() + lifetime;
+            double ratio = REFRESH_RATIO - ThreadLocalRandom.current().nextDouble(REFRESH_JITTER);
+            this.refreshDelay = (long) (lifetime * ratio);
+        }
+
+        boolean isValid() {
+            return expiresAt - System.nanoTime() > Math.min(EXPIRY_MARGIN, lifetime / 10);
+        }
+    }
+}
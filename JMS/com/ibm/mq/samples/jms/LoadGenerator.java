@@ -0,0 +1,311 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.Destination;
+import javax.jms.JMSContext;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.TextMessage;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.Destination;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSProducer;
+// import jakarta.jms.JMSRuntimeException;
+// import jakarta.jms.TextMessage;
+
+/*
+ * A multi threaded producer engine. Each producer thread owns its own
+ * JMSContext, obtained from the supplied context factory, and sends its
+ * share of the messages either one at a time or in transacted batches.
+ * Sends can be paced to a target overall rate. The time taken by every
+ * send is recorded so that throughput and latency percentiles can be
+ * reported at the end of the run.
+ *
+ * The context factory is typically the createContext(int sessionMode)
+ * method of a connection factory, or of an InMemoryJmsStandIn when
+ * running without a queue manager. With an EndpointBalancer the threads
+ * are spread across its endpoints instead.
+ */
+public class LoadGenerator {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    private final IntFunction<JMSContext> contextFactory;
+    private final String queueName;
+
+    private long messageCount = 10;
+    private int payloadSize = 100;
+    private int threads = 1;
+    private int batchSize = 0;
+    private long rate = 0;
+    private Consumer<Destination> destinationCustomiser = null;
+    private EndpointBalancer balancer = null;
+
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final SampleMetrics metrics = SampleMetrics.get();
+    private long elapsedNanos = 0;
+
+    public LoadGenerator(IntFunction<JMSContext> contextFactory, String queueName) {
+        this.contextFactory = contextFactory;
+        this.queueName = queueName;
+    }
+
+    public LoadGenerator messageCount(long count) {
+        messageCount = Math.max(0, count);
+        return this;
+    }
+
+    public LoadGenerator payloadSize(int size) {
+        payloadSize = Math.max(0, size);
+        return this;
+    }
+
+    public LoadGenerator threads(int n) {
+        threads = Math.max(1, n);
+        return this;
+    }
+
+    // A batch size of 0 sends each message outside of a transaction
+    public LoadGenerator batchSize(int size) {
+        batchSize = Math.max(0, size);
+        return this;
+    }
+
+    // Target overall messages per second, 0 means as fast as possible
+    public LoadGenerator rate(long messagesPerSecond) {
+        rate = Math.max(0, messagesPerSecond);
+        return this;
+    }
+
+    // Allows the caller to adjust the destination, eg. to set the target client
+    public LoadGenerator destinationCustomiser(Consumer<Destination> customiser) {
+        destinationCustomiser = customiser;
+        return this;
+    }
+
+    // Each thread sends to an endpoint chosen by the balancer, rather than
+    // using the context factory, and moves if the endpoint fails
+    public LoadGenerator balancer(EndpointBalancer balancer) {
+        this.balancer = balancer;
+        return this;
+    }
+
+    public LoadGenerator run() {
+        List<Thread> workers = new ArrayList<>();
+        long perThread = messageCount / threads;
+        long remainder = messageCount % threads;
+
+        logger.info("Sending " + messageCount + " messages of " + payloadSize + " bytes on "
+                        + threads + " threads"
+                        + ((0 < batchSize) ? ", committing every " + batchSize + " messages" : "")
+                        + ((0 < rate) ? ", limited to " + rate + " messages per second" : ""));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            long count = perThread + ((i < remainder) ? 1 : 0);
+            Thread t = new Thread(() -> produce(count), "LoadGenerator-" + i);
+            workers.add(t);
+            t.start();
+        }
+
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return this;
+    }
+
+    private void produce(long count) {
+        boolean transacted = 0 < batchSize;
+        int sessionMode = transacted ? JMSContext.SESSION_TRANSACTED : JMSContext.AUTO_ACKNOWLEDGE;
+        Object worker = Thread.currentThread();
+        JMSContext context = (null == balancer) ? contextFactory.apply(sessionMode) : connect(worker, sessionMode);
+        EndpointBalancer.Endpoint endpoint = (null == balancer) ? null : balancer.current(worker);
+        try {
+            Destination destination = createDestination(context);
+            JMSProducer producer = context.createProducer();
+            String payload = buildPayload(payloadSize);
+
+            // Each thread is paced at its share of the overall rate
+            long interval = (0 < rate) ? (TimeUnit.SECONDS.toNanos(1) * threads) / rate : 0;
+            long nextSend = System.nanoTime();
+            int inBatch = 0;
+
+            for (long i = 0; i < count; i++) {
+                if (0 < interval) {
+                    long wait = nextSend - System.nanoTime();
+                    if (0 < wait) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    nextSend += interval;
+                }
+
+                TextMessage message = context.createTextMessage(payload);
+                long sendStart = (null == endpoint) ? System.nanoTime() : endpoint.begin();
+                try {
+                    producer.send(destination, message);
+                    sendLatency.record(System.nanoTime() - sendStart);
+                    metrics.sent(sendStart);
+                    if (null != endpoint) {
+                        endpoint.succeeded(sendStart);
+                    }
+                    inBatch++;
+                } catch (JMSRuntimeException jmsex) {
+                    failures.incrementAndGet();
+                    metrics.failed();
+                    if (null != endpoint) {
+                        endpoint.failed(sendStart);
+                    }
+                    JmsExceptionHelper.recordFailure(logger, jmsex);
+                }
+
+                if (transacted && inBatch >= batchSize) {
+                    inBatch = commit(context, inBatch);
+                } else if (!transacted) {
+                    sent.addAndGet(inBatch);
+                    inBatch = 0;
+                }
+
+                // Between batches, a thread whose endpoint has become
+                // unhealthy moves to the endpoint the balancer chooses
+                if (null != endpoint && 0 == inBatch) {
+                    if (balancer.choose(worker) != endpoint) {
+                        context.close();
+                        context = connect(worker, sessionMode);
+                        endpoint = balancer.current(worker);
+                        destination = createDestination(context);
+                        producer = context.createProducer();
+                    }
+                }
+            }
+
+            if (transacted && 0 < inBatch) {
+                commit(context, inBatch);
+            }
+        } finally {
+            context.close();
+            if (null != balancer) {
+                balancer.release(worker);
+            }
+        }
+    }
+
+    // Connects to the endpoint the balancer chooses for the worker. An
+    // endpoint that can not be reached is marked as failed and another is
+    // chosen, until every endpoint has been tried.
+    private JMSContext connect(Object worker, int sessionMode) {
+        Set<EndpointBalancer.Endpoint> tried = new HashSet<>();
+        while (true) {
+            EndpointBalancer.Endpoint endpoint = balancer.choose(worker, tried);
+            try {
+                return endpoint.createContext(sessionMode);
+            } catch (JMSRuntimeException jmsex) {
+                endpoint.failed(endpoint.begin());
+                balancer.release(worker);
+                tried.add(endpoint);
+                if (tried.size() >= balancer.getEndpoints().size()) {
+                    throw jmsex;
+                }
+                JmsExceptionHelper.recordFailure(logger, jmsex);
+            }
+        }
+    }
+
+    private Destination createDestination(JMSContext context) {
+        Destination destination = context.createQueue("queue:///" + queueName);
+        if (null != destinationCustomiser) {
+            destinationCustomiser.accept(destination);
+        }
+        return destination;
+    }
+
+    private int commit(JMSContext context, int inBatch) {
+        long commitStart = System.nanoTime();
+        try {
+            context.commit();
+            commitLatency.record(System.nanoTime() - commitStart);
+            metrics.committed(commitStart);
+            sent.addAndGet(inBatch);
+        } catch (JMSRuntimeException jmsex) {
+            failures.addAndGet(inBatch);
+            metrics.failed();
+            JmsExceptionHelper.recordFailure(logger, jmsex);
+        }
+        return 0;
+    }
+
+    private static String buildPayload(int size) {
+        char[] c = new char[size];
+        Arrays.fill(c, 'x');
+        return new String(c);
+    }
+
+    public long getMessagesSent() {
+        return sent.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getMessagesPerSecond() {
+        return (0 == elapsedNanos) ? 0 : sent.get() / (elapsedNanos / 1e9);
+    }
+
+    public LatencyHistogram getSendLatency() {
+        return sendLatency;
+    }
+
+    public LatencyHistogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    public void logSummary() {
+        logger.info(String.format("Sent %d messages in %.3f seconds, %.1f msgs/sec, %d failures",
+                        getMessagesSent(), elapsedNanos / 1e9, getMessagesPerSecond(), getFailures()));
+        logger.info("Send latency   " + sendLatency.summary(TimeUnit.MICROSECONDS));
+        if (0 < commitLatency.getCount()) {
+            logger.info("Commit latency " + commitLatency.summary(TimeUnit.MICROSECONDS));
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -16,23 +16,133 @@
 
 package com.ibm.mq.samples.jms;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.*;
 
+/*
+ * Sets up logging for the samples. By default everything is logged,
+ * straight to the console. The LOGGING object in env.json, or system
+ * properties, which take precedence, can change that eg.
+ *
+ *  "LOGGING": {
+ *    "LEVEL": "INFO",
+ *    "ASYNC": true,
+ *    "BUFFER_SIZE": 8192,
+ *    "SAMPLE_RATE": 100,
+ *    "LEVELS": { "ConsumerHelper": "WARNING", "JmsGet": "FINE" }
+ *  }
+ *
+ * or -DLOG_LEVEL=INFO -DLOG_ASYNC=true -DLOG_BUFFER_SIZE=8192
+ *    -DLOG_SAMPLE_RATE=100
+ *
+ * ASYNC writes the log from a background thread, through an
+ * AsyncLogHandler with a buffer of BUFFER_SIZE records. SAMPLE_RATE
+ * writes 1 in every N of the logs that are made for every message.
+ * LEVELS sets the level of a class's SampleLogger, by the class's simple
+ * name, or of any other logger by its full name. The console handler is
+ * set to the most verbose of LEVEL and LEVELS, so that a class can log
+ * more than the samples as a whole.
+ */
 public class LoggingHelper {
-    private static final Level LOGLEVEL = Level.ALL;
+    private static final String ROOT = "com.ibm.mq.samples.jms";
+
+    public static final String LOG_LEVEL = "LOG_LEVEL";
+    public static final String LOG_ASYNC = "LOG_ASYNC";
+    public static final String LOG_BUFFER_SIZE = "LOG_BUFFER_SIZE";
+    public static final String LOG_SAMPLE_RATE = "LOG_SAMPLE_RATE";
+
+    private static final Level DEFAULT_LEVEL = Level.ALL;
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static volatile int sampleRate = 1;
+    private static Handler installed = null;
+    // java.util.logging only holds loggers weakly, so the loggers that
+    // have been given levels are kept here, otherwise the level is lost
+    private static final List<Logger> configured = new ArrayList<>();
 
     public static void init(Logger logger) {
+        init(logger, new SampleEnvSetter().getConfig());
+    }
+
+    public static synchronized void init(Logger logger, EnvConfig config) {
         Logger defaultLogger = Logger.getLogger("");
         Handler[] handlers = defaultLogger.getHandlers();
         if (handlers != null && handlers.length > 0) {
             defaultLogger.removeHandler(handlers[0]);
         }
+        if (null != installed) {
+            logger.removeHandler(installed);
+            installed.close();
+        }
 
-        Handler consoleHandler = new ConsoleHandler();
-        consoleHandler.setLevel(LOGLEVEL);
-        logger.addHandler(consoleHandler);
+        Level level = parseLevel(setting(config, LOG_LEVEL, "LEVEL"), DEFAULT_LEVEL);
+        Map<String, Level> levels = new LinkedHashMap<>();
+        Level mostVerbose = level;
+        for (Map.Entry<String, String> e : config.getLogLevels().entrySet()) {
+            Level l = parseLevel(e.getValue(), level);
+            levels.put(e.getKey(), l);
+            if (l.intValue() < mostVerbose.intValue()) {
+                mostVerbose = l;
+            }
+        }
+
+        Handler handler = new ConsoleHandler();
+        handler.setLevel(mostVerbose);
+        if (Boolean.parseBoolean(setting(config, LOG_ASYNC, "ASYNC"))) {
+            handler = new AsyncLogHandler(handler, parseInt(setting(config, LOG_BUFFER_SIZE, "BUFFER_SIZE"),
+                                                            DEFAULT_BUFFER_SIZE));
+        }
+        installed = handler;
+        logger.addHandler(handler);
+        logger.setLevel(level);
 
-        logger.setLevel(LOGLEVEL);
+        sampleRate = Math.max(1, parseInt(setting(config, LOG_SAMPLE_RATE, "SAMPLE_RATE"), 1));
+
+        configured.clear();
+        for (Map.Entry<String, Level> e : levels.entrySet()) {
+            String name = e.getKey().contains(".") ? e.getKey() : ROOT + "." + e.getKey();
+            Logger l = Logger.getLogger(name);
+            l.setLevel(e.getValue());
+            configured.add(l);
+        }
         logger.finest("Logging initialised");
     }
-}
\ No newline at end of file
+
+    // 1 in how many of the logs made for every message are written
+    public static int getSampleRate() {
+        return sampleRate;
+    }
+
+    static void setSampleRate(int rate) {
+        sampleRate = Math.max(1, rate);
+    }
+
+    // The system property, or the env.json LOGGING value
+    private static String setting(EnvConfig config, String property, String key) {
+        String value = System.getProperty(property);
+        return (null != value) ? value : config.getLoggingValue(key);
+    }
+
+    private static Level parseLevel(String value, Level defaultLevel) {
+        if (null == value) {
+            return defaultLevel;
+        }
+        try {
+            return Level.parse(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            Logger.getLogger(ROOT).warning("Unknown log level " + value);
+            return defaultLevel;
+        }
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return (null == value) ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
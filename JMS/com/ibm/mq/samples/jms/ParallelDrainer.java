@@ -0,0 +1,338 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.JMSConsumer;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSRuntimeException;
+// import jakarta.jms.Message;
+
+/*
+ * Drains a queue on several endpoints at the same time. Each endpoint is
+ * opened and read on a thread of its own, and the messages from every
+ * endpoint are merged into a single stream that is handed, one message
+ * at a time, to a handler running on the thread that called run().
+ *
+ * An endpoint is finished when no message arrives within the idle timeout,
+ * or when it fails, and run() returns once every endpoint has finished. The
+ * time taken is that of the slowest endpoint, not the sum of all of them.
+ *
+ * Unordered, messages are handled in the order they arrive from any
+ * endpoint. Ordered, all the messages from the first endpoint are handled
+ * before any from the second, and so on, as they would be if the endpoints
+ * were drained one after another. Messages from an endpoint that is ahead
+ * of its turn are held in memory until its turn comes.
+ */
+public class ParallelDrainer {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    private static final long DEFAULT_IDLE_TIMEOUT = 5000;
+    // Bounds the messages waiting for the handler, so a slow
+    // handler holds back the endpoint threads
+    private static final int MERGE_CAPACITY = 1000;
+    // How often a blocked endpoint thread checks whether it has been asked to stop
+    private static final long POLL_INTERVAL = 1000;
+
+    /*
+     * An open endpoint. close() is called on the endpoint's thread once the
+     * endpoint has been drained, and should release the consumer and context.
+     */
+    public interface Endpoint extends AutoCloseable {
+        JMSConsumer getConsumer();
+
+        @Override
+        void close();
+    }
+
+    private final List<EndpointStats> endpoints = new ArrayList<>();
+    private final BlockingQueue<Item> merged = new ArrayBlockingQueue<>(MERGE_CAPACITY);
+    private final SampleMetrics metrics = SampleMetrics.get();
+
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private boolean ordered = false;
+    private ThreadMode threadMode = ThreadMode.PLATFORM;
+
+    private volatile boolean stopping = false;
+    private long startTime = 0;
+    private long elapsedNanos = 0;
+    private long handled = 0;
+
+    // Opens a consumer on the queue, closing the endpoint closes the context
+    public static Endpoint queueEndpoint(JMSContext context, String queueName) {
+        JMSConsumer consumer = context.createConsumer(context.createQueue("queue:///" + queueName));
+        return new Endpoint() {
+            @Override
+            public JMSConsumer getConsumer() {
+                return consumer;
+            }
+
+            @Override
+            public void close() {
+                try {
+                    consumer.close();
+                } finally {
+                    context.close();
+                }
+            }
+        };
+    }
+
+    // The opener is called on the endpoint's own thread, so connections
+    // to all of the endpoints are also made in parallel
+    public ParallelDrainer endpoint(String name, Supplier<? extends Endpoint> opener) {
+        endpoints.add(new EndpointStats(name, opener));
+        return this;
+    }
+
+    // An endpoint is finished when it has had no messages for this long
+    public ParallelDrainer idleTimeout(long timeout, TimeUnit unit) {
+        idleTimeout = Math.max(1, unit.toMillis(timeout));
+        return this;
+    }
+
+    // When true, messages are handled in endpoint order
+    public ParallelDrainer ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    // Platform or virtual threads for the endpoints, platform by default
+    public ParallelDrainer threadMode(ThreadMode mode) {
+        threadMode = mode;
+        return this;
+    }
+
+    // Drains every endpoint, returning when they have all finished
+    public ParallelDrainer run(Consumer<Message> handler) {
+        int n = endpoints.size();
+        logger.info("Draining " + n + " endpoints in parallel");
+
+        stopping = false;
+        handled = 0;
+        startTime = System.nanoTime();
+
+        ThreadFactory threadFactory = threadMode.factory("drain-");
+        List<Thread> threads = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            final int index = i;
+            Thread t = threadFactory.newThread(() -> drain(index));
+            t.setName("drain-" + endpoints.get(i).getName());
+            threads.add(t);
+            t.start();
+        }
+
+        List<List<Message>> pending = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            pending.add(new ArrayList<>());
+        }
+        boolean[] finished = new boolean[n];
+        int next = 0;
+        int remaining = n;
+
+        try {
+            while (0 < remaining) {
+                Item item = merged.take();
+                if (null == item.message) {
+                    finished[item.endpoint] = true;
+                    remaining--;
+                } else if (!ordered || item.endpoint == next) {
+                    handle(handler, item.message);
+                } else {
+                    pending.get(item.endpoint).add(item.message);
+                }
+
+                // Once the current endpoint is finished, catch up on
+                // whatever the next one has already delivered
+                while (ordered && next < n && finished[next]) {
+                    next++;
+                    if (next < n) {
+                        for (Message m : pending.get(next)) {
+                            handle(handler, m);
+                        }
+                        pending.get(next).clear();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopping = true;
+            elapsedNanos = System.nanoTime() - startTime;
+        }
+
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return this;
+    }
+
+    private void handle(Consumer<Message> handler, Message message) {
+        handled++;
+        handler.accept(message);
+    }
+
+    private void drain(int index) {
+        EndpointStats stats = endpoints.get(index);
+        try (Endpoint endpoint = stats.opener.get()) {
+            JMSConsumer consumer = endpoint.getConsumer();
+            logger.info("Draining endpoint " + stats.name);
+
+            while (!stopping) {
+                long start = metrics.start();
+                Message message = consumer.receive(idleTimeout);
+                metrics.received(start, null != message);
+                if (null == message) {
+                    logger.info("No message received from endpoint " + stats.name);
+                    break;
+                }
+                stats.received();
+                if (!offer(new Item(index, message))) {
+                    break;
+                }
+            }
+        } catch (JMSRuntimeException ex) {
+            // A failed endpoint does not stop the others
+            stats.failure = ex;
+            metrics.failed();
+            logger.warning("Endpoint " + stats.name + " failed, no more messages will be taken from it");
+            JmsExceptionHelper.recordFailure(logger, ex);
+        } finally {
+            offer(new Item(index, null));
+        }
+    }
+
+    // Waits for room in the merged stream, giving up if the drain is stopping
+    private boolean offer(Item item) {
+        try {
+            while (!merged.offer(item, POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (stopping) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public long getMessageCount() {
+        return handled;
+    }
+
+    public double getMessagesPerSecond() {
+        return (0 == elapsedNanos) ? 0 : handled * 1e9 / elapsedNanos;
+    }
+
+    public List<EndpointStats> getEndpointStats() {
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    public void logSummary() {
+        logger.info(String.format("Drained %d messages from %d endpoints in %.3f seconds, %.1f messages/sec",
+                        handled, endpoints.size(), elapsedNanos / 1e9, getMessagesPerSecond()));
+        for (EndpointStats stats : endpoints) {
+            logger.info(String.format("  %s : %d messages in %.3f seconds, %.1f messages/sec%s",
+                            stats.name, stats.getMessageCount(), stats.getActiveNanos() / 1e9,
+                            stats.getMessagesPerSecond(), stats.isFailed() ? ", failed" : ""));
+        }
+    }
+
+    /*
+     * The messages taken from one endpoint. The active time runs from the
+     * start of the drain to the last message received, so does not include
+     * the idle timeout that ends the drain.
+     */
+    public final class EndpointStats {
+        private final String name;
+        private final Supplier<? extends Endpoint> opener;
+        private volatile long messages = 0;
+        private volatile long lastMessageTime = 0;
+        private volatile JMSRuntimeException failure = null;
+
+        private EndpointStats(String name, Supplier<? extends Endpoint> opener) {
+            this.name = name;
+            this.opener = opener;
+        }
+
+        // Only called by the endpoint's own thread
+        private void received() {
+            messages++;
+            lastMessageTime = System.nanoTime();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getMessageCount() {
+            return messages;
+        }
+
+        public long getActiveNanos() {
+            return (0 == messages) ? 0 : lastMessageTime - startTime;
+        }
+
+        public double getMessagesPerSecond() {
+            long active = getActiveNanos();
+            return (0 == active) ? 0 : messages * 1e9 / active;
+        }
+
+        public boolean isFailed() {
+            return null != failure;
+        }
+
+        // Null unless the endpoint failed
+        public JMSRuntimeException getFailure() {
+            return failure;
+        }
+    }
+
+    // A message from an endpoint, a null message marks the end of the endpoint
+    private static final class Item {
+        final int endpoint;
+        final Message message;
+
+        Item(int endpoint, Message message) {
+            this.endpoint = endpoint;
+            this.message = message;
+        }
+    }
+}
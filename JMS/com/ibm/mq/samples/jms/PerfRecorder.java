@@ -0,0 +1,290 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.*;
+
+import org.json.JSONObject;
+
+// Use these imports for building with JMS
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.Message;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.JMSException;
+// import jakarta.jms.JMSProducer;
+// import jakarta.jms.Message;
+
+/*
+ * Records a performance run of the BasicSampleDriver, and writes a report
+ * of it that can be compared with other runs.
+ *
+ * The producer side stamps every message with the id of the run, its
+ * sequence number within the run, the number of messages in the run and
+ * the time it was sent. The consumer side uses these to measure the end
+ * to end latency of each message, and to count the messages that were
+ * lost, delivered more than once or delivered out of order.
+ *
+ * The send time is in microseconds since the epoch. It is taken from the
+ * system clock when the recorder starts and advanced with System.nanoTime()
+ * after that, so latencies measured by a single process are precise, but
+ * between processes they are only as good as the agreement of their clocks.
+ *
+ * The report is JSON, or CSV if the report file name ends in .csv, with the
+ * same fields in both, so that CSV reports from many runs can be appended.
+ */
+public class PerfRecorder {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final String RUN_PROPERTY = "perfRun";
+    public static final String SEQUENCE_PROPERTY = "perfSeq";
+    public static final String COUNT_PROPERTY = "perfCount";
+    public static final String SENT_AT_PROPERTY = "perfSentAt";
+
+    private static final long BASE_MICROS = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    private static final long BASE_NANOS = System.nanoTime();
+
+    private final String mode;
+    private final String runId = UUID.randomUUID().toString();
+    private final Date startDate = new Date();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<String, SequenceTracker> runs = new HashMap<>();
+
+    private int messageSize = 0;
+    private long messages = 0;
+    private long unstamped = 0;
+    private long failures = 0;
+    private long firstNanos = 0;
+    private long lastNanos = 0;
+
+    public PerfRecorder(String mode) {
+        this.mode = mode;
+    }
+
+    // The current time in microseconds since the epoch
+    public static long currentTimeMicros() {
+        return BASE_MICROS + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - BASE_NANOS);
+    }
+
+    public PerfRecorder messageSize(int size) {
+        messageSize = size;
+        return this;
+    }
+
+    // Sets the properties for the next message on the producer, call just
+    // before each send
+    public synchronized JMSProducer stamp(JMSProducer producer, long sequence, long count) {
+        return producer.setProperty(RUN_PROPERTY, runId)
+                       .setProperty(SEQUENCE_PROPERTY, sequence)
+                       .setProperty(COUNT_PROPERTY, count)
+                       .setProperty(SENT_AT_PROPERTY, currentTimeMicros());
+    }
+
+    public synchronized void sent() {
+        count();
+    }
+
+    public synchronized void failed() {
+        failures++;
+    }
+
+    public synchronized void received(Message message) {
+        count();
+        try {
+            if (!message.propertyExists(SEQUENCE_PROPERTY)) {
+                unstamped++;
+                return;
+            }
+            long sentAt = message.getLongProperty(SENT_AT_PROPERTY);
+            latency.record(TimeUnit.MICROSECONDS.toNanos(currentTimeMicros() - sentAt));
+
+            String run = message.getStringProperty(RUN_PROPERTY);
+            runs.computeIfAbsent(run, r -> new SequenceTracker())
+                .record(message.getLongProperty(SEQUENCE_PROPERTY), message.getLongProperty(COUNT_PROPERTY));
+        } catch (JMSException | RuntimeException e) {
+            unstamped++;
+            logger.fine("Unable to read performance properties " + e);
+        }
+    }
+
+    private void count() {
+        long now = System.nanoTime();
+        if (0 == messages++) {
+            firstNanos = now;
+        }
+        lastNanos = now;
+    }
+
+    public synchronized long getMessages() {
+        return messages;
+    }
+
+    // Elapsed time from the first message to the last
+    public synchronized long getElapsedNanos() {
+        return lastNanos - firstNanos;
+    }
+
+    public synchronized double getMessagesPerSecond() {
+        long elapsed = getElapsedNanos();
+        return (0 == elapsed) ? 0 : (messages - 1) * 1e9 / elapsed;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // Messages missing from every run seen, by sequence number
+    public synchronized long getGaps() {
+        long gaps = 0;
+        for (SequenceTracker t : runs.values()) {
+            gaps += t.getMissing();
+        }
+        return gaps;
+    }
+
+    public synchronized long getDuplicates() {
+        long duplicates = 0;
+        for (SequenceTracker t : runs.values()) {
+            duplicates += t.duplicates;
+        }
+        return duplicates;
+    }
+
+    public synchronized long getOutOfOrder() {
+        long outOfOrder = 0;
+        for (SequenceTracker t : runs.values()) {
+            outOfOrder += t.outOfOrder;
+        }
+        return outOfOrder;
+    }
+
+    // The report, in the order of the CSV columns
+    public synchronized Map<String, Object> getReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("mode", mode);
+        report.put("start", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").format(startDate));
+        report.put("messages", messages);
+        report.put("failures", failures);
+        report.put("messageSize", messageSize);
+        report.put("elapsedSeconds", round(getElapsedNanos() / 1e9));
+        report.put("messagesPerSecond", round(getMessagesPerSecond()));
+        report.put("runs", runs.size());
+        report.put("unstamped", unstamped);
+        report.put("gaps", getGaps());
+        report.put("duplicates", getDuplicates());
+        report.put("outOfOrder", getOutOfOrder());
+        report.put("latencyCount", latency.getCount());
+        report.put("latencyMeanMicros", round(latency.getMeanNanos() / 1e3));
+        report.put("latencyP50Micros", round(latency.getPercentileNanos(50.0) / 1e3));
+        report.put("latencyP90Micros", round(latency.getPercentileNanos(90.0) / 1e3));
+        report.put("latencyP99Micros", round(latency.getPercentileNanos(99.0) / 1e3));
+        report.put("latencyP999Micros", round(latency.getPercentileNanos(99.9) / 1e3));
+        report.put("latencyMaxMicros", round(latency.getMaxNanos() / 1e3));
+        return report;
+    }
+
+    // Writes the report, appending a row if the file is an existing CSV file
+    public void writeReport(String fileName) throws IOException {
+        Path path = Paths.get(fileName);
+        Map<String, Object> report = getReport();
+
+        if (fileName.toLowerCase().endsWith(".csv")) {
+            boolean exists = Files.exists(path) && 0 < Files.size(path);
+            try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                                                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (!exists) {
+                    w.write(String.join(",", report.keySet()));
+                    w.write(System.lineSeparator());
+                }
+                StringBuilder row = new StringBuilder();
+                for (Object value : report.values()) {
+                    if (0 < row.length()) {
+                        row.append(',');
+                    }
+                    row.append(value);
+                }
+                w.write(row.toString());
+                w.write(System.lineSeparator());
+            }
+        } else {
+            Files.write(path, new JSONObject(report).toString(2).getBytes(StandardCharsets.UTF_8));
+        }
+        logger.info("Performance report written to " + path.toAbsolutePath());
+    }
+
+    public void logSummary() {
+        logger.info(String.format("%s: %d messages in %.3f seconds, %.1f msgs/sec, %d failures",
+                        mode, getMessages(), getElapsedNanos() / 1e9, getMessagesPerSecond(), failures));
+        if (0 < latency.getCount() || 0 < unstamped) {
+            logger.info(String.format("%d gaps, %d duplicates, %d out of order, %d without sequence numbers",
+                            getGaps(), getDuplicates(), getOutOfOrder(), unstamped));
+            logger.info("End to end latency " + latency.summary(TimeUnit.MICROSECONDS));
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    // The sequence numbers seen from one run of a producer
+    private static final class SequenceTracker {
+        private final BitSet seen = new BitSet();
+        private long distinct = 0;
+        private long expected = 0;
+        private long highest = -1;
+        private long duplicates = 0;
+        private long outOfOrder = 0;
+
+        void record(long sequence, long count) {
+            expected = Math.max(expected, count);
+            int index = (int) sequence;
+            if (seen.get(index)) {
+                duplicates++;
+                return;
+            }
+            seen.set(index);
+            distinct++;
+            if (sequence < highest) {
+                outOfOrder++;
+            } else {
+                highest = sequence;
+            }
+        }
+
+        // Messages that have not arrived, including any at the end of the
+        // run, as every message carries the size of the run
+        long getMissing() {
+            return Math.max(expected, highest + 1) - distinct;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.Destination;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.Destination;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSException;
+// import jakarta.jms.JMSProducer;
+// import jakarta.jms.JMSRuntimeException;
+// import jakarta.jms.Message;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.MQQueue;
+import com.ibm.mq.MQQueueManager;
+import com.ibm.mq.constants.MQConstants;
+
+/*
+ * The usual back out handling. A request is poison once it has been
+ * delivered as many times as the back out threshold, or straight away if
+ * retrying it can never succeed, and poison requests are moved to the back
+ * out queue. With no back out queue they are discarded, with a warning, so
+ * that they cannot block the queue.
+ *
+ * The threshold and back out queue are normally the BOTHRESH and BOQNAME
+ * attributes of the request queue, read once with inquire(). The back out
+ * queue destination is created once, and each worker's context has a
+ * producer of its own that is kept until the worker ends.
+ */
+public class QueueBackoutHandler implements BackoutHandler {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final int DEFAULT_THRESHOLD = 5;
+
+    private final String backoutQueueName;
+    private final int threshold;
+    private final Map<JMSContext, JMSProducer> producers = new ConcurrentHashMap<>();
+
+    private final AtomicLong moved = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile Destination backoutQueue = null;
+
+    // A null or empty back out queue name discards poison requests
+    public QueueBackoutHandler(String backoutQueueName, int threshold) {
+        this.backoutQueueName = (null == backoutQueueName || backoutQueueName.trim().isEmpty())
+                                    ? null : backoutQueueName.trim();
+        this.threshold = Math.max(1, threshold);
+        if (null == this.backoutQueueName) {
+            logger.warning("No backout queue, poison messages will be discarded");
+        }
+    }
+
+    /*
+     * Reads the back out threshold and back out queue of the request queue
+     * from the queue manager. A threshold of 0, which MQ takes to mean that
+     * messages are never backed out, or a blank back out queue, is replaced
+     * by the default, as is everything if the queue cannot be inquired on.
+     */
+    public static QueueBackoutHandler inquire(MQQueueManager queueManager, String queueName,
+                                              String defaultBackoutQueue, int defaultThreshold) {
+        int[] selectors = { MQConstants.MQIA_BACKOUT_THRESHOLD, MQConstants.MQCA_BACKOUT_REQ_Q_NAME };
+        int[] intAttrs = new int[1];
+        byte[] charAttrs = new byte[MQConstants.MQ_Q_NAME_LENGTH];
+
+        MQQueue queue = null;
+        try {
+            queue = queueManager.accessQueue(queueName, MQConstants.MQOO_INQUIRE | MQConstants.MQOO_FAIL_IF_QUIESCING);
+            queue.inquire(selectors, intAttrs, charAttrs);
+        } catch (MQException e) {
+            logger.warning("Unable to inquire backout settings for " + queueName + ", reason " + e.getReason());
+            return new QueueBackoutHandler(defaultBackoutQueue, defaultThreshold);
+        } finally {
+            close(queue);
+        }
+
+        int threshold = intAttrs[0];
+        String backoutQueue = new String(charAttrs, StandardCharsets.UTF_8).trim();
+        logger.info("Queue " + queueName + " has backout threshold " + threshold
+                        + " and backout queue " + (backoutQueue.isEmpty() ? "(none)" : backoutQueue));
+
+        return new QueueBackoutHandler(backoutQueue.isEmpty() ? defaultBackoutQueue : backoutQueue,
+                                       (0 < threshold) ? threshold : defaultThreshold);
+    }
+
+    @Override
+    public boolean isPoison(Message request, boolean permanent) {
+        return permanent || deliveryCount(request) >= threshold;
+    }
+
+    @Override
+    public boolean backout(JMSContext context, Message request) {
+        if (null == backoutQueueName) {
+            discarded.incrementAndGet();
+            logger.warning("Discarding poison message, there is no backout queue");
+            return true;
+        }
+        try {
+            producers.computeIfAbsent(context, JMSContext::createProducer).send(queueFor(context), request);
+            moved.incrementAndGet();
+            logger.info("Message sent to backout queue " + backoutQueueName);
+            return true;
+        } catch (JMSRuntimeException e) {
+            failures.incrementAndGet();
+            logger.warning("Unable to move message to backout queue " + backoutQueueName);
+            JmsExceptionHelper.recordFailure(logger, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void release(JMSContext context) {
+        producers.remove(context);
+    }
+
+    // The destination is only created once, using the first context that
+    // needs it, as MQ destinations are not tied to a context
+    private Destination queueFor(JMSContext context) {
+        Destination d = backoutQueue;
+        if (null == d) {
+            d = context.createQueue("queue:///" + backoutQueueName);
+            backoutQueue = d;
+        }
+        return d;
+    }
+
+    private static int deliveryCount(Message message) {
+        try {
+            return message.getIntProperty("JMSXDeliveryCount");
+        } catch (JMSException | RuntimeException e) {
+            logger.info("Error on getting the counter");
+            return 1;
+        }
+    }
+
+    private static void close(MQQueue queue) {
+        if (null != queue) {
+            try {
+                queue.close();
+            } catch (MQException e) {
+                logger.fine("Unable to close queue, reason " + e.getReason());
+            }
+        }
+    }
+
+    public String getBackoutQueueName() {
+        return backoutQueueName;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    // Poison messages moved to the back out queue
+    public long getMoved() {
+        return moved.get();
+    }
+
+    // Poison messages discarded, as there is no back out queue
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    // Poison messages that could not be moved, and were rolled back
+    public long getFailures() {
+        return failures.get();
+    }
+}
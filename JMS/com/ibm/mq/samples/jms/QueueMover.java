@@ -0,0 +1,343 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.Destination;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.Destination;
+// import jakarta.jms.JMSConsumer;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSException;
+// import jakarta.jms.JMSProducer;
+// import jakarta.jms.JMSRuntimeException;
+// import jakarta.jms.Message;
+
+/*
+ * Moves the messages on one queue to another, eg. to clear a backlog or
+ * to return messages from a backout queue. Each mover thread has its own
+ * transacted JMSContext, with a consumer on the source queue and a
+ * producer on the target queue, and moves the messages in batches. The
+ * gets and puts of a batch are committed together, so a message is never
+ * lost or duplicated, and a batch that fails is rolled back, leaving its
+ * messages on the source queue.
+ *
+ * Only the messages matching the selector, if there is one, are moved.
+ * The move ends when the source queue has had no matching messages for
+ * the idle timeout, or the limit has been reached. Moves can be paced to
+ * a target overall rate, and progress is logged as the move runs.
+ *
+ * With more than one thread, messages can reach the target queue in a
+ * different order to the one they were in on the source queue.
+ */
+public class QueueMover {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    // Settings for configureFromSystemProperties eg. -DMOVE_BATCH_SIZE=500
+    public static final String MOVE_SELECTOR = "MOVE_SELECTOR";
+    public static final String MOVE_BATCH_SIZE = "MOVE_BATCH_SIZE";
+    public static final String MOVE_THREADS = "MOVE_THREADS";
+    public static final String MOVE_RATE = "MOVE_RATE";
+    public static final String MOVE_LIMIT = "MOVE_LIMIT";
+    public static final String MOVE_IDLE_TIMEOUT = "MOVE_IDLE_TIMEOUT";
+    public static final String MOVE_PROGRESS_INTERVAL = "MOVE_PROGRESS_INTERVAL";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final long DEFAULT_IDLE_TIMEOUT = 5000;
+    private static final long DEFAULT_PROGRESS_INTERVAL = 10;
+
+    private final IntFunction<JMSContext> contextFactory;
+    private final String sourceQueue;
+    private final String targetQueue;
+
+    private String selector = null;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int threads = 1;
+    private long rate = 0;
+    private long limit = 0;
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private long progressInterval = TimeUnit.SECONDS.toMillis(DEFAULT_PROGRESS_INTERVAL);
+
+    private final AtomicLong moved = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rollbacks = new AtomicLong();
+    // The messages still to be moved when there is a limit
+    private final AtomicLong remaining = new AtomicLong();
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    private final SampleMetrics metrics = SampleMetrics.get();
+    private long elapsedNanos = 0;
+
+    public QueueMover(IntFunction<JMSContext> contextFactory, String sourceQueue, String targetQueue) {
+        this.contextFactory = contextFactory;
+        this.sourceQueue = sourceQueue;
+        this.targetQueue = targetQueue;
+    }
+
+    public QueueMover configureFromSystemProperties() {
+        return selector(System.getProperty(MOVE_SELECTOR, selector))
+                    .batchSize(Integer.getInteger(MOVE_BATCH_SIZE, batchSize))
+                    .threads(Integer.getInteger(MOVE_THREADS, threads))
+                    .rate(Long.getLong(MOVE_RATE, rate))
+                    .limit(Long.getLong(MOVE_LIMIT, limit))
+                    .idleTimeout(Long.getLong(MOVE_IDLE_TIMEOUT, idleTimeout), TimeUnit.MILLISECONDS)
+                    .progressInterval(Long.getLong(MOVE_PROGRESS_INTERVAL,
+                                                   TimeUnit.MILLISECONDS.toSeconds(progressInterval)),
+                                      TimeUnit.SECONDS);
+    }
+
+    // A JMS message selector eg. JMSCorrelationID = 'ID:...', null moves every message
+    public QueueMover selector(String selector) {
+        this.selector = (null == selector || selector.trim().isEmpty()) ? null : selector;
+        return this;
+    }
+
+    // The number of messages moved by each commit
+    public QueueMover batchSize(int size) {
+        batchSize = Math.max(1, size);
+        return this;
+    }
+
+    public QueueMover threads(int n) {
+        threads = Math.max(1, n);
+        return this;
+    }
+
+    // Target overall messages per second, 0 means as fast as possible
+    public QueueMover rate(long messagesPerSecond) {
+        rate = Math.max(0, messagesPerSecond);
+        return this;
+    }
+
+    // The most messages to move, 0 means all of them
+    public QueueMover limit(long messages) {
+        limit = Math.max(0, messages);
+        return this;
+    }
+
+    // The move ends once the source queue has had no messages for this long
+    public QueueMover idleTimeout(long timeout, TimeUnit unit) {
+        idleTimeout = Math.max(1, unit.toMillis(timeout));
+        return this;
+    }
+
+    // How often progress is logged, 0 for not at all
+    public QueueMover progressInterval(long interval, TimeUnit unit) {
+        progressInterval = Math.max(0, unit.toMillis(interval));
+        return this;
+    }
+
+    public QueueMover run() {
+        logger.info("Moving messages from " + sourceQueue + " to " + targetQueue + " on " + threads + " threads"
+                        + ", committing every " + batchSize + " messages"
+                        + ((null != selector) ? ", selecting " + selector : "")
+                        + ((0 < limit) ? ", up to " + limit + " messages" : "")
+                        + ((0 < rate) ? ", limited to " + rate + " messages per second" : ""));
+
+        remaining.set(limit);
+        List<Thread> movers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            Thread t = new Thread(this::move, "QueueMover-" + i);
+            movers.add(t);
+            t.start();
+        }
+
+        try {
+            for (Thread t : movers) {
+                // Progress is logged while waiting for the movers to finish
+                while (t.isAlive()) {
+                    t.join((0 < progressInterval) ? progressInterval : 0);
+                    if (t.isAlive()) {
+                        logProgress(System.nanoTime() - start);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return this;
+    }
+
+    private void move() {
+        try (JMSContext context = contextFactory.apply(JMSContext.SESSION_TRANSACTED)) {
+            Destination source = context.createQueue("queue:///" + sourceQueue);
+            Destination target = context.createQueue("queue:///" + targetQueue);
+            JMSConsumer consumer = (null == selector)
+                                        ? context.createConsumer(source)
+                                        : context.createConsumer(source, selector);
+            JMSProducer producer = context.createProducer();
+
+            // Each thread is paced at its share of the overall rate
+            long interval = (0 < rate) ? (TimeUnit.SECONDS.toNanos(1) * threads) / rate : 0;
+            long nextMove = System.nanoTime();
+
+            while (true) {
+                int wanted = claim();
+                int claimed = wanted;
+                if (0 == wanted) {
+                    break;
+                }
+                long batchStart = System.nanoTime();
+                int inBatch = 0;
+                try {
+                    while (inBatch < wanted) {
+                        if (0 < interval) {
+                            long wait = nextMove - System.nanoTime();
+                            if (0 < wait) {
+                                LockSupport.parkNanos(wait);
+                            }
+                            nextMove += interval;
+                        }
+                        // Only the first message of a batch waits, a batch
+                        // is committed as soon as the queue has run dry
+                        long start = metrics.start();
+                        Message message = (0 == inBatch) ? consumer.receive(idleTimeout) : consumer.receiveNoWait();
+                        metrics.received(start, null != message);
+                        if (null == message) {
+                            break;
+                        }
+                        send(producer, target, message);
+                        inBatch++;
+                    }
+                    unclaim(claimed - inBatch);
+                    claimed = inBatch;
+                    if (0 == inBatch) {
+                        break;
+                    }
+                    long commitStart = metrics.start();
+                    context.commit();
+                    metrics.committed(commitStart);
+                    batchLatency.record(System.nanoTime() - batchStart);
+                    moved.addAndGet(inBatch);
+                    batches.incrementAndGet();
+                } catch (JMSRuntimeException jmsex) {
+                    // The batch's messages are put back on the source queue
+                    logger.warning("Unable to move a batch of " + inBatch + " messages, rolling it back");
+                    JmsExceptionHelper.recordFailure(logger, jmsex);
+                    metrics.failed();
+                    context.rollback();
+                    metrics.rolledBack();
+                    rollbacks.incrementAndGet();
+                    unclaim(claimed);
+                    break;
+                }
+            }
+        } catch (JMSRuntimeException jmsex) {
+            logger.warning("Mover unable to continue");
+            JmsExceptionHelper.recordFailure(logger, jmsex);
+            metrics.failed();
+        }
+    }
+
+    // The message keeps its persistence, priority and remaining expiry,
+    // which would otherwise be set from the producer's defaults
+    private void send(JMSProducer producer, Destination target, Message message) {
+        try {
+            long expiration = message.getJMSExpiration();
+            long timeToLive = 0;
+            if (0 != expiration) {
+                // A message that expires while being moved is given the shortest life
+                timeToLive = Math.max(1, expiration - System.currentTimeMillis());
+            }
+            producer.setDeliveryMode(message.getJMSDeliveryMode())
+                    .setPriority(message.getJMSPriority())
+                    .setTimeToLive(timeToLive);
+        } catch (JMSException jmsex) {
+            throw new JMSRuntimeException(jmsex.getMessage(), jmsex.getErrorCode(), jmsex);
+        }
+        long start = metrics.start();
+        producer.send(target, message);
+        metrics.sent(start);
+    }
+
+    // The number of messages the next batch may move, taking the limit into account
+    private int claim() {
+        if (0 == limit) {
+            return batchSize;
+        }
+        while (true) {
+            long left = remaining.get();
+            int wanted = (int) Math.min(batchSize, left);
+            if (0 == wanted || remaining.compareAndSet(left, left - wanted)) {
+                return wanted;
+            }
+        }
+    }
+
+    private void unclaim(int unused) {
+        if (0 < limit && 0 < unused) {
+            remaining.addAndGet(unused);
+        }
+    }
+
+    private void logProgress(long elapsed) {
+        long n = moved.get();
+        logger.info(String.format("Moved %d messages%s in %.1f seconds, %.1f msgs/sec",
+                        n, (0 < limit) ? " of " + limit : "", elapsed / 1e9, n / (elapsed / 1e9)));
+    }
+
+    public long getMessagesMoved() {
+        return moved.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getRollbacks() {
+        return rollbacks.get();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getMessagesPerSecond() {
+        return (0 == elapsedNanos) ? 0 : moved.get() / (elapsedNanos / 1e9);
+    }
+
+    // The time from the first get of each batch to its commit
+    public LatencyHistogram getBatchLatency() {
+        return batchLatency;
+    }
+
+    public void logSummary() {
+        logger.info(String.format("Moved %d messages from %s to %s in %d batches in %.3f seconds, "
+                                        + "%.1f msgs/sec, %d rollbacks",
+                        getMessagesMoved(), sourceQueue, targetQueue, getBatches(), elapsedNanos / 1e9,
+                        getMessagesPerSecond(), getRollbacks()));
+        if (0 < batchLatency.getCount()) {
+            logger.info("Batch latency " + batchLatency.summary(TimeUnit.MICROSECONDS));
+        }
+    }
+}
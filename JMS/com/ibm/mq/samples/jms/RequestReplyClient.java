@@ -0,0 +1,302 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.Destination;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.Destination;
+// import jakarta.jms.JMSConsumer;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSException;
+// import jakarta.jms.JMSProducer;
+// import jakarta.jms.JMSRuntimeException;
+// import jakarta.jms.Message;
+// import jakarta.jms.TextMessage;
+
+/*
+ * A pipelined request / reply client. Each request returns a
+ * CompletableFuture that completes when the matching reply arrives,
+ * so any number of requests can be outstanding at the same time.
+ *
+ * A single long lived consumer, read by a thread of its own, takes every
+ * reply from the reply queue and hands it to the waiting future through a
+ * map keyed by correlation id. This avoids creating a consumer with a
+ * JMSCorrelationID selector for every request. Correlation ids come from
+ * the shared CorrelationIdGenerator, so the map is keyed by their
+ * sequence number, read back from each reply without building a string.
+ *
+ * The reply queue should be dedicated to this client, either a temporary
+ * queue (the default) or a named queue that no other requester uses, as
+ * replies that do not match an outstanding request are discarded.
+ *
+ * Requests and replies each have a ResilientConnection, so reconnect
+ * after a connection failure. A temporary reply queue is deleted along
+ * with its connection, so requests still waiting for a reply on it fail
+ * when the replies reconnect, and later requests use the new one.
+ */
+public class RequestReplyClient implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    // How often the reply thread checks whether the client has been closed
+    private static final long POLL_INTERVAL = 1000;
+    // The first and longest pauses before the reply thread tries again
+    // after a failure that isn't fixed by reconnecting
+    private static final long RETRY_INITIAL_DELAY = 500;
+    private static final long RETRY_MAX_DELAY = 30000;
+
+    private final String requestQueueName;
+    private final String replyQueueName;
+    private final Consumer<Destination> destinationCustomiser;
+    private final long defaultTimeout;
+
+    private final ResilientConnection sendConnection;
+    private final ResilientConnection.Resource<JMSProducer> producer;
+    private final ResilientConnection.Resource<Destination> requestQueue;
+    private final ResilientConnection replyConnection;
+    private final ResilientConnection.Resource<JMSConsumer> replyConsumer;
+    private volatile Destination replyQueue = null;
+    private final Thread replyThread;
+
+    private final CorrelationIdGenerator ids = CorrelationIdGenerator.getInstance();
+    private final Map<Long, CompletableFuture<Message>> outstanding = new ConcurrentHashMap<>();
+    private final AtomicLong unmatchedReplies = new AtomicLong();
+    private final SampleMetrics metrics = SampleMetrics.get();
+    private volatile boolean closed = false;
+
+    // The context factory is typically the createContext(int sessionMode)
+    // method of a connection factory. A null or empty reply queue name
+    // results in a temporary reply queue. Timeouts are in milliseconds.
+    public RequestReplyClient(IntFunction<JMSContext> contextFactory, String requestQueueName,
+                              String replyQueueName, long defaultTimeout) {
+        this(contextFactory, requestQueueName, replyQueueName, defaultTimeout, null);
+    }
+
+    public RequestReplyClient(IntFunction<JMSContext> contextFactory, String requestQueueName,
+                              String replyQueueName, long defaultTimeout,
+                              Consumer<Destination> destinationCustomiser) {
+        this.requestQueueName = requestQueueName;
+        this.replyQueueName = replyQueueName;
+        this.destinationCustomiser = destinationCustomiser;
+        this.defaultTimeout = defaultTimeout;
+
+        // Replies are received on a thread of their own, so they need a
+        // context of their own, separate from the one used to send requests
+        replyConnection = new ResilientConnection("Replies to " + requestQueueName, () -> connect(contextFactory))
+                                .configureFromSystemProperties()
+                                .waitWhenOpen(true)
+                                .stopWhen(() -> closed);
+        replyConsumer = replyConnection.resource(this::createReplyConsumer);
+        replyConnection.execute(c -> replyConsumer.get());
+
+        sendConnection = new ResilientConnection("Requests to " + requestQueueName, () -> connect(contextFactory))
+                                .configureFromSystemProperties();
+        requestQueue = sendConnection.resource(this::createRequestQueue);
+        producer = sendConnection.resource(JMSContext::createProducer);
+        sendConnection.execute(c -> producer.get());
+
+        replyThread = new Thread(this::receiveReplies, "RequestReplyClient-replies");
+        replyThread.setDaemon(true);
+        replyThread.start();
+        logger.info("request reply client created");
+    }
+
+    public CompletableFuture<Message> request(String body) {
+        return request(body, defaultTimeout);
+    }
+
+    // Sends a request, the returned future completes with the reply, or
+    // exceptionally with a TimeoutException if no reply arrives in time.
+    public CompletableFuture<Message> request(String body, long timeout) {
+        CompletableFuture<Message> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("Client has been closed"));
+            return future;
+        }
+
+        long key = ids.nextSequence();
+        byte[] correlationID = ids.toBytes(key);
+        outstanding.put(key, future);
+
+        try {
+            // The context is not thread safe, so sends are serialised
+            synchronized (sendConnection) {
+                sendConnection.execute(c -> {
+                    try {
+                        TextMessage message = c.createTextMessage(body);
+                        message.setJMSCorrelationIDAsBytes(correlationID);
+                        message.setJMSReplyTo(replyQueue);
+                        long start = metrics.start();
+                        producer.get().setTimeToLive(timeout).send(requestQueue.get(), message);
+                        metrics.sent(start);
+                        return null;
+                    } catch (JMSException e) {
+                        throw new JMSRuntimeException(e.getMessage(), e.getErrorCode(), e);
+                    }
+                });
+            }
+        } catch (JMSRuntimeException e) {
+            metrics.failed();
+            outstanding.remove(key);
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        if (0 < timeout) {
+            future.orTimeout(timeout, TimeUnit.MILLISECONDS)
+                  .whenComplete((m, e) -> outstanding.remove(key));
+        }
+        return future;
+    }
+
+    public int getOutstandingCount() {
+        return outstanding.size();
+    }
+
+    public long getUnmatchedReplies() {
+        return unmatchedReplies.get();
+    }
+
+    public Destination getReplyQueue() {
+        return replyQueue;
+    }
+
+    // Reconnects made by the request and reply connections
+    public long getReconnects() {
+        return sendConnection.getReconnects() + replyConnection.getReconnects();
+    }
+
+    // Fails any requests still waiting for a reply, and closes the contexts
+    @Override
+    public void close() {
+        closed = true;
+        failOutstanding(new IllegalStateException("Client has been closed"));
+        try {
+            replyThread.join(2 * POLL_INTERVAL);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            replyConnection.close();
+        } finally {
+            synchronized (sendConnection) {
+                sendConnection.close();
+            }
+        }
+    }
+
+    private JMSContext connect(IntFunction<JMSContext> contextFactory) {
+        JMSContext context = contextFactory.apply(JMSContext.AUTO_ACKNOWLEDGE);
+        metrics.watch(context);
+        return context;
+    }
+
+    private Destination createRequestQueue(JMSContext context) {
+        Destination destination = context.createQueue("queue:///" + requestQueueName);
+        if (null != destinationCustomiser) {
+            destinationCustomiser.accept(destination);
+        }
+        return destination;
+    }
+
+    // Made again after the replies reconnect
+    private JMSConsumer createReplyConsumer(JMSContext context) {
+        Destination queue;
+        if (null == replyQueueName || replyQueueName.isEmpty()) {
+            logger.finest("Setting the reply to queue to a temporary queue");
+            queue = context.createTemporaryQueue();
+            if (null != replyQueue) {
+                // The replies to requests already sent went to the old queue
+                failOutstanding(new JMSRuntimeException("Temporary reply queue was lost when reconnecting"));
+            }
+        } else {
+            logger.finest("Setting the reply to queue to " + replyQueueName);
+            queue = context.createQueue("queue:///" + replyQueueName);
+        }
+        JMSConsumer consumer = context.createConsumer(queue);
+        replyQueue = queue;
+        return consumer;
+    }
+
+    private void receiveReplies() {
+        Backoff backoff = new Backoff(RETRY_INITIAL_DELAY, RETRY_MAX_DELAY);
+        while (!closed) {
+            try {
+                Message reply = replyConnection.execute(c -> replyConsumer.get().receive(POLL_INTERVAL));
+                backoff.reset();
+                if (null != reply) {
+                    onReply(reply);
+                }
+            } catch (JMSRuntimeException e) {
+                if (closed) {
+                    break;
+                }
+                metrics.failed();
+                JmsExceptionHelper.recordFailure(logger, e);
+                try {
+                    Thread.sleep(backoff.nextDelay());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void failOutstanding(Throwable cause) {
+        for (CompletableFuture<Message> f : outstanding.values()) {
+            f.completeExceptionally(cause);
+        }
+        outstanding.clear();
+    }
+
+    private void onReply(Message reply) {
+        long key = -1;
+        try {
+            key = ids.sequenceOf(reply.getJMSCorrelationID());
+        } catch (JMSException e) {
+            JmsExceptionHelper.recordFailure(logger, e);
+        }
+
+        CompletableFuture<Message> future = (0 > key) ? null : outstanding.remove(key);
+        if (null == future) {
+            // Either the request has already timed out, or the reply
+            // was meant for another requester
+            unmatchedReplies.incrementAndGet();
+            logger.fine("Discarding reply with no outstanding request " + key);
+        } else {
+            future.complete(reply);
+        }
+    }
+}
@@ -0,0 +1,425 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.*;
+
+/*
+ * A streaming JSON codec for the request and response messages used by
+ * the request / response samples. Messages are written straight into a
+ * StringBuilder, and requests are read a field at a time, without
+ * building a JSON object tree.
+ *
+ * The output is identical to that of org.json's JSONObject.toString for the
+ * same messages, including the order of the keys, so requesters and
+ * responders built with either can be mixed.
+ *
+ * An instance reuses its buffers from one message to the next, so is not
+ * thread safe. RequestResponseHelper keeps one instance per thread.
+ */
+public class RequestResponseCodec {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    static final String MODE_DEFAULT = "DEFAULT";
+    static final String MODE_REWARDS = "REWARDS";
+
+    private static final String MODE_KEY = "requestmode";
+    private static final String KEY_AWARD = "award";
+    private static final String KEY_CREDIT = "credit";
+    private static final String KEY_CUSTOMER_ID = "customerID";
+    private static final String KEY_MESSAGE = "message";
+    private static final String KEY_VALUE = "value";
+
+    private static final String DEFAULT_MESSAGE = "The number is:";
+    private static final String REWARDS_MESSAGE = "Awards successfully deposited in customer account";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder out = new StringBuilder(128);
+    private final StringBuilder key = new StringBuilder(16);
+    private final StringBuilder text = new StringBuilder(64);
+    private final StringBuilder customerID = new StringBuilder(40);
+
+    // Fields read from the last request
+    private CharSequence input;
+    private int pos;
+    private boolean rewards;
+    private long value;
+    private boolean valueFound;
+    private long award;
+    private boolean awardFound;
+    private boolean customerIDFound;
+    private long parsedLong;
+
+    public String request(String mode, long r) {
+        out.setLength(0);
+        writeRequest(mode, r, out);
+        return out.toString();
+    }
+
+    public String response(CharSequence request) {
+        out.setLength(0);
+        writeResponse(request, out);
+        return out.toString();
+    }
+
+    // The keys are written in the order org.json's HashMap would hold them
+    public void writeRequest(String mode, long r, StringBuilder sb) {
+        if (MODE_REWARDS.equals(mode)) {
+            sb.append("{\"").append(KEY_AWARD).append("\":").append(r)
+              .append(",\"").append(KEY_CUSTOMER_ID).append("\":\"");
+            appendRandomUUID(sb);
+            sb.append("\",\"").append(MODE_KEY).append("\":\"").append(MODE_REWARDS).append("\"}");
+        } else {
+            sb.append("{\"").append(MODE_KEY).append("\":\"").append(MODE_DEFAULT)
+              .append("\",\"").append(KEY_MESSAGE).append("\":\"").append(DEFAULT_MESSAGE)
+              .append("\",\"").append(KEY_VALUE).append("\":").append(r).append('}');
+        }
+    }
+
+    // Throws IllegalArgumentException if the request is not a JSON object
+    public void writeResponse(CharSequence request, StringBuilder sb) {
+        read(request);
+
+        if (rewards) {
+            if (!customerIDFound) {
+                warnMissing(KEY_CUSTOMER_ID);
+            }
+            if (!awardFound) {
+                warnMissing(KEY_AWARD);
+            }
+            sb.append("{\"").append(KEY_CUSTOMER_ID).append("\":");
+            quote(customerID, sb);
+            sb.append(",\"").append(KEY_MESSAGE).append("\":\"").append(REWARDS_MESSAGE)
+              .append("\",\"").append(KEY_CREDIT).append("\":").append(award).append('}');
+        } else {
+            if (!valueFound) {
+                warnMissing(KEY_VALUE);
+            }
+            sb.append("{\"").append(KEY_MESSAGE).append("\":\"").append(DEFAULT_MESSAGE)
+              .append("\",\"").append(KEY_VALUE).append("\":").append(value * value).append('}');
+        }
+    }
+
+    private static void warnMissing(String name) {
+        logger.warning("Error looking for key " + name + " in json request");
+    }
+
+    private void read(CharSequence request) {
+        input = request;
+        pos = 0;
+        rewards = false;
+        value = 0;
+        valueFound = false;
+        award = 0;
+        awardFound = false;
+        customerIDFound = false;
+        customerID.setLength(0);
+
+        if (null == request) {
+            throw parseError("No request");
+        }
+        expect('{');
+        if (!consume('}')) {
+            do {
+                expect('"');
+                readString(key);
+                expect(':');
+                readField();
+            } while (consume(','));
+            expect('}');
+        }
+        input = null;
+    }
+
+    private void readField() {
+        skipWhitespace();
+        boolean isString = pos < input.length() && '"' == input.charAt(pos);
+
+        if (contentEquals(key, MODE_KEY)) {
+            if (isString) {
+                pos++;
+                readString(text);
+                rewards = contentEquals(text, MODE_REWARDS);
+            } else {
+                skipValue();
+            }
+        } else if (contentEquals(key, KEY_VALUE)) {
+            valueFound = readLong();
+            value = valueFound ? parsedLong : 0;
+        } else if (contentEquals(key, KEY_AWARD)) {
+            awardFound = readLong();
+            award = awardFound ? parsedLong : 0;
+        } else if (contentEquals(key, KEY_CUSTOMER_ID)) {
+            if (isString) {
+                pos++;
+                readString(customerID);
+                customerIDFound = true;
+            } else {
+                skipValue();
+            }
+        } else {
+            skipValue();
+        }
+    }
+
+    // Numbers, and strings holding numbers, are accepted as getLong would
+    private boolean readLong() {
+        if (pos < input.length() && '"' == input.charAt(pos)) {
+            pos++;
+            readString(text);
+            return parseLong(text, 0, text.length());
+        }
+        int start = pos;
+        skipValue();
+        int end = pos;
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        return parseLong(input, start, end);
+    }
+
+    private boolean parseLong(CharSequence s, int start, int end) {
+        int i = start;
+        boolean negative = i < end && '-' == s.charAt(i);
+        if (negative) {
+            i++;
+        }
+        // Up to 18 digits cannot overflow, anything else takes the slow path
+        if (i < end && end - i <= 18) {
+            long n = 0;
+            for (; i < end; i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                n = n * 10 + (c - '0');
+            }
+            if (i == end) {
+                parsedLong = negative ? -n : n;
+                return true;
+            }
+        }
+        try {
+            parsedLong = new BigDecimal(s.subSequence(start, end).toString()).longValue();
+            return true;
+        } catch (NumberFormatException e) {
+            logger.warning("Value in json request is not a number");
+            return false;
+        }
+    }
+
+    private void readString(StringBuilder sb) {
+        sb.setLength(0);
+        int length = input.length();
+        while (pos < length) {
+            char c = input.charAt(pos++);
+            if ('"' == c) {
+                return;
+            }
+            if ('\\' != c) {
+                if ('\n' == c || '\r' == c) {
+                    break;
+                }
+                sb.append(c);
+                continue;
+            }
+            if (pos >= length) {
+                break;
+            }
+            c = input.charAt(pos++);
+            switch (c) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'u':
+                    if (pos + 4 > length) {
+                        throw parseError("Illegal escape");
+                    }
+                    int u = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int d = Character.digit(input.charAt(pos++), 16);
+                        if (d < 0) {
+                            throw parseError("Illegal escape");
+                        }
+                        u = (u << 4) | d;
+                    }
+                    sb.append((char) u);
+                    break;
+                case '"':
+                case '\'':
+                case '\\':
+                case '/':
+                    sb.append(c);
+                    break;
+                default:
+                    throw parseError("Illegal escape");
+            }
+        }
+        throw parseError("Unterminated string");
+    }
+
+    // Skips a value of any type, including nested objects and arrays,
+    // stopping at the comma or closing bracket that follows it
+    private void skipValue() {
+        skipWhitespace();
+        int depth = 0;
+        int length = input.length();
+        while (pos < length) {
+            char c = input.charAt(pos);
+            if ('"' == c) {
+                pos++;
+                readString(text);
+                continue;
+            }
+            if ('{' == c || '[' == c) {
+                depth++;
+            } else if ('}' == c || ']' == c) {
+                if (0 == depth) {
+                    return;
+                }
+                depth--;
+            } else if (',' == c && 0 == depth) {
+                return;
+            }
+            pos++;
+        }
+        if (0 != depth) {
+            throw parseError("Unterminated value");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (pos < input.length() && c == input.charAt(pos)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw parseError("Expected '" + c + "' at " + pos);
+        }
+    }
+
+    private IllegalArgumentException parseError(String reason) {
+        input = null;
+        logger.warning("Error parsing string for JSON object");
+        return new IllegalArgumentException(reason);
+    }
+
+    private static boolean contentEquals(StringBuilder sb, String s) {
+        int length = s.length();
+        if (sb.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (sb.charAt(i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Escapes as JSONObject.quote does
+    static void quote(CharSequence s, StringBuilder sb) {
+        sb.append('"');
+        char b;
+        char c = 0;
+        for (int i = 0; i < s.length(); i++) {
+            b = c;
+            c = s.charAt(i);
+            switch (c) {
+                case '\\':
+                case '"':
+                    sb.append('\\').append(c);
+                    break;
+                case '/':
+                    if ('<' == b) {
+                        sb.append('\\');
+                    }
+                    sb.append(c);
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                default:
+                    if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                        sb.append("\\u").append(HEX[(c >> 12) & 0xf]).append(HEX[(c >> 8) & 0xf])
+                          .append(HEX[(c >> 4) & 0xf]).append(HEX[c & 0xf]);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    // Writes a random, version 4 format, UUID. Customer ids only need to
+    // be unique, so this avoids the SecureRandom behind UUID.randomUUID.
+    private static void appendRandomUUID(StringBuilder sb) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xf000L) | 0x4000L;
+        long lsb = (random.nextLong() & ~(0xcL << 60)) | (0x8L << 60);
+        appendHex(sb, msb >>> 32, 8).append('-');
+        appendHex(sb, msb >>> 16, 4).append('-');
+        appendHex(sb, msb, 4).append('-');
+        appendHex(sb, lsb >>> 48, 4).append('-');
+        appendHex(sb, lsb, 12);
+    }
+
+    private static StringBuilder appendHex(StringBuilder sb, long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            sb.append(HEX[(int) (value >>> shift) & 0xf]);
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSRuntimeException;
+
+/*
+ * A JMSContext that reconnects. Work is passed to execute() as a function
+ * of the current context. If the work fails with a retryable MQ reason
+ * code, see StatusChecker, the broken context is closed, and after a
+ * jittered exponential backoff a new one is made and the work is tried
+ * again. Transient failures, such as a full queue, are tried again on the
+ * same context after a backoff, up to TRANSIENT_RETRIES times, without
+ * counting towards the circuit breaker. Fatal failures are thrown straight
+ * back to the caller.
+ *
+ * Consumers and producers belong to a context, so are made through a
+ * Resource. A Resource makes its consumer or producer again on the new
+ * context after a reconnect, so the caller keeps using the same Resource.
+ *
+ * Failures are counted by a CircuitBreaker, which can be shared by every
+ * connection to an endpoint. Once it opens, execute() fails straight away
+ * with a CircuitOpenException, so the caller can move on to another
+ * endpoint, or with waitWhenOpen, waits for the breaker to let a trial
+ * through.
+ *
+ * The settings can be overridden with system properties eg.
+ *
+ * -DRECONNECT_INITIAL_DELAY=500 -DRECONNECT_MAX_DELAY=30000
+ * -DBREAKER_FAILURES=5 -DBREAKER_OPEN_TIME=30000
+ *
+ * with the times in milliseconds.
+ *
+ * As with the context it wraps, a connection is used by one thread,
+ * though it can be closed from another.
+ */
+public class ResilientConnection implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final String RECONNECT_INITIAL_DELAY = "RECONNECT_INITIAL_DELAY";
+    public static final String RECONNECT_MAX_DELAY = "RECONNECT_MAX_DELAY";
+    public static final String BREAKER_FAILURES = "BREAKER_FAILURES";
+    public static final String BREAKER_OPEN_TIME = "BREAKER_OPEN_TIME";
+
+    private static final long DEFAULT_INITIAL_DELAY = 500;
+    private static final long DEFAULT_MAX_DELAY = 30000;
+    private static final int DEFAULT_BREAKER_FAILURES = 5;
+    private static final long DEFAULT_BREAKER_OPEN_TIME = 30000;
+    // How often a pause checks whether it should end early
+    private static final long STOP_CHECK_INTERVAL = 100;
+    // Attempts at work that failed with a transient failure, before the failure is thrown
+    private static final int TRANSIENT_RETRIES = 5;
+
+    private final String name;
+    private final Supplier<JMSContext> connector;
+    private final SampleMetrics metrics = SampleMetrics.get();
+
+    private Consumer<JMSContext> discarder = JMSContext::close;
+    private long initialDelay = DEFAULT_INITIAL_DELAY;
+    private long maxDelay = DEFAULT_MAX_DELAY;
+    private int breakerFailures = DEFAULT_BREAKER_FAILURES;
+    private long breakerOpenTime = DEFAULT_BREAKER_OPEN_TIME;
+    private boolean waitWhenOpen = false;
+    private BooleanSupplier stopWhen = () -> false;
+
+    private Backoff backoff = null;
+    private CircuitBreaker breaker = null;
+    private volatile JMSContext context = null;
+    private boolean failedSinceConnect = false;
+    private JMSRuntimeException lastFailure = null;
+    private volatile boolean closed = false;
+    private final Object pauseLock = new Object();
+
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    // The connector is typically the createContext method of a
+    // connection factory. The name is used in the log.
+    public ResilientConnection(String name, Supplier<JMSContext> connector) {
+        this.name = name;
+        this.connector = connector;
+    }
+
+    public ResilientConnection configureFromSystemProperties() {
+        return backoff(Long.getLong(RECONNECT_INITIAL_DELAY, initialDelay),
+                       Long.getLong(RECONNECT_MAX_DELAY, maxDelay))
+                    .circuitBreaker(Integer.getInteger(BREAKER_FAILURES, breakerFailures),
+                                    Long.getLong(BREAKER_OPEN_TIME, breakerOpenTime));
+    }
+
+    // The first and longest pauses between attempts, in milliseconds
+    public ResilientConnection backoff(long initialMillis, long maxMillis) {
+        initialDelay = initialMillis;
+        maxDelay = maxMillis;
+        return this;
+    }
+
+    // Failures in a row before the breaker opens, and how many
+    // milliseconds it stays open
+    public ResilientConnection circuitBreaker(int failures, long openMillis) {
+        breakerFailures = failures;
+        breakerOpenTime = openMillis;
+        return this;
+    }
+
+    // A breaker shared with the other connections to the same endpoint
+    public ResilientConnection circuitBreaker(CircuitBreaker shared) {
+        breaker = shared;
+        return this;
+    }
+
+    public ResilientConnection waitWhenOpen(boolean wait) {
+        waitWhenOpen = wait;
+        return this;
+    }
+
+    // Pauses end early, throwing the last failure, once this is true
+    // eg. when the application is shutting down
+    public ResilientConnection stopWhen(BooleanSupplier condition) {
+        stopWhen = condition;
+        return this;
+    }
+
+    // How a broken context is disposed of, by default it is closed
+    public ResilientConnection discarder(Consumer<JMSContext> discarder) {
+        this.discarder = discarder;
+        return this;
+    }
+
+    // Runs the work on the current context, connecting first if needed,
+    // and reconnecting and trying again after retryable failures
+    public <T> T execute(Function<JMSContext, T> work) {
+        if (null == breaker) {
+            breaker = new CircuitBreaker(name, breakerFailures, breakerOpenTime, TimeUnit.MILLISECONDS);
+        }
+        if (null == backoff) {
+            backoff = new Backoff(initialDelay, maxDelay);
+        }
+
+        int transientFailures = 0;
+        while (true) {
+            if (closed) {
+                throw new JMSRuntimeException("Connection " + name + " has been closed");
+            }
+            if (!breaker.allowRequest()) {
+                if (!waitWhenOpen) {
+                    throw new CircuitOpenException(breaker, lastFailure);
+                }
+                if (!pause(Math.max(1, breaker.getRemainingOpenMillis()))) {
+                    throw stopped();
+                }
+                continue;
+            }
+
+            try {
+                T result = work.apply(connected());
+                breaker.recordSuccess();
+                backoff.reset();
+                return result;
+            } catch (JMSRuntimeException e) {
+                if (!closed && StatusChecker.isTransient(e) && TRANSIENT_RETRIES > ++transientFailures) {
+                    // The connection is fine, so is kept
+                    long delay = backoff.nextDelay();
+                    logger.warning("Connection " + name + " work failed with reason " + StatusChecker.getReason(e)
+                                    + ", trying again in " + delay + " ms");
+                    if (!pause(delay)) {
+                        throw e;
+                    }
+                    continue;
+                }
+                if (closed || !StatusChecker.isRetryable(e)) {
+                    throw e;
+                }
+                lastFailure = e;
+                failures.incrementAndGet();
+                metrics.failed();
+                breaker.recordFailure();
+                disconnect();
+
+                if (CircuitBreaker.State.OPEN == breaker.getState()) {
+                    continue;
+                }
+                long delay = backoff.nextDelay();
+                logger.warning("Connection " + name + " failed with reason " + StatusChecker.getReason(e)
+                                + ", reconnecting in " + delay + " ms, attempt " + backoff.getAttempts());
+                if (!pause(delay)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // A consumer, producer or other object made from the context, that is
+    // made again after a reconnect. Only use it within execute.
+    public <T> Resource<T> resource(Function<JMSContext, T> factory) {
+        return new Resource<>(factory);
+    }
+
+    public long getReconnects() {
+        return reconnects.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (pauseLock) {
+            pauseLock.notifyAll();
+        }
+        disconnect();
+    }
+
+    private JMSContext connected() {
+        JMSContext c = context;
+        if (null == c) {
+            c = connector.get();
+            context = c;
+            if (failedSinceConnect) {
+                failedSinceConnect = false;
+                reconnects.incrementAndGet();
+                metrics.reconnected();
+                logger.info("Connection " + name + " reconnected");
+            }
+        }
+        return c;
+    }
+
+    private void disconnect() {
+        JMSContext c = context;
+        context = null;
+        if (null != c) {
+            failedSinceConnect = true;
+            try {
+                discarder.accept(c);
+            } catch (JMSRuntimeException e) {
+                // The context is already broken
+                logger.fine("Ignoring failure closing a broken context " + e.getMessage());
+            }
+        } else if (null != lastFailure) {
+            failedSinceConnect = true;
+        }
+    }
+
+    // False if the pause ended early, as the connection was closed or
+    // asked to stop
+    private boolean pause(long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        synchronized (pauseLock) {
+            while (!closed && !stopWhen.getAsBoolean()) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return true;
+                }
+                try {
+                    pauseLock.wait(Math.min(remaining, STOP_CHECK_INTERVAL));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private JMSRuntimeException stopped() {
+        return (null != lastFailure) ? lastFailure
+                                     : new JMSRuntimeException("Connection " + name + " stopped reconnecting");
+    }
+
+    public final class Resource<T> {
+        private final Function<JMSContext, T> factory;
+        private JMSContext madeOn = null;
+        private T value = null;
+
+        private Resource(Function<JMSContext, T> factory) {
+            this.factory = factory;
+        }
+
+        public T get() {
+            JMSContext c = connected();
+            if (c != madeOn) {
+                value = factory.apply(c);
+                madeOn = c;
+            }
+            return value;
+        }
+    }
+
+    // Thrown when the breaker is open. The cause is the last failure, so
+    // its reason code can still be found by StatusChecker.
+    public static class CircuitOpenException extends JMSRuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        CircuitOpenException(CircuitBreaker breaker, Throwable lastFailure) {
+            super("Circuit breaker for " + breaker.getName() + " is open, retry in "
+                    + breaker.getRemainingOpenMillis() + " ms", null, lastFailure);
+        }
+    }
+}
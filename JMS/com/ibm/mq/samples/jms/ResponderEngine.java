@@ -0,0 +1,566 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.logging.*;
+
+// Use these imports for building with JMS
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
+import javax.jms.InvalidDestinationRuntimeException;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import com.ibm.msg.client.jms.DetailedInvalidDestinationException;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.DeliveryMode;
+// import jakarta.jms.Destination;
+// import jakarta.jms.InvalidDestinationRuntimeException;
+// import jakarta.jms.JMSConsumer;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSException;
+// import jakarta.jms.JMSProducer;
+// import jakarta.jms.JMSRuntimeException;
+// import jakarta.jms.Message;
+// import jakarta.jms.TextMessage;
+
+// import com.ibm.msg.client.jakarta.jms.DetailedInvalidDestinationException;
+
+import com.ibm.mq.constants.MQConstants;
+import com.ibm.mq.MQException;
+
+/*
+ * A multi threaded responder. Each worker thread owns its own transacted
+ * JMSContext, consumer and producer, gets requests from the request queue
+ * and puts the replies to each request's reply to queue.
+ *
+ * Replies can be committed in batches, either after a number of replies
+ * or after an interval, whichever comes first. A partial batch is also
+ * committed as soon as the request queue is empty, so batching never
+ * holds back a reply while the responder is idle.
+ *
+ * A request that cannot be replied to is rolled back, to be retried, until
+ * the BackoutHandler decides it is a poison message. It is then taken off
+ * the queue, as part of the worker's current batch. A request whose reply
+ * to queue does not exist can never succeed, so is treated as poison the
+ * first time, rather than rolling back the batch over and over. A worker
+ * that keeps rolling back waits a little longer each time before it takes
+ * the next request, so cannot spin on a queue of requests that all fail.
+ *
+ * Each worker connects through a ResilientConnection. A worker whose
+ * connection breaks, or that can't connect, reconnects after a jittered
+ * exponential backoff, losing only its uncommitted batch, which the queue
+ * manager rolls back. Other failures to receive are tried again, after a
+ * backoff, on the same context. Either way the worker keeps running until
+ * it is shut down or times out.
+ *
+ * shutdown() stops the workers taking new requests. Each worker commits
+ * the batch it has in progress and closes its context before it ends.
+ *
+ * The context factory is typically the createContext(int sessionMode)
+ * method of a connection factory, or of an InMemoryJmsStandIn when
+ * running without a queue manager.
+ */
+public class ResponderEngine {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    // How often an idle worker checks whether it has been asked to stop
+    private static final long POLL_INTERVAL = 1000;
+    // The pause after the second rollback in a row, doubling for each
+    // one after that, up to POLL_INTERVAL
+    private static final long ROLLBACK_PAUSE = 10;
+    // The first and longest pauses before a worker tries again after a
+    // failure that isn't fixed by reconnecting
+    private static final long RETRY_INITIAL_DELAY = 500;
+    private static final long RETRY_MAX_DELAY = 30000;
+
+    private enum Outcome { REPLIED, RETRY, PERMANENT_FAILURE }
+
+    private final IntFunction<JMSContext> contextFactory;
+    private final String queueName;
+
+    private int workers = 1;
+    private int batchSize = 1;
+    private long batchIntervalNanos = 0;
+    private long inactivityTimeoutNanos = 0;
+    private BackoutHandler backoutHandler = null;
+    private Function<String, String> replyBuilder = RequestResponseHelper::buildStringForResponse;
+    private ThreadMode threadMode = ThreadMode.PLATFORM;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running = false;
+
+    private final AtomicLong replies = new AtomicLong();
+    private final AtomicLong rolledBack = new AtomicLong();
+    private final AtomicLong backedOut = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+    private final SampleMetrics metrics = SampleMetrics.get();
+    private long startTime = 0;
+    private long elapsedNanos = 0;
+
+    public ResponderEngine(IntFunction<JMSContext> contextFactory, String queueName) {
+        this.contextFactory = contextFactory;
+        this.queueName = queueName;
+    }
+
+    public ResponderEngine workers(int n) {
+        workers = Math.max(1, n);
+        return this;
+    }
+
+    // The number of replies to commit together, 1 commits every reply
+    public ResponderEngine batchSize(int size) {
+        batchSize = Math.max(1, size);
+        return this;
+    }
+
+    // The longest a reply is held in an uncommitted batch, 0 for no limit
+    public ResponderEngine batchInterval(long interval, TimeUnit unit) {
+        batchIntervalNanos = unit.toNanos(Math.max(0, interval));
+        return this;
+    }
+
+    // Workers end when there have been no requests for this long, 0 to wait forever
+    public ResponderEngine inactivityTimeout(long timeout, TimeUnit unit) {
+        inactivityTimeoutNanos = unit.toNanos(Math.max(0, timeout));
+        return this;
+    }
+
+    // Requests that have been delivered threshold times are moved to the back
+    // out queue, or discarded if there is no back out queue.
+    public ResponderEngine backout(String queueName, int threshold) {
+        return backoutHandler(new QueueBackoutHandler(queueName, threshold));
+    }
+
+    // Decides which requests are poison messages, and what happens to them
+    public ResponderEngine backoutHandler(BackoutHandler handler) {
+        backoutHandler = handler;
+        return this;
+    }
+
+    // Builds the reply body from the request body
+    public ResponderEngine replyBuilder(Function<String, String> builder) {
+        replyBuilder = builder;
+        return this;
+    }
+
+    // Platform or virtual threads for the workers, platform by default
+    public ResponderEngine threadMode(ThreadMode mode) {
+        threadMode = mode;
+        return this;
+    }
+
+    public synchronized ResponderEngine start() {
+        if (running) {
+            return this;
+        }
+        running = true;
+        threads.clear();
+        if (null == backoutHandler) {
+            backoutHandler = new QueueBackoutHandler(null, QueueBackoutHandler.DEFAULT_THRESHOLD);
+        }
+        logger.info("Starting " + workers + " responder workers"
+                        + ((1 < batchSize) ? ", committing every " + batchSize + " replies" : "")
+                        + ((0 < batchIntervalNanos) ? " or " + TimeUnit.NANOSECONDS.toMillis(batchIntervalNanos) + " ms" : ""));
+
+        startTime = System.nanoTime();
+        ThreadFactory threadFactory = threadMode.factory("Responder-");
+        for (int i = 0; i < workers; i++) {
+            Thread t = threadFactory.newThread(this::respond);
+            threads.add(t);
+            t.start();
+        }
+        return this;
+    }
+
+    // Asks the workers to stop, once they have committed their current batch
+    public void shutdown() {
+        running = false;
+    }
+
+    public ResponderEngine awaitTermination() {
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        elapsedNanos = System.nanoTime() - startTime;
+        running = false;
+        return this;
+    }
+
+    public ResponderEngine run() {
+        return start().awaitTermination();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void respond() {
+        new Worker().run();
+    }
+
+    // A worker's context comes from a ResilientConnection, which reconnects
+    // after a connection failure. The consumer and producer are then made
+    // again, and the uncommitted batch, rolled back along with the broken
+    // context, is started again.
+    private final class Worker {
+        private final ResilientConnection connection;
+        private JMSContext context = null;
+        private JMSConsumer consumer = null;
+        private JMSProducer producer = null;
+        private int inBatch = 0;
+        private long batchStart = 0;
+        private long lastRequest = System.nanoTime();
+
+        Worker() {
+            connection = new ResilientConnection("Responder " + queueName, () -> {
+                                    JMSContext c = contextFactory.apply(JMSContext.SESSION_TRANSACTED);
+                                    metrics.watch(c);
+                                    return c;
+                                })
+                                .discarder(c -> {
+                                    backoutHandler.release(c);
+                                    c.close();
+                                })
+                                .configureFromSystemProperties()
+                                .waitWhenOpen(true)
+                                .stopWhen(() -> !running || isInactive(System.nanoTime()));
+        }
+
+        void run() {
+            // For failures that a reconnect won't fix
+            Backoff backoff = new Backoff(RETRY_INITIAL_DELAY, RETRY_MAX_DELAY);
+            int consecutiveRollbacks = 0;
+
+            try {
+                while (running) {
+                    Message request;
+                    long receiveStart = metrics.start();
+                    try {
+                        request = connection.execute(this::receive);
+                        metrics.received(receiveStart, null != request);
+                        backoff.reset();
+                    } catch (JMSRuntimeException jmsex) {
+                        failures.incrementAndGet();
+                        metrics.failed();
+                        JmsExceptionHelper.recordFailure(logger, jmsex);
+                        if (isInactive(System.nanoTime())) {
+                            logger.info("Timed out with no requests received");
+                            break;
+                        }
+                        pause(backoff.nextDelay());
+                        continue;
+                    }
+
+                    long now = System.nanoTime();
+                    if (null == request) {
+                        // The queue is empty, or the batch interval has passed,
+                        // either way there is no reason to hold the batch back
+                        if (0 < inBatch) {
+                            inBatch = commit(context, inBatch);
+                        }
+                        if (isInactive(now)) {
+                            logger.info("Timed out with no requests received");
+                            break;
+                        }
+                        continue;
+                    }
+                    lastRequest = now;
+
+                    long processingStart = metrics.start();
+                    Outcome outcome = reply(context, producer, request);
+                    metrics.processed(processingStart);
+                    if (Outcome.REPLIED != outcome) {
+                        if (backoutHandler.isPoison(request, Outcome.PERMANENT_FAILURE == outcome)
+                                && backoutHandler.backout(context, request)) {
+                            // The request leaves the queue when the batch is committed
+                            backedOut.incrementAndGet();
+                        } else {
+                            logger.warning("rolling back the message");
+                            rollback(context, inBatch + 1);
+                            inBatch = 0;
+                            pauseAfterRollback(++consecutiveRollbacks);
+                            continue;
+                        }
+                    }
+                    consecutiveRollbacks = 0;
+                    if (0 == inBatch) {
+                        batchStart = now;
+                    }
+                    inBatch++;
+
+                    if (inBatch >= batchSize
+                            || (0 < batchIntervalNanos && now - batchStart >= batchIntervalNanos)) {
+                        inBatch = commit(context, inBatch);
+                    }
+                }
+
+                // Drain, committing anything that has already been replied to
+                if (0 < inBatch) {
+                    commit(context, inBatch);
+                }
+            } finally {
+                reconnects.addAndGet(connection.getReconnects());
+                connection.close();
+            }
+        }
+
+        private Message receive(JMSContext c) {
+            if (c != context) {
+                if (0 < inBatch) {
+                    logger.warning(inBatch + " uncommitted replies were rolled back with the broken context");
+                    rolledBack.addAndGet(inBatch);
+                    inBatch = 0;
+                }
+                consumer = c.createConsumer(c.createQueue("queue:///" + queueName));
+
+                // Make sure message put on a reply queue is non-persistent so non XMS/JMS apps
+                // can get the message off the temp reply queue
+                // Reply will expire in an hour if not retrieved by the requester
+                producer = c.createProducer()
+                            .setDeliveryMode(DeliveryMode.NON_PERSISTENT)
+                            .setTimeToLive(HOUR);
+                context = c;
+            }
+            return ResponderEngine.this.receive(consumer, inBatch, batchStart);
+        }
+
+        private boolean isInactive(long now) {
+            return 0 < inactivityTimeoutNanos && now - lastRequest >= inactivityTimeoutNanos;
+        }
+    }
+
+    private Message receive(JMSConsumer consumer, int inBatch, long batchStart) {
+        if (0 == inBatch) {
+            long wait = TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL);
+            if (0 < inactivityTimeoutNanos) {
+                wait = Math.min(wait, inactivityTimeoutNanos);
+            }
+            return consumer.receive(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+        }
+        // With a batch in progress don't wait, other than for the rest of the interval
+        if (0 < batchIntervalNanos) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(batchStart + batchIntervalNanos - System.nanoTime());
+            if (0 < remaining) {
+                Message m = consumer.receiveNoWait();
+                return (null != m) ? m : consumer.receive(Math.min(remaining, POLL_INTERVAL));
+            }
+        }
+        return consumer.receiveNoWait();
+    }
+
+    private Outcome reply(JMSContext context, JMSProducer producer, Message request) {
+        try {
+            String requestObject = null;
+            if (request instanceof TextMessage) {
+                requestObject = ((TextMessage) request).getText();
+            }
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Request message was " + requestObject);
+            }
+
+            Destination destination = request.getJMSReplyTo();
+            if (null == destination) {
+                logger.info("Request has no reply to queue");
+                failures.incrementAndGet();
+                return Outcome.PERMANENT_FAILURE;
+            }
+            TextMessage message = context.createTextMessage(replyBuilder.apply(requestObject));
+            message.setJMSCorrelationID(request.getJMSCorrelationID());
+            long sendStart = metrics.start();
+            producer.send(destination, message);
+            metrics.sent(sendStart);
+            return Outcome.REPLIED;
+        } catch (JMSException jmsex) {
+            MQException e = findMQException(jmsex);
+            if (null != e && MQConstants.MQRC_UNKNOWN_OBJECT_NAME == e.getReason()) {
+                logger.info("Reply to Queue no longer exists, skipping request");
+                failures.incrementAndGet();
+                return Outcome.PERMANENT_FAILURE;
+            } else if (null != e && MQConstants.MQRC_CONNECTION_BROKEN == e.getReason()) {
+                logger.info("MQ Connection has broken");
+            } else {
+                logger.warning("Unexpected Expection replying to message");
+            }
+        } catch (JMSRuntimeException jmsex) {
+            // Get this exception when the message does not have a reply to queue,
+            // or the reply to queue is no longer valid.
+            // eg. When app that posted the message is no longer running.
+            MQException e = findMQException(jmsex);
+            if (null != e && MQConstants.MQRC_UNKNOWN_OBJECT_NAME == e.getReason()) {
+                logger.info("Reply to Queue no longer exists, skipping request");
+                failures.incrementAndGet();
+                return Outcome.PERMANENT_FAILURE;
+            } else if (jmsex instanceof InvalidDestinationRuntimeException
+                            || jmsex.getCause() instanceof DetailedInvalidDestinationException) {
+                logger.info("Reply to destination is invalid");
+                failures.incrementAndGet();
+                return Outcome.PERMANENT_FAILURE;
+            } else {
+                logger.warning("Unexpected runtime error");
+            }
+        } catch (Exception e) {
+            logger.warning("Got an unexpected exception");
+            logger.warning("Exception class Name " + e.getClass().getSimpleName());
+            logger.warning(e.getMessage());
+        }
+        failures.incrementAndGet();
+        metrics.failed();
+        return Outcome.RETRY;
+    }
+
+    private void rollback(JMSContext context, int inBatch) {
+        try {
+            context.rollback();
+            rolledBack.addAndGet(inBatch);
+            metrics.rolledBack();
+        } catch (JMSRuntimeException jmsex) {
+            failures.incrementAndGet();
+            metrics.failed();
+            JmsExceptionHelper.recordFailure(logger, jmsex);
+        }
+    }
+
+    private void pauseAfterRollback(int consecutiveRollbacks) {
+        if (1 < consecutiveRollbacks) {
+            long pause = ROLLBACK_PAUSE << Math.min(consecutiveRollbacks - 2, 10);
+            try {
+                Thread.sleep(Math.min(pause, POLL_INTERVAL));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    // Ends early if the worker is asked to stop
+    private void pause(long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        try {
+            for (long remaining = millis; running && 0 < remaining; remaining = deadline - System.currentTimeMillis()) {
+                Thread.sleep(Math.min(remaining, POLL_INTERVAL));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private int commit(JMSContext context, int inBatch) {
+        long commitStart = System.nanoTime();
+        try {
+            context.commit();
+            commitLatency.record(System.nanoTime() - commitStart);
+            metrics.committed(commitStart);
+            replies.addAndGet(inBatch);
+        } catch (JMSRuntimeException jmsex) {
+            if (StatusChecker.isTransient(jmsex)) {
+                // The queue manager backed out the batch, so the requests are delivered again
+                rolledBack.addAndGet(inBatch);
+                metrics.rolledBack();
+                logger.warning("Batch of " + inBatch + " replies was backed out, reason " + StatusChecker.getReason(jmsex));
+                return 0;
+            }
+            failures.addAndGet(inBatch);
+            metrics.failed();
+            JmsExceptionHelper.recordFailure(logger, jmsex);
+        }
+        return 0;
+    }
+
+    // recurse on the inner exceptions looking for a MQException.
+    private static MQException findMQException(Throwable e) {
+        Throwable inner = e.getCause();
+        if (null != inner) {
+            if (inner instanceof MQException) {
+                return (MQException) inner;
+            } else {
+                return findMQException(inner);
+            }
+        }
+        return null;
+    }
+
+    // The number of committed replies, including requests moved to the back out queue
+    public long getReplies() {
+        return replies.get();
+    }
+
+    public long getRolledBack() {
+        return rolledBack.get();
+    }
+
+    public long getBackedOut() {
+        return backedOut.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    // Reconnects made by workers that have ended
+    public long getReconnects() {
+        return reconnects.get();
+    }
+
+    public BackoutHandler getBackoutHandler() {
+        return backoutHandler;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRepliesPerSecond() {
+        return (0 == elapsedNanos) ? 0 : replies.get() / (elapsedNanos / 1e9);
+    }
+
+    public LatencyHistogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    public void logSummary() {
+        logger.info(String.format("Committed %d replies in %.3f seconds, %.1f replies/sec, "
+                                        + "%d rolled back, %d backed out, %d failures, %d reconnects",
+                        getReplies(), elapsedNanos / 1e9, getRepliesPerSecond(),
+                        getRolledBack(), getBackedOut(), getFailures(), getReconnects()));
+        if (0 < commitLatency.getCount()) {
+            logger.info("Commit latency " + commitLatency.summary(TimeUnit.MICROSECONDS));
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019, 2024
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -17,22 +17,19 @@
 package com.ibm.mq.samples.jms;
 
 import java.util.logging.*;
-import org.json.JSONObject;
-import org.json.JSONArray;
-import org.json.JSONException;
-import java.io.IOException;
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.lang.System;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
+/*
+ * Reads the settings for the samples from system properties, or failing
+ * that from the env.json file. The file is parsed once per process into
+ * an EnvConfig snapshot, which is shared by every SampleEnvSetter.
+ */
 public class SampleEnvSetter {
 
     private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
-    private JSONArray mqEndPoints;
-    private JSONObject jwtEndPoints;
+    private final AtomicReference<EnvConfig> config;
     private static final String CCDT = "MQCCDTURL";
     private static final String FILEPREFIX = "file://";
     private static final String ZOS = "z/os";
@@ -43,48 +40,21 @@ public class SampleEnvSetter {
     public static final String DEFAULT_Z_ENV_FILE ="../env-zbindings.json";
 
     public SampleEnvSetter() {
-        JSONObject mqEnvSettings = null;
-        mqEndPoints = null;  
         File file = getEnvFile();
 
         if (null == file) {
             logger.warning("No Environment settings file found");
+            config = new AtomicReference<>(EnvConfig.load(null));
             return;
         }
 
-        try {
-            String content = new String(Files.readAllBytes(Paths.get(file.toURI())));
-            mqEnvSettings = new JSONObject(content);
-
-            logger.info("File read");
-
-            if (mqEnvSettings != null) {
-              logger.info("JSON Data Found");
-              mqEndPoints = (JSONArray) mqEnvSettings.getJSONArray("MQ_ENDPOINTS");
-            }
-
-            if (mqEnvSettings != null && mqEnvSettings.has("JWT_ISSUER")) {
-                jwtEndPoints = (JSONObject) mqEnvSettings.getJSONObject("JWT_ISSUER");
-            }
-
-            if (mqEndPoints == null || mqEndPoints.isEmpty()) {
-                logger.warning("No Endpoints found in .json file next instruction " +
-                                 "will raise a null pointer exception");
-            } else {
-                logger.info("There is at least one MQ endpoint in the .json file");
-            }
-
-            if (jwtEndPoints != null) {
-                logger.info("JWT endpoints found, will be using JWT to Authenticate");
-            }
+        // Only parsed the first time, and then swapped if the file is watched
+        config = EnvConfig.holderFor(file);
+    }
 
-        } catch (IOException e) {
-            logger.warning("Error processing env.json file");
-            logger.warning(e.getMessage());
-        } catch (JSONException e) {
-          logger.warning("Error parsing env.json file");
-          logger.warning(e.getMessage());         
-        }
+    // The current snapshot of the env.json settings
+    public EnvConfig getConfig() {
+        return config.get();
     }
 
     private File getEnvFile() {
@@ -116,23 +86,21 @@ public class SampleEnvSetter {
     }
 
     public String getEnvValue(String key, int index) {
-        JSONObject mqAppEnv = null;
         String value = System.getProperty(key);
 
-        try {
-            if ((value == null || value.isEmpty()) &&
-                        mqEndPoints != null &&
-                        ! mqEndPoints.isEmpty()) {
-                mqAppEnv = (JSONObject) mqEndPoints.get(index);
-                value = (String) mqAppEnv.get(key);
+        if (value == null || value.isEmpty()) {
+            EnvConfig snapshot = config.get();
+            if (snapshot.hasEndpoints()) {
+                EnvConfig.Endpoint endpoint = snapshot.getEndpoint(index);
+                value = (null == endpoint) ? null : endpoint.getString(key);
+                if (null == value) {
+                    logger.fine("No json key " + key + " for endpoint " + index);
+                }
             }
-        } catch (JSONException e) {
-          logger.warning("Error looking for json key " + key);
-          logger.warning(e.getMessage());         
         }
 
-        if (! key.contains("PASSWORD")) {
-          logger.info("returning " + value + " for key " + key);
+        if (! key.contains("PASSWORD") && logger.isLoggable(Level.FINE)) {
+          logger.fine("returning " + value + " for key " + key);
         }
         return value;
     }
@@ -157,49 +125,40 @@ public class SampleEnvSetter {
     }
 
     public Boolean getEnvBooleanValue(String key, int index) {
-      JSONObject mqAppEnv = null;
-
       Boolean value = Boolean.getBoolean(key);
 
-      try {
-          if (!value && mqEndPoints != null &&
-                          ! mqEndPoints.isEmpty()) {
-              mqAppEnv = (JSONObject) mqEndPoints.get(index);
-              value = (Boolean) mqAppEnv.getBoolean(key);
-              if (value == null) {
-                value = false;
-              }
+      if (!value) {
+          EnvConfig.Endpoint endpoint = config.get().getEndpoint(index);
+          Boolean b = (null == endpoint) ? null : endpoint.getBoolean(key);
+          if (null != b) {
+              value = b;
+          } else {
+              logger.fine("No boolean json key " + key + " for endpoint " + index);
           }
-      } catch (JSONException e) {
-        logger.warning("Error looking for json key " + key);
-        logger.warning(e.getMessage());         
       }
 
-      logger.info("returning " + value + " for key " + key);
-
+      if (logger.isLoggable(Level.FINE)) {
+          logger.fine("returning " + value + " for key " + key);
+      }
       return value;
     }    
 
     public Long getEnvLongValue(String key, int index) {
-        JSONObject mqAppEnv = null;
         Long value = Long.getLong(key,0L);
 
-        try {
-            if (value <= 0L && mqEndPoints != null &&
-                            ! mqEndPoints.isEmpty()) {
-                mqAppEnv = (JSONObject) mqEndPoints.get(index);
-                value = (Long) mqAppEnv.getLong(key);
-                if (value == null) {
-                  value = 0L;
-                }
+        if (value <= 0L) {
+            EnvConfig.Endpoint endpoint = config.get().getEndpoint(index);
+            Long l = (null == endpoint) ? null : endpoint.getLong(key);
+            if (null != l) {
+                value = l;
+            } else {
+                logger.fine("No numeric json key " + key + " for endpoint " + index);
             }
-        } catch (JSONException e) {
-          logger.warning("Error looking for json key " + key);
-          logger.warning(e.getMessage());         
         }
-  
-        logger.info("returning " + value + " for key " + key);
 
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("returning " + value + " for key " + key);
+        }
         return value;
     }
 
@@ -223,15 +182,7 @@ public class SampleEnvSetter {
     }
 
     public String getConnectionString() {
-        List<String> coll = new ArrayList<String>();
-
-        for (Object o : mqEndPoints) {
-            JSONObject jo = (JSONObject) o;
-            String s = (String) jo.get("HOST") + "(" + (String) jo.get("PORT") + ")";
-            coll.add(s);
-        }
-
-        String connString = String.join(",", coll);
+        String connString = config.get().getConnectionString();
         logger.info("Connection string will be " + connString);
 
         return connString;
@@ -240,24 +191,21 @@ public class SampleEnvSetter {
     public int getCount() {
         // If there are no endpoints, then values 
         // need to come from a CCDT and environment settings
-        return (null == mqEndPoints) ? 1 : mqEndPoints.length();
+        EnvConfig snapshot = config.get();
+        return (null == snapshot.getEndpoints()) ? 1 : snapshot.getEndpoints().size();
     }
 
     public String getJwtEnv(String key) {
         String value = System.getProperty(key);
-        try {
-            if ((value == null || value.isEmpty()) && 
-            jwtEndPoints != null && 
-            !jwtEndPoints.isEmpty()) {
-                value = (String) jwtEndPoints.getString(key);
+        if (value == null || value.isEmpty()) {
+            EnvConfig snapshot = config.get();
+            if (snapshot.hasJwt()) {
+                value = snapshot.getJwtValue(key);
             }
-        } catch (JSONException e) {
-            logger.warning("Error looking for json key " + key);
-            logger.warning(e.getMessage());
         }
 
-        if (! key.contains("JWT_TOKEN_PWD")) {
-            logger.info("returning " + value + " for key " + key);
+        if (! key.contains("JWT_TOKEN_PWD") && logger.isLoggable(Level.FINE)) {
+            logger.fine("returning " + value + " for key " + key);
         }
         return value;
     }
@@ -0,0 +1,95 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.*;
+
+/*
+ * A thin facade over java.util.logging for the logging the samples do on
+ * their hot paths. Messages are only built when their level is enabled,
+ * either from a Supplier or from a pattern and parameters that are
+ * formatted by the handler, so a disabled log costs a level check.
+ *
+ * Each class gets a logger of its own, below the samples' shared logger,
+ * so that it can be given its own level, see LoggingHelper. Logs made for
+ * every message can be sampled, writing only 1 in every N of them.
+ */
+public final class SampleLogger {
+    private static final String ROOT = "com.ibm.mq.samples.jms";
+
+    private final Logger logger;
+    private final AtomicLong perMessage = new AtomicLong();
+
+    private SampleLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    public static SampleLogger getLogger(Class<?> c) {
+        return new SampleLogger(Logger.getLogger(ROOT + "." + c.getSimpleName()));
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    public void log(Level level, Supplier<String> message) {
+        logger.log(level, message);
+    }
+
+    // The pattern is in MessageFormat style eg. "Received {0} bytes"
+    public void log(Level level, String pattern, Object... params) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, pattern, params);
+        }
+    }
+
+    public void info(Supplier<String> message) {
+        logger.log(Level.INFO, message);
+    }
+
+    public void fine(Supplier<String> message) {
+        logger.log(Level.FINE, message);
+    }
+
+    public void warning(String message) {
+        logger.warning(message);
+    }
+
+    // For logs made for every message. Only 1 in every LoggingHelper
+    // sample rate of them is written.
+    public void perMessage(Level level, Supplier<String> message) {
+        if (sample(level)) {
+            logger.log(level, message);
+        }
+    }
+
+    // Whether this one of the logs made for every message is to be
+    // written, for when building the message can throw
+    public boolean sample(Level level) {
+        if (!logger.isLoggable(level)) {
+            return false;
+        }
+        int rate = LoggingHelper.getSampleRate();
+        return 1 == rate || 0 == perMessage.getAndIncrement() % rate;
+    }
+}
@@ -0,0 +1,453 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.*;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.sun.net.httpserver.HttpServer;
+
+// Use these imports for building with JMS
+import javax.jms.ExceptionListener;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.ExceptionListener;
+// import jakarta.jms.JMSContext;
+// import jakarta.jms.JMSException;
+
+import com.ibm.mq.constants.MQConstants;
+
+/*
+ * Counters and latency histograms for the samples' producers and
+ * consumers, recorded without locks so they can be left on in a busy
+ * sample.
+ *
+ *   send time       - producer.send, for each message sent
+ *   receive wait    - consumer.receive, for each call, message or not
+ *   processing time - acting on a message, eg. building a reply
+ *   commit time     - context.commit
+ *
+ * with counts of messages sent and received, rollbacks, reconnects and
+ * errors.
+ *
+ * Metrics are off unless -DMETRICS=true is set, when the samples record
+ * into the process wide instance from SampleMetrics.get(). That instance
+ * is registered with JMX, logs a summary line every METRICS_INTERVAL
+ * seconds (default 10, 0 for none), and when METRICS_PORT is set, serves
+ * the metrics in the Prometheus text format on
+ * http://localhost:<port>/metrics eg.
+ *
+ * -DMETRICS=true -DMETRICS_INTERVAL=30 -DMETRICS_PORT=9464
+ *
+ * When metrics are off the record methods return straight away, and
+ * start() does not read the clock.
+ */
+public class SampleMetrics implements SampleMetricsMXBean {
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final String METRICS = "METRICS";
+    public static final String METRICS_INTERVAL = "METRICS_INTERVAL";
+    public static final String METRICS_PORT = "METRICS_PORT";
+    public static final String OBJECT_NAME = "com.ibm.mq.samples.jms:type=SampleMetrics";
+
+    private static final int DEFAULT_INTERVAL = 10;
+    private static final String PREFIX = "mq_sample_";
+
+    private static volatile SampleMetrics instance = null;
+
+    private final boolean enabled;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram sendTime = new LatencyHistogram();
+    private final LatencyHistogram receiveWait = new LatencyHistogram();
+    private final LatencyHistogram processingTime = new LatencyHistogram();
+    private final LatencyHistogram commitTime = new LatencyHistogram();
+
+    private ScheduledExecutorService summaryTimer = null;
+    private HttpServer endpoint = null;
+    private ObjectName registeredAs = null;
+
+    public SampleMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static boolean isSelected() {
+        return Boolean.getBoolean(METRICS);
+    }
+
+    // The instance the samples share. It is published the first time it
+    // is asked for, if metrics are selected.
+    public static SampleMetrics get() {
+        SampleMetrics metrics = instance;
+        if (null == metrics) {
+            synchronized (SampleMetrics.class) {
+                metrics = instance;
+                if (null == metrics) {
+                    metrics = new SampleMetrics(isSelected());
+                    if (metrics.isEnabled()) {
+                        metrics.publish(Integer.getInteger(METRICS_INTERVAL, DEFAULT_INTERVAL),
+                                        Integer.getInteger(METRICS_PORT, 0));
+                    }
+                    instance = metrics;
+                }
+            }
+        }
+        return metrics;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The time to pass to the record methods, taken before the call
+    // being timed
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void sent(long start) {
+        if (enabled) {
+            sendTime.record(System.nanoTime() - start);
+            sent.increment();
+        }
+    }
+
+    // The wait is recorded whether or not a message arrived
+    public void received(long start, boolean gotMessage) {
+        if (enabled) {
+            receiveWait.record(System.nanoTime() - start);
+            if (gotMessage) {
+                received.increment();
+            }
+        }
+    }
+
+    public void processed(long start) {
+        if (enabled) {
+            processingTime.record(System.nanoTime() - start);
+        }
+    }
+
+    public void committed(long start) {
+        if (enabled) {
+            commitTime.record(System.nanoTime() - start);
+        }
+    }
+
+    public void rolledBack() {
+        if (enabled) {
+            rollbacks.increment();
+        }
+    }
+
+    public void reconnected() {
+        if (enabled) {
+            reconnects.increment();
+        }
+    }
+
+    public void failed() {
+        if (enabled) {
+            errors.increment();
+        }
+    }
+
+    // Counts the reconnects the MQ client makes for the context. With
+    // automatic client reconnect, MQ JMS reports MQRC_RECONNECTING then
+    // MQRC_RECONNECTED to the context's exception listener, other
+    // exceptions are counted as errors. Any listener the context already
+    // has, such as the one a ContextPool uses to mark a failed context, is
+    // kept and called first.
+    public void watch(JMSContext context) {
+        if (enabled) {
+            ExceptionListener existing = context.getExceptionListener();
+            context.setExceptionListener(e -> {
+                if (null != existing) {
+                    existing.onException(e);
+                }
+                onException(e);
+            });
+        }
+    }
+
+    void onException(JMSException e) {
+        int reason = StatusChecker.getReason(e);
+        if (MQConstants.MQRC_RECONNECTED == reason) {
+            reconnected();
+        } else if (MQConstants.MQRC_RECONNECTING != reason) {
+            failed();
+        }
+    }
+
+    @Override
+    public long getMessagesSent() {
+        return sent.sum();
+    }
+
+    @Override
+    public long getMessagesReceived() {
+        return received.sum();
+    }
+
+    @Override
+    public long getRollbacks() {
+        return rollbacks.sum();
+    }
+
+    @Override
+    public long getReconnects() {
+        return reconnects.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getSendTimeMeanMicros() {
+        return sendTime.getMeanNanos() / 1000;
+    }
+
+    @Override
+    public long getSendTimeP99Micros() {
+        return sendTime.getPercentileNanos(99.0) / 1000;
+    }
+
+    @Override
+    public double getReceiveWaitMeanMicros() {
+        return receiveWait.getMeanNanos() / 1000;
+    }
+
+    @Override
+    public long getReceiveWaitP99Micros() {
+        return receiveWait.getPercentileNanos(99.0) / 1000;
+    }
+
+    @Override
+    public double getProcessingTimeMeanMicros() {
+        return processingTime.getMeanNanos() / 1000;
+    }
+
+    @Override
+    public long getProcessingTimeP99Micros() {
+        return processingTime.getPercentileNanos(99.0) / 1000;
+    }
+
+    @Override
+    public double getCommitTimeMeanMicros() {
+        return commitTime.getMeanNanos() / 1000;
+    }
+
+    @Override
+    public long getCommitTimeP99Micros() {
+        return commitTime.getPercentileNanos(99.0) / 1000;
+    }
+
+    public LatencyHistogram getSendTime() {
+        return sendTime;
+    }
+
+    public LatencyHistogram getReceiveWait() {
+        return receiveWait;
+    }
+
+    public LatencyHistogram getProcessingTime() {
+        return processingTime;
+    }
+
+    public LatencyHistogram getCommitTime() {
+        return commitTime;
+    }
+
+    @Override
+    public String getSummary() {
+        return String.format(Locale.ROOT, "Metrics sent %d received %d rollbacks %d reconnects %d errors %d"
+                        + " | send p50 %dus p99 %dus | receive wait p50 %dus p99 %dus"
+                        + " | processing p50 %dus p99 %dus | commit p50 %dus p99 %dus",
+                        getMessagesSent(), getMessagesReceived(), getRollbacks(), getReconnects(), getErrors(),
+                        micros(sendTime, 50.0), micros(sendTime, 99.0),
+                        micros(receiveWait, 50.0), micros(receiveWait, 99.0),
+                        micros(processingTime, 50.0), micros(processingTime, 99.0),
+                        micros(commitTime, 50.0), micros(commitTime, 99.0));
+    }
+
+    // Nothing is logged when metrics are off
+    public void logSummary() {
+        if (enabled) {
+            logger.info(getSummary());
+        }
+    }
+
+    @Override
+    public void reset() {
+        sent.reset();
+        received.reset();
+        rollbacks.reset();
+        reconnects.reset();
+        errors.reset();
+        sendTime.reset();
+        receiveWait.reset();
+        processingTime.reset();
+        commitTime.reset();
+    }
+
+    // The metrics in the Prometheus text exposition format. Counters end
+    // in _total, the histograms are given as summaries in seconds.
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder(2048);
+        counter(sb, "messages_sent_total", "Messages sent", getMessagesSent());
+        counter(sb, "messages_received_total", "Messages received", getMessagesReceived());
+        counter(sb, "rollbacks_total", "Transactions rolled back", getRollbacks());
+        counter(sb, "reconnects_total", "Client reconnects", getReconnects());
+        counter(sb, "errors_total", "Errors", getErrors());
+        summary(sb, "send_seconds", "Time to send a message", sendTime);
+        summary(sb, "receive_wait_seconds", "Time waiting in receive", receiveWait);
+        summary(sb, "processing_seconds", "Time to process a message", processingTime);
+        summary(sb, "commit_seconds", "Time to commit", commitTime);
+        return sb.toString();
+    }
+
+    // Registers with JMX, starts the summary line every interval seconds,
+    // and if the port is not 0, the Prometheus endpoint
+    public synchronized SampleMetrics publish(int intervalSeconds, int port) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+                registeredAs = name;
+            }
+        } catch (JMException e) {
+            logger.warning("Unable to register metrics with JMX " + e.getMessage());
+        }
+
+        if (0 < intervalSeconds && null == summaryTimer) {
+            summaryTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "SampleMetrics");
+                t.setDaemon(true);
+                return t;
+            });
+            summaryTimer.scheduleAtFixedRate(this::logSummary, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+
+        if (0 < port && null == endpoint) {
+            try {
+                endpoint = startEndpoint(port);
+                logger.info("Metrics available on http://localhost:" + endpoint.getAddress().getPort() + "/metrics");
+            } catch (IOException e) {
+                logger.warning("Unable to start the metrics endpoint on port " + port + " " + e.getMessage());
+            }
+        }
+        return this;
+    }
+
+    // The port the Prometheus endpoint is listening on, or 0
+    public synchronized int getPort() {
+        return (null == endpoint) ? 0 : endpoint.getAddress().getPort();
+    }
+
+    public synchronized void close() {
+        if (null != summaryTimer) {
+            summaryTimer.shutdownNow();
+            summaryTimer = null;
+        }
+        if (null != endpoint) {
+            endpoint.stop(0);
+            endpoint = null;
+        }
+        if (null != registeredAs) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredAs);
+            } catch (JMException e) {
+                logger.warning("Unable to unregister metrics from JMX " + e.getMessage());
+            }
+            registeredAs = null;
+        }
+    }
+
+    // Only listens on the loopback address. The server's dispatcher thread
+    // takes its daemon status from the thread that starts it, so it is
+    // started from a daemon thread, otherwise it would keep the sample
+    // running after main ends.
+    private HttpServer startEndpoint(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        Thread starter = new Thread(server::start, "SampleMetricsEndpoint");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return server;
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, long value) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n')
+          .append("# TYPE ").append(PREFIX).append(name).append(" counter\n")
+          .append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void summary(StringBuilder sb, String name, String help, LatencyHistogram histogram) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n')
+          .append("# TYPE ").append(PREFIX).append(name).append(" summary\n");
+        for (String quantile : new String[] {"0.5", "0.9", "0.99", "0.999"}) {
+            double percentile = Double.parseDouble(quantile) * 100;
+            sb.append(PREFIX).append(name).append("{quantile=\"").append(quantile).append("\"} ")
+              .append(seconds(histogram.getPercentileNanos(percentile))).append('\n');
+        }
+        long count = histogram.getCount();
+        sb.append(PREFIX).append(name).append("_sum ").append(seconds(histogram.getMeanNanos() * count)).append('\n')
+          .append(PREFIX).append(name).append("_count ").append(count).append('\n');
+    }
+
+    private static String seconds(double nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static long micros(LatencyHistogram histogram, double percentile) {
+        return histogram.getPercentileNanos(percentile) / 1000;
+    }
+}
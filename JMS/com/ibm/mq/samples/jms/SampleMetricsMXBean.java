@@ -0,0 +1,42 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+/*
+ * The SampleMetrics attributes shown through JMX, eg. in JConsole under
+ * com.ibm.mq.samples.jms:type=SampleMetrics. Times are in microseconds.
+ */
+public interface SampleMetricsMXBean {
+    long getMessagesSent();
+    long getMessagesReceived();
+    long getRollbacks();
+    long getReconnects();
+    long getErrors();
+
+    double getSendTimeMeanMicros();
+    long getSendTimeP99Micros();
+    double getReceiveWaitMeanMicros();
+    long getReceiveWaitP99Micros();
+    double getProcessingTimeMeanMicros();
+    long getProcessingTimeP99Micros();
+    double getCommitTimeMeanMicros();
+    long getCommitTimeP99Micros();
+
+    String getSummary();
+
+    void reset();
+}
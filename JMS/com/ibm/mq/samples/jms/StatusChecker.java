@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2020
+* (c) Copyright IBM Corporation 2020, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -16,33 +16,99 @@
 
 package com.ibm.mq.samples.jms;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.logging.*;
 
-// Use this import for building with JMS
+// Use these imports for building with JMS
+import javax.jms.JMSException;
 import javax.jms.JMSRuntimeException;
 
-// Use this import for building with Jakarta Messaging
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.JMSException;
 // import jakarta.jms.JMSRuntimeException;
 
 import com.ibm.mq.constants.MQConstants;
 import com.ibm.mq.MQException;
 
 
+/*
+ * Classifies failures by their MQ reason code. Retryable failures are
+ * connection faults that can clear by themselves, such as a queue manager
+ * that is restarting or failing over, so are worth retrying on a new
+ * connection after a pause. Transient failures, a full queue or a unit of
+ * work that was backed out, leave the connection working, so the put or
+ * the unit of work is tried again on the same connection. Anything else,
+ * such as a security failure or an unknown object, will fail again in the
+ * same way, so is fatal.
+ */
 public class StatusChecker {
   private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
 
-  public static boolean getCanContinue(JMSRuntimeException ex) {
-    if (null != ex.getCause() && ex.getCause() instanceof MQException) {
-      MQException innerException = (MQException) ex.getCause();
+  private static final Set<Integer> RETRYABLE = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+      MQConstants.MQRC_HOST_NOT_AVAILABLE,
+      MQConstants.MQRC_CONNECTION_BROKEN,
+      MQConstants.MQRC_Q_MGR_NOT_AVAILABLE,
+      MQConstants.MQRC_Q_MGR_QUIESCING,
+      MQConstants.MQRC_Q_MGR_STOPPING,
+      MQConstants.MQRC_CONNECTION_QUIESCING,
+      MQConstants.MQRC_CONNECTION_STOPPING,
+      MQConstants.MQRC_CHANNEL_NOT_AVAILABLE,
+      MQConstants.MQRC_RECONNECT_FAILED,
+      MQConstants.MQRC_CALL_INTERRUPTED,
+      MQConstants.MQRC_RESOURCE_PROBLEM,
+      MQConstants.MQRC_STORAGE_NOT_AVAILABLE)));
 
-      if (MQConstants.MQRC_HOST_NOT_AVAILABLE == innerException.getReason()) {
-        logger.info("Host not available, skipping message gets from this host");
-        return true;
-      }
+  private static final Set<Integer> TRANSIENT = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+      MQConstants.MQRC_Q_FULL,
+      MQConstants.MQRC_BACKED_OUT)));
+
+  public static boolean getCanContinue(JMSRuntimeException ex) {
+    int reason = getReason(ex);
+    if (isRetryable(reason)) {
+      logger.info("Endpoint not available, reason " + reason + ", skipping message gets from this host");
+      return true;
     }
 
     logger.warning("Unexpected exception will be terminating process");
     ConnectionHelper.recordFailure(ex);
     return false;
   }
+
+  public static boolean isRetryable(Throwable ex) {
+    return isRetryable(getReason(ex));
+  }
+
+  public static boolean isRetryable(int reason) {
+    return RETRYABLE.contains(reason);
+  }
+
+  public static boolean isTransient(Throwable ex) {
+    return isTransient(getReason(ex));
+  }
+
+  public static boolean isTransient(int reason) {
+    return TRANSIENT.contains(reason);
+  }
+
+  // The reason code of the first MQException found in the causes and
+  // linked exceptions, or 0 if there is none
+  public static int getReason(Throwable ex) {
+    for (int depth = 0; null != ex && depth < 10; depth++) {
+      if (ex instanceof MQException) {
+        return ((MQException) ex).getReason();
+      }
+      if (ex instanceof JMSException && null != ((JMSException) ex).getLinkedException()
+          && ex.getCause() != ((JMSException) ex).getLinkedException()) {
+        int reason = getReason(((JMSException) ex).getLinkedException());
+        if (0 != reason) {
+          return reason;
+        }
+      }
+      ex = ex.getCause();
+    }
+    return 0;
+  }
 }
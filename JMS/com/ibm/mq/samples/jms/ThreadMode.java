@@ -0,0 +1,118 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.*;
+
+/*
+ * The kind of thread that runs the samples' blocking receive loops.
+ *
+ * Each consumer parks its thread in receive() while it waits for a message.
+ * With platform threads that is an operating system thread per consumer,
+ * with virtual threads (Java 21 and later) the waiting consumers share a
+ * small pool of carrier threads, so thousands of consumers are cheap.
+ *
+ * The samples are built for Java 8, so virtual threads are created through
+ * reflection. Asking for virtual threads on an older Java falls back to
+ * platform threads, with a warning.
+ *
+ * The mode is chosen with -DTHREAD_MODE=virtual or -DTHREAD_MODE=platform.
+ */
+public enum ThreadMode {
+    PLATFORM,
+    VIRTUAL;
+
+    private static final Logger logger = Logger.getLogger("com.ibm.mq.samples.jms");
+
+    public static final String THREAD_MODE = "THREAD_MODE";
+
+    // The mode asked for by the THREAD_MODE system property, platform by default
+    public static ThreadMode fromSystemProperty() {
+        String value = System.getProperty(THREAD_MODE);
+        if (null == value || value.trim().isEmpty()) {
+            return PLATFORM;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Unknown " + THREAD_MODE + " " + value + ", using platform threads");
+            return PLATFORM;
+        }
+    }
+
+    public static boolean isVirtualAvailable() {
+        return VirtualThreads.isAvailable();
+    }
+
+    // Creates threads of this kind, named prefix0, prefix1 ...
+    public ThreadFactory factory(String prefix) {
+        if (this == VIRTUAL) {
+            ThreadFactory factory = VirtualThreads.factory(prefix);
+            if (null != factory) {
+                return factory;
+            }
+            logger.warning("Virtual threads need Java 21 or later, using platform threads");
+        }
+        AtomicInteger count = new AtomicInteger();
+        return r -> new Thread(r, prefix + count.getAndIncrement());
+    }
+
+    // Looked up once, Thread.ofVirtual() is only there on Java 21 and later
+    private static final class VirtualThreads {
+        static final Method OF_VIRTUAL;
+        static final Method NAME;
+        static final Method FACTORY;
+
+        static {
+            Method ofVirtual = null;
+            Method name = null;
+            Method factory = null;
+            try {
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                name = builderClass.getMethod("name", String.class, long.class);
+                factory = builderClass.getMethod("factory");
+            } catch (ReflectiveOperationException e) {
+                ofVirtual = null;
+            }
+            OF_VIRTUAL = ofVirtual;
+            NAME = name;
+            FACTORY = factory;
+        }
+
+        static boolean isAvailable() {
+            return null != OF_VIRTUAL;
+        }
+
+        // Each factory needs a builder of its own, builders are not thread safe
+        static ThreadFactory factory(String prefix) {
+            if (!isAvailable()) {
+                return null;
+            }
+            try {
+                Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+                return (ThreadFactory) FACTORY.invoke(builder);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.warning("Unable to create virtual threads " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.Message;
+import javax.jms.Queue;
+import javax.jms.TextMessage;
+
+import org.junit.jupiter.api.Test;
+
+// These tests run against the in-memory stand-in, so do not
+// need a queue manager.
+public class AsyncConsumerTest {
+    private static final String QUEUE = "DEV.QUEUE.1";
+
+    @Test
+    public void testEveryMessageHandled() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+
+        AsyncConsumer consumer = consumer(standIn)
+                                    .workers(4)
+                                    .start(m -> seen.add(text(m)));
+        send(standIn, 500);
+
+        assertTrue(waitFor(() -> 500 == seen.size()));
+        consumer.stop();
+
+        assertEquals(500, consumer.getReceived());
+        assertEquals(500, consumer.getProcessed());
+        assertFalse(consumer.isRunning());
+    }
+
+    @Test
+    public void testFullQueuePausesDelivery() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        AtomicInteger handled = new AtomicInteger();
+
+        send(standIn, 50);
+        AsyncConsumer consumer = consumer(standIn)
+                                    .queueCapacity(4)
+                                    .start(m -> {
+                                        sleep(2);
+                                        handled.incrementAndGet();
+                                    });
+
+        assertTrue(waitFor(() -> 50 == handled.get()));
+        consumer.stop();
+
+        assertTrue(0 < consumer.getPauses());
+        assertEquals(50, consumer.getProcessed());
+    }
+
+    @Test
+    public void testStopFinishesQueuedMessages() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        AtomicInteger handled = new AtomicInteger();
+
+        send(standIn, 20);
+        AsyncConsumer consumer = consumer(standIn)
+                                    .queueCapacity(10)
+                                    .start(m -> {
+                                        sleep(20);
+                                        handled.incrementAndGet();
+                                    });
+        assertTrue(waitFor(() -> 0 < handled.get()));
+        consumer.stop();
+
+        // Every message delivered before the stop has been handled,
+        // the rest are still on the queue
+        assertEquals(consumer.getReceived(), handled.get());
+        assertTrue(handled.get() < 20);
+        assertEquals(20 - handled.get(), drain(standIn));
+    }
+
+    @Test
+    public void testAwaitIdleWaitsForWorkers() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        AtomicInteger handled = new AtomicInteger();
+
+        send(standIn, 10);
+        AsyncConsumer consumer = consumer(standIn)
+                                    .start(m -> {
+                                        if (1 == handled.incrementAndGet()) {
+                                            throw new IllegalStateException("first message fails");
+                                        }
+                                        sleep(10);
+                                    });
+        consumer.awaitIdle(50, TimeUnit.MILLISECONDS);
+
+        assertEquals(10, handled.get());
+        assertEquals(9, consumer.getProcessed());
+        assertEquals(1, consumer.getFailures());
+        consumer.stop();
+    }
+
+    @Test
+    public void testModeFromSystemProperty() {
+        try {
+            System.setProperty(AsyncConsumer.CONSUMER_MODE, "Async");
+            assertTrue(AsyncConsumer.isSelected());
+            System.setProperty(AsyncConsumer.CONSUMER_MODE, "sync");
+            assertFalse(AsyncConsumer.isSelected());
+        } finally {
+            System.clearProperty(AsyncConsumer.CONSUMER_MODE);
+        }
+        assertFalse(AsyncConsumer.isSelected());
+    }
+
+    private static AsyncConsumer consumer(InMemoryJmsStandIn standIn) {
+        return new AsyncConsumer(standIn::createContext,
+                                 context -> context.createConsumer(context.createQueue("queue:///" + QUEUE)));
+    }
+
+    private static void send(InMemoryJmsStandIn standIn, int count) {
+        JMSContext context = standIn.createContext();
+        Queue queue = context.createQueue("queue:///" + QUEUE);
+        JMSProducer producer = context.createProducer();
+        for (int i = 0; i < count; i++) {
+            producer.send(queue, "message " + i);
+        }
+        context.close();
+    }
+
+    private static int drain(InMemoryJmsStandIn standIn) {
+        int count = 0;
+        try (JMSContext context = standIn.createContext()) {
+            JMSConsumer consumer = context.createConsumer(context.createQueue("queue:///" + QUEUE));
+            while (null != consumer.receiveNoWait()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String text(Message message) {
+        try {
+            return ((TextMessage) message).getText();
+        } catch (JMSException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.jms.Destination;
+import javax.jms.JMSContext;
+import javax.jms.JMSProducer;
+
+import org.junit.jupiter.api.Test;
+
+// These tests run against the in-memory stand-in, so do not
+// need a queue manager.
+public class ConsumerGroupTest {
+    private static final String TOPIC = "dev/";
+
+    @Test
+    public void testEveryQueueConsumed() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        AtomicInteger handled = new AtomicInteger();
+
+        ConsumerGroup group = new ConsumerGroup(standIn::createContext, ThreadMode.PLATFORM)
+                                    .consumersPerDestination(2)
+                                    .pollInterval(50, TimeUnit.MILLISECONDS);
+        for (int q = 1; q <= 3; q++) {
+            group.queue("DEV.QUEUE." + q, m -> handled.incrementAndGet());
+        }
+        group.start();
+        for (int q = 1; q <= 3; q++) {
+            send(standIn, "queue:///DEV.QUEUE." + q, 100);
+        }
+
+        assertTrue(waitFor(() -> 300 == handled.get()));
+        group.close();
+
+        assertEquals(300, group.getReceived());
+        assertEquals(0, group.getActiveConsumers());
+        assertFalse(group.isRunning());
+        assertTrue(group.awaitTermination(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testSharedSubscriptionDeliversEachMessageOnce() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        AtomicInteger handled = new AtomicInteger();
+
+        ConsumerGroup group = new ConsumerGroup(standIn::createContext, ThreadMode.PLATFORM)
+                                    .consumersPerDestination(4)
+                                    .pollInterval(50, TimeUnit.MILLISECONDS)
+                                    .sharedSubscription(TOPIC, "sub", m -> handled.incrementAndGet())
+                                    .start();
+        assertTrue(waitFor(() -> 4 == group.getActiveConsumers()));
+
+        send(standIn, "topic://" + TOPIC, 100);
+        assertTrue(waitFor(() -> 100 == handled.get()));
+        group.close();
+
+        // Give any duplicates time to show up
+        Thread.sleep(100);
+        assertEquals(100, handled.get());
+    }
+
+    @Test
+    public void testVirtualModeConsumes() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        AtomicInteger handled = new AtomicInteger();
+
+        // Falls back to platform threads before Java 21
+        ConsumerGroup group = new ConsumerGroup(standIn::createContext, ThreadMode.VIRTUAL)
+                                    .consumersPerDestination(50)
+                                    .pollInterval(50, TimeUnit.MILLISECONDS)
+                                    .queue("DEV.QUEUE.1", m -> handled.incrementAndGet())
+                                    .start();
+        send(standIn, "queue:///DEV.QUEUE.1", 500);
+
+        assertTrue(waitFor(() -> 500 == handled.get()));
+        group.close();
+        assertEquals(0, group.getActiveConsumers());
+    }
+
+    @Test
+    public void testHandlerFailureDoesNotStopConsumer() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        AtomicInteger handled = new AtomicInteger();
+
+        ConsumerGroup group = new ConsumerGroup(standIn::createContext, ThreadMode.PLATFORM)
+                                    .pollInterval(50, TimeUnit.MILLISECONDS)
+                                    .queue("DEV.QUEUE.1", m -> {
+                                        if (1 == handled.incrementAndGet()) {
+                                            throw new IllegalStateException("first message fails");
+                                        }
+                                    })
+                                    .start();
+        send(standIn, "queue:///DEV.QUEUE.1", 10);
+
+        assertTrue(waitFor(() -> 10 == handled.get()));
+        group.close();
+        assertEquals(1, group.getFailures());
+    }
+
+    @Test
+    public void testConsumersReconnectAfterOutage() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        AtomicInteger handled = new AtomicInteger();
+
+        try {
+            System.setProperty(ResilientConnection.RECONNECT_INITIAL_DELAY, "10");
+            System.setProperty(ResilientConnection.RECONNECT_MAX_DELAY, "50");
+            System.setProperty(ResilientConnection.BREAKER_FAILURES, "1000");
+            ConsumerGroup group = new ConsumerGroup(standIn::createContext, ThreadMode.PLATFORM)
+                                        .consumersPerDestination(2)
+                                        .pollInterval(50, TimeUnit.MILLISECONDS)
+                                        .queue("DEV.QUEUE.1", m -> handled.incrementAndGet())
+                                        .start();
+            assertTrue(waitFor(() -> 2 == group.getActiveConsumers()));
+
+            standIn.setAvailable(false);
+            Thread.sleep(200);
+            standIn.setAvailable(true);
+            send(standIn, "queue:///DEV.QUEUE.1", 10);
+
+            assertTrue(waitFor(() -> 10 == handled.get()));
+            assertEquals(2, group.getActiveConsumers());
+            group.close();
+            assertEquals(0, group.getFailures());
+        } finally {
+            System.clearProperty(ResilientConnection.RECONNECT_INITIAL_DELAY);
+            System.clearProperty(ResilientConnection.RECONNECT_MAX_DELAY);
+            System.clearProperty(ResilientConnection.BREAKER_FAILURES);
+        }
+    }
+
+    @Test
+    public void testThreadModeFromSystemProperty() {
+        try {
+            System.setProperty(ThreadMode.THREAD_MODE, "virtual");
+            assertEquals(ThreadMode.VIRTUAL, ThreadMode.fromSystemProperty());
+            System.setProperty(ThreadMode.THREAD_MODE, "nonsense");
+            assertEquals(ThreadMode.PLATFORM, ThreadMode.fromSystemProperty());
+        } finally {
+            System.clearProperty(ThreadMode.THREAD_MODE);
+        }
+        assertEquals(ThreadMode.PLATFORM, ThreadMode.fromSystemProperty());
+    }
+
+    private static void send(InMemoryJmsStandIn standIn, String destinationName, int count) {
+        JMSContext context = standIn.createContext();
+        Destination destination = destinationName.startsWith("topic")
+                                        ? context.createTopic(destinationName)
+                                        : context.createQueue(destinationName);
+        JMSProducer producer = context.createProducer();
+        for (int i = 0; i < count; i++) {
+            producer.send(destination, "message " + i);
+        }
+        context.close();
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
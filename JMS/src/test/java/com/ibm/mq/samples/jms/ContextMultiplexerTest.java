@@ -0,0 +1,166 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Queue;
+
+import org.junit.jupiter.api.Test;
+
+// These tests run against the in-memory stand-in, so do not
+// need a queue manager.
+public class ContextMultiplexerTest {
+    private static final String QUEUE = "DEV.QUEUE.1";
+
+    @Test
+    public void testContextsShareConnections() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ContextMultiplexer multiplexer = new ContextMultiplexer(standIn::createContext)
+                                                .contextsPerConnection(10);
+        List<JMSContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            contexts.add(multiplexer.createContext());
+        }
+
+        assertEquals(3, standIn.getConnectionCount());
+        assertEquals(3, multiplexer.getConnectionCount());
+        assertEquals(25, multiplexer.getActiveContexts());
+        assertEquals(25.0 / 30, multiplexer.getUtilisation(), 0.001);
+
+        for (JMSContext c : contexts) {
+            c.close();
+        }
+        assertEquals(0, multiplexer.getActiveContexts());
+        assertEquals(25, multiplexer.getPeakContexts());
+
+        // The connections are kept, so no more are needed
+        for (int i = 0; i < 25; i++) {
+            multiplexer.createContext();
+        }
+        assertEquals(3, standIn.getConnectionCount());
+        multiplexer.close();
+    }
+
+    @Test
+    public void testSharedContextsSendAndReceive() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ContextMultiplexer multiplexer = new ContextMultiplexer(standIn::createContext);
+
+        JMSContext producer = multiplexer.createContext();
+        JMSContext consumer = multiplexer.createContext(JMSContext.SESSION_TRANSACTED);
+        Queue queue = producer.createQueue("queue:///" + QUEUE);
+        producer.createProducer().send(queue, "shared");
+
+        assertEquals("shared", consumer.createConsumer(queue).receiveBody(String.class, 1000));
+        consumer.commit();
+        assertTrue(consumer.getTransacted());
+        assertEquals(1, standIn.getConnectionCount());
+        multiplexer.close();
+    }
+
+    @Test
+    public void testWaitsForPlaceWhenFull() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ContextMultiplexer multiplexer = new ContextMultiplexer(standIn::createContext)
+                                                .contextsPerConnection(2)
+                                                .maxConnections(1)
+                                                .waitTimeout(50, TimeUnit.MILLISECONDS);
+        JMSContext first = multiplexer.createContext();
+        multiplexer.createContext();
+
+        assertThrows(JMSRuntimeException.class, () -> multiplexer.createContext());
+
+        multiplexer.waitTimeout(10, TimeUnit.SECONDS);
+        CompletableFuture<JMSContext> waiting = CompletableFuture.supplyAsync(() -> multiplexer.createContext());
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+
+        // Closing a context frees its place, more than once does no harm
+        first.close();
+        first.close();
+        assertNotNull(waiting.get(10, TimeUnit.SECONDS));
+        assertEquals(2, multiplexer.getActiveContexts());
+        assertEquals(1, standIn.getConnectionCount());
+        assertEquals(2, multiplexer.getWaits());
+        multiplexer.close();
+    }
+
+    @Test
+    public void testFailedConnectFreesPlace() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        AtomicInteger attempts = new AtomicInteger();
+        ContextMultiplexer multiplexer = new ContextMultiplexer(() -> {
+                                                if (1 == attempts.incrementAndGet()) {
+                                                    throw new JMSRuntimeException("connect failed");
+                                                }
+                                                return standIn.createContext();
+                                            })
+                                            .maxConnections(1);
+
+        assertThrows(JMSRuntimeException.class, () -> multiplexer.createContext());
+        assertEquals(0, multiplexer.getActiveContexts());
+        assertEquals(0, multiplexer.getConnectionCount());
+
+        assertNotNull(multiplexer.createContext());
+        assertEquals(1, multiplexer.getConnectionsCreated());
+        multiplexer.close();
+    }
+
+    @Test
+    public void testClosedMultiplexerRefusesContexts() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ContextMultiplexer multiplexer = new ContextMultiplexer(standIn::createContext);
+        multiplexer.createContext();
+        multiplexer.close();
+
+        assertEquals(0, multiplexer.getConnectionCount());
+        assertThrows(JMSRuntimeException.class, () -> multiplexer.createContext());
+    }
+
+    @Test
+    public void testSettingsFromSystemProperties() {
+        try {
+            System.setProperty(ContextMultiplexer.CONTEXTS_PER_CONNECTION, "4");
+            System.setProperty(ContextMultiplexer.MAX_CONNECTIONS, "2");
+            assertTrue(ContextMultiplexer.isSelected());
+
+            InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+            ContextMultiplexer multiplexer = new ContextMultiplexer(standIn::createContext)
+                                                    .configureFromSystemProperties()
+                                                    .waitTimeout(10, TimeUnit.MILLISECONDS);
+            for (int i = 0; i < 8; i++) {
+                multiplexer.createContext();
+            }
+            assertEquals(2, standIn.getConnectionCount());
+            assertThrows(JMSRuntimeException.class, () -> multiplexer.createContext());
+            multiplexer.close();
+        } finally {
+            System.clearProperty(ContextMultiplexer.CONTEXTS_PER_CONNECTION);
+            System.clearProperty(ContextMultiplexer.MAX_CONNECTIONS);
+        }
+        assertFalse(ContextMultiplexer.isSelected());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+
+import org.junit.jupiter.api.Test;
+
+// These tests use contexts from the in-memory stand-in, so do not
+// need a queue manager.
+public class ContextPoolTest {
+    private static final String KEY = "test|0|app";
+
+    @Test
+    public void testContextIsReused() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ContextPool pool = new ContextPool(2, 60, 1, TimeUnit.SECONDS);
+
+        JMSContext first = pool.borrow(KEY, standIn::createContext);
+        pool.release(KEY, first);
+        JMSContext second = pool.borrow(KEY, standIn::createContext);
+
+        assertSame(first, second);
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(1, pool.getConnectTime().getCount());
+        pool.close();
+    }
+
+    @Test
+    public void testClosedContextIsNotReused() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ContextPool pool = new ContextPool(2, 60, 1, TimeUnit.SECONDS);
+
+        JMSContext first = pool.borrow(KEY, standIn::createContext);
+        pool.release(KEY, first);
+        first.close();
+
+        JMSContext second = pool.borrow(KEY, standIn::createContext);
+        assertNotSame(first, second);
+        assertEquals(1, pool.getValidationFailures());
+        assertEquals(2, pool.getMisses());
+        pool.close();
+    }
+
+    @Test
+    public void testBrokenContextIsNotReusedWhenWatched() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ContextPool pool = new ContextPool(2, 60, 1, TimeUnit.SECONDS);
+        SampleMetrics metrics = new SampleMetrics(true);
+
+        JMSContext first = pool.borrow(KEY, standIn::createContext);
+        metrics.watch(first);
+        standIn.setAvailable(false);
+        standIn.setAvailable(true);
+        pool.release(KEY, first);
+
+        // Both the pool and the metrics heard about the failure
+        assertEquals(0, pool.getIdleCount(KEY));
+        assertEquals(1, metrics.getErrors());
+        JMSContext second = pool.borrow(KEY, standIn::createContext);
+        assertNotSame(first, second);
+        assertEquals(2, pool.getMisses());
+        pool.close();
+    }
+
+    @Test
+    public void testPoolSizeIsBounded() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ContextPool pool = new ContextPool(1, 60, 1, TimeUnit.SECONDS);
+
+        JMSContext first = pool.borrow(KEY, standIn::createContext);
+        assertThrows(JMSRuntimeException.class, () -> pool.borrow(KEY, standIn::createContext));
+
+        pool.invalidate(KEY, first);
+        assertNotNull(pool.borrow(KEY, standIn::createContext));
+        pool.close();
+    }
+
+    @Test
+    public void testFactoryIsCached() {
+        ContextPool pool = new ContextPool(1, 60, 1, TimeUnit.SECONDS);
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+
+        ConnectionFactory first = pool.factoryFor(KEY, standIn::createConnectionFactory);
+        ConnectionFactory second = pool.factoryFor(KEY, standIn::createConnectionFactory);
+        assertSame(first, second);
+        assertEquals(1, pool.getFactoryHits());
+        assertEquals(1, pool.getFactoryMisses());
+        pool.close();
+    }
+
+    @Test
+    public void testCollidingPasswordsAreSeparate() {
+        // "Aa" and "BB" have the same String hash code
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        String keyAa = "test|0|" + ConnectionHelper.credentialsKey("app", "Aa");
+        String keyBB = "test|0|" + ConnectionHelper.credentialsKey("app", "BB");
+        assertNotEquals(keyAa, keyBB);
+        assertEquals(keyAa, "test|0|" + ConnectionHelper.credentialsKey("app", "Aa"));
+
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ContextPool pool = new ContextPool(2, 60, 1, TimeUnit.SECONDS);
+
+        assertNotSame(pool.factoryFor(keyAa, standIn::createConnectionFactory),
+                pool.factoryFor(keyBB, standIn::createConnectionFactory));
+
+        JMSContext first = pool.borrow(keyAa, standIn::createContext);
+        pool.release(keyAa, first);
+        JMSContext second = pool.borrow(keyBB, standIn::createContext);
+
+        assertNotSame(first, second);
+        assertEquals(1, pool.getIdleCount(keyAa));
+        assertEquals(0, pool.getHits());
+        pool.close();
+    }
+}
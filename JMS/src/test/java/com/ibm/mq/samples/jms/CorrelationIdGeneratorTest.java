@@ -0,0 +1,92 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class CorrelationIdGeneratorTest {
+
+    @Test
+    public void testIdsAreUnique() {
+        CorrelationIdGenerator ids = new CorrelationIdGenerator();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            byte[] id = ids.next();
+            assertEquals(CorrelationIdGenerator.LENGTH, id.length);
+            assertTrue(seen.add(Arrays.toString(id)));
+        }
+
+        // Another generator has a different prefix
+        byte[] other = new CorrelationIdGenerator().toBytes(1);
+        assertFalse(Arrays.equals(ids.toBytes(1), other));
+    }
+
+    @Test
+    public void testHexFormsMatchBytes() {
+        CorrelationIdGenerator ids = new CorrelationIdGenerator();
+        long sequence = ids.nextSequence();
+        byte[] id = ids.toBytes(sequence);
+        String hex = JmsRequest.getHexString(id);
+
+        assertEquals(48, hex.length());
+        assertEquals(hex, ids.toHex(sequence));
+        assertEquals("ID:" + hex, ids.toJMSCorrelationID(sequence));
+        assertEquals("JMSCorrelationID='ID:" + hex + "'", ids.selector(sequence));
+        assertTrue(hex.endsWith("0000000000000001"));
+    }
+
+    @Test
+    public void testToBytesIntoBuffer() {
+        CorrelationIdGenerator ids = new CorrelationIdGenerator();
+        byte[] buffer = new byte[CorrelationIdGenerator.LENGTH];
+        ids.toBytes(0x0102030405060708L, buffer);
+
+        assertArrayEquals(ids.toBytes(0x0102030405060708L), buffer);
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }, Arrays.copyOfRange(buffer, 16, 24));
+    }
+
+    @Test
+    public void testSequenceReadBack() {
+        CorrelationIdGenerator ids = new CorrelationIdGenerator();
+        long sequence = 0x7f00ff00abcdL;
+
+        assertEquals(sequence, ids.sequenceOf(ids.toJMSCorrelationID(sequence)));
+        assertEquals(sequence, ids.sequenceOf(ids.toHex(sequence)));
+        assertEquals(sequence, ids.sequenceOf(ids.toJMSCorrelationID(sequence).toUpperCase()));
+
+        assertEquals(-1, ids.sequenceOf(null));
+        assertEquals(-1, ids.sequenceOf("ID:1234"));
+        assertEquals(-1, ids.sequenceOf(new CorrelationIdGenerator().toJMSCorrelationID(sequence)));
+        assertEquals(-1, ids.sequenceOf(ids.toJMSCorrelationID(sequence).replace('a', 'z')));
+    }
+
+    @Test
+    public void testHexMatchesOriginalEncoding() {
+        byte[] b = { 0, 1, 15, 16, 127, -128, -1 };
+        String expected = "";
+        for (byte x : b) {
+            expected += Integer.toString((x & 0xff) + 0x100, 16).substring(1);
+        }
+        assertEquals(expected, CorrelationIdGenerator.toHex(b));
+    }
+}
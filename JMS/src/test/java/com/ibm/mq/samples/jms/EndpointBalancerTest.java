@@ -0,0 +1,194 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+// The endpoints have no context factories, the tests only check which
+// endpoint is chosen, so do not need a queue manager.
+public class EndpointBalancerTest {
+
+    @Test
+    public void testRoundRobinSpreadsEvenly() {
+        EndpointBalancer balancer = balancer(EndpointBalancer.Strategy.ROUND_ROBIN, 3);
+
+        Map<EndpointBalancer.Endpoint, Integer> counts = choose(balancer, 300);
+        for (EndpointBalancer.Endpoint e : balancer.getEndpoints()) {
+            assertEquals(100, (int) counts.get(e));
+        }
+    }
+
+    @Test
+    public void testLeastOutstandingChoosesIdlest() {
+        EndpointBalancer balancer = balancer(EndpointBalancer.Strategy.LEAST_OUTSTANDING, 3);
+        List<EndpointBalancer.Endpoint> endpoints = balancer.getEndpoints();
+
+        endpoints.get(0).begin();
+        endpoints.get(0).begin();
+        long start = endpoints.get(2).begin();
+        for (int i = 0; i < 10; i++) {
+            assertSame(endpoints.get(1), balancer.choose());
+        }
+
+        endpoints.get(1).begin();
+        endpoints.get(1).begin();
+        assertSame(endpoints.get(2), balancer.choose());
+        endpoints.get(2).succeeded(start);
+        assertEquals(0, endpoints.get(2).getOutstanding());
+        assertEquals(1, endpoints.get(2).getSent());
+    }
+
+    @Test
+    public void testLatencyWeightedFavoursQuickest() {
+        EndpointBalancer balancer = balancer(EndpointBalancer.Strategy.LATENCY_WEIGHTED, 2);
+        EndpointBalancer.Endpoint quick = balancer.getEndpoints().get(0);
+        EndpointBalancer.Endpoint slow = balancer.getEndpoints().get(1);
+
+        quick.begin();
+        quick.succeeded(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(1));
+        slow.begin();
+        slow.succeeded(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10));
+
+        Map<EndpointBalancer.Endpoint, Integer> counts = choose(balancer, 2000);
+        assertTrue(counts.get(quick) > 4 * counts.get(slow), counts.toString());
+        assertTrue(counts.get(slow) > 0, "the slow endpoint is still used");
+    }
+
+    @Test
+    public void testFailingEndpointPassedOver() throws Exception {
+        EndpointBalancer balancer = new EndpointBalancer(EndpointBalancer.Strategy.ROUND_ROBIN)
+                                            .circuitBreaker(2, 500)
+                                            .add("A", null)
+                                            .add("B", null);
+        EndpointBalancer.Endpoint a = balancer.getEndpoints().get(0);
+        EndpointBalancer.Endpoint b = balancer.getEndpoints().get(1);
+
+        a.failed(a.begin());
+        assertTrue(a.isAvailable());
+        a.failed(a.begin());
+        assertFalse(a.isAvailable());
+        for (int i = 0; i < 10; i++) {
+            assertSame(b, balancer.choose());
+        }
+
+        // With every endpoint failing, the one that recovers first is chosen
+        b.failed(b.begin());
+        b.failed(b.begin());
+        assertSame(a, balancer.choose());
+
+        // Tried again once the breaker's time is up, and closed by a success
+        Thread.sleep(600);
+        assertTrue(a.isAvailable());
+        a.succeeded(a.begin());
+        assertEquals(CircuitBreaker.State.CLOSED, a.getCircuitBreaker().getState());
+
+        // A failure after the breaker's time is up opens it again straight away
+        assertTrue(b.isAvailable());
+        b.failed(b.begin());
+        assertFalse(b.isAvailable());
+    }
+
+    @Test
+    public void testAffinityUntilUnhealthy() {
+        EndpointBalancer balancer = new EndpointBalancer(EndpointBalancer.Strategy.ROUND_ROBIN)
+                                            .circuitBreaker(1, 60000)
+                                            .add("A", null)
+                                            .add("B", null)
+                                            .add("C", null);
+        Object producer = new Object();
+
+        EndpointBalancer.Endpoint first = balancer.choose(producer);
+        for (int i = 0; i < 10; i++) {
+            assertSame(first, balancer.choose(producer));
+        }
+        assertSame(first, balancer.current(producer));
+
+        first.failed(first.begin());
+        EndpointBalancer.Endpoint moved = balancer.choose(producer);
+        assertNotSame(first, moved);
+        assertSame(moved, balancer.choose(producer));
+
+        balancer.release(producer);
+        assertNull(balancer.current(producer));
+    }
+
+    @Test
+    public void testFromEnvWithGroup() throws Exception {
+        File file = File.createTempFile("env", ".json");
+        file.deleteOnExit();
+        try (FileWriter w = new FileWriter(file)) {
+            w.write("{ \"MQ_ENDPOINTS\": ["
+                        + "{ \"HOST\": \"host1\", \"PORT\": \"1414\", \"QMGR\": \"*QMGroupA\" },"
+                        + "{ \"HOST\": \"host2\", \"PORT\": \"1415\", \"QMGR\": \"*QMGroupB\" },"
+                        + "{ \"HOST\": \"host3\", \"PORT\": \"1416\", \"QMGR\": \"*QMGroupA\" } ] }");
+        }
+        String previous = System.getProperty(SampleEnvSetter.ENV_FILE);
+        try {
+            System.setProperty(SampleEnvSetter.ENV_FILE, file.getPath());
+            System.setProperty(EndpointBalancer.BALANCE_STRATEGY, "least_outstanding");
+            System.setProperty(EndpointBalancer.BALANCE_GROUP, "*QMGroupA");
+
+            assertTrue(EndpointBalancer.isSelected());
+            EndpointBalancer balancer = EndpointBalancer.fromEnv(new SampleEnvSetter(), null);
+
+            assertEquals(EndpointBalancer.Strategy.LEAST_OUTSTANDING, balancer.getStrategy());
+            List<EndpointBalancer.Endpoint> endpoints = balancer.getEndpoints();
+            assertEquals(2, endpoints.size());
+            assertEquals(0, endpoints.get(0).getIndex());
+            assertEquals(2, endpoints.get(1).getIndex());
+            assertEquals("*QMGroupA host3(1416)", endpoints.get(1).getName());
+            assertThrows(IllegalStateException.class, () -> endpoints.get(0).createContext(0));
+        } finally {
+            if (null == previous) {
+                System.clearProperty(SampleEnvSetter.ENV_FILE);
+            } else {
+                System.setProperty(SampleEnvSetter.ENV_FILE, previous);
+            }
+            System.clearProperty(EndpointBalancer.BALANCE_STRATEGY);
+            System.clearProperty(EndpointBalancer.BALANCE_GROUP);
+        }
+        assertFalse(EndpointBalancer.isSelected());
+    }
+
+    private static EndpointBalancer balancer(EndpointBalancer.Strategy strategy, int endpoints) {
+        EndpointBalancer balancer = new EndpointBalancer(strategy);
+        for (int i = 0; i < endpoints; i++) {
+            balancer.add("endpoint " + i, null);
+        }
+        return balancer;
+    }
+
+    private static Map<EndpointBalancer.Endpoint, Integer> choose(EndpointBalancer balancer, int times) {
+        Map<EndpointBalancer.Endpoint, Integer> counts = new HashMap<>();
+        for (EndpointBalancer.Endpoint e : balancer.getEndpoints()) {
+            counts.put(e, 0);
+        }
+        for (int i = 0; i < times; i++) {
+            counts.merge(balancer.choose(), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+// These tests use their own temporary env.json files, so do not
+// need a queue manager.
+public class EnvConfigTest {
+    private static final String ENV = "{\"MQ_ENDPOINTS\":["
+                                        + "{\"HOST\":\"host1\",\"PORT\":\"1414\",\"QMGR\":\"QM1\","
+                                        + "\"BINDINGS\":true,\"TIMEOUT\":\"30\"},"
+                                        + "{\"HOST\":\"host2\",\"PORT\":\"1415\",\"QMGR\":\"QM2\","
+                                        + "\"BINDINGS\":\"false\",\"TIMEOUT\":5}],"
+                                        + "\"JWT_ISSUER\":{\"JWT_TOKEN_ENDPOINT\":\"https://token\"}}";
+
+    @Test
+    public void testTypedEndpointValues() throws IOException {
+        EnvConfig config = EnvConfig.load(write(ENV));
+
+        assertTrue(config.hasEndpoints());
+        assertEquals(2, config.getEndpoints().size());
+        assertEquals("QM2", config.getEndpoint(1).getString("QMGR"));
+        assertEquals(Boolean.TRUE, config.getEndpoint(0).getBoolean("BINDINGS"));
+        assertEquals(Boolean.FALSE, config.getEndpoint(1).getBoolean("BINDINGS"));
+        assertEquals(Long.valueOf(30), config.getEndpoint(0).getLong("TIMEOUT"));
+        assertEquals(Long.valueOf(5), config.getEndpoint(1).getLong("TIMEOUT"));
+        assertNull(config.getEndpoint(0).getString("MISSING"));
+        assertNull(config.getEndpoint(0).getLong("QMGR"));
+        assertNull(config.getEndpoint(2));
+        assertEquals("host1(1414),host2(1415)", config.getConnectionString());
+        assertEquals("https://token", config.getJwtValue("JWT_TOKEN_ENDPOINT"));
+    }
+
+    @Test
+    public void testMissingFile() {
+        EnvConfig config = EnvConfig.load(new File("does-not-exist.json"));
+        assertFalse(config.hasEndpoints());
+        assertNull(config.getEndpoints());
+        assertFalse(config.hasJwt());
+    }
+
+    @Test
+    public void testSnapshotSharedAndOverridden() throws IOException {
+        File file = write(ENV);
+        System.setProperty(SampleEnvSetter.ENV_FILE, file.getAbsolutePath());
+        try {
+            SampleEnvSetter first = new SampleEnvSetter();
+            SampleEnvSetter second = new SampleEnvSetter();
+            assertSame(first.getConfig(), second.getConfig());
+
+            assertEquals("QM1", first.getEnvValue("QMGR", 0));
+            assertEquals(2, first.getCount());
+            assertEquals(Long.valueOf(5), first.getEnvLongValue("TIMEOUT", 1));
+
+            // System properties are checked at the time of the lookup
+            System.setProperty("QMGR", "QM3");
+            assertEquals("QM3", first.getEnvValue("QMGR", 0));
+        } finally {
+            System.clearProperty("QMGR");
+            System.clearProperty(SampleEnvSetter.ENV_FILE);
+        }
+    }
+
+    @Test
+    public void testReloadSwapsSnapshot() throws Exception {
+        File file = write(ENV);
+        EnvConfig before = EnvConfig.current(file);
+
+        Files.write(file.toPath(), ENV.replace("QM1", "QM9").getBytes(StandardCharsets.UTF_8));
+        assertTrue(EnvConfig.reload(file));
+        EnvConfig after = EnvConfig.current(file);
+        assertNotSame(before, after);
+        assertEquals("QM9", after.getEndpoint(0).getString("QMGR"));
+        assertEquals("QM1", before.getEndpoint(0).getString("QMGR"));
+
+        // A file that does not parse leaves the last good snapshot in place
+        Files.write(file.toPath(), "{ not json".getBytes(StandardCharsets.UTF_8));
+        assertFalse(EnvConfig.reload(file));
+        assertSame(after, EnvConfig.current(file));
+    }
+
+    @Test
+    public void testWatchReloadsChangedFile() throws Exception {
+        File file = write(ENV);
+        EnvConfig.current(file);
+        EnvConfig.watch(file);
+        // Give the watcher time to register
+        Thread.sleep(500);
+
+        Files.write(file.toPath(), ENV.replace("QM1", "QM7").getBytes(StandardCharsets.UTF_8));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!"QM7".equals(EnvConfig.current(file).getEndpoint(0).getString("QMGR"))
+                   && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals("QM7", EnvConfig.current(file).getEndpoint(0).getString("QMGR"));
+    }
+
+    private static File write(String content) throws IOException {
+        File file = File.createTempFile("env", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
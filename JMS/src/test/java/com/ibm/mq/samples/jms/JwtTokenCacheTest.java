@@ -0,0 +1,209 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// These tests run against a stub token endpoint on localhost
+public class JwtTokenCacheTest {
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long expiresIn = 300;
+    private volatile long delay = 0;
+    private volatile int status = 200;
+    private volatile String lastForm = null;
+    private URI endpoint;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/token", this::token);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        endpoint = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/token");
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        int n = requests.incrementAndGet();
+        try (InputStream in = exchange.getRequestBody()) {
+            lastForm = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (0 < delay) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = ("{\"access_token\":\"token-" + n + "\",\"expires_in\":" + expiresIn + "}")
+                            .getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    public void testTokenIsCached() {
+        JwtTokenCache cache = new JwtTokenCache(endpoint, "client", "user", "p&ss word");
+        try {
+            assertEquals("token-1", cache.getToken());
+            assertEquals("token-1", cache.getToken());
+            assertEquals("token-1", cache.getToken());
+            assertEquals(1, requests.get());
+            assertEquals(1, cache.getFetchCount());
+            assertEquals("client_id=client&username=user&password=p%26ss+word&grant_type=password", lastForm);
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneFetch() throws Exception {
+        delay = 300;
+        JwtTokenCache cache = new JwtTokenCache(endpoint, "client", "user", "password");
+        try {
+            int callers = 20;
+            CountDownLatch start = new CountDownLatch(1);
+            Set<String> tokens = ConcurrentHashMap.newKeySet();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        start.await();
+                        tokens.add(cache.getToken());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                threads.add(t);
+                t.start();
+            }
+            start.countDown();
+            for (Thread t : threads) {
+                t.join();
+            }
+            assertEquals(1, requests.get());
+            assertEquals(1, tokens.size());
+            assertTrue(tokens.contains("token-1"));
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void testTokenRefreshedBeforeExpiry() throws Exception {
+        expiresIn = 1;
+        JwtTokenCache cache = new JwtTokenCache(endpoint, "client", "user", "password");
+        try {
+            List<String> renewed = new ArrayList<>();
+            CountDownLatch refreshed = new CountDownLatch(2);
+            cache.addListener(token -> {
+                synchronized (renewed) {
+                    renewed.add(token);
+                }
+                refreshed.countDown();
+            });
+
+            assertEquals("token-1", cache.getToken());
+            // Refreshed in the background, without a caller asking
+            assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+            synchronized (renewed) {
+                assertEquals("token-1", renewed.get(0));
+                assertEquals("token-2", renewed.get(1));
+            }
+            assertNotEquals("token-1", cache.getToken());
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void testFailedFetchReturnsNull() {
+        status = 401;
+        JwtTokenCache cache = new JwtTokenCache(endpoint, "client", "user", "wrong");
+        try {
+            assertNull(cache.getToken());
+            assertEquals(1, cache.getFailureCount());
+
+            status = 200;
+            assertEquals("token-2", cache.getToken());
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void testFailedFetchRetriedWithBackoff() throws Exception {
+        status = 500;
+        JwtTokenCache cache = new JwtTokenCache(endpoint, "client", "user", "password", new Backoff(100, 400));
+        try {
+            assertNull(cache.getToken());
+            Thread.sleep(1000);
+            // Retries wait 50-100, 100-200 then 200-400ms, rather than
+            // the same short delay each time
+            int retries = requests.get() - 1;
+            assertTrue(3 <= retries && retries <= 7, "retries " + retries);
+
+            status = 200;
+            CountDownLatch obtained = new CountDownLatch(1);
+            cache.addListener(token -> obtained.countDown());
+            assertTrue(obtained.await(5, TimeUnit.SECONDS));
+            assertNotNull(cache.getToken());
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void testEndpointValidation() {
+        assertTrue(JwtTokenCache.isValidEndpoint("https://keycloak.example.com/realms/master/protocol/openid-connect/token"));
+        assertTrue(JwtTokenCache.isValidEndpoint(endpoint.toString()));
+        // The placeholder in env.json
+        assertFalse(JwtTokenCache.isValidEndpoint("https://<KEYCLOAK_URL>/realms/master/protocol/openid-connect/token"));
+        assertFalse(JwtTokenCache.isValidEndpoint("keycloak.example.com/token"));
+        assertFalse(JwtTokenCache.isValidEndpoint("ftp://keycloak.example.com/token"));
+        assertFalse(JwtTokenCache.isValidEndpoint(null));
+    }
+}
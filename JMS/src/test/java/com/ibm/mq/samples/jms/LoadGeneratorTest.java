@@ -0,0 +1,126 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.TextMessage;
+
+import org.junit.jupiter.api.Test;
+
+// These tests run against the in-memory stand-in, so do not
+// need a queue manager.
+public class LoadGeneratorTest {
+    private static final String QUEUE = "DEV.QUEUE.1";
+
+    @Test
+    public void testAllMessagesSentAcrossThreads() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+
+        LoadGenerator generator = new LoadGenerator(standIn::createContext, QUEUE)
+                                        .messageCount(1001)
+                                        .payloadSize(64)
+                                        .threads(4)
+                                        .run();
+
+        assertEquals(1001, generator.getMessagesSent());
+        assertEquals(0, generator.getFailures());
+        assertEquals(1001, generator.getSendLatency().getCount());
+        assertEquals(1001, standIn.getDepth(QUEUE));
+        assertTrue(generator.getMessagesPerSecond() > 0);
+    }
+
+    @Test
+    public void testTransactedBatchesCommitted() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+
+        LoadGenerator generator = new LoadGenerator(standIn::createContext, QUEUE)
+                                        .messageCount(250)
+                                        .payloadSize(10)
+                                        .threads(2)
+                                        .batchSize(50)
+                                        .run();
+
+        assertEquals(250, generator.getMessagesSent());
+        // 125 messages per thread is 2 full batches and 1 partial batch each
+        assertEquals(6, generator.getCommitLatency().getCount());
+        assertEquals(250, standIn.getDepth(QUEUE));
+
+        JMSContext context = standIn.createContext();
+        JMSConsumer consumer = context.createConsumer(context.createQueue("queue:///" + QUEUE));
+        TextMessage message = (TextMessage) consumer.receive(1000);
+        assertEquals(10, message.getText().length());
+        context.close();
+    }
+
+    @Test
+    public void testThreadsSpreadAcrossEndpoints() {
+        InMemoryJmsStandIn[] standIns = { new InMemoryJmsStandIn(), new InMemoryJmsStandIn(), new InMemoryJmsStandIn() };
+        EndpointBalancer balancer = new EndpointBalancer(EndpointBalancer.Strategy.ROUND_ROBIN);
+        for (int i = 0; i < standIns.length; i++) {
+            balancer.add("stand-in " + i, standIns[i]::createContext);
+        }
+
+        LoadGenerator generator = new LoadGenerator(null, QUEUE)
+                                        .messageCount(600)
+                                        .threads(6)
+                                        .balancer(balancer)
+                                        .run();
+
+        assertEquals(600, generator.getMessagesSent());
+        for (InMemoryJmsStandIn standIn : standIns) {
+            assertEquals(200, standIn.getDepth(QUEUE));
+        }
+        assertEquals(600, balancer.getEndpoints().stream().mapToLong(EndpointBalancer.Endpoint::getSent).sum());
+    }
+
+    @Test
+    public void testUnreachableEndpointPassedOver() {
+        InMemoryJmsStandIn up = new InMemoryJmsStandIn();
+        InMemoryJmsStandIn down = new InMemoryJmsStandIn().setAvailable(false);
+        EndpointBalancer balancer = new EndpointBalancer(EndpointBalancer.Strategy.ROUND_ROBIN)
+                                            .add("down", down::createContext)
+                                            .add("up", up::createContext);
+
+        LoadGenerator generator = new LoadGenerator(null, QUEUE)
+                                        .messageCount(400)
+                                        .threads(4)
+                                        .balancer(balancer)
+                                        .run();
+
+        assertEquals(400, generator.getMessagesSent());
+        assertEquals(400, up.getDepth(QUEUE));
+        assertTrue(0 < balancer.getEndpoints().get(0).getFailures());
+    }
+
+    @Test
+    public void testRateLimit() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+
+        LoadGenerator generator = new LoadGenerator(standIn::createContext, QUEUE)
+                                        .messageCount(100)
+                                        .threads(2)
+                                        .rate(500)
+                                        .run();
+
+        // 100 messages at 500 per second should take at least 0.19 seconds
+        assertEquals(100, generator.getMessagesSent());
+        assertTrue(generator.getElapsedNanos() >= 190_000_000L);
+    }
+}
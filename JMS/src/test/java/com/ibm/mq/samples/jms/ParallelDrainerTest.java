@@ -0,0 +1,148 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import org.junit.jupiter.api.Test;
+
+// These tests run against in-memory stand-ins, one per endpoint,
+// so do not need a queue manager.
+public class ParallelDrainerTest {
+    private static final String QUEUE = "DEV.QUEUE.1";
+
+    @Test
+    public void testAllEndpointsDrained() {
+        InMemoryJmsStandIn[] standIns = endpoints(3, 50);
+
+        ParallelDrainer drainer = new ParallelDrainer().idleTimeout(100, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < standIns.length; i++) {
+            InMemoryJmsStandIn standIn = standIns[i];
+            drainer.endpoint("endpoint " + i, () -> ParallelDrainer.queueEndpoint(standIn.createContext(), QUEUE));
+        }
+
+        List<String> bodies = new ArrayList<>();
+        drainer.run(m -> bodies.add(body(m)));
+
+        assertEquals(150, bodies.size());
+        assertEquals(150, drainer.getMessageCount());
+        for (int i = 0; i < standIns.length; i++) {
+            assertEquals(0, standIns[i].getDepth(QUEUE));
+            assertEquals(50, drainer.getEndpointStats().get(i).getMessageCount());
+            assertFalse(drainer.getEndpointStats().get(i).isFailed());
+        }
+    }
+
+    @Test
+    public void testOrderedOutputIsInEndpointOrder() {
+        InMemoryJmsStandIn[] standIns = endpoints(3, 20);
+        // The first endpoint is the slowest, so the others finish first
+        standIns[0].setSimulatedLatency(2, TimeUnit.MILLISECONDS);
+
+        ParallelDrainer drainer = new ParallelDrainer().idleTimeout(100, TimeUnit.MILLISECONDS).ordered(true);
+        for (int i = 0; i < standIns.length; i++) {
+            InMemoryJmsStandIn standIn = standIns[i];
+            drainer.endpoint("endpoint " + i, () -> ParallelDrainer.queueEndpoint(standIn.createContext(), QUEUE));
+        }
+
+        List<String> bodies = new ArrayList<>();
+        drainer.run(m -> bodies.add(body(m)));
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < standIns.length; i++) {
+            for (int j = 0; j < 20; j++) {
+                expected.add("endpoint " + i + " message " + j);
+            }
+        }
+        assertEquals(expected, bodies);
+    }
+
+    @Test
+    public void testFailedEndpointDoesNotStopOthers() {
+        InMemoryJmsStandIn[] standIns = endpoints(2, 10);
+
+        ParallelDrainer drainer = new ParallelDrainer().idleTimeout(100, TimeUnit.MILLISECONDS)
+                .endpoint("good", () -> ParallelDrainer.queueEndpoint(standIns[0].createContext(), QUEUE))
+                .endpoint("bad", () -> {
+                    throw new JMSRuntimeException("Host not available");
+                })
+                .endpoint("also good", () -> ParallelDrainer.queueEndpoint(standIns[1].createContext(), QUEUE));
+
+        List<String> bodies = new ArrayList<>();
+        drainer.run(m -> bodies.add(body(m)));
+
+        assertEquals(20, bodies.size());
+        assertTrue(drainer.getEndpointStats().get(1).isFailed());
+        assertFalse(drainer.getEndpointStats().get(0).isFailed());
+        assertFalse(drainer.getEndpointStats().get(2).isFailed());
+    }
+
+    @Test
+    public void testDrainTimeBoundedBySlowestEndpoint() {
+        InMemoryJmsStandIn[] standIns = endpoints(4, 20);
+        for (InMemoryJmsStandIn standIn : standIns) {
+            standIn.setSimulatedLatency(10, TimeUnit.MILLISECONDS);
+        }
+
+        ParallelDrainer drainer = new ParallelDrainer().idleTimeout(100, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < standIns.length; i++) {
+            InMemoryJmsStandIn standIn = standIns[i];
+            drainer.endpoint("endpoint " + i, () -> ParallelDrainer.queueEndpoint(standIn.createContext(), QUEUE));
+        }
+
+        long start = System.nanoTime();
+        drainer.run(m -> { });
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(80, drainer.getMessageCount());
+        // Drained one after another this would take at least 4 x 20 x 10ms
+        assertTrue(elapsed < 700, "Drain took " + elapsed + "ms");
+    }
+
+    private static InMemoryJmsStandIn[] endpoints(int count, int messages) {
+        InMemoryJmsStandIn[] standIns = new InMemoryJmsStandIn[count];
+        for (int i = 0; i < count; i++) {
+            standIns[i] = new InMemoryJmsStandIn();
+            JMSContext context = standIns[i].createContext();
+            JMSProducer producer = context.createProducer();
+            for (int j = 0; j < messages; j++) {
+                producer.send(context.createQueue("queue:///" + QUEUE), "endpoint " + i + " message " + j);
+            }
+            context.close();
+        }
+        return standIns;
+    }
+
+    private static String body(Message m) {
+        try {
+            return ((TextMessage) m).getText();
+        } catch (JMSException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSProducer;
+import javax.jms.Message;
+import javax.jms.Queue;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+// These tests run against the in-memory stand-in, so do not
+// need a queue manager.
+public class PerfRecorderTest {
+    private static final String QUEUE = "DEV.QUEUE.1";
+
+    @Test
+    public void testCompleteRun() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        PerfRecorder producerSide = new PerfRecorder("put");
+        send(standIn, producerSide, 0, 100, 100);
+
+        PerfRecorder consumerSide = new PerfRecorder("get");
+        receive(standIn, consumerSide);
+
+        assertEquals(100, producerSide.getMessages());
+        assertEquals(100, consumerSide.getMessages());
+        assertEquals(100, consumerSide.getLatency().getCount());
+        assertEquals(0, consumerSide.getGaps());
+        assertEquals(0, consumerSide.getDuplicates());
+        assertEquals(0, consumerSide.getOutOfOrder());
+    }
+
+    @Test
+    public void testGapsIncludeMissingTail() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        PerfRecorder producerSide = new PerfRecorder("put");
+        // Messages 10 to 19, and the last 5, are never sent
+        send(standIn, producerSide, 0, 10, 50);
+        send(standIn, producerSide, 20, 45, 50);
+
+        PerfRecorder consumerSide = new PerfRecorder("get");
+        receive(standIn, consumerSide);
+
+        assertEquals(35, consumerSide.getMessages());
+        assertEquals(15, consumerSide.getGaps());
+    }
+
+    @Test
+    public void testDuplicatesAndOutOfOrder() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        PerfRecorder producerSide = new PerfRecorder("put");
+        send(standIn, producerSide, 5, 10, 10);
+        send(standIn, producerSide, 0, 5, 10);
+        send(standIn, producerSide, 8, 10, 10);
+
+        PerfRecorder consumerSide = new PerfRecorder("get");
+        receive(standIn, consumerSide);
+
+        assertEquals(12, consumerSide.getMessages());
+        assertEquals(0, consumerSide.getGaps());
+        assertEquals(2, consumerSide.getDuplicates());
+        assertEquals(5, consumerSide.getOutOfOrder());
+    }
+
+    @Test
+    public void testUnstampedMessagesCountedSeparately() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        try (JMSContext context = standIn.createContext()) {
+            context.createProducer().send(context.createQueue("queue:///" + QUEUE), "plain");
+        }
+
+        PerfRecorder consumerSide = new PerfRecorder("get");
+        receive(standIn, consumerSide);
+
+        assertEquals(1, consumerSide.getMessages());
+        assertEquals(0, consumerSide.getLatency().getCount());
+        assertEquals(1L, consumerSide.getReport().get("unstamped"));
+    }
+
+    @Test
+    public void testJsonReport() throws Exception {
+        PerfRecorder recorder = recorded();
+        Path file = tempFile(".json");
+        recorder.writeReport(file.toString());
+
+        JSONObject json = new JSONObject(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals("get", json.getString("mode"));
+        assertEquals(20, json.getLong("messages"));
+        assertEquals(128, json.getInt("messageSize"));
+        assertEquals(0, json.getLong("gaps"));
+    }
+
+    @Test
+    public void testCsvReportAppendsRows() throws Exception {
+        // The file is empty, so the header is written with the first row
+        Path file = tempFile(".csv");
+        recorded().writeReport(file.toString());
+        recorded().writeReport(file.toString());
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+
+        Map<String, Object> report = recorded().getReport();
+        assertEquals(String.join(",", report.keySet()), lines.get(0));
+        assertTrue(lines.get(1).startsWith("get,"));
+        assertEquals(report.size(), lines.get(2).split(",").length);
+    }
+
+    private static Path tempFile(String suffix) throws IOException {
+        File file = File.createTempFile("perf", suffix);
+        file.deleteOnExit();
+        return file.toPath();
+    }
+
+    private static PerfRecorder recorded() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        send(standIn, new PerfRecorder("put"), 0, 20, 20);
+        PerfRecorder recorder = new PerfRecorder("get").messageSize(128);
+        receive(standIn, recorder);
+        return recorder;
+    }
+
+    private static void send(InMemoryJmsStandIn standIn, PerfRecorder recorder, int from, int to, int count) {
+        try (JMSContext context = standIn.createContext()) {
+            Queue queue = context.createQueue("queue:///" + QUEUE);
+            JMSProducer producer = context.createProducer();
+            for (int i = from; i < to; i++) {
+                recorder.stamp(producer, i, count).send(queue, "message " + i);
+                recorder.sent();
+            }
+        }
+    }
+
+    private static void receive(InMemoryJmsStandIn standIn, PerfRecorder recorder) {
+        try (JMSContext context = standIn.createContext()) {
+            JMSConsumer consumer = context.createConsumer(context.createQueue("queue:///" + QUEUE));
+            Message message;
+            while (null != (message = consumer.receiveNoWait())) {
+                recorder.received(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import javax.jms.DeliveryMode;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.TextMessage;
+
+import org.junit.jupiter.api.Test;
+
+// These tests run against the in-memory stand-in, so do not
+// need a queue manager.
+public class QueueMoverTest {
+    private static final String SOURCE = "DEV.QUEUE.1";
+    private static final String TARGET = "DEV.QUEUE.2";
+
+    @Test
+    public void testAllMessagesMovedInBatches() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        put(standIn, 1050);
+
+        QueueMover mover = mover(standIn::createContext)
+                                .batchSize(100)
+                                .run();
+
+        assertEquals(1050, mover.getMessagesMoved());
+        assertEquals(11, mover.getBatches());
+        assertEquals(11, mover.getBatchLatency().getCount());
+        assertEquals(0, standIn.getDepth(SOURCE));
+        assertEquals(1050, standIn.getDepth(TARGET));
+
+        // With one thread the messages stay in order, and keep their settings
+        JMSContext context = standIn.createContext();
+        JMSConsumer consumer = context.createConsumer(context.createQueue("queue:///" + TARGET));
+        for (int i = 0; i < 3; i++) {
+            TextMessage message = (TextMessage) consumer.receive(1000);
+            assertEquals("message " + i, message.getText());
+            assertEquals(DeliveryMode.NON_PERSISTENT, message.getJMSDeliveryMode());
+            assertEquals(7, message.getJMSPriority());
+        }
+        context.close();
+    }
+
+    @Test
+    public void testSelectorMovesMatchingMessages() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        put(standIn, 100);
+
+        QueueMover mover = mover(standIn::createContext)
+                                .selector("colour = 'red'")
+                                .batchSize(7)
+                                .run();
+
+        assertEquals(50, mover.getMessagesMoved());
+        assertEquals(50, standIn.getDepth(SOURCE));
+        assertEquals(50, standIn.getDepth(TARGET));
+    }
+
+    @Test
+    public void testParallelMoveStopsAtLimit() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        put(standIn, 1000);
+
+        QueueMover mover = mover(standIn::createContext)
+                                .threads(4)
+                                .batchSize(30)
+                                .limit(500)
+                                .run();
+
+        assertEquals(500, mover.getMessagesMoved());
+        assertEquals(500, standIn.getDepth(SOURCE));
+        assertEquals(500, standIn.getDepth(TARGET));
+        assertTrue(mover.getMessagesPerSecond() > 0);
+    }
+
+    @Test
+    public void testFailedBatchRolledBack() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        put(standIn, 300);
+        AtomicInteger sends = new AtomicInteger();
+
+        // The 150th send fails, part way through the second batch
+        QueueMover mover = mover(mode -> failingSends(standIn.createContext(mode), sends, 150))
+                                .batchSize(100)
+                                .run();
+
+        assertEquals(100, mover.getMessagesMoved());
+        assertEquals(1, mover.getRollbacks());
+        assertEquals(100, standIn.getDepth(TARGET));
+        assertEquals(200, standIn.getDepth(SOURCE));
+    }
+
+    @Test
+    public void testRateLimit() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        put(standIn, 50);
+
+        QueueMover mover = mover(standIn::createContext)
+                                .threads(2)
+                                .rate(100)
+                                .run();
+
+        assertEquals(50, mover.getMessagesMoved());
+        // 50 messages at 100 per second takes at least around half a second
+        assertTrue(mover.getElapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(400));
+    }
+
+    private static QueueMover mover(IntFunction<JMSContext> factory) {
+        return new QueueMover(factory, SOURCE, TARGET)
+                        .idleTimeout(100, TimeUnit.MILLISECONDS)
+                        .progressInterval(0, TimeUnit.SECONDS);
+    }
+
+    // Half of the messages are red, the other half blue
+    private static void put(InMemoryJmsStandIn standIn, int count) {
+        try (JMSContext context = standIn.createContext()) {
+            JMSProducer producer = context.createProducer()
+                                        .setDeliveryMode(DeliveryMode.NON_PERSISTENT)
+                                        .setPriority(7);
+            for (int i = 0; i < count; i++) {
+                producer.setProperty("colour", (0 == i % 2) ? "red" : "blue")
+                        .send(context.createQueue("queue:///" + SOURCE), "message " + i);
+            }
+        }
+    }
+
+    // A context whose producers fail the nth send made through any of them
+    private static JMSContext failingSends(JMSContext context, AtomicInteger sends, int failAt) {
+        return (JMSContext) Proxy.newProxyInstance(JMSContext.class.getClassLoader(), new Class<?>[] { JMSContext.class },
+            (proxy, method, args) -> {
+                Object result = invoke(context, method, args);
+                if (!"createProducer".equals(method.getName())) {
+                    return result;
+                }
+                JMSProducer producer = (JMSProducer) result;
+                return Proxy.newProxyInstance(JMSProducer.class.getClassLoader(), new Class<?>[] { JMSProducer.class },
+                    (p, m, a) -> {
+                        if ("send".equals(m.getName()) && failAt == sends.incrementAndGet()) {
+                            throw new JMSRuntimeException("Send failed");
+                        }
+                        Object r = invoke(producer, m, a);
+                        return (r == producer) ? p : r;
+                    });
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.JMSProducer;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import org.junit.jupiter.api.Test;
+
+// These tests run against the in-memory stand-in, so do not
+// need a queue manager.
+public class RequestReplyClientTest {
+    private static final String REQUEST_QUEUE = "DEV.QUEUE.1";
+    private static final String REPLY_QUEUE = "DEV.QUEUE.2";
+
+    @Test
+    public void testPipelinedRequestsAreMatched() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        Thread responder = startResponder(standIn, 50);
+
+        try (RequestReplyClient client = new RequestReplyClient(standIn::createContext,
+                                                                REQUEST_QUEUE, REPLY_QUEUE, 5000)) {
+            List<CompletableFuture<Message>> replies = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                replies.add(client.request("request " + i));
+            }
+            for (int i = 0; i < 50; i++) {
+                TextMessage reply = (TextMessage) replies.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals("reply to request " + i, reply.getText());
+            }
+            assertEquals(0, client.getOutstandingCount());
+            assertEquals(0, client.getUnmatchedReplies());
+        }
+        responder.join(5000);
+    }
+
+    @Test
+    public void testTemporaryReplyQueue() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        Thread responder = startResponder(standIn, 1);
+
+        try (RequestReplyClient client = new RequestReplyClient(standIn::createContext,
+                                                                REQUEST_QUEUE, null, 5000)) {
+            TextMessage reply = (TextMessage) client.request("only").get(5, TimeUnit.SECONDS);
+            assertEquals("reply to only", reply.getText());
+        }
+        responder.join(5000);
+    }
+
+    @Test
+    public void testRequestTimesOut() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+
+        try (RequestReplyClient client = new RequestReplyClient(standIn::createContext,
+                                                                REQUEST_QUEUE, REPLY_QUEUE, 5000)) {
+            CompletableFuture<Message> reply = client.request("nobody is listening", 100);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> reply.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof TimeoutException);
+            assertEquals(0, client.getOutstandingCount());
+        }
+    }
+
+    @Test
+    public void testClientReconnectsAfterOutage() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        System.setProperty(ResilientConnection.RECONNECT_INITIAL_DELAY, "10");
+        System.setProperty(ResilientConnection.RECONNECT_MAX_DELAY, "50");
+        try (RequestReplyClient client = new RequestReplyClient(standIn::createContext,
+                                                                REQUEST_QUEUE, REPLY_QUEUE, 5000)) {
+            // Breaks the connections the client has already made
+            standIn.setAvailable(false);
+            standIn.setAvailable(true);
+
+            Thread responder = startResponder(standIn, 1);
+            TextMessage reply = (TextMessage) client.request("after the outage").get(5, TimeUnit.SECONDS);
+            assertEquals("reply to after the outage", reply.getText());
+            assertEquals(2, client.getReconnects());
+            responder.join(5000);
+        } finally {
+            System.clearProperty(ResilientConnection.RECONNECT_INITIAL_DELAY);
+            System.clearProperty(ResilientConnection.RECONNECT_MAX_DELAY);
+        }
+    }
+
+    // Echoes each request back to its reply to queue, with the
+    // correlation id copied across as the responder samples do
+    private static Thread startResponder(InMemoryJmsStandIn standIn, int count) {
+        Thread t = new Thread(() -> {
+            JMSContext context = standIn.createContext();
+            JMSConsumer consumer = context.createConsumer(context.createQueue("queue:///" + REQUEST_QUEUE));
+            JMSProducer producer = context.createProducer();
+            try {
+                for (int i = 0; i < count; i++) {
+                    TextMessage request = (TextMessage) consumer.receive(5000);
+                    TextMessage reply = context.createTextMessage("reply to " + request.getText());
+                    reply.setJMSCorrelationID(request.getJMSCorrelationID());
+                    producer.send(request.getJMSReplyTo(), reply);
+                }
+            } catch (JMSException e) {
+                // The waiting requests will time out and fail the test
+                e.printStackTrace();
+            } finally {
+                context.close();
+            }
+        });
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+// The expected strings are those produced by org.json's JSONObject,
+// which the codec replaces.
+public class RequestResponseCodecTest {
+
+    @Test
+    public void testDefaultRequest() {
+        assertEquals("{\"requestmode\":\"DEFAULT\",\"message\":\"The number is:\",\"value\":42}",
+                     RequestResponseHelper.buildStringForRequest("DEFAULT", 42));
+        assertEquals("{\"requestmode\":\"DEFAULT\",\"message\":\"The number is:\",\"value\":7}",
+                     RequestResponseHelper.buildStringForRequest(null, 7));
+        assertEquals("{\"requestmode\":\"DEFAULT\",\"message\":\"The number is:\",\"value\":7}",
+                     RequestResponseHelper.buildStringForRequest("unknown", 7));
+    }
+
+    @Test
+    public void testRewardsRequest() {
+        String request = RequestResponseHelper.buildStringForRequest("REWARDS", 15);
+        assertTrue(request.matches("\\{\"award\":15,\"customerID\":\"[0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-"
+                                       + "[89ab][0-9a-f]{3}-[0-9a-f]{12}\",\"requestmode\":\"REWARDS\"\\}"),
+                   request);
+    }
+
+    @Test
+    public void testDefaultResponse() {
+        String request = RequestResponseHelper.buildStringForRequest("DEFAULT", 12);
+        assertEquals("{\"message\":\"The number is:\",\"value\":144}",
+                     RequestResponseHelper.buildStringForResponse(request));
+    }
+
+    @Test
+    public void testRewardsResponse() {
+        String request = "{\"award\":15,\"customerID\":\"abc-123\",\"requestmode\":\"REWARDS\"}";
+        assertEquals("{\"customerID\":\"abc-123\",\"message\":\"Awards successfully deposited in customer account\",\"credit\":15}",
+                     RequestResponseHelper.buildStringForResponse(request));
+    }
+
+    @Test
+    public void testFieldOrderWhitespaceAndUnknownFields() {
+        String request = " { \"extra\" : { \"nested\" : [1, \"}\", {\"value\": 3}] } ,"
+                             + " \"requestmode\" : \"REWARDS\" , \"customerID\" : \"a\\\"b</c\\u00e9\" ,"
+                             + " \"award\" : \"25\" } ";
+        assertEquals("{\"customerID\":\"a\\\"b<\\/c\u00e9\",\"message\":\"Awards successfully deposited in customer account\",\"credit\":25}",
+                     RequestResponseHelper.buildStringForResponse(request));
+    }
+
+    @Test
+    public void testNumberFormats() {
+        assertEquals("{\"message\":\"The number is:\",\"value\":9}",
+                     RequestResponseHelper.buildStringForResponse("{\"value\":-3}"));
+        assertEquals("{\"message\":\"The number is:\",\"value\":4}",
+                     RequestResponseHelper.buildStringForResponse("{\"value\":2.9}"));
+        assertEquals("{\"message\":\"The number is:\",\"value\":0}",
+                     RequestResponseHelper.buildStringForResponse("{\"value\":true}"));
+        assertEquals("{\"message\":\"The number is:\",\"value\":0}",
+                     RequestResponseHelper.buildStringForResponse("{}"));
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        assertThrows(IllegalArgumentException.class, () -> RequestResponseHelper.buildStringForResponse("not json"));
+        assertThrows(IllegalArgumentException.class, () -> RequestResponseHelper.buildStringForResponse("{\"value\":\"1}"));
+        assertThrows(IllegalArgumentException.class, () -> RequestResponseHelper.buildStringForResponse(null));
+    }
+
+    @Test
+    public void testWriteIntoCallersBuilder() {
+        RequestResponseCodec codec = new RequestResponseCodec();
+        StringBuilder sb = new StringBuilder("prefix:");
+        codec.writeResponse("{\"requestmode\":\"DEFAULT\",\"value\":5}", sb);
+        assertEquals("prefix:{\"message\":\"The number is:\",\"value\":25}", sb.toString());
+    }
+}
@@ -0,0 +1,262 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.constants.MQConstants;
+
+import org.junit.jupiter.api.Test;
+
+// These tests run against the in-memory stand-in, with outages made by
+// setAvailable, so do not need a queue manager.
+public class ResilientConnectionTest {
+    private static final String QUEUE = "queue:///DEV.QUEUE.1";
+
+    @Test
+    public void testConsumerSurvivesOutage() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ResilientConnection connection = new ResilientConnection("test", standIn::createContext)
+                                                .backoff(10, 50)
+                                                .circuitBreaker(1000, 1000);
+        ResilientConnection.Resource<JMSConsumer> consumer = connection.resource(c -> c.createConsumer(c.createQueue(QUEUE)));
+
+        send(standIn, "before");
+        assertEquals("before", text(connection.execute(c -> consumer.get().receive(1000))));
+
+        standIn.setAvailable(false);
+        restoreLater(standIn, 100, "after");
+        assertEquals("after", text(connection.execute(c -> consumer.get().receive(1000))));
+
+        assertEquals(1, connection.getReconnects());
+        assertTrue(0 < connection.getFailures());
+        assertEquals(CircuitBreaker.State.CLOSED, connection.getCircuitBreaker().getState());
+        connection.close();
+    }
+
+    @Test
+    public void testBreakerOpensAndFailsFast() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn().setAvailable(false);
+        ResilientConnection connection = new ResilientConnection("test", standIn::createContext)
+                                                .backoff(1, 5)
+                                                .circuitBreaker(3, 60000);
+
+        JMSRuntimeException ex = assertThrows(ResilientConnection.CircuitOpenException.class,
+                                              () -> connection.execute(c -> c.createQueue(QUEUE)));
+        assertEquals(MQConstants.MQRC_Q_MGR_NOT_AVAILABLE, StatusChecker.getReason(ex));
+        assertEquals(3, connection.getFailures());
+
+        // Refused straight away, without trying the endpoint
+        long start = System.nanoTime();
+        assertThrows(ResilientConnection.CircuitOpenException.class, () -> connection.execute(c -> c.createQueue(QUEUE)));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(3, connection.getFailures());
+        assertEquals(1, connection.getCircuitBreaker().getTimesOpened());
+    }
+
+    @Test
+    public void testWaitWhenOpenRecovers() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn().setAvailable(false);
+        ResilientConnection connection = new ResilientConnection("test", standIn::createContext)
+                                                .backoff(1, 5)
+                                                .circuitBreaker(1, 50)
+                                                .waitWhenOpen(true);
+        ResilientConnection.Resource<JMSConsumer> consumer = connection.resource(c -> c.createConsumer(c.createQueue(QUEUE)));
+
+        restoreLater(standIn, 200, "after");
+        assertEquals("after", text(connection.execute(c -> consumer.get().receive(1000))));
+
+        assertTrue(1 <= connection.getCircuitBreaker().getTimesOpened());
+        assertEquals(CircuitBreaker.State.CLOSED, connection.getCircuitBreaker().getState());
+        connection.close();
+    }
+
+    @Test
+    public void testFatalFailureNotRetried() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ResilientConnection connection = new ResilientConnection("test", standIn::createContext)
+                                                .backoff(1, 5);
+        AtomicInteger calls = new AtomicInteger();
+
+        JMSRuntimeException ex = assertThrows(JMSRuntimeException.class, () -> connection.execute(c -> {
+            calls.incrementAndGet();
+            throw failure(MQConstants.MQRC_NOT_AUTHORIZED);
+        }));
+        assertEquals(MQConstants.MQRC_NOT_AUTHORIZED, StatusChecker.getReason(ex));
+        assertEquals(1, calls.get());
+        assertEquals(0, connection.getFailures());
+        connection.close();
+    }
+
+    @Test
+    public void testTransientFailureRetriedOnSameContext() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        ResilientConnection connection = new ResilientConnection("test", standIn::createContext)
+                                                .backoff(1, 5);
+        AtomicInteger calls = new AtomicInteger();
+        List<JMSContext> contexts = new ArrayList<>();
+
+        connection.execute(c -> {
+            contexts.add(c);
+            if (3 > calls.incrementAndGet()) {
+                throw failure(MQConstants.MQRC_Q_FULL);
+            }
+            return null;
+        });
+        assertEquals(3, calls.get());
+        assertSame(contexts.get(0), contexts.get(2));
+        assertEquals(1, standIn.getConnectionCount());
+        assertEquals(0, connection.getFailures());
+        assertEquals(0, connection.getReconnects());
+
+        // Gives up in the end, still without reconnecting
+        calls.set(0);
+        JMSRuntimeException ex = assertThrows(JMSRuntimeException.class, () -> connection.execute(c -> {
+            calls.incrementAndGet();
+            throw failure(MQConstants.MQRC_Q_FULL);
+        }));
+        assertEquals(MQConstants.MQRC_Q_FULL, StatusChecker.getReason(ex));
+        assertEquals(5, calls.get());
+        assertEquals(1, standIn.getConnectionCount());
+        connection.close();
+    }
+
+    @Test
+    public void testCloseEndsBackoff() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn().setAvailable(false);
+        ResilientConnection connection = new ResilientConnection("test", standIn::createContext)
+                                                .backoff(60000, 60000);
+
+        Thread closer = new Thread(() -> {
+            sleep(100);
+            connection.close();
+        });
+        closer.start();
+
+        long start = System.nanoTime();
+        JMSRuntimeException ex = assertThrows(JMSRuntimeException.class, () -> connection.execute(c -> c.createQueue(QUEUE)));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+        assertEquals(MQConstants.MQRC_Q_MGR_NOT_AVAILABLE, StatusChecker.getReason(ex));
+        closer.join();
+    }
+
+    @Test
+    public void testBackoffGrowsWithinBounds() {
+        Backoff backoff = new Backoff(100, 1000);
+        long ceiling = 100;
+        for (int i = 0; i < 10; i++) {
+            long delay = backoff.nextDelay();
+            assertTrue(ceiling / 2 <= delay && delay <= ceiling, "delay " + delay + " ceiling " + ceiling);
+            ceiling = Math.min(1000, ceiling * 2);
+        }
+        assertEquals(10, backoff.getAttempts());
+
+        backoff.reset();
+        assertTrue(100 >= backoff.nextDelay());
+    }
+
+    @Test
+    public void testHalfOpenTrialWithoutOutcomeExpires() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 50, TimeUnit.MILLISECONDS);
+        assertTrue(breaker.allowRequest());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        Thread.sleep(80);
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // Only one trial at a time
+        assertFalse(breaker.allowRequest());
+
+        // The trial's outcome was never recorded, so another is let through
+        Thread.sleep(80);
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getConsecutiveFailures());
+    }
+
+    @Test
+    public void testReasonCodeClassification() {
+        assertTrue(StatusChecker.isRetryable(MQConstants.MQRC_CONNECTION_BROKEN));
+        assertTrue(StatusChecker.isRetryable(MQConstants.MQRC_Q_MGR_QUIESCING));
+        // Not connection faults, so don't need a new connection
+        assertFalse(StatusChecker.isRetryable(MQConstants.MQRC_Q_FULL));
+        assertFalse(StatusChecker.isRetryable(MQConstants.MQRC_BACKED_OUT));
+        assertTrue(StatusChecker.isTransient(MQConstants.MQRC_Q_FULL));
+        assertTrue(StatusChecker.isTransient(MQConstants.MQRC_BACKED_OUT));
+        assertFalse(StatusChecker.isTransient(MQConstants.MQRC_CONNECTION_BROKEN));
+        assertFalse(StatusChecker.isRetryable(MQConstants.MQRC_NOT_AUTHORIZED));
+        assertFalse(StatusChecker.isRetryable(MQConstants.MQRC_UNKNOWN_OBJECT_NAME));
+
+        // Found however deeply the MQException is nested
+        JMSRuntimeException nested = new JMSRuntimeException("outer", null, failure(MQConstants.MQRC_HOST_NOT_AVAILABLE));
+        assertEquals(MQConstants.MQRC_HOST_NOT_AVAILABLE, StatusChecker.getReason(nested));
+        assertTrue(StatusChecker.isRetryable(nested));
+        assertEquals(0, StatusChecker.getReason(new JMSRuntimeException("no reason")));
+        assertFalse(StatusChecker.isRetryable(new JMSRuntimeException("no reason")));
+    }
+
+    private static JMSRuntimeException failure(int reason) {
+        return new JMSRuntimeException("failed", String.valueOf(reason),
+                                       new MQException(MQConstants.MQCC_FAILED, reason, null));
+    }
+
+    // Ends the outage after a while, and sends a message once it has
+    private static void restoreLater(InMemoryJmsStandIn standIn, long delay, String text) {
+        new Thread(() -> {
+            sleep(delay);
+            standIn.setAvailable(true);
+            send(standIn, text);
+        }).start();
+    }
+
+    private static void send(InMemoryJmsStandIn standIn, String text) {
+        JMSContext context = standIn.createContext();
+        context.createProducer().send(context.createQueue(QUEUE), text);
+        context.close();
+    }
+
+    private static String text(Message message) {
+        try {
+            return ((TextMessage) message).getText();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.jms.Destination;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
+import javax.jms.JMSProducer;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.constants.MQConstants;
+
+import org.junit.jupiter.api.Test;
+
+// These tests run against the in-memory stand-in, so do not
+// need a queue manager.
+public class ResponderEngineTest {
+    private static final String REQUEST_QUEUE = "DEV.QUEUE.1";
+    private static final String REPLY_QUEUE = "DEV.QUEUE.2";
+    private static final String BACKOUT_QUEUE = "DEV.QUEUE.3";
+
+    @Test
+    public void testAllRequestsRepliedToAcrossWorkers() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        sendRequests(standIn, 200, true);
+
+        ResponderEngine engine = new ResponderEngine(standIn::createContext, REQUEST_QUEUE)
+                                        .workers(4)
+                                        .replyBuilder(request -> "reply to " + request)
+                                        .inactivityTimeout(200, TimeUnit.MILLISECONDS)
+                                        .run();
+
+        assertEquals(200, engine.getReplies());
+        assertEquals(0, engine.getFailures());
+        assertEquals(0, standIn.getDepth(REQUEST_QUEUE));
+        assertEquals(200, standIn.getDepth(REPLY_QUEUE));
+
+        JMSContext context = standIn.createContext();
+        JMSConsumer consumer = context.createConsumer(context.createQueue("queue:///" + REPLY_QUEUE));
+        TextMessage reply = (TextMessage) consumer.receive(1000);
+        assertTrue(reply.getText().startsWith("reply to request "));
+        assertNotNull(reply.getJMSCorrelationID());
+        context.close();
+    }
+
+    @Test
+    public void testRepliesCommittedInBatches() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        sendRequests(standIn, 100, true);
+
+        ResponderEngine engine = new ResponderEngine(standIn::createContext, REQUEST_QUEUE)
+                                        .batchSize(25)
+                                        .replyBuilder(request -> "reply")
+                                        .inactivityTimeout(200, TimeUnit.MILLISECONDS)
+                                        .run();
+
+        assertEquals(100, engine.getReplies());
+        assertEquals(4, engine.getCommitLatency().getCount());
+        assertEquals(100, standIn.getDepth(REPLY_QUEUE));
+    }
+
+    @Test
+    public void testShutdownCommitsBatchInProgress() throws Exception {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        sendRequests(standIn, 10, true);
+
+        // The batch can neither fill nor time out, so only the drain commits it
+        ResponderEngine engine = new ResponderEngine(standIn::createContext, REQUEST_QUEUE)
+                                        .workers(2)
+                                        .batchSize(1000)
+                                        .batchInterval(1, TimeUnit.HOURS)
+                                        .replyBuilder(request -> "reply")
+                                        .start();
+        Thread.sleep(200);
+        engine.shutdown();
+        engine.awaitTermination();
+
+        assertEquals(10, engine.getReplies());
+        assertEquals(10, standIn.getDepth(REPLY_QUEUE));
+    }
+
+    @Test
+    public void testPoisonRequestIsBackedOut() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        sendRequests(standIn, 1, true);
+
+        // Every reply fails, so the request is retried until the threshold
+        ResponderEngine engine = new ResponderEngine(standIn::createContext, REQUEST_QUEUE)
+                                        .backout(BACKOUT_QUEUE, 3)
+                                        .replyBuilder(request -> {
+                                            throw new IllegalStateException("cannot reply");
+                                        })
+                                        .inactivityTimeout(200, TimeUnit.MILLISECONDS)
+                                        .run();
+
+        assertEquals(2, engine.getRolledBack());
+        assertEquals(1, engine.getBackedOut());
+        assertEquals(0, standIn.getDepth(REQUEST_QUEUE));
+        assertEquals(1, standIn.getDepth(BACKOUT_QUEUE));
+        assertEquals(1, ((QueueBackoutHandler) engine.getBackoutHandler()).getMoved());
+    }
+
+    @Test
+    public void testMissingReplyQueueBackedOutWithoutRetry() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        // Without a reply to queue a retry can never succeed
+        sendRequests(standIn, 5, false);
+
+        ResponderEngine engine = new ResponderEngine(standIn::createContext, REQUEST_QUEUE)
+                                        .backout(BACKOUT_QUEUE, 3)
+                                        .replyBuilder(request -> "reply")
+                                        .inactivityTimeout(200, TimeUnit.MILLISECONDS)
+                                        .run();
+
+        assertEquals(0, engine.getRolledBack());
+        assertEquals(5, engine.getBackedOut());
+        assertEquals(0, standIn.getDepth(REQUEST_QUEUE));
+        assertEquals(5, standIn.getDepth(BACKOUT_QUEUE));
+    }
+
+    @Test
+    public void testCustomBackoutHandler() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        sendRequests(standIn, 3, false);
+        AtomicInteger permanent = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+
+        // Takes poison requests off the queue without moving them
+        BackoutHandler handler = new BackoutHandler() {
+            @Override
+            public boolean isPoison(Message request, boolean isPermanent) {
+                if (isPermanent) {
+                    permanent.incrementAndGet();
+                }
+                return isPermanent;
+            }
+
+            @Override
+            public boolean backout(JMSContext context, Message request) {
+                return true;
+            }
+
+            @Override
+            public void release(JMSContext context) {
+                released.incrementAndGet();
+            }
+        };
+
+        ResponderEngine engine = new ResponderEngine(standIn::createContext, REQUEST_QUEUE)
+                                        .workers(2)
+                                        .backoutHandler(handler)
+                                        .inactivityTimeout(200, TimeUnit.MILLISECONDS)
+                                        .run();
+
+        assertEquals(3, permanent.get());
+        assertEquals(3, engine.getBackedOut());
+        assertEquals(2, released.get());
+        assertEquals(0, standIn.getDepth(REQUEST_QUEUE));
+        assertEquals(0, standIn.getDepth(BACKOUT_QUEUE));
+    }
+
+    @Test
+    public void testNoBackoutQueueDiscards() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        sendRequests(standIn, 2, false);
+
+        ResponderEngine engine = new ResponderEngine(standIn::createContext, REQUEST_QUEUE)
+                                        .backout(null, 3)
+                                        .inactivityTimeout(200, TimeUnit.MILLISECONDS)
+                                        .run();
+
+        assertEquals(2, engine.getBackedOut());
+        assertEquals(2, ((QueueBackoutHandler) engine.getBackoutHandler()).getDiscarded());
+        assertEquals(0, standIn.getDepth(REQUEST_QUEUE));
+    }
+
+    @Test
+    public void testWorkerReconnectsAfterConnectionFailures() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        sendRequests(standIn, 20, true);
+        AtomicInteger connects = new AtomicInteger();
+        AtomicInteger receives = new AtomicInteger();
+
+        // The first connect fails, then the fifth receive, which is on the second context
+        ResponderEngine engine = withQuickReconnects(() -> new ResponderEngine(mode -> {
+                                            if (1 == connects.incrementAndGet()) {
+                                                throw failure(MQConstants.MQRC_Q_MGR_NOT_AVAILABLE);
+                                            }
+                                            return failingReceive(standIn.createContext(mode), receives, 5,
+                                                                  MQConstants.MQRC_CONNECTION_BROKEN);
+                                        }, REQUEST_QUEUE)
+                                        .replyBuilder(request -> "reply")
+                                        .inactivityTimeout(1, TimeUnit.SECONDS)
+                                        .run());
+
+        assertEquals(3, connects.get());
+        assertEquals(2, engine.getReconnects());
+        assertEquals(0, engine.getFailures());
+        assertEquals(20, engine.getReplies());
+        assertEquals(0, standIn.getDepth(REQUEST_QUEUE));
+        assertEquals(20, standIn.getDepth(REPLY_QUEUE));
+    }
+
+    @Test
+    public void testWorkerKeepsRunningAfterOtherFailures() {
+        InMemoryJmsStandIn standIn = new InMemoryJmsStandIn();
+        sendRequests(standIn, 5, true);
+        AtomicInteger receives = new AtomicInteger();
+
+        // A failure that a reconnect won't fix is tried again on the same context
+        ResponderEngine engine = new ResponderEngine(mode -> failingReceive(standIn.createContext(mode), receives, 2,
+                                                                            MQConstants.MQRC_NOT_AUTHORIZED),
+                                                     REQUEST_QUEUE)
+                                        .replyBuilder(request -> "reply")
+                                        .inactivityTimeout(1, TimeUnit.SECONDS)
+                                        .run();
+
+        assertEquals(1, engine.getFailures());
+        assertEquals(0, engine.getReconnects());
+        assertEquals(5, engine.getReplies());
+        assertEquals(5, standIn.getDepth(REPLY_QUEUE));
+    }
+
+    private static <T> T withQuickReconnects(Supplier<T> test) {
+        System.setProperty(ResilientConnection.RECONNECT_INITIAL_DELAY, "10");
+        System.setProperty(ResilientConnection.RECONNECT_MAX_DELAY, "50");
+        try {
+            return test.get();
+        } finally {
+            System.clearProperty(ResilientConnection.RECONNECT_INITIAL_DELAY);
+            System.clearProperty(ResilientConnection.RECONNECT_MAX_DELAY);
+        }
+    }
+
+    private static JMSRuntimeException failure(int reason) {
+        return new JMSRuntimeException("failed", String.valueOf(reason),
+                                       new MQException(MQConstants.MQCC_FAILED, reason, null));
+    }
+
+    // A context whose consumers fail the nth receive made through any of them
+    private static JMSContext failingReceive(JMSContext context, AtomicInteger receives, int failAt, int reason) {
+        return (JMSContext) Proxy.newProxyInstance(JMSContext.class.getClassLoader(), new Class<?>[] { JMSContext.class },
+            (proxy, method, args) -> {
+                Object result = invoke(context, method, args);
+                if (!"createConsumer".equals(method.getName())) {
+                    return result;
+                }
+                JMSConsumer consumer = (JMSConsumer) result;
+                return Proxy.newProxyInstance(JMSConsumer.class.getClassLoader(), new Class<?>[] { JMSConsumer.class },
+                    (p, m, a) -> {
+                        if (m.getName().startsWith("receive") && failAt == receives.incrementAndGet()) {
+                            throw failure(reason);
+                        }
+                        return invoke(consumer, m, a);
+                    });
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void sendRequests(InMemoryJmsStandIn standIn, int count, boolean withReplyTo) {
+        JMSContext context = standIn.createContext();
+        Destination requestQueue = context.createQueue("queue:///" + REQUEST_QUEUE);
+        JMSProducer producer = context.createProducer();
+        if (withReplyTo) {
+            producer.setJMSReplyTo(context.createQueue("queue:///" + REPLY_QUEUE));
+        }
+        for (int i = 0; i < count; i++) {
+            producer.setJMSCorrelationID("ID:" + i).send(requestQueue, "request " + i);
+        }
+        context.close();
+    }
+}
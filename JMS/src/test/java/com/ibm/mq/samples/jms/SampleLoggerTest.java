@@ -0,0 +1,202 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.*;
+
+import org.junit.jupiter.api.Test;
+
+public class SampleLoggerTest {
+    private static final String ENV = "{\"LOGGING\":{\"LEVEL\":\"FINE\",\"SAMPLE_RATE\":10,"
+                                        + "\"LEVELS\":{\"SampleLoggerTest\":\"WARNING\"}}}";
+
+    @Test
+    public void testMessagesOnlyBuiltWhenEnabled() {
+        SampleLogger log = SampleLogger.getLogger(SampleLoggerTest.class);
+        TestLogHandler handler = attach(log, Level.WARNING);
+        AtomicInteger built = new AtomicInteger();
+        try {
+            log.fine(() -> "fine " + built.incrementAndGet());
+            log.perMessage(Level.INFO, () -> "info " + built.incrementAndGet());
+            assertFalse(log.sample(Level.INFO));
+            assertEquals(0, built.get());
+
+            log.log(Level.WARNING, () -> "warning " + built.incrementAndGet());
+            log.log(Level.WARNING, "Received {0} bytes", 42);
+            assertEquals(1, built.get());
+            assertEquals("warning 1\nReceived {0} bytes\n", handler.getLogs());
+        } finally {
+            detach(log, handler);
+        }
+    }
+
+    @Test
+    public void testEnvConfigLevelsAndSampling() throws IOException {
+        Logger samples = Logger.getLogger("com.ibm.mq.samples.jms.test");
+        SampleLogger log = SampleLogger.getLogger(SampleLoggerTest.class);
+        EnvConfig config = EnvConfig.load(write(ENV));
+        assertEquals("FINE", config.getLoggingValue("LEVEL"));
+        assertEquals("WARNING", config.getLogLevels().get("SampleLoggerTest"));
+
+        LoggingHelper.init(samples, config);
+        try {
+            assertEquals(Level.FINE, samples.getLevel());
+            assertEquals(10, LoggingHelper.getSampleRate());
+            assertEquals(Level.WARNING, log.getLogger().getLevel());
+
+            TestLogHandler handler = attach(log, null);
+            AtomicInteger built = new AtomicInteger();
+            for (int i = 0; i < 100; i++) {
+                log.perMessage(Level.WARNING, () -> "message " + built.incrementAndGet());
+            }
+            // 1 in every 10 is built and written
+            assertEquals(10, built.get());
+            assertEquals(10, handler.getLogs().split("\n").length);
+            detach(log, handler);
+
+            // System properties take precedence over env.json
+            System.setProperty(LoggingHelper.LOG_SAMPLE_RATE, "1");
+            LoggingHelper.init(samples, config);
+            assertEquals(1, LoggingHelper.getSampleRate());
+        } finally {
+            System.clearProperty(LoggingHelper.LOG_SAMPLE_RATE);
+            LoggingHelper.init(samples, EnvConfig.load(null));
+            log.getLogger().setLevel(null);
+        }
+        assertEquals(1, LoggingHelper.getSampleRate());
+        assertEquals(Level.ALL, samples.getLevel());
+    }
+
+    @Test
+    public void testHandlerAllowsMostVerboseLevel() throws IOException {
+        Logger samples = Logger.getLogger("com.ibm.mq.samples.jms.test");
+        Logger detail = Logger.getLogger("com.ibm.mq.samples.jms.test.Detail");
+        EnvConfig config = EnvConfig.load(write("{\"LOGGING\":{\"LEVEL\":\"INFO\","
+                                                + "\"LEVELS\":{\"com.ibm.mq.samples.jms.test.Detail\":\"FINE\"}}}"));
+
+        LoggingHelper.init(samples, config);
+        try {
+            assertEquals(Level.INFO, samples.getLevel());
+            assertEquals(Level.FINE, detail.getLevel());
+            Handler console = samples.getHandlers()[samples.getHandlers().length - 1];
+            // The FINE records of the class get through the handler, the
+            // samples as a whole still only log INFO
+            assertEquals(Level.FINE, console.getLevel());
+            assertTrue(detail.isLoggable(Level.FINE));
+            assertFalse(samples.isLoggable(Level.FINE));
+        } finally {
+            LoggingHelper.init(samples, EnvConfig.load(null));
+            detail.setLevel(null);
+        }
+    }
+
+    @Test
+    public void testAsyncHandlerWritesInOrder() {
+        TestLogHandler target = new TestLogHandler();
+        AsyncLogHandler handler = new AsyncLogHandler(target, 100);
+        for (int i = 0; i < 50; i++) {
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+        }
+        // The TestLogHandler clears its logs on flush, so wait on the count
+        long deadline = System.currentTimeMillis() + 5000;
+        while (handler.getWritten() < 50 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertEquals(50, handler.getWritten());
+        assertTrue(target.getLogs().startsWith("record 0\nrecord 1\n"));
+        assertTrue(target.getLogs().endsWith("record 49\n"));
+        assertEquals(0, handler.getDropped());
+        handler.close();
+    }
+
+    @Test
+    public void testAsyncHandlerDropsWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        StringBuilder written = new StringBuilder();
+        Handler slow = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (written) {
+                    written.append(record.getMessage()).append("\n");
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncLogHandler handler = new AsyncLogHandler(slow, 2);
+        // The writer takes the first record then waits in the slow handler,
+        // leaving room for two more
+        handler.publish(new LogRecord(Level.INFO, "first"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (handler.getDropped() == 0 && System.currentTimeMillis() < deadline) {
+            handler.publish(new LogRecord(Level.INFO, "more"));
+        }
+        assertTrue(handler.getDropped() > 0);
+
+        release.countDown();
+        handler.flush();
+        handler.publish(new LogRecord(Level.INFO, "last"));
+        handler.close();
+        synchronized (written) {
+            assertTrue(written.toString().contains("log records dropped"));
+            assertTrue(written.toString().endsWith("last\n"));
+        }
+    }
+
+    private static TestLogHandler attach(SampleLogger log, Level level) {
+        TestLogHandler handler = new TestLogHandler();
+        log.getLogger().setUseParentHandlers(false);
+        log.getLogger().addHandler(handler);
+        if (null != level) {
+            log.getLogger().setLevel(level);
+        }
+        return handler;
+    }
+
+    private static void detach(SampleLogger log, TestLogHandler handler) {
+        log.getLogger().removeHandler(handler);
+        log.getLogger().setUseParentHandlers(true);
+        log.getLogger().setLevel(null);
+    }
+
+    private static File write(String content) throws IOException {
+        File file = File.createTempFile("env", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+* (c) Copyright IBM Corporation 2026
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+package com.ibm.mq.samples.jms;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Use these imports for building with JMS
+import javax.jms.JMSException;
+
+// Use these imports for building with Jakarta Messaging
+// import jakarta.jms.JMSException;
+
+import org.junit.jupiter.api.Test;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.constants.MQConstants;
+
+public class SampleMetricsTest {
+
+    @Test
+    public void testDisabledRecordsNothing() {
+        SampleMetrics metrics = new SampleMetrics(false);
+        long start = metrics.start();
+        assertEquals(0, start);
+
+        metrics.sent(start);
+        metrics.received(start, true);
+        metrics.processed(start);
+        metrics.committed(start);
+        metrics.rolledBack();
+        metrics.reconnected();
+        metrics.failed();
+
+        assertEquals(0, metrics.getMessagesSent());
+        assertEquals(0, metrics.getMessagesReceived());
+        assertEquals(0, metrics.getRollbacks());
+        assertEquals(0, metrics.getErrors());
+        assertEquals(0, metrics.getSendTime().getCount());
+    }
+
+    @Test
+    public void testCountersAndHistograms() throws InterruptedException {
+        SampleMetrics metrics = new SampleMetrics(true);
+        for (int i = 0; i < 10; i++) {
+            metrics.sent(metrics.start());
+        }
+        long start = metrics.start();
+        Thread.sleep(5);
+        metrics.received(start, true);
+        metrics.received(metrics.start(), false);
+        metrics.processed(metrics.start());
+        metrics.committed(metrics.start());
+        metrics.rolledBack();
+
+        assertEquals(10, metrics.getMessagesSent());
+        assertEquals(10, metrics.getSendTime().getCount());
+        assertEquals(1, metrics.getMessagesReceived());
+        // Both receives are timed, only one returned a message
+        assertEquals(2, metrics.getReceiveWait().getCount());
+        assertTrue(metrics.getReceiveWait().getMaxNanos() >= 5_000_000);
+        assertEquals(1, metrics.getProcessingTime().getCount());
+        assertEquals(1, metrics.getCommitTime().getCount());
+        assertEquals(1, metrics.getRollbacks());
+        assertTrue(metrics.getSummary().startsWith("Metrics sent 10 received 1 rollbacks 1 reconnects 0 errors 0"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getMessagesSent());
+        assertEquals(0, metrics.getReceiveWait().getCount());
+    }
+
+    @Test
+    public void testReconnectsCountedFromExceptionListener() {
+        SampleMetrics metrics = new SampleMetrics(true);
+        metrics.onException(linked(MQConstants.MQRC_RECONNECTING));
+        metrics.onException(linked(MQConstants.MQRC_RECONNECTED));
+        metrics.onException(linked(MQConstants.MQRC_CONNECTION_BROKEN));
+        metrics.onException(new JMSException("no linked exception"));
+
+        assertEquals(1, metrics.getReconnects());
+        assertEquals(2, metrics.getErrors());
+    }
+
+    @Test
+    public void testPrometheusFormat() {
+        SampleMetrics metrics = new SampleMetrics(true);
+        metrics.sent(metrics.start());
+        metrics.rolledBack();
+        String text = metrics.toPrometheus();
+
+        assertTrue(text.contains("# TYPE mq_sample_messages_sent_total counter\nmq_sample_messages_sent_total 1\n"));
+        assertTrue(text.contains("mq_sample_rollbacks_total 1\n"));
+        assertTrue(text.contains("# TYPE mq_sample_send_seconds summary\n"));
+        assertTrue(text.contains("mq_sample_send_seconds{quantile=\"0.99\"} "));
+        assertTrue(text.contains("mq_sample_send_seconds_count 1\n"));
+        assertTrue(text.contains("mq_sample_commit_seconds_count 0\n"));
+    }
+
+    @Test
+    public void testPublishedThroughJmxAndEndpoint() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        SampleMetrics metrics = new SampleMetrics(true).publish(0, port);
+        try {
+            metrics.sent(metrics.start());
+            metrics.sent(metrics.start());
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(SampleMetrics.OBJECT_NAME);
+            assertEquals(2L, server.getAttribute(name, "MessagesSent"));
+
+            assertEquals(port, metrics.getPort());
+            String body = get("http://localhost:" + port + "/metrics");
+            assertTrue(body.contains("mq_sample_messages_sent_total 2\n"));
+        } finally {
+            metrics.close();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer()
+                                     .isRegistered(new ObjectName(SampleMetrics.OBJECT_NAME)));
+        assertEquals(0, metrics.getPort());
+    }
+
+    private static JMSException linked(int reason) {
+        JMSException e = new JMSException("reason " + reason);
+        e.setLinkedException(new MQException(MQConstants.MQCC_FAILED, reason, null));
+        return e;
+    }
+
+    private static String get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while (-1 != (n = in.read(buffer))) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
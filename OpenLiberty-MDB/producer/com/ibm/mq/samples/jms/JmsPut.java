@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2019
+* (c) Copyright IBM Corporation 2019, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -56,25 +56,29 @@ public class JmsPut {
         mqConnectionVariables();
         logger.info("Put application is starting");
         String msg = "This is the message from the producer!";
-        for (String queue : QUEUES) {
-            sendMessage(queue,msg);
-        }
-
-    
-    }
-
-    private static void sendMessage(String queue, String msg) {
-        JMSContext context = null;
-        Destination destination = null;
-        JMSProducer producer = null;
 
+        // The connection factory and context are created once and shared
+        // by all of the queues, rather than reconnecting for each queue
         JmsConnectionFactory connectionFactory = createJMSConnectionFactory();
         setJMSProperties(connectionFactory);
         logger.info("created connection factory");
 
-        context = connectionFactory.createContext();
+        JMSContext context = connectionFactory.createContext();
         logger.info("context created");
 
+        JMSProducer producer = context.createProducer();
+        logger.info("producer created");
+
+        for (String queue : QUEUES) {
+            sendMessage(context, producer, queue, msg);
+        }
+
+        context.close();
+    }
+
+    private static void sendMessage(JMSContext context, JMSProducer producer, String queue, String msg) {
+        Destination destination = null;
+
         // Set targetClient to be non JMS, so no JMS headers are transmitted.
         // Only one of these settings is required, but both shown here.
         // 1. Add targetClient parameter to Queue uri
@@ -86,9 +90,6 @@ public class JmsPut {
         // 2. Cast destination queue to underlying MQQueue and set target client
         setTargetClient(destination);
 
-        producer = context.createProducer();
-        logger.info("producer created");
-        
         TextMessage message = context.createTextMessage(msg);
         producer.send(destination, message);
         
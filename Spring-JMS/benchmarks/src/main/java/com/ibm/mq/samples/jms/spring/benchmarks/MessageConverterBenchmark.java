@@ -0,0 +1,128 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.mq.samples.jms.spring.globals.data.OurData;
+import com.ibm.mq.samples.jms.spring.globals.data.OurOtherData;
+import com.ibm.mq.samples.jms.spring.globals.data.ReplyData;
+import com.ibm.mq.samples.jms.spring.globals.handlers.InMemoryMessages;
+import com.ibm.mq.samples.jms.spring.globals.handlers.OurMessageConverter;
+
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Converting each of our data types to and from a message, as a text or
+ * bytes message. The legacy benchmarks repeat what the converter did
+ * before, walking an instanceof chain and parsing through a shared
+ * ObjectMapper by class, for comparison. They leave out the logging the
+ * converter did on every call.
+ *
+ * Run with -prof gc to see the bytes allocated for each message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageConverterBenchmark {
+
+    @Param({"OurData", "OurOtherData", "ReplyData"})
+    public String dataType;
+
+    @Param({"TEXT", "BYTES"})
+    public String bodyType;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private Session session;
+    private OurMessageConverter converter;
+    private Object data;
+    private Message message;
+    private TextMessage legacyMessage;
+
+    @Setup
+    public void setup() throws Exception {
+        session = InMemoryMessages.session();
+        converter = new OurMessageConverter();
+        converter.setUseBytesMessages("BYTES".equals(bodyType));
+
+        switch (dataType) {
+            case "OurOtherData":
+                data = new OurOtherData("Hello from the converter benchmark");
+                break;
+            case "ReplyData":
+                ReplyData reply = new ReplyData();
+                reply.setGreeting("Hello from the converter benchmark");
+                reply.calcResponse(42);
+                data = reply;
+                break;
+            default:
+                data = new OurData("Hello from the converter benchmark");
+        }
+        message = converter.toMessage(data, session);
+        legacyMessage = legacyToMessage();
+    }
+
+    @Benchmark
+    public Message toMessage() throws Exception {
+        return converter.toMessage(data, session);
+    }
+
+    @Benchmark
+    public Object fromMessage() throws Exception {
+        return converter.fromMessage(InMemoryMessages.sent(message));
+    }
+
+    @Benchmark
+    public TextMessage legacyToMessage() throws Exception {
+        String payload = null;
+        if (data instanceof OurData) {
+            payload = mapper.writeValueAsString((OurData) data);
+        } else if (data instanceof OurOtherData) {
+            payload = mapper.writeValueAsString((OurOtherData) data);
+        } else if (data instanceof ReplyData) {
+            payload = mapper.writeValueAsString((ReplyData) data);
+        }
+        TextMessage message = session.createTextMessage(payload);
+        message.setJMSDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        return message;
+    }
+
+    @Benchmark
+    public Object legacyFromMessage() throws Exception {
+        return mapper.readValue(legacyMessage.getText(), data.getClass());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.benchmarks;
+
+import com.ibm.mq.samples.jms.spring.globals.Constants;
+import com.ibm.mq.samples.jms.spring.globals.data.OurData;
+import com.ibm.mq.samples.jms.spring.globals.data.OurOtherData;
+import com.ibm.mq.samples.jms.spring.globals.handlers.InMemoryMessages;
+import com.ibm.mq.samples.jms.spring.globals.handlers.OurMessageConverter;
+
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Encoding and decoding OurData and OurOtherData in each of the payload
+ * formats, JSON in a text message, Java serialization in an object message
+ * and OurBinaryCodec in a bytes message. The size of the body in each
+ * format is printed as the benchmark is set up.
+ *
+ * The in memory object message serializes on set and deserializes on get,
+ * as a real one does when it is sent and received.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"OurData", "OurOtherData"})
+    public String dataType;
+
+    @Param({"JSON", "SERIALIZED", "BINARY"})
+    public String format;
+
+    private Session session;
+    private OurMessageConverter converter;
+    private Object data;
+    private Message message;
+
+    @Setup
+    public void setup() throws Exception {
+        session = InMemoryMessages.session();
+        converter = new OurMessageConverter();
+        converter.setDataFormat(Constants.DataFormats.valueOf(format));
+
+        if ("OurOtherData".equals(dataType)) {
+            data = new OurOtherData("Hello from the payload format benchmark");
+        } else {
+            OurData ourData = new OurData("Hello from the payload format benchmark");
+            ourData.setCorrelation("414d5120514d3120202020202020202062a8d16501230040");
+            ourData.setRequestedReplyDest("DEV.QUEUE.2");
+            data = ourData;
+        }
+        message = converter.toMessage(data, session);
+        System.out.println();
+        System.out.println(dataType + " as " + format + " is " + InMemoryMessages.bodySize(message) + " bytes");
+    }
+
+    @Benchmark
+    public Message encode() throws Exception {
+        return converter.toMessage(data, session);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return converter.fromMessage(InMemoryMessages.sent(message));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals;
+
+import com.ibm.mq.samples.jms.spring.globals.handlers.AdaptiveConcurrencyController;
+import com.ibm.mq.samples.jms.spring.globals.handlers.AdaptiveJmsListenerContainerFactory;
+import com.ibm.mq.samples.jms.spring.globals.properties.MQAdminProperties;
+import com.ibm.mq.samples.jms.spring.globals.properties.MQConcurrencyProperties;
+import com.ibm.mq.samples.jms.spring.globals.utils.QueueDepthInquirer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jms.autoconfigure.DefaultJmsListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import jakarta.jms.ConnectionFactory;
+
+// Replaces the container factory Spring Boot provides for @JmsListener
+// methods that don't name one, with one whose consumers are adjusted by
+// an AdaptiveConcurrencyController, when app.jms.concurrency.adaptive is true.
+// The factory is set up from the spring.jms.listener settings, as Spring
+// Boot's own is, with the app.jms.concurrency bounds in place of its
+// concurrency.
+// Levels with their own factory can use an AdaptiveJmsListenerContainerFactory
+// in the same way.
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.jms.concurrency", name = "adaptive", havingValue = "true")
+public class AdaptiveConcurrencyConfiguration {
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    @Value("${ibm.mq.queueManager:QM1}")
+    public String qMgrName;
+
+    @Bean
+    public AdaptiveJmsListenerContainerFactory jmsListenerContainerFactory(DefaultJmsListenerContainerFactoryConfigurer configurer,
+                                                                           ConnectionFactory connectionFactory,
+                                                                           MQConcurrencyProperties properties) {
+        AdaptiveJmsListenerContainerFactory factory = new AdaptiveJmsListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrency(properties.getMin() + "-" + properties.getMax());
+        return factory;
+    }
+
+    @Bean
+    public QueueDepthInquirer queueDepthInquirer(MQAdminProperties adminProperties) {
+        return new QueueDepthInquirer(qMgrName, adminProperties);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyController adaptiveConcurrencyController(JmsListenerEndpointRegistry registry,
+                                                                       MQConcurrencyProperties properties,
+                                                                       QueueDepthInquirer inquirer) {
+        logger.info("Adapting listener consumers between " + properties.getMin() + " and " + properties.getMax());
+        return new AdaptiveConcurrencyController(registry, properties,
+                                                 properties.isInquireDepth() ? inquirer::getDepth : null);
+    }
+}
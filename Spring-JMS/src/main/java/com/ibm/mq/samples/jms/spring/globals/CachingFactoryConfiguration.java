@@ -0,0 +1,63 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals;
+
+import com.ibm.mq.jakarta.jms.MQConnectionFactory;
+import com.ibm.mq.samples.jms.spring.globals.handlers.OurCachingConnectionFactory;
+import com.ibm.mq.samples.jms.spring.globals.properties.MQCacheProperties;
+import com.ibm.mq.spring.boot.MQConfigurationProperties;
+import com.ibm.mq.spring.boot.MQConnectionFactoryFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// When app.jms.cache.enabled is true, provides a caching connection factory,
+// named cachingConnectionFactory, for the JmsTemplates of each level to send
+// with, so that sessions and producers are reused. Listener containers stay on
+// the primary MQ factory beneath it, as a caching factory shares one
+// connection between all of their consumers and does not suit containers that
+// change their number of consumers. These take the place of the factory the MQ
+// Spring Boot starter would create, so the ibm.mq.pool settings no longer
+// apply once it is enabled.
+@Configuration
+@ConditionalOnProperty(prefix = "app.jms.cache", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(MQConfigurationProperties.class)
+public class CachingFactoryConfiguration {
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    @Bean
+    @Primary
+    public MQConnectionFactory jmsConnectionFactory(MQConfigurationProperties properties) {
+        // The properties are those found in application.properties under ibm.mq
+        MQConnectionFactoryFactory mqcff = new MQConnectionFactoryFactory(null, properties, null, null);
+        return mqcff.createConnectionFactory(MQConnectionFactory.class);
+    }
+
+    @Bean("cachingConnectionFactory")
+    public OurCachingConnectionFactory cachingConnectionFactory(MQConnectionFactory jmsConnectionFactory,
+                                                                MQCacheProperties cache) {
+        logger.info("Caching up to " + cache.getSessionCacheSize() + " sessions per acknowledge mode"
+                        + " for sends, the ibm.mq.pool settings are not used");
+        OurCachingConnectionFactory factory = new OurCachingConnectionFactory(jmsConnectionFactory);
+        factory.configure(cache);
+        return factory;
+    }
+}
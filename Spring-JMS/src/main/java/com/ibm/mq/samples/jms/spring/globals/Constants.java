@@ -1,5 +1,5 @@
 /*
- * (c) Copyright IBM Corporation 2021
+ * (c) Copyright IBM Corporation 2021, 2026
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,15 +22,29 @@ public class Constants {
     static public final long HOUR = 60 * MINUTE;
 
     static public final String DATATYPE = "appdatatype";
+    static public final String DATAFORMAT = "appdataformat";
     static public final String TEMPQUEUEPREFIX = "AMQ.";
 
     public enum DataTypes {
         OURDATATYPE(10),
-        OUROTHERDATATYPE(20);
+        OUROTHERDATATYPE(20),
+        REPLYDATATYPE(30);
 
         private final int value;
 
         DataTypes(int setting) { this.value = setting; }
         public int getValue() { return this.value; }
     }
+
+    // How the body of a message holding one of our data types is encoded
+    public enum DataFormats {
+        JSON(1),
+        SERIALIZED(2),
+        BINARY(3);
+
+        private final int value;
+
+        DataFormats(int setting) { this.value = setting; }
+        public int getValue() { return this.value; }
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import com.ibm.mq.samples.jms.spring.globals.properties.MQConcurrencyProperties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.listener.MessageListenerContainer;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/*
+ * Spring's listener containers start a consumer when all of the existing
+ * ones are busy, up to the container's maximum, and stop those that have
+ * been idle for a while. The maximum though is fixed, so a listener either
+ * has too few consumers for a burst, or holds connections it seldom uses.
+ *
+ * This controller moves the maximum of each AdaptiveMessageListenerContainer
+ * within the configured bounds, using an additive increase, multiplicative
+ * decrease policy. At each interval, for every container it
+ *
+ * - takes away a fraction of the consumers if the listener's mean latency
+ *   or error rate is over its target, as adding consumers to a struggling
+ *   listener, or to whatever the listener calls, only makes it worse
+ * - otherwise adds a consumer if the queue depth is more than the
+ *   consumers are expected to keep up with, or, when the depth is not
+ *   known, if every consumer is busy
+ * - otherwise takes away one consumer if nothing was received and the
+ *   queue is empty
+ *
+ * The decisions are logged, counted, and available over JMX when
+ * spring.jmx.enabled is true.
+ */
+@ManagedResource(objectName = "com.ibm.mq.samples.jms.spring:name=AdaptiveConcurrencyController")
+public class AdaptiveConcurrencyController {
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    private final JmsListenerEndpointRegistry registry;
+    private final MQConcurrencyProperties properties;
+    // Gives -1 when the depth of a queue is not known
+    private final ToIntFunction<String> depthInquirer;
+
+    private final Map<String, ContainerState> states = new ConcurrentHashMap<>();
+    private final LongAdder increases = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    public AdaptiveConcurrencyController(JmsListenerEndpointRegistry registry, MQConcurrencyProperties properties,
+                                         ToIntFunction<String> depthInquirer) {
+        this.registry = registry;
+        this.properties = properties;
+        this.depthInquirer = (null == depthInquirer) ? name -> -1 : depthInquirer;
+    }
+
+    @Scheduled(initialDelayString = "${app.jms.concurrency.interval:5000}",
+               fixedDelayString = "${app.jms.concurrency.interval:5000}")
+    public void adjust() {
+        for (String id : registry.getListenerContainerIds()) {
+            MessageListenerContainer container = registry.getListenerContainer(id);
+            if (container instanceof AdaptiveMessageListenerContainer && container.isRunning()) {
+                adjust(id, (AdaptiveMessageListenerContainer) container);
+            }
+        }
+    }
+
+    private void adjust(String id, AdaptiveMessageListenerContainer container) {
+        ContainerState state = states.computeIfAbsent(id, k -> new ContainerState(container));
+        AdaptiveMessageListenerContainer.Sample sample = container.takeSample();
+        // Topic subscriptions have no queue to inquire
+        int depth = (null == container.getDestinationName() || container.isPubSubDomain()) ? -1
+                        : depthInquirer.applyAsInt(container.getDestinationName());
+        int active = container.getActiveConsumerCount();
+
+        String reason = null;
+        int limit = state.limit;
+        if (0 < sample.getProcessed() && properties.getMaxErrorRate() < sample.getErrorRate()) {
+            limit = (int) Math.floor(limit * properties.getDecrease());
+            reason = "error rate";
+        } else if (0 < sample.getProcessed() && properties.getTargetLatency() < sample.getMeanLatencyMillis()) {
+            limit = (int) Math.floor(limit * properties.getDecrease());
+            reason = "latency";
+        } else if ((0 <= depth) ? (long) limit * properties.getDepthPerConsumer() < depth
+                                : 0 < sample.getProcessed() && limit <= active) {
+            limit += properties.getIncrease();
+            reason = "backlog";
+        } else if (0 == sample.getProcessed() && depth <= 0) {
+            limit -= 1;
+            reason = "idle";
+        }
+        limit = Math.max(properties.getMin(), Math.min(properties.getMax(), limit));
+
+        state.lastDecision = String.format("%d consumers, %d active, depth %d, %d processed, latency %dms, errors %.0f%%",
+                                           limit, active, depth, sample.getProcessed(),
+                                           sample.getMeanLatencyMillis(), 100 * sample.getErrorRate());
+        if (limit != state.limit) {
+            logger.info("Listener " + id + " from " + state.limit + " to " + state.lastDecision + ", for " + reason);
+            if (limit > state.limit) {
+                increases.increment();
+            } else {
+                decreases.increment();
+            }
+        }
+        // Also brings a container set up outside of the bounds within them
+        if (limit != container.getMaxConcurrentConsumers()) {
+            apply(container, state, limit);
+        }
+        state.limit = limit;
+    }
+
+    // The maximum can't be set below the core number of consumers, so the
+    // order the two are set in depends on the direction
+    private void apply(AdaptiveMessageListenerContainer container, ContainerState state, int limit) {
+        int core = Math.min(state.core, limit);
+        if (limit > container.getMaxConcurrentConsumers()) {
+            container.setMaxConcurrentConsumers(limit);
+            container.setConcurrentConsumers(core);
+        } else {
+            container.setConcurrentConsumers(core);
+            container.setMaxConcurrentConsumers(limit);
+        }
+    }
+
+    @ManagedAttribute(description = "Consumers allowed for each listener")
+    public Map<String, Integer> getLimits() {
+        Map<String, Integer> limits = new TreeMap<>();
+        states.forEach((id, state) -> limits.put(id, state.limit));
+        return limits;
+    }
+
+    @ManagedAttribute(description = "The last sample taken for each listener")
+    public Map<String, String> getLastDecisions() {
+        Map<String, String> decisions = new TreeMap<>();
+        states.forEach((id, state) -> decisions.put(id, state.lastDecision));
+        return decisions;
+    }
+
+    @ManagedAttribute(description = "Times consumers were added")
+    public long getIncreases() {
+        return increases.sum();
+    }
+
+    @ManagedAttribute(description = "Times consumers were taken away")
+    public long getDecreases() {
+        return decreases.sum();
+    }
+
+    private final class ContainerState {
+        // The consumers the container was set up with, which it keeps even when idle
+        final int core;
+        volatile int limit;
+        volatile String lastDecision = "";
+
+        ContainerState(AdaptiveMessageListenerContainer container) {
+            core = container.getConcurrentConsumers();
+            limit = Math.max(properties.getMin(), Math.min(properties.getMax(), container.getMaxConcurrentConsumers()));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+// A container factory whose containers can have their consumers adjusted
+// by AdaptiveConcurrencyController. It is set up as any other
+// DefaultJmsListenerContainerFactory.
+public class AdaptiveJmsListenerContainerFactory extends DefaultJmsListenerContainerFactory {
+    @Override
+    protected DefaultMessageListenerContainer createContainerInstance() {
+        return new AdaptiveMessageListenerContainer();
+    }
+}
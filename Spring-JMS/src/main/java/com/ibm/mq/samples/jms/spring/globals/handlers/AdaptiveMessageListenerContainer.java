@@ -0,0 +1,83 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * A listener container that times each call to its listener and counts
+ * those that fail, so that AdaptiveConcurrencyController can tell how
+ * well the listener is keeping up. Created by
+ * AdaptiveJmsListenerContainerFactory.
+ */
+public class AdaptiveMessageListenerContainer extends DefaultMessageListenerContainer {
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    @Override
+    protected void invokeListener(Session session, Message message) throws JMSException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            super.invokeListener(session, message);
+            succeeded = true;
+        } finally {
+            nanos.add(System.nanoTime() - start);
+            processed.increment();
+            if (!succeeded) {
+                errors.increment();
+            }
+        }
+    }
+
+    // The counts since the last sample was taken
+    public Sample takeSample() {
+        return new Sample(processed.sumThenReset(), errors.sumThenReset(), nanos.sumThenReset());
+    }
+
+    public static final class Sample {
+        private final long processed;
+        private final long errors;
+        private final long nanos;
+
+        Sample(long processed, long errors, long nanos) {
+            this.processed = processed;
+            this.errors = errors;
+            this.nanos = nanos;
+        }
+
+        public long getProcessed() {
+            return processed;
+        }
+
+        public double getErrorRate() {
+            return (0 == processed) ? 0.0 : (double) errors / processed;
+        }
+
+        public long getMeanLatencyMillis() {
+            return (0 == processed) ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos / processed);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import java.util.List;
+
+/*
+ * Receives the converted messages of a batch, in the order they were
+ * received, see BatchMessageListenerContainer.
+ *
+ * Returning normally commits the whole batch. Throwing a
+ * PartialBatchException commits the batch apart from the items it names,
+ * which are put back to be delivered again. Throwing anything else rolls
+ * back the whole batch.
+ */
+@FunctionalInterface
+public interface BatchMessageListener<T> {
+    void onBatch(List<T> items);
+}
@@ -0,0 +1,335 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.transaction.TransactionStatus;
+
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageListener;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * A @JmsListener is called once for each message, and with a transacted
+ * session each message is committed on its own, forcing the queue manager
+ * log every time. This container instead receives up to batchSize
+ * messages, waiting at most batchTimeout for the batch to fill, converts
+ * them and hands the whole list to a BatchMessageListener, then commits
+ * once.
+ *
+ * If the listener throws, the whole batch is rolled back, and the queue
+ * manager delivers the messages again, moving them to the backout queue
+ * once the backout threshold is reached. If the listener throws a
+ * PartialBatchException, the items it names, along with any message that
+ * could not be converted, are put back on the queue in the same
+ * transaction that removes the rest of the batch. An item that has been
+ * put back maxRedeliveries times is put to the failed queue instead, or
+ * dropped if there is no failed queue.
+ *
+ * An item that is put back keeps the rest of its time to live, its
+ * application properties, and the JMSX and JMS_IBM_ properties that the
+ * provider allows to be set, eg. the group id or the MQMD format.
+ *
+ * The session needs to be transacted, with setSessionTransacted(true), and
+ * kept open by the container, so the cache level needs to be
+ * CACHE_CONSUMER, which is the default when there is no transaction
+ * manager. Otherwise messages are handled one at a time, as in the parent
+ * container.
+ */
+public class BatchMessageListenerContainer<T> extends DefaultMessageListenerContainer {
+    // Counts how often an item has been put back by the container
+    public static final String REDELIVERIES = "BatchRedeliveries";
+    private static final String DELIVERY_COUNT = "JMSXDeliveryCount";
+
+    private BatchMessageListener<T> batchListener;
+    private int batchSize = 50;
+    private long batchTimeout = 500;
+    private int maxRedeliveries = 3;
+    private String failedDestinationName = null;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+    private final LongAdder redelivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public void setBatchListener(BatchMessageListener<T> batchListener) {
+        this.batchListener = batchListener;
+        // Used when messages are handled one at a time, see doReceiveAndExecute
+        setMessageListener((MessageListener) message -> {
+            T item = convert(message);
+            if (null == item) {
+                throw new MessageConversionException("Unable to convert message");
+            }
+            batchListener.onBatch(Collections.singletonList(item));
+        });
+    }
+
+    // The most messages handed to the listener at once
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    // How long, in milliseconds, to wait for a batch to fill once its first message arrives
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = Math.max(0, batchTimeout);
+    }
+
+    public void setMaxRedeliveries(int maxRedeliveries) {
+        this.maxRedeliveries = Math.max(0, maxRedeliveries);
+    }
+
+    // Where items go once they have been put back maxRedeliveries times
+    public void setFailedDestinationName(String failedDestinationName) {
+        this.failedDestinationName = failedDestinationName;
+    }
+
+    @Override
+    protected void validateConfiguration() {
+        super.validateConfiguration();
+        if (null == batchListener) {
+            throw new IllegalArgumentException("Property 'batchListener' is required");
+        }
+        if (null == getMessageConverter()) {
+            throw new IllegalArgumentException("Property 'messageConverter' is required");
+        }
+        if (!isSessionTransacted()) {
+            logger.warn("Session is not transacted, so messages are handled one at a time");
+        }
+    }
+
+    @Override
+    protected boolean doReceiveAndExecute(Object invoker, Session session, MessageConsumer consumer,
+                                          TransactionStatus status) throws JMSException {
+        if (null == session || null == consumer || !isSessionLocallyTransacted(session)) {
+            return super.doReceiveAndExecute(invoker, session, consumer, status);
+        }
+
+        // Wait as normal for the first message, then only as long as the batch timeout allows
+        Message first = receiveMessage(consumer);
+        if (null == first) {
+            noMessageReceived(invoker, session);
+            return false;
+        }
+        messageReceived(invoker, session);
+
+        List<Message> messages = new ArrayList<>(batchSize);
+        messages.add(first);
+        long deadline = System.currentTimeMillis() + batchTimeout;
+        while (messages.size() < batchSize) {
+            long remaining = deadline - System.currentTimeMillis();
+            Message message = (0 < remaining) ? consumer.receive(remaining) : consumer.receiveNoWait();
+            if (null == message) {
+                break;
+            }
+            messages.add(message);
+        }
+
+        if (!isRunning()) {
+            logger.debug("Rolling back batch received while stopping");
+            rollbackIfNecessary(session);
+            return false;
+        }
+        executeBatch(session, messages);
+        return true;
+    }
+
+    private void executeBatch(Session session, List<Message> messages) throws JMSException {
+        batches.increment();
+        items.add(messages.size());
+
+        List<Message> converted = new ArrayList<>(messages.size());
+        List<T> batch = new ArrayList<>(messages.size());
+        List<Message> putBack = new ArrayList<>();
+        for (Message message : messages) {
+            T item = convert(message);
+            if (null == item) {
+                putBack.add(message);
+            } else {
+                converted.add(message);
+                batch.add(item);
+            }
+        }
+
+        try {
+            if (!batch.isEmpty()) {
+                batchListener.onBatch(batch);
+            }
+        } catch (PartialBatchException ex) {
+            logger.warn(ex.getMessage());
+            for (int i : ex.getFailedIndexes()) {
+                if (0 <= i && i < converted.size()) {
+                    putBack.add(converted.get(i));
+                }
+            }
+        } catch (Throwable ex) {
+            rollbacks.increment();
+            rollbackOnExceptionIfNecessary(session, ex);
+            handleListenerException(ex);
+            return;
+        }
+
+        try {
+            putBack(session, putBack);
+            commitIfNecessary(session, null);
+        } catch (JMSException | RuntimeException ex) {
+            rollbacks.increment();
+            rollbackOnExceptionIfNecessary(session, ex);
+            throw ex;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Committed batch of " + messages.size() + " messages, " + putBack.size() + " put back");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T convert(Message message) {
+        MessageConverter converter = getMessageConverter();
+        try {
+            return (T) converter.fromMessage(message);
+        } catch (JMSException | MessageConversionException | ClassCastException e) {
+            logger.warn("Unable to convert message " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Sent on the batch's own session, so they only appear if the batch commits
+    private void putBack(Session session, List<Message> messages) throws JMSException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Destination source = (null != getDestination()) ? getDestination()
+                                                         : resolveDestinationName(session, getDestinationName());
+        Destination failedDestination = (null == failedDestinationName) ? null
+                                             : resolveDestinationName(session, failedDestinationName);
+
+        MessageProducer producer = session.createProducer(null);
+        try {
+            for (Message message : messages) {
+                long timeToLive = remainingTimeToLive(message);
+                if (0 > timeToLive) {
+                    logger.warn("Dropping message " + message.getJMSMessageID() + " as it has expired");
+                    continue;
+                }
+                int attempts = message.propertyExists(REDELIVERIES) ? message.getIntProperty(REDELIVERIES) : 0;
+                Destination target = source;
+                if (maxRedeliveries <= attempts) {
+                    target = failedDestination;
+                    failed.increment();
+                } else {
+                    redelivered.increment();
+                }
+                if (null == target) {
+                    logger.warn("Dropping message " + message.getJMSMessageID() + " after " + attempts + " redeliveries");
+                    continue;
+                }
+                setRedeliveries(message, attempts + 1);
+                producer.send(target, message, message.getJMSDeliveryMode(), message.getJMSPriority(), timeToLive);
+            }
+        } finally {
+            producer.close();
+        }
+    }
+
+    // What is left of the message's time to live, 0 if it never expires, or
+    // -1 if it has already expired
+    private static long remainingTimeToLive(Message message) throws JMSException {
+        long expiration = message.getJMSExpiration();
+        if (0 == expiration) {
+            return Message.DEFAULT_TIME_TO_LIVE;
+        }
+        long remaining = expiration - System.currentTimeMillis();
+        return (0 < remaining) ? remaining : -1;
+    }
+
+    // The properties of a received message are read only until they are
+    // cleared, so they are copied and set again. That includes the JMSX and
+    // JMS_IBM_ properties, apart from the delivery count, which starts again
+    // for the new message. Those the provider doesn't allow to be set are
+    // left for it to set when the message is sent.
+    private void setRedeliveries(Message message, int redeliveries) throws JMSException {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (Enumeration<?> names = message.getPropertyNames(); names.hasMoreElements(); ) {
+            String name = (String) names.nextElement();
+            if (!DELIVERY_COUNT.equals(name)) {
+                properties.put(name, message.getObjectProperty(name));
+            }
+        }
+        message.clearProperties();
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            try {
+                message.setObjectProperty(property.getKey(), property.getValue());
+            } catch (JMSException | RuntimeException e) {
+                if (!property.getKey().startsWith("JMS")) {
+                    throw e;
+                }
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Provider property " + property.getKey() + " not copied " + e.getMessage());
+                }
+            }
+        }
+        message.setIntProperty(REDELIVERIES, redeliveries);
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getItems() {
+        return items.sum();
+    }
+
+    public long getRollbacks() {
+        return rollbacks.sum();
+    }
+
+    public long getRedelivered() {
+        return redelivered.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public String getStatistics() {
+        long count = getBatches();
+        return String.format("Batches %d, messages %d, average batch %.1f. Rolled back %d, items put back %d, failed %d",
+                             count, getItems(), (0 == count) ? 0.0 : (double) getItems() / count,
+                             getRollbacks(), getRedelivered(), getFailed());
+    }
+
+    @Override
+    public void destroy() {
+        logger.info(getStatistics());
+        super.destroy();
+    }
+}
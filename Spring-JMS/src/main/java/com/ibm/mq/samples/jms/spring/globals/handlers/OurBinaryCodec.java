@@ -0,0 +1,134 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import com.ibm.mq.samples.jms.spring.globals.data.OurData;
+import com.ibm.mq.samples.jms.spring.globals.data.OurOtherData;
+import org.springframework.jms.support.converter.MessageConversionException;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/*
+ * A compact binary form of OurData and OurOtherData, for the body of a
+ * BytesMessage, see OurMessageConverter. It is a fraction of the size of
+ * the JSON or Java serialized forms, and needs no parsing or reflection.
+ *
+ * The body starts with a version byte, followed by the fields in a fixed
+ * order, all big endian
+ *
+ * - a string is an int length in bytes, -1 for null, then its UTF-8 bytes
+ * - an int is 4 bytes
+ * - a date is a long of milliseconds since the epoch, Long.MIN_VALUE for null
+ *
+ * New fields are only ever added at the end, along with a new version. A
+ * reader ignores any fields after those it knows about, so an older
+ * application can read a newer message, but rejects a message with a
+ * version older than the first.
+ */
+public final class OurBinaryCodec {
+    public static final byte VERSION = 1;
+
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    private OurBinaryCodec() {
+    }
+
+    // OurData version 1: id, greeting, value, date, received, correlation, requestedReplyDest
+    public static void write(DataOutput out, OurData data) throws IOException {
+        out.writeByte(VERSION);
+        writeString(out, data.getId());
+        writeString(out, data.getGreeting());
+        out.writeInt(data.getValue());
+        writeDate(out, data.getDate());
+        writeDate(out, data.getReceived());
+        writeString(out, data.getCorrelation());
+        writeString(out, data.getRequestedReplyDest());
+    }
+
+    public static OurData readOurData(ByteBuffer in) {
+        try {
+            readVersion(in);
+            // The arguments are evaluated in order, so are read in order. The
+            // no argument constructor isn't used, as it makes a new random id.
+            return new OurData(readString(in), readString(in), in.getInt(), readDate(in), readDate(in),
+                               readString(in), readString(in));
+        } catch (BufferUnderflowException e) {
+            throw new MessageConversionException("Binary OurData is truncated", e);
+        }
+    }
+
+    // OurOtherData version 1: id, greeting
+    public static void write(DataOutput out, OurOtherData data) throws IOException {
+        out.writeByte(VERSION);
+        writeString(out, data.getId());
+        writeString(out, data.getGreeting());
+    }
+
+    public static OurOtherData readOurOtherData(ByteBuffer in) {
+        try {
+            readVersion(in);
+            return new OurOtherData(readString(in), readString(in));
+        } catch (BufferUnderflowException e) {
+            throw new MessageConversionException("Binary OurOtherData is truncated", e);
+        }
+    }
+
+    private static void readVersion(ByteBuffer in) {
+        byte version = in.get();
+        if (version < 1) {
+            throw new MessageConversionException("Unknown binary format version " + version);
+        }
+    }
+
+    private static void writeString(DataOutput out, String s) throws IOException {
+        if (null == s) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (NULL_LENGTH == length) {
+            return null;
+        }
+        if (length < 0 || in.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    private static void writeDate(DataOutput out, Date date) throws IOException {
+        out.writeLong((null == date) ? NULL_DATE : date.getTime());
+    }
+
+    private static Date readDate(ByteBuffer in) {
+        long millis = in.getLong();
+        return (NULL_DATE == millis) ? null : new Date(millis);
+    }
+}
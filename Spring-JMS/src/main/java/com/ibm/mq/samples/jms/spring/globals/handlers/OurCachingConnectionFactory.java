@@ -0,0 +1,147 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import com.ibm.mq.samples.jms.spring.globals.properties.MQCacheProperties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.util.ClassUtils;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * A JmsTemplate opens a connection, session and producer for every send
+ * unless the connection factory beneath it caches them. This factory
+ * shares one connection, keeps idle sessions open for reuse, and keeps a
+ * producer open for each destination a session sends to.
+ *
+ * It also counts how often a session or producer was reused rather than
+ * opened, so the effect of the cache settings can be seen.
+ *
+ * The cache settings are applied with configure once the factory has been
+ * made, rather than in the constructor, as the setters can be overridden.
+ */
+public class OurCachingConnectionFactory extends CachingConnectionFactory {
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    private final LongAdder sessionRequests = new LongAdder();
+    private final LongAdder sessionsOpened = new LongAdder();
+    private final LongAdder producersOpened = new LongAdder();
+    private final LongAdder sends = new LongAdder();
+
+    public OurCachingConnectionFactory(ConnectionFactory targetConnectionFactory) {
+        super(targetConnectionFactory);
+    }
+
+    public void configure(MQCacheProperties cache) {
+        setSessionCacheSize(cache.getSessionCacheSize());
+        setCacheProducers(cache.isCacheProducers());
+        setCacheConsumers(cache.isCacheConsumers());
+        // A broken connection is dropped, along with its sessions, and opened again when next needed
+        setReconnectOnException(true);
+    }
+
+    @Override
+    protected Session getSession(Connection con, Integer mode) throws JMSException {
+        sessionRequests.increment();
+        return super.getSession(con, mode);
+    }
+
+    // Only called when there is no idle session to reuse. The session is
+    // wrapped so that the producers opened on it, and their sends, are counted.
+    @Override
+    protected Session createSession(Connection con, Integer mode) throws JMSException {
+        sessionsOpened.increment();
+        Session session = super.createSession(con, mode);
+        return counting(session, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof MessageProducer) {
+                producersOpened.increment();
+                return counting((MessageProducer) result, (producer, m, a) -> {
+                    if ("send".equals(m.getName())) {
+                        sends.increment();
+                    }
+                    return invoke(producer, m, a);
+                });
+            }
+            return result;
+        });
+    }
+
+    public long getSessionRequests() {
+        return sessionRequests.sum();
+    }
+
+    public long getSessionHits() {
+        return Math.max(0, sessionRequests.sum() - sessionsOpened.sum());
+    }
+
+    public long getProducersOpened() {
+        return producersOpened.sum();
+    }
+
+    // Sends made through a producer that was already open
+    public long getProducerHits() {
+        return Math.max(0, sends.sum() - producersOpened.sum());
+    }
+
+    public String getStatistics() {
+        return String.format("Sessions requested %d, reused %d, opened %d. Sends %d, producers reused %d, opened %d",
+                             getSessionRequests(), getSessionHits(), sessionsOpened.sum(),
+                             sends.sum(), getProducerHits(), getProducersOpened());
+    }
+
+    public void logStatistics() {
+        logger.info(getStatistics());
+    }
+
+    @Override
+    public void destroy() {
+        logStatistics();
+        super.destroy();
+    }
+
+    private interface Interceptor<T> {
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T counting(T target, Interceptor<T> interceptor) {
+        InvocationHandler handler = (proxy, method, args) -> interceptor.invoke(target, method, args);
+        return (T) Proxy.newProxyInstance(target.getClass().getClassLoader(),
+                                          ClassUtils.getAllInterfaces(target), handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
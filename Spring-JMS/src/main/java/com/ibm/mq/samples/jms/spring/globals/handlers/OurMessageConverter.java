@@ -1,5 +1,5 @@
 /*
- * (c) Copyright IBM Corporation 2021, 2023
+ * (c) Copyright IBM Corporation 2021, 2026
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,9 @@ package com.ibm.mq.samples.jms.spring.globals.handlers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ibm.mq.samples.jms.spring.globals.Constants;
 import com.ibm.mq.samples.jms.spring.globals.data.OurData;
 import com.ibm.mq.samples.jms.spring.globals.data.OurOtherData;
 import com.ibm.mq.samples.jms.spring.globals.data.ReplyData;
@@ -28,82 +31,183 @@ import org.springframework.jms.support.converter.MessageConverter;
 
 import jakarta.jms.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+ * Converts our data objects to and from JSON.
+ *
+ * The reader and writer for each type are built once, so no type has to
+ * be looked up or introspected as a message is converted, and the type of
+ * an object is found with a single map lookup. Each message carries its
+ * type in the Constants.DATATYPE property, so it is parsed straight into
+ * the right class. A message without the property is taken as OurData.
+ *
+ * Messages are sent as TextMessages, or as BytesMessages holding UTF-8
+ * when setUseBytesMessages(true) is called. A BytesMessage is written from
+ * a buffer that each thread reuses, so a large message doesn't need a
+ * String and a byte array of its own.
+ *
+ * setDataFormat() picks another encoding for the body. BINARY writes
+ * OurData and OurOtherData to a BytesMessage using OurBinaryCodec, and
+ * SERIALIZED sends them as an ObjectMessage. Types without that format
+ * are sent as JSON. The format used is held in the Constants.DATAFORMAT
+ * property, so messages of any format can be received by any converter.
+ */
 public class OurMessageConverter implements MessageConverter {
     protected final Log logger = LogFactory.getLog(getClass());
 
-    private static ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final Codec OUR_DATA = new Codec(OurData.class, Constants.DataTypes.OURDATATYPE,
+                                                    (out, o) -> OurBinaryCodec.write(out, (OurData) o),
+                                                    OurBinaryCodec::readOurData);
+    private static final Codec OUR_OTHER_DATA = new Codec(OurOtherData.class, Constants.DataTypes.OUROTHERDATATYPE,
+                                                          (out, o) -> OurBinaryCodec.write(out, (OurOtherData) o),
+                                                          OurBinaryCodec::readOurOtherData);
+    private static final Codec REPLY_DATA = new Codec(ReplyData.class, Constants.DataTypes.REPLYDATATYPE, null, null);
+
+    private static final Map<Class<?>, Codec> BY_CLASS = Map.of(OurData.class, OUR_DATA,
+                                                                OurOtherData.class, OUR_OTHER_DATA,
+                                                                ReplyData.class, REPLY_DATA);
+    private static final Map<Integer, Codec> BY_TYPE = Map.of(OUR_DATA.type, OUR_DATA,
+                                                              OUR_OTHER_DATA.type, OUR_OTHER_DATA,
+                                                              REPLY_DATA.type, REPLY_DATA);
+
+    // Buffers larger than this are not kept for reuse
+    private static final int MAX_RETAINED = 64 * 1024;
+    private static final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+
+    private boolean useBytesMessages = false;
+    private Constants.DataFormats dataFormat = Constants.DataFormats.JSON;
+
+    public void setUseBytesMessages(boolean useBytesMessages) {
+        this.useBytesMessages = useBytesMessages;
+    }
+
+    public void setDataFormat(Constants.DataFormats dataFormat) {
+        this.dataFormat = dataFormat;
+    }
 
     @Override
     public Message toMessage(Object o, Session session) throws JMSException, MessageConversionException {
-        logger.info("In toMessage converter");
+        Message message;
+        if (o instanceof Message) {
+            message = (Message) o;
+        } else if (o instanceof String) {
+            message = session.createTextMessage((String) o);
+        } else {
+            Codec codec = (null == o) ? null : codecFor(o.getClass());
+            if (null == codec) {
+                throw new MessageConversionException("Object wasn't what we were expecting");
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Marshalling " + codec.name);
+            }
+            Constants.DataFormats format = formatFor(codec, o);
+            switch (format) {
+                case BINARY:
+                    message = toBinaryMessage(codec, o, session);
+                    break;
+                case SERIALIZED:
+                    message = session.createObjectMessage((Serializable) o);
+                    break;
+                default:
+                    message = useBytesMessages ? toBytesMessage(codec, o, session) : toTextMessage(codec, o, session);
+            }
+            message.setIntProperty(Constants.DATATYPE, codec.type);
+            message.setIntProperty(Constants.DATAFORMAT, format.getValue());
+        }
 
-        String payload = null;
-        Message message = null;
+        message.setJMSDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        return message;
+    }
 
+    private Constants.DataFormats formatFor(Codec codec, Object o) {
+        switch (dataFormat) {
+            case BINARY:
+                return (null != codec.binaryWriter) ? dataFormat : Constants.DataFormats.JSON;
+            case SERIALIZED:
+                return (o instanceof Serializable) ? dataFormat : Constants.DataFormats.JSON;
+            default:
+                return Constants.DataFormats.JSON;
+        }
+    }
+
+    private TextMessage toTextMessage(Codec codec, Object o, Session session) throws JMSException {
         try {
-            if (o instanceof Message) {
-                message = (Message) o;
-            }
-            if (o instanceof OurData) {
-                logger.info("Marshalling OurData");
-                OurData data = (OurData) o;
-                payload = mapper.writeValueAsString(data);
-                message = session.createTextMessage(payload);
-            } else if (o instanceof OurOtherData) {
-                logger.info("Marshalling OurOtherData");
-                OurOtherData data = (OurOtherData) o;
-                payload = mapper.writeValueAsString(data);
-                message = session.createTextMessage(payload);
-            } else if (o instanceof ReplyData) {
-                logger.info("Marshalling ReplyData");
-                ReplyData data = (ReplyData) o;
-                payload = mapper.writeValueAsString(data);
-                message = session.createTextMessage(payload);
-            } else if (o instanceof String) {
-                logger.info("Marshalling String");
-                message = session.createTextMessage((String)o);
-            }
+            return session.createTextMessage(codec.writer.writeValueAsString(o));
         } catch (JsonProcessingException e) {
             logger.warn("Unable to convert into json string");
+            throw new MessageConversionException("Unable to convert " + codec.name + " into json", e);
         }
+    }
 
-        if (null != message) {
-            message.setJMSDeliveryMode(DeliveryMode.NON_PERSISTENT);
-            logger.info("sending message ");
+    private BytesMessage toBytesMessage(Codec codec, Object o, Session session) throws JMSException {
+        Buffer buffer = buffers.get();
+        buffer.reset();
+        try {
+            codec.writer.writeValue(buffer, o);
+            BytesMessage message = session.createBytesMessage();
+            message.writeBytes(buffer.array(), 0, buffer.size());
             return message;
-        } else {
-            throw new MessageConversionException("Object wasn't what we were expecting");
+        } catch (IOException e) {
+            logger.warn("Unable to convert into json bytes");
+            throw new MessageConversionException("Unable to convert " + codec.name + " into json", e);
+        } finally {
+            release(buffer);
         }
     }
 
+    private BytesMessage toBinaryMessage(Codec codec, Object o, Session session) throws JMSException {
+        Buffer buffer = buffers.get();
+        buffer.reset();
+        try {
+            codec.binaryWriter.write(new DataOutputStream(buffer), o);
+            BytesMessage message = session.createBytesMessage();
+            message.writeBytes(buffer.array(), 0, buffer.size());
+            return message;
+        } catch (IOException e) {
+            throw new MessageConversionException("Unable to convert " + codec.name + " into binary", e);
+        } finally {
+            release(buffer);
+        }
+    }
 
     @Override
     public Object fromMessage(Message message) throws JMSException, MessageConversionException {
-        logger.info("In formMessage converter");
-
-        if (message instanceof MapMessage) {
-            logger.info("Have a MapMessage");
-        } else if (message instanceof TextMessage) {
-            try {
-                logger.info("Have a TextMessage");
-                TextMessage txtmsg = (TextMessage) message;
-                String payload = txtmsg.getText();
-                logger.info("payload is : " + payload);
-                OurData data = mapper.readValue(payload, OurData.class);
-                return data;
-            } catch (JsonProcessingException e) {
-                logger.warn("Unable to parse json from object");
-                logger.warn(e.getMessage());
+        Codec codec = OUR_DATA;
+        if (message.propertyExists(Constants.DATATYPE)) {
+            codec = BY_TYPE.get(message.getIntProperty(Constants.DATATYPE));
+            if (null == codec) {
+                logger.warn("Message is not one of our data types");
+                return null;
             }
         }
-        return null;
+
+        if (message instanceof ObjectMessage) {
+            return readObject(codec, (ObjectMessage) message);
+        }
+        if (message instanceof BytesMessage && null != codec.binaryReader
+                && message.propertyExists(Constants.DATAFORMAT)
+                && Constants.DataFormats.BINARY.getValue() == message.getIntProperty(Constants.DATAFORMAT)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Decoding " + codec.name + " from binary");
+            }
+            return readBinary(codec, (BytesMessage) message);
+        }
+        return read(codec, message);
     }
 
     public OurData fromString(String msg) {
         try {
-            OurData data = mapper.readValue(msg, OurData.class);
-            return data;
-        } catch (JsonProcessingException e) {
+            return OUR_DATA.reader.readValue(msg);
+        } catch (IOException e) {
             logger.warn("Unable to parse json from string");
             logger.warn(e.getMessage());
         }
@@ -112,16 +216,8 @@ public class OurMessageConverter implements MessageConverter {
 
     public ReplyData replyFromMessage(Message message) {
         try {
-            if (message instanceof TextMessage) {
-                TextMessage txtmsg = (TextMessage) message;
-                String payload = txtmsg.getText();
-                ReplyData rr = mapper.readValue(payload, ReplyData.class);
-                return rr;
-            }
-        } catch (JsonProcessingException e) {
-            logger.warn("Unable to parse json into object");
-            logger.warn(e.getMessage());
-        } catch(JMSException e) {
+            return (ReplyData) read(REPLY_DATA, message);
+        } catch (JMSException e) {
             logger.warn("Unable to process JMS Message");
             logger.warn(e.getMessage());
         }
@@ -130,7 +226,8 @@ public class OurMessageConverter implements MessageConverter {
 
     public <T> String toJsonString(T data) {
         try {
-            return mapper.writeValueAsString(data);
+            Codec codec = codecFor(data.getClass());
+            return (null == codec) ? mapper.writeValueAsString(data) : codec.writer.writeValueAsString(data);
         } catch (JsonProcessingException e) {
             logger.warn("Unable to parse json from object");
             logger.warn(e.getMessage());
@@ -138,4 +235,123 @@ public class OurMessageConverter implements MessageConverter {
         }
     }
 
+    private Object read(Codec codec, Message message) throws JMSException {
+        try {
+            if (message instanceof TextMessage) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Parsing " + codec.name + " from TextMessage");
+                }
+                return codec.reader.readValue(((TextMessage) message).getText());
+            } else if (message instanceof BytesMessage) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Parsing " + codec.name + " from BytesMessage");
+                }
+                return readBytes(codec, (BytesMessage) message);
+            }
+            logger.info("Have a " + message.getClass().getSimpleName() + " which isn't json");
+        } catch (IOException e) {
+            logger.warn("Unable to parse json from message");
+            logger.warn(e.getMessage());
+        }
+        return null;
+    }
+
+    private Object readObject(Codec codec, ObjectMessage message) throws JMSException {
+        Serializable object = message.getObject();
+        if (codec.javaClass.isInstance(object)) {
+            return object;
+        }
+        logger.warn("Not the object we were expecting");
+        return null;
+    }
+
+    private static Object readBinary(Codec codec, BytesMessage message) throws JMSException {
+        int length = (int) message.getBodyLength();
+        Buffer buffer = buffers.get();
+        byte[] bytes = buffer.borrow(length);
+        try {
+            message.readBytes(bytes, length);
+            return codec.binaryReader.apply(ByteBuffer.wrap(bytes, 0, length));
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private static Object readBytes(Codec codec, BytesMessage message) throws JMSException, IOException {
+        int length = (int) message.getBodyLength();
+        Buffer buffer = buffers.get();
+        byte[] bytes = buffer.borrow(length);
+        try {
+            message.readBytes(bytes, length);
+            return codec.reader.readValue(bytes, 0, length);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    // Subclasses of our types are written as the type they extend
+    private static Codec codecFor(Class<?> c) {
+        for (; null != c; c = c.getSuperclass()) {
+            Codec codec = BY_CLASS.get(c);
+            if (null != codec) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    private static void release(Buffer buffer) {
+        if (MAX_RETAINED < buffer.capacity()) {
+            buffers.remove();
+        }
+    }
+
+    private interface BinaryWriter {
+        void write(DataOutputStream out, Object o) throws IOException;
+    }
+
+    private static final class Codec {
+        final Class<?> javaClass;
+        final String name;
+        final int type;
+        final ObjectWriter writer;
+        final ObjectReader reader;
+        // Null for types without a binary form
+        final BinaryWriter binaryWriter;
+        final Function<ByteBuffer, Object> binaryReader;
+
+        Codec(Class<?> c, Constants.DataTypes dataType, BinaryWriter binaryWriter,
+              Function<ByteBuffer, Object> binaryReader) {
+            javaClass = c;
+            name = c.getSimpleName();
+            type = dataType.getValue();
+            writer = mapper.writerFor(c);
+            reader = mapper.readerFor(c);
+            this.binaryWriter = binaryWriter;
+            this.binaryReader = binaryReader;
+        }
+    }
+
+    // Gives access to the array beneath the stream, so it can be written
+    // to, and read from, without a copy being made
+    private static final class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(1024);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        byte[] borrow(int length) {
+            if (buf.length < length) {
+                buf = new byte[length];
+            }
+            return buf;
+        }
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+// Thrown by a BatchMessageListener that handled some of the items in a
+// batch, naming the positions in the list of the items that failed
+public class PartialBatchException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final TreeSet<Integer> failedIndexes;
+
+    public PartialBatchException(Collection<Integer> failedIndexes, Throwable cause) {
+        super(failedIndexes.size() + " items in the batch failed", cause);
+        this.failedIndexes = new TreeSet<>(failedIndexes);
+    }
+
+    public PartialBatchException(Collection<Integer> failedIndexes) {
+        this(failedIndexes, null);
+    }
+
+    public SortedSet<Integer> getFailedIndexes() {
+        return Collections.unmodifiableSortedSet(failedIndexes);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Settings for the caching connection factory shared by the levels
+@Component
+@ConfigurationProperties("app.jms.cache")
+@Data
+public class MQCacheProperties {
+    // Set to true to replace the connection factory made by the MQ Spring
+    // Boot starter, and with it the ibm.mq.pool settings, with a caching one
+    private boolean enabled = false;
+    // The number of idle sessions kept open for each acknowledge mode
+    private int sessionCacheSize = 10;
+    // Keep a producer open for each destination a cached session sends to
+    private boolean cacheProducers = true;
+    // Keep consumers open, only useful when receiving with a JmsTemplate
+    private boolean cacheConsumers = false;
+}
@@ -0,0 +1,48 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Settings for the controller that adjusts the number of consumers in the
+// listener containers, see AdaptiveConcurrencyController
+@Component
+@ConfigurationProperties("app.jms.concurrency")
+@Data
+public class MQConcurrencyProperties {
+    // Set to true for @JmsListener methods that don't name a container factory to adapt their consumers
+    private boolean adaptive = false;
+    // The bounds on the number of consumers for each listener
+    private int min = 1;
+    private int max = 10;
+    // How often, in milliseconds, the consumers are adjusted
+    private long interval = 5000;
+    // Consumers added at each step while the queue is backing up
+    private int increase = 1;
+    // The fraction of the consumers kept when latency or errors are too high
+    private double decrease = 0.5;
+    // The mean time, in milliseconds, a listener may take over a message before consumers are taken away
+    private long targetLatency = 1000;
+    // The fraction of messages that may fail before consumers are taken away
+    private double maxErrorRate = 0.05;
+    // The queue depth each consumer is expected to keep up with
+    private int depthPerConsumer = 10;
+    // Inquire queue depths using the my.app.admin settings, otherwise busy consumers are taken as a backlog
+    private boolean inquireDepth = true;
+}
@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.utils;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * The same correlation id scheme as the JMS samples' CorrelationIdGenerator.
+ * An id is 24 bytes, the size of an MQ CorrelId, made of a 16 byte random
+ * prefix drawn once, then an 8 byte sequence number.
+ *
+ * Ids are given as ID: followed by 48 hex digits, which MQ JMS sets as the
+ * bytes of the CorrelId, rather than as a string that has to be converted.
+ */
+public class CorrelationIdGenerator {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int PREFIX_LENGTH = 16;
+
+    private static final CorrelationIdGenerator instance = new CorrelationIdGenerator();
+
+    private final String idPrefix;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private CorrelationIdGenerator() {
+        byte[] prefix = new byte[PREFIX_LENGTH];
+        new SecureRandom().nextBytes(prefix);
+
+        StringBuilder sb = new StringBuilder("ID:");
+        for (byte b : prefix) {
+            sb.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+        }
+        idPrefix = sb.toString();
+    }
+
+    public static CorrelationIdGenerator getInstance() {
+        return instance;
+    }
+
+    public String next() {
+        long value = sequence.incrementAndGet();
+        char[] id = new char[idPrefix.length() + 16];
+        idPrefix.getChars(0, idPrefix.length(), id, 0);
+        for (int i = id.length - 1; i >= idPrefix.length(); i--) {
+            id[i] = HEX_DIGITS[(int) value & 0xf];
+            value >>>= 4;
+        }
+        return new String(id);
+    }
+}
@@ -19,9 +19,16 @@ public class MessageUtils {
         try {
             if (message instanceof TextMessage) {
                 logger.info("Message matches TextMessage");
-                logger.info("message payload is " + ((TextMessage) message).getText());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("message payload is " + ((TextMessage) message).getText());
+                }
             } else if (message instanceof BytesMessage) {
                 logger.info("Message matches BytesMessage");
+                if (message.propertyExists(Constants.DATAFORMAT)
+                        && Constants.DataFormats.BINARY.getValue() == message.getIntProperty(Constants.DATAFORMAT)) {
+                    // The body is left unread, for the converter
+                    logger.info("Message body is in our binary format");
+                }
             } else if (message instanceof MapMessage) {
                 logger.info("Message matches MapMessage");
             } else if (message instanceof StreamMessage) {
@@ -0,0 +1,116 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.utils;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.MQQueue;
+import com.ibm.mq.MQQueueManager;
+import com.ibm.mq.constants.CMQC;
+import com.ibm.mq.samples.jms.spring.globals.properties.MQAdminProperties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.Set;
+
+/*
+ * Inquires the current depth of a queue, over a connection made with the
+ * admin credentials in the same way as the level 115 sample. The
+ * connection is made when first needed and kept open, and made again if
+ * it breaks.
+ *
+ * A failure is logged as a warning the first time for each queue, and
+ * then only at debug until the depth of that queue is inquired again, as
+ * the depth is asked for every few seconds.
+ */
+public class QueueDepthInquirer implements AutoCloseable {
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    private final String qMgrName;
+    private final MQAdminProperties adminProperties;
+    private MQQueueManager mqQueueManager = null;
+    private final Set<String> failing = new HashSet<>();
+
+    public QueueDepthInquirer(String qMgrName, MQAdminProperties adminProperties) {
+        this.qMgrName = qMgrName;
+        this.adminProperties = adminProperties;
+    }
+
+    // Returns -1 if the depth could not be inquired
+    public synchronized int getDepth(String queueName) {
+        try {
+            if (null == mqQueueManager) {
+                mqQueueManager = connect();
+            }
+            MQQueue queue = mqQueueManager.accessQueue(queueName, CMQC.MQOO_INQUIRE | CMQC.MQOO_FAIL_IF_QUIESCING);
+            try {
+                int depth = queue.getCurrentDepth();
+                failing.remove(queueName);
+                return depth;
+            } finally {
+                queue.close();
+            }
+        } catch (MQException e) {
+            if (failing.add(queueName)) {
+                logger.warn("MQException inquiring depth of " + queueName);
+                logger.warn(e.getMessage());
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("MQException inquiring depth of " + queueName + " " + e.getMessage());
+            }
+            if (isConnectionFailure(e)) {
+                close();
+            }
+            return -1;
+        }
+    }
+
+    private MQQueueManager connect() throws MQException {
+        Hashtable<String,Object> connectionProperties = new Hashtable<String,Object>();
+        connectionProperties.put(CMQC.CHANNEL_PROPERTY, adminProperties.getChannel());
+        connectionProperties.put(CMQC.HOST_NAME_PROPERTY, adminProperties.getHost());
+        connectionProperties.put(CMQC.PORT_PROPERTY, adminProperties.getPort());
+        connectionProperties.put(CMQC.USER_ID_PROPERTY, adminProperties.getUser());
+        connectionProperties.put(CMQC.PASSWORD_PROPERTY, adminProperties.getPassword());
+        return new MQQueueManager(qMgrName, connectionProperties);
+    }
+
+    private static boolean isConnectionFailure(MQException e) {
+        switch (e.getReason()) {
+            case CMQC.MQRC_CONNECTION_BROKEN:
+            case CMQC.MQRC_Q_MGR_NOT_AVAILABLE:
+            case CMQC.MQRC_Q_MGR_QUIESCING:
+            case CMQC.MQRC_Q_MGR_STOPPING:
+            case CMQC.MQRC_HCONN_ERROR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (null != mqQueueManager) {
+            try {
+                mqQueueManager.disconnect();
+            } catch (MQException e) {
+                logger.warn("MQException disconnecting " + e.getMessage());
+            }
+            mqQueueManager = null;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * (c) Copyright IBM Corporation 2021, 2023
+ * (c) Copyright IBM Corporation 2021, 2026
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package com.ibm.mq.samples.jms.spring.level102;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,6 +29,8 @@ import org.springframework.jms.core.JmsTemplate;
 
 import jakarta.jms.ConnectionFactory;
 
+import java.util.Optional;
+
 //@Configuration
 public class MQConfiguration102 {
   protected final Log logger = LogFactory.getLog(getClass());
@@ -35,19 +38,25 @@ public class MQConfiguration102 {
   @Autowired
   private ConnectionFactory connectionFactory;
 
+  // Only there when app.jms.cache.enabled=true, see CachingFactoryConfiguration,
+  // in which case the templates send with it, reusing open sessions and producers
+  @Autowired
+  @Qualifier("cachingConnectionFactory")
+  private Optional<ConnectionFactory> cachingConnectionFactory;
+
   @Value("${spring.jms.pub-sub-domain:false}")
   public Boolean pubsub;
 
   @Bean("myPubSubTemplate")
   public JmsTemplate myPubSubJmsTemplate() {
-    JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
+    JmsTemplate jmsTemplate = new JmsTemplate(cachingConnectionFactory.orElse(connectionFactory));
     jmsTemplate.setPubSubDomain(true);
     return jmsTemplate;
   }
 
   @Bean("myPutGetTemplate")
   public JmsTemplate myPutGetTemplate() {
-    JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
+    JmsTemplate jmsTemplate = new JmsTemplate(cachingConnectionFactory.orElse(connectionFactory));
     jmsTemplate.setPubSubDomain(false);
     return jmsTemplate;
   }
@@ -74,7 +83,7 @@ public class MQConfiguration102 {
   @Bean("jmsTemplate")
   public JmsTemplate jmsTemplate() {
     //return new JmsTemplate(connectionFactory);
-    JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
+    JmsTemplate jmsTemplate = new JmsTemplate(cachingConnectionFactory.orElse(connectionFactory));
     if (pubsub) {
       jmsTemplate.setPubSubDomain(true);
     } else {
@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.level102;
+
+import com.ibm.mq.samples.jms.spring.globals.handlers.OurCachingConnectionFactory;
+import com.ibm.mq.samples.jms.spring.globals.properties.MQCacheProperties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.jms.ConnectionFactory;
+
+// Times SendMessageService102.put with a JmsTemplate on the raw MQ connection
+// factory, which opens a connection, session and producer for every message,
+// and then on a caching factory, which reuses them. Run once at start up.
+//@Component
+public class PutBenchmark102 implements CommandLineRunner {
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    @Value("${app.l102.queue.name1}")
+    public String sendQueue;
+
+    @Value("${app.l102.benchmark.messages:1000}")
+    public int messages;
+
+    private final ConnectionFactory connectionFactory;
+    private final MQCacheProperties cache;
+
+    PutBenchmark102(ConnectionFactory connectionFactory, MQCacheProperties cache) {
+        this.connectionFactory = connectionFactory;
+        this.cache = cache;
+    }
+
+    @Override
+    public void run(String... args) {
+        // The primary factory is the MQ one, even when app.jms.cache.enabled is true
+        OurCachingConnectionFactory cached = new OurCachingConnectionFactory(connectionFactory);
+        cached.configure(cache);
+
+        try {
+            time("Raw factory", connectionFactory);
+            time("Caching factory", cached);
+            cached.logStatistics();
+        } finally {
+            cached.destroy();
+        }
+    }
+
+    private void time(String name, ConnectionFactory factory) {
+        JmsTemplate template = new JmsTemplate(factory);
+        SendMessageService102 service = new SendMessageService102(template, template);
+        service.sendQueue = sendQueue;
+
+        // The first sends include connecting and class loading, so are not timed
+        for (int i = 0; i < 10; i++) {
+            service.put("Warm up message " + i);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            service.put("Benchmark message " + i);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        logger.info(String.format("%s: %d puts in %.3f seconds, %.1f puts/sec, %.1f microseconds per put",
+                                  name, messages, elapsed / 1e9, messages * 1e9 / elapsed,
+                                  elapsed / 1e3 / messages));
+    }
+}
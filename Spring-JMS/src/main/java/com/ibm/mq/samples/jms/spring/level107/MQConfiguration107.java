@@ -1,5 +1,5 @@
 /*
- * (c) Copyright IBM Corporation 2021, 2023
+ * (c) Copyright IBM Corporation 2021, 2026
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,12 +21,15 @@ import com.ibm.mq.samples.jms.spring.globals.handlers.OurMessageConverter;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.core.JmsTemplate;
 
 import jakarta.jms.ConnectionFactory;
 
+import java.util.Optional;
+
 //@Configuration
 public class MQConfiguration107 {
   protected final Log logger = LogFactory.getLog(getClass());
@@ -34,9 +37,15 @@ public class MQConfiguration107 {
   @Autowired
   private ConnectionFactory connectionFactory;
 
+  // Only there when app.jms.cache.enabled=true, see CachingFactoryConfiguration,
+  // in which case the templates send with it, reusing open sessions and producers
+  @Autowired
+  @Qualifier("cachingConnectionFactory")
+  private Optional<ConnectionFactory> cachingConnectionFactory;
+
   @Bean("myNonJmsTemplate107")
   public JmsTemplate myNonJmsTemplate107() {
-    JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
+    JmsTemplate jmsTemplate = new JmsTemplate(cachingConnectionFactory.orElse(connectionFactory));
     jmsTemplate.setDestinationResolver(new OurDestinationResolver());
     jmsTemplate.setMessageConverter(new OurMessageConverter());
     return jmsTemplate;
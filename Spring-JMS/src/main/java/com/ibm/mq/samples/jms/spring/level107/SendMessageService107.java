@@ -1,5 +1,5 @@
 /*
- * (c) Copyright IBM Corporation 2021, 2023
+ * (c) Copyright IBM Corporation 2021, 2026
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import com.ibm.mq.samples.jms.spring.globals.Constants;
 import com.ibm.mq.samples.jms.spring.globals.data.OurData;
 import com.ibm.mq.samples.jms.spring.globals.data.ReplyData;
 import com.ibm.mq.samples.jms.spring.globals.handlers.OurMessageConverter;
+import com.ibm.mq.samples.jms.spring.globals.utils.CorrelationIdGenerator;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,7 +33,6 @@ import jakarta.jms.DeliveryMode;
 import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 import jakarta.jms.Session;
-import java.util.UUID;
 
 
 @Service
@@ -49,6 +49,8 @@ public class SendMessageService107 {
 
     final private OurMessageConverter ourConverter = new OurMessageConverter();
 
+    final private CorrelationIdGenerator correlationIds = CorrelationIdGenerator.getInstance();
+
     SendMessageService107(JmsTemplate myNonJmsTemplate107) {
         this.myNonJmsTemplate107 = myNonJmsTemplate107;
     }
@@ -59,7 +61,7 @@ public class SendMessageService107 {
             @Override
             public Message createMessage(Session session) throws JMSException {
                 Message jmsmsg = ourConverter.toMessage(msg, session);
-                jmsmsg.setJMSCorrelationID(UUID.randomUUID().toString());
+                jmsmsg.setJMSCorrelationID(correlationIds.next());
                 jmsmsg.setJMSExpiration(5 * Constants.MINUTE);
                 jmsmsg.setJMSDeliveryMode(DeliveryMode.NON_PERSISTENT);
                 jmsmsg.setJMSReplyTo(session.createQueue(replyQueue));
@@ -74,7 +76,7 @@ public class SendMessageService107 {
             @Override
             public Message createMessage(Session session) throws JMSException {
                 Message jmsmsg = ourConverter.toMessage(msg, session);
-                jmsmsg.setJMSCorrelationID(UUID.randomUUID().toString());
+                jmsmsg.setJMSCorrelationID(correlationIds.next());
                 jmsmsg.setJMSExpiration(5 * Constants.MINUTE);
                 jmsmsg.setJMSDeliveryMode(DeliveryMode.NON_PERSISTENT);
                 return jmsmsg;
@@ -1,5 +1,5 @@
 /*
- * (c) Copyright IBM Corporation 2021, 2024
+ * (c) Copyright IBM Corporation 2021, 2026
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,7 +30,9 @@ import org.springframework.stereotype.Component;
 public class MessageConsumer111 {
     protected final Log logger = LogFactory.getLog(getClass());
 
-    @JmsListener(destination = "${app.l111.queue.name2}", concurrency = "2-3")
+    // With app.jms.concurrency.adaptive=true the maximum is adjusted
+    // while running, see AdaptiveConcurrencyController
+    @JmsListener(destination = "${app.l111.queue.name2}", concurrency = "${app.l111.concurrency:2-3}")
     public void receiveRequest(OurData message) {
         logger.info("");
         logger.info( this.getClass().getSimpleName());
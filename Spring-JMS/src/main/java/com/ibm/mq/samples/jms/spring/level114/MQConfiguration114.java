@@ -1,5 +1,5 @@
 /*
- * (c) Copyright IBM Corporation 2021, 2024
+ * (c) Copyright IBM Corporation 2021, 2026
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.ibm.mq.samples.jms.spring.level114;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
@@ -26,11 +27,14 @@ import org.springframework.jms.core.JmsTemplate;
 import org.springframework.jms.support.QosSettings;
 
 import com.ibm.mq.jakarta.jms.MQConnectionFactory;
+import com.ibm.mq.samples.jms.spring.globals.handlers.OurCachingConnectionFactory;
 import com.ibm.mq.samples.jms.spring.globals.handlers.OurDestinationResolver;
 import com.ibm.mq.samples.jms.spring.globals.handlers.OurMessageConverter;
+import com.ibm.mq.samples.jms.spring.globals.properties.MQCacheProperties;
 import com.ibm.mq.spring.boot.MQConfigurationProperties;
 import com.ibm.mq.spring.boot.MQConnectionFactoryFactory;
 
+import jakarta.jms.ConnectionFactory;
 import jakarta.jms.DeliveryMode;
 import jakarta.jms.JMSException;
 
@@ -38,8 +42,17 @@ import jakarta.jms.JMSException;
 public class MQConfiguration114 {
   protected final Log logger = LogFactory.getLog(getClass());
 
+  // A single instance of the custom factory, wrapped so that the JMS template's
+  // sessions and producers are cached. The listener uses the custom factory
+  // beneath the wrapper, so that its consumers have their own connections
   @Bean
-  public MQConnectionFactory mqConnectionFactory() throws JMSException {
+  public OurCachingConnectionFactory connectionFactory114(MQCacheProperties cache) throws JMSException {
+    OurCachingConnectionFactory factory = new OurCachingConnectionFactory(mqConnectionFactory());
+    factory.configure(cache);
+    return factory;
+  }
+
+  private MQConnectionFactory mqConnectionFactory() throws JMSException {
     MQConfigurationProperties properties = new MQConfigurationProperties();
     // Properties will be a mix of defaults, and those found in application.properties
     // under ibm.mq
@@ -50,9 +63,10 @@ public class MQConfiguration114 {
   }
 
   @Bean
-  public JmsListenerContainerFactory<?> myContainerFactory114() throws JMSException {
+  public JmsListenerContainerFactory<?> myContainerFactory114(
+          @Qualifier("connectionFactory114") OurCachingConnectionFactory connectionFactory) {
     DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
-    factory.setConnectionFactory(mqConnectionFactory());
+    factory.setConnectionFactory(connectionFactory.getTargetConnectionFactory());
     factory.setPubSubDomain(false);
 
     factory.setMessageConverter(new OurMessageConverter());
@@ -69,8 +83,8 @@ public class MQConfiguration114 {
   }
 
   @Bean("myNonJmsTemplate114")
-  public JmsTemplate myNonJmsTemplate114() throws JMSException {
-    JmsTemplate jmsTemplate = new JmsTemplate(mqConnectionFactory());
+  public JmsTemplate myNonJmsTemplate114(@Qualifier("connectionFactory114") ConnectionFactory connectionFactory) {
+    JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
     jmsTemplate.setDestinationResolver(new OurDestinationResolver());
     jmsTemplate.setMessageConverter(new OurMessageConverter());
 
@@ -0,0 +1,77 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.level116;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ibm.mq.samples.jms.spring.globals.data.OurData;
+import com.ibm.mq.samples.jms.spring.globals.handlers.BatchMessageListenerContainer;
+import com.ibm.mq.samples.jms.spring.globals.handlers.OurMessageConverter;
+
+import jakarta.jms.ConnectionFactory;
+
+//@Configuration
+public class MQConfiguration116 {
+  protected final Log logger = LogFactory.getLog(getClass());
+
+  @Value("${app.l116.queue.name1}")
+  private String queueName;
+
+  @Value("${app.l116.queue.failed:}")
+  private String failedQueueName;
+
+  @Value("${app.l116.batch.size:50}")
+  private int batchSize;
+
+  @Value("${app.l116.batch.timeout:500}")
+  private long batchTimeout;
+
+  @Value("${app.l116.batch.maxRedeliveries:3}")
+  private int maxRedeliveries;
+
+  @Value("${app.l116.concurrency:1}")
+  private String concurrency;
+
+  // The container is started by Spring, along with the @JmsListener containers,
+  // and hands the messages it receives to the consumer a batch at a time
+  @Bean
+  public BatchMessageListenerContainer<OurData> batchContainer116(ConnectionFactory connectionFactory,
+                                                                  MessageConsumer116 consumer) {
+    BatchMessageListenerContainer<OurData> container = new BatchMessageListenerContainer<>();
+    container.setConnectionFactory(connectionFactory);
+    // The batch is received and committed in one transacted session
+    container.setSessionTransacted(true);
+    container.setDestinationName(queueName);
+    container.setConcurrency(concurrency);
+    container.setMessageConverter(new OurMessageConverter());
+    container.setBatchListener(consumer::receiveBatch);
+
+    container.setBatchSize(batchSize);
+    container.setBatchTimeout(batchTimeout);
+    container.setMaxRedeliveries(maxRedeliveries);
+    if (!failedQueueName.isEmpty()) {
+      container.setFailedDestinationName(failedQueueName);
+    }
+
+    logger.info("Batches of up to " + batchSize + " messages, waiting up to " + batchTimeout + "ms, from " + queueName);
+    return container;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.level116;
+
+import com.ibm.mq.samples.jms.spring.globals.data.OurData;
+import com.ibm.mq.samples.jms.spring.globals.handlers.PartialBatchException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//@Component
+public class MessageConsumer116 {
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    // Called by the batch container in MQConfiguration116 rather than
+    // through @JmsListener. The whole batch is committed once this returns.
+    public void receiveBatch(List<OurData> batch) {
+        logger.info("");
+        logger.info( this.getClass().getSimpleName());
+        logger.info("Received batch of " + batch.size() + " messages");
+
+        // Items without a greeting are rejected, and put back by the
+        // container, while the rest of the batch is committed
+        List<Integer> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OurData data = batch.get(i);
+            if (null == data.getGreeting() || data.getGreeting().isEmpty()) {
+                failed.add(i);
+            } else {
+                logger.debug("Received message :" + data);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            throw new PartialBatchException(failed);
+        }
+    }
+}
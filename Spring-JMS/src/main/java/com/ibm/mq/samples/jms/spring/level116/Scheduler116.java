@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.level116;
+
+import com.ibm.mq.samples.jms.spring.globals.Constants;
+import com.ibm.mq.samples.jms.spring.globals.data.OurData;
+import com.ibm.mq.samples.jms.spring.globals.handlers.OurMessageConverter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+//@Component
+@EnableScheduling
+public class Scheduler116 {
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    private static final int BURST = 200;
+    // Every nth message has no greeting, so is rejected by the consumer
+    private static final int REJECT_EVERY = 40;
+
+    @Value("${app.l116.queue.name1}")
+    public String sendQueue;
+
+    private final JmsTemplate jmsTemplate;
+    private final OurMessageConverter converter = new OurMessageConverter();
+    static private int i = 0;
+
+    // The consumer reads whichever format the messages are sent in
+    Scheduler116(JmsTemplate jmsTemplate,
+                 @Value("${app.l116.dataformat:JSON}") Constants.DataFormats dataFormat) {
+        this.jmsTemplate = jmsTemplate;
+        converter.setDataFormat(dataFormat);
+        logger.info("Sending messages as " + dataFormat);
+    }
+
+    // Sends a burst of messages, for the consumer to receive in batches
+    @Scheduled(initialDelay = 20 * Constants.SECOND, fixedRate = 2 * Constants.MINUTE)
+    public void run() {
+        logger.info("");
+        logger.info( this.getClass().getSimpleName());
+        logger.info("Sending " + BURST + " messages in cycle :" + i);
+
+        for (int n = 0; n < BURST; n++) {
+            OurData data = new OurData((0 == (n + 1) % REJECT_EVERY) ? "" : "Message " + n + " in cycle :" + i);
+            jmsTemplate.send(sendQueue, session -> converter.toMessage(data, session));
+        }
+        i++;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageEOFException;
+import jakarta.jms.ObjectMessage;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * A session that creates text, bytes and object messages held in memory,
+ * so that converters can be tested and measured without a queue manager.
+ * The benchmarks module compiles this class from here too. Only the methods
+ * the converters use are supported. An object message holds its object
+ * serialized, as it would be when sent, so getObject() returns a copy.
+ */
+public final class InMemoryMessages {
+    private InMemoryMessages() {
+    }
+
+    public static Session session() {
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[] { Session.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "createTextMessage":
+                        TextBody text = new TextBody();
+                        text.text = (null == args) ? null : (String) args[0];
+                        return message(TextMessage.class, text);
+                    case "createBytesMessage":
+                        return message(BytesMessage.class, new BytesBody());
+                    case "createObjectMessage":
+                        ObjectBody object = new ObjectBody();
+                        object.setObject((null == args) ? null : (Serializable) args[0]);
+                        return message(ObjectMessage.class, object);
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    // A bytes message that has been sent is read only, and read from the start
+    public static Message sent(Message message) throws JMSException {
+        if (message instanceof BytesMessage) {
+            ((BytesMessage) message).reset();
+        }
+        return message;
+    }
+
+    // The size of the body as it would be sent, text being sent as UTF-8
+    public static long bodySize(Message message) throws JMSException {
+        if (message instanceof TextMessage) {
+            String text = ((TextMessage) message).getText();
+            return (null == text) ? 0 : text.getBytes(StandardCharsets.UTF_8).length;
+        } else if (message instanceof BytesMessage) {
+            return ((BytesMessage) message).getBodyLength();
+        } else if (message instanceof ObjectMessage) {
+            return serialize(((ObjectMessage) message).getObject()).length;
+        }
+        throw new UnsupportedOperationException(message.getClass().getName());
+    }
+
+    private static byte[] serialize(Serializable object) throws JMSException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        } catch (IOException e) {
+            throw new JMSException(e.getMessage());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Message message(Class<? extends Message> type, Body body) {
+        return (Message) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+            (proxy, method, args) -> {
+                String name = method.getName();
+                switch (name) {
+                    case "propertyExists":
+                        return body.properties.containsKey(args[0]);
+                    case "getIntProperty":
+                        return ((Number) body.properties.get(args[0])).intValue();
+                    case "setIntProperty":
+                    case "setStringProperty":
+                    case "setObjectProperty":
+                        body.properties.put((String) args[0], args[1]);
+                        return null;
+                    case "getStringProperty":
+                        return (String) body.properties.get(args[0]);
+                    case "setJMSDeliveryMode":
+                        return null;
+                    case "toString":
+                        return type.getSimpleName() + body.properties;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return body.invoke(method, args);
+                }
+            });
+    }
+
+    private abstract static class Body {
+        final Map<String, Object> properties = new HashMap<>();
+
+        abstract Object invoke(Method method, Object[] args) throws Exception;
+    }
+
+    private static final class TextBody extends Body {
+        String text;
+
+        @Override
+        Object invoke(Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getText":
+                    return text;
+                case "setText":
+                    text = (String) args[0];
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+
+    private static final class ObjectBody extends Body {
+        byte[] serialized;
+
+        void setObject(Serializable object) throws JMSException {
+            serialized = (null == object) ? null : serialize(object);
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Exception {
+            switch (method.getName()) {
+                case "getObject":
+                    if (null == serialized) {
+                        return null;
+                    }
+                    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+                        return in.readObject();
+                    }
+                case "setObject":
+                    setObject((Serializable) args[0]);
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+
+    private static final class BytesBody extends Body {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        DataInputStream in = null;
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Exception {
+            try {
+                switch (method.getName()) {
+                    case "reset":
+                        in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+                        return null;
+                    case "getBodyLength":
+                        return (long) bytes.size();
+                    case "writeBytes":
+                        if (3 == args.length) {
+                            out.write((byte[]) args[0], (int) args[1], (int) args[2]);
+                        } else {
+                            out.write((byte[]) args[0]);
+                        }
+                        return null;
+                    case "writeByte":
+                        out.writeByte((byte) args[0]);
+                        return null;
+                    case "writeShort":
+                        out.writeShort((short) args[0]);
+                        return null;
+                    case "writeInt":
+                        out.writeInt((int) args[0]);
+                        return null;
+                    case "writeLong":
+                        out.writeLong((long) args[0]);
+                        return null;
+                    case "writeUTF":
+                        out.writeUTF((String) args[0]);
+                        return null;
+                    case "readBytes":
+                        byte[] b = (byte[]) args[0];
+                        int n = in.read(b, 0, (2 == args.length) ? (int) args[1] : b.length);
+                        return (n < 0) ? -1 : n;
+                    case "readByte":
+                        return in.readByte();
+                    case "readShort":
+                        return in.readShort();
+                    case "readInt":
+                        return in.readInt();
+                    case "readLong":
+                        return in.readLong();
+                    case "readUTF":
+                        return in.readUTF();
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            } catch (EOFException e) {
+                throw new MessageEOFException("End of message");
+            } catch (IOException e) {
+                throw new JMSException(e.getMessage());
+            }
+        }
+    }
+}
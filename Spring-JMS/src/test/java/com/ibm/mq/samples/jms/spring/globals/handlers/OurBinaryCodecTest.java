@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ibm.mq.samples.jms.spring.globals.data.OurData;
+import com.ibm.mq.samples.jms.spring.globals.data.OurOtherData;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.support.converter.MessageConversionException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Date;
+
+public class OurBinaryCodecTest {
+
+    @Test
+    public void testOurDataRoundTrip() throws IOException {
+        OurData data = new OurData("id-1", "Hello \u00e9\u4e16\u754c", 42, new Date(1700000000000L),
+                                   new Date(1700000001000L), "414d5120514d31", "DEV.QUEUE.2");
+        assertEquals(data, OurBinaryCodec.readOurData(ByteBuffer.wrap(encode(data))));
+    }
+
+    @Test
+    public void testNullFieldsRoundTrip() throws IOException {
+        OurData data = new OurData(null, null, 0, null, null, null, null);
+        assertEquals(data, OurBinaryCodec.readOurData(ByteBuffer.wrap(encode(data))));
+
+        OurOtherData other = new OurOtherData("id-2", "");
+        assertEquals(other, OurBinaryCodec.readOurOtherData(ByteBuffer.wrap(encode(other))));
+    }
+
+    @Test
+    public void testOlderVersionIsRejected() throws IOException {
+        byte[] body = encode(new OurOtherData("id-3", "Hello"));
+        body[0] = 0;
+        MessageConversionException e = assertThrows(MessageConversionException.class,
+                                                     () -> OurBinaryCodec.readOurOtherData(ByteBuffer.wrap(body)));
+        assertTrue(e.getMessage().contains("version 0"));
+    }
+
+    // A newer writer adds fields at the end, which this reader skips
+    @Test
+    public void testNewerVersionIsRead() throws IOException {
+        OurOtherData other = new OurOtherData("id-4", "Hello");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        OurBinaryCodec.write(out, other);
+        out.writeLong(123L);
+        byte[] body = bytes.toByteArray();
+        body[0] = OurBinaryCodec.VERSION + 1;
+
+        assertEquals(other, OurBinaryCodec.readOurOtherData(ByteBuffer.wrap(body)));
+    }
+
+    @Test
+    public void testTruncatedInputIsRejected() throws IOException {
+        byte[] body = encode(new OurData("id-5", "Hello", 7, new Date(), null, "corr", "DEV.QUEUE.2"));
+        // Cut short in every field, including part way through a string's bytes
+        for (int length = 0; length < body.length; length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(body, length));
+            assertThrows(MessageConversionException.class, () -> OurBinaryCodec.readOurData(truncated),
+                         "length " + length);
+        }
+    }
+
+    @Test
+    public void testBadStringLengthIsRejected() throws IOException {
+        byte[] body = encode(new OurOtherData("id-6", "Hello"));
+        // The length of the id, which is just after the version
+        ByteBuffer.wrap(body).putInt(1, -2);
+        assertThrows(MessageConversionException.class, () -> OurBinaryCodec.readOurOtherData(ByteBuffer.wrap(body)));
+    }
+
+    private static byte[] encode(OurData data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OurBinaryCodec.write(new DataOutputStream(bytes), data);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encode(OurOtherData data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OurBinaryCodec.write(new DataOutputStream(bytes), data);
+        return bytes.toByteArray();
+    }
+}
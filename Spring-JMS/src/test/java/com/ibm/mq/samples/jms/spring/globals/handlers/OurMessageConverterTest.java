@@ -0,0 +1,132 @@
+/*
+ * (c) Copyright IBM Corporation 2026
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.mq.samples.jms.spring.globals.handlers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ibm.mq.samples.jms.spring.globals.Constants;
+import com.ibm.mq.samples.jms.spring.globals.data.OurData;
+import com.ibm.mq.samples.jms.spring.globals.data.OurOtherData;
+import com.ibm.mq.samples.jms.spring.globals.data.ReplyData;
+import org.junit.jupiter.api.Test;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.ObjectMessage;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+import java.util.Date;
+
+// These tests use messages held in memory, so do not need a queue manager
+public class OurMessageConverterTest {
+    private final Session session = InMemoryMessages.session();
+
+    @Test
+    public void testRoundTripInEachFormat() throws JMSException {
+        for (Constants.DataFormats format : Constants.DataFormats.values()) {
+            OurMessageConverter converter = new OurMessageConverter();
+            converter.setDataFormat(format);
+
+            OurData data = new OurData("id-1", "Hello \u00e9\u4e16\u754c", 42, new Date(1700000000000L),
+                                       null, "414d5120514d31", "DEV.QUEUE.2");
+            Message message = converter.toMessage(data, session);
+            assertEquals(format.getValue(), message.getIntProperty(Constants.DATAFORMAT), format.name());
+            assertEquals(Constants.DataTypes.OURDATATYPE.getValue(), message.getIntProperty(Constants.DATATYPE));
+            assertEquals(data, converter.fromMessage(InMemoryMessages.sent(message)), format.name());
+
+            OurOtherData other = new OurOtherData("id-2", "Hello");
+            assertEquals(other, converter.fromMessage(InMemoryMessages.sent(converter.toMessage(other, session))),
+                         format.name());
+        }
+    }
+
+    @Test
+    public void testMessageTypeFollowsFormat() throws JMSException {
+        OurMessageConverter converter = new OurMessageConverter();
+        OurData data = new OurData("Hello");
+        assertTrue(converter.toMessage(data, session) instanceof TextMessage);
+
+        converter.setUseBytesMessages(true);
+        assertTrue(converter.toMessage(data, session) instanceof BytesMessage);
+
+        converter.setDataFormat(Constants.DataFormats.SERIALIZED);
+        assertTrue(converter.toMessage(data, session) instanceof ObjectMessage);
+
+        converter.setDataFormat(Constants.DataFormats.BINARY);
+        assertTrue(converter.toMessage(data, session) instanceof BytesMessage);
+    }
+
+    @Test
+    public void testJsonBytesRoundTrip() throws JMSException {
+        OurMessageConverter converter = new OurMessageConverter();
+        converter.setUseBytesMessages(true);
+
+        OurData data = new OurData("Hello");
+        assertEquals(data, converter.fromMessage(InMemoryMessages.sent(converter.toMessage(data, session))));
+    }
+
+    // A converter reads messages in any format, whatever its own setting
+    @Test
+    public void testReadsOtherFormats() throws JMSException {
+        OurMessageConverter writer = new OurMessageConverter();
+        writer.setDataFormat(Constants.DataFormats.BINARY);
+        OurMessageConverter reader = new OurMessageConverter();
+
+        OurData data = new OurData("Hello");
+        assertEquals(data, reader.fromMessage(InMemoryMessages.sent(writer.toMessage(data, session))));
+    }
+
+    // ReplyData has no binary form, so is sent as JSON
+    @Test
+    public void testReplyDataSentAsJson() throws JMSException {
+        OurMessageConverter converter = new OurMessageConverter();
+        converter.setDataFormat(Constants.DataFormats.BINARY);
+        ReplyData reply = new ReplyData();
+        reply.setGreeting("Reply");
+        reply.calcResponse(6);
+
+        Message message = converter.toMessage(reply, session);
+        assertTrue(message instanceof TextMessage);
+        assertEquals(Constants.DataFormats.JSON.getValue(), message.getIntProperty(Constants.DATAFORMAT));
+
+        ReplyData read = (ReplyData) converter.fromMessage(InMemoryMessages.sent(message));
+        assertEquals("Reply", read.getGreeting());
+        assertArrayEquals(reply.getResult(), read.getResult());
+    }
+
+    // Messages from other applications carry no type, and are taken as OurData
+    @Test
+    public void testMessageWithoutTypeIsOurData() throws JMSException {
+        OurMessageConverter converter = new OurMessageConverter();
+        Message message = session.createTextMessage("{\"Greeting\":\"Hello\",\"value\":7}");
+
+        OurData data = (OurData) converter.fromMessage(message);
+        assertEquals("Hello", data.getGreeting());
+        assertEquals(7, data.getValue());
+    }
+
+    @Test
+    public void testUnknownTypeIsNotConverted() throws JMSException {
+        OurMessageConverter converter = new OurMessageConverter();
+        Message message = session.createTextMessage("{}");
+        message.setIntProperty(Constants.DATATYPE, 99);
+
+        assertNull(converter.fromMessage(message));
+    }
+}
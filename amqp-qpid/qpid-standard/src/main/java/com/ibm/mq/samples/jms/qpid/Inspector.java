@@ -1,5 +1,5 @@
 /*
-* (c) Copyright IBM Corporation 2020, 2024
+* (c) Copyright IBM Corporation 2020, 2026
 *
 * Licensed under the Apache License, Version 2.0 (the "License");
 * you may not use this file except in compliance with the License.
@@ -87,7 +87,11 @@ public class Inspector {
     }
   }
 
+  // Nothing is read from the message unless it is going to be logged
   public Inspector showMessageHeaders() throws JMSException {
+    if (!logger.isLoggable(Level.INFO)) {
+      return this;
+    }
     if (null != message) {
       logger.info("Message Header Fields ");
       logger.info("  Destination : " + message.getJMSDestination());
@@ -127,6 +131,9 @@ public class Inspector {
   }
 
   public Inspector showMessageBody() {
+    if (!logger.isLoggable(Level.INFO)) {
+      return this;
+    }
     try {
       if (null == message) {
         logger.info("No message received");